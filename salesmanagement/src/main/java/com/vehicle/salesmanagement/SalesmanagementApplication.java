@@ -1,9 +1,11 @@
 package com.vehicle.salesmanagement;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication
+@EnableScheduling
 public class SalesmanagementApplication {
 
 	public static void main(String[] args) {
@@ -3,6 +3,7 @@ package com.vehicle.salesmanagement.activity;
 import com.vehicle.salesmanagement.domain.dto.apirequest.OrderRequest;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderResponse;
 import com.vehicle.salesmanagement.domain.entity.model.VehicleOrderDetails;
+import com.vehicle.salesmanagement.enums.OrderStatus;
 import io.temporal.activity.ActivityInterface;
 
 @ActivityInterface
@@ -11,4 +12,5 @@ public interface VehicleOrderActivities {
     OrderResponse checkStockAvailability(OrderRequest orderRequest);
     OrderResponse confirmOrder(OrderResponse orderResponse);
     OrderResponse cancelOrder(Long customerOrderId); // Add this
+    void updateOrderStatus(Long customerOrderId, OrderStatus orderStatus);
 }
\ No newline at end of file
@@ -5,12 +5,15 @@ import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderResponse;
 import com.vehicle.salesmanagement.domain.entity.model.VehicleOrderDetails;
 import com.vehicle.salesmanagement.enums.OrderStatus;
 import com.vehicle.salesmanagement.repository.VehicleOrderDetailsRepository;
+import com.vehicle.salesmanagement.service.StockAllocationEngine;
 import com.vehicle.salesmanagement.service.VehicleOrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -18,6 +21,7 @@ public class VehicleOrderActivitiesImpl implements VehicleOrderActivities {
 
     private final VehicleOrderDetailsRepository vehicleOrderDetailsRepository;
     private final VehicleOrderService vehicleOrderService;
+    private final StockAllocationEngine stockAllocationEngine;
 
     @Override
     public void saveOrderDetails(VehicleOrderDetails vehicleOrderDetails) {
@@ -37,27 +41,8 @@ public class VehicleOrderActivitiesImpl implements VehicleOrderActivities {
         try {
             log.info("Checking stock availability for order: {}", orderRequest.getCustomerName());
             validateOrderRequest(orderRequest);
-            OrderResponse response = vehicleOrderService.checkAndBlockStock(orderRequest);
-            if (response.getOrderStatus() == OrderStatus.BLOCKED) {
-                log.info("Stock available in stock_details and successfully blocked for customer: {}", orderRequest.getCustomerName());
-                return response;
-            } else {
-                log.warn("Vehicle not available in stock_details for model: {} and variant: {}",
-                        orderRequest.getModelName(), orderRequest.getVariant());
-            }
-
-            response = vehicleOrderService.checkAndReserveMddpStock(orderRequest);
-            if (response.getOrderStatus() == OrderStatus.BLOCKED) {
-                log.info("Stock transferred from mddp_stock to stock_details and blocked for customer: {}", orderRequest.getCustomerName());
-                return response;
-            } else {
-                log.warn("Vehicle not available in mddp_stock for model: {} and variant: {}",
-                        orderRequest.getModelName(), orderRequest.getVariant());
-            }
-
-            log.info("Placing manufacturer order as stock not available in either table for customer: {}", orderRequest.getCustomerName());
-            response = vehicleOrderService.placeManufacturerOrder(orderRequest);
-            log.info("Manufacturer order placed with status: {}", response.getOrderStatus());
+            OrderResponse response = stockAllocationEngine.allocate(orderRequest);
+            log.info("Stock allocation finished with status: {}", response.getOrderStatus());
             return response;
         } catch (IllegalArgumentException e) {
             log.error("Invalid order request: {}", e.getMessage());
@@ -101,6 +86,21 @@ public class VehicleOrderActivitiesImpl implements VehicleOrderActivities {
         }
     }
 
+    @Override
+    public void updateOrderStatus(Long customerOrderId, OrderStatus orderStatus) {
+        try {
+            log.info("Updating order ID: {} to status: {}", customerOrderId, orderStatus);
+            VehicleOrderDetails orderDetails = vehicleOrderDetailsRepository.findById(customerOrderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found with ID: " + customerOrderId));
+            orderDetails.setOrderStatus(orderStatus);
+            orderDetails.setUpdatedAt(LocalDateTime.now());
+            vehicleOrderDetailsRepository.save(orderDetails);
+        } catch (Exception e) {
+            log.error("Failed to update status of order ID: {} - {}", customerOrderId, e.getMessage());
+            throw new RuntimeException("Failed to update order status: " + e.getMessage(), e);
+        }
+    }
+
     private void validateOrderRequest(OrderRequest orderRequest) {
         if (orderRequest == null) {
             throw new IllegalArgumentException("Order request cannot be null");
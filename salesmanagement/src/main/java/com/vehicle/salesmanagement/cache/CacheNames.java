@@ -0,0 +1,9 @@
+package com.vehicle.salesmanagement.cache;
+
+public final class CacheNames {
+
+    public static final String ORDER_COUNTS = "orderCounts";
+
+    private CacheNames() {
+    }
+}
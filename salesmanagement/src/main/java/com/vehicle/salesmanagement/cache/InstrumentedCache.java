@@ -0,0 +1,97 @@
+package com.vehicle.salesmanagement.cache;
+
+import com.vehicle.salesmanagement.domain.dto.apiresponse.CacheMetrics;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counts hits, misses, puts and evictions in front of whichever cache implementation is configured.
+public class InstrumentedCache implements Cache {
+
+    private final Cache delegate;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public InstrumentedCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return record(delegate.get(key));
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        T value = delegate.get(key, type);
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        boolean[] loaded = new boolean[1];
+        T value = delegate.get(key, () -> {
+            loaded[0] = true;
+            return valueLoader.call();
+        });
+        (loaded[0] ? misses : hits).increment();
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        puts.increment();
+        delegate.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictions.increment();
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        evictions.increment();
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        evictions.increment();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        evictions.increment();
+        return delegate.invalidate();
+    }
+
+    public CacheMetrics snapshot() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return new CacheMetrics(getName(), hitCount, missCount, puts.sum(), evictions.sum(),
+                lookups == 0 ? 0 : (double) hitCount / lookups);
+    }
+
+    private ValueWrapper record(ValueWrapper value) {
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+}
@@ -0,0 +1,43 @@
+package com.vehicle.salesmanagement.cache;
+
+import com.vehicle.salesmanagement.domain.dto.apiresponse.CacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Wraps the configured caches so puts and evictions issued inside a transaction only land after commit,
+// and every cache reports hit/miss counts.
+public class InstrumentedCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final Map<String, InstrumentedCache> caches = new ConcurrentHashMap<>();
+
+    public InstrumentedCacheManager(CacheManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache cache = delegate.getCache(cacheName);
+            return cache == null ? null : new InstrumentedCache(new TransactionAwareCacheDecorator(cache));
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    public List<CacheMetrics> getMetrics() {
+        return delegate.getCacheNames().stream()
+                .map(this::getCache)
+                .map(cache -> ((InstrumentedCache) cache).snapshot())
+                .toList();
+    }
+}
@@ -0,0 +1,81 @@
+package com.vehicle.salesmanagement.cache;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-process stand-in for the Redis caches (single node, tests): same names and TTLs, nothing shared.
+public class LocalTtlCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final long ttlNanos;
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+
+    public LocalTtlCache(String name, Duration ttl) {
+        super(false);
+        this.name = name;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return entries;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt - System.nanoTime() <= 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object cached = lookup(key);
+        if (cached != null) {
+            return (T) fromStoreValue(cached);
+        }
+        try {
+            T value = valueLoader.call();
+            put(key, value);
+            return value;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value != null) {
+            entries.put(key, new Entry(toStoreValue(value), System.nanoTime() + ttlNanos));
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        entries.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+    }
+
+    private record Entry(Object value, long expiresAt) {
+    }
+}
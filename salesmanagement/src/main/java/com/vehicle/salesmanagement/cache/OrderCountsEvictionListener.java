@@ -0,0 +1,55 @@
+package com.vehicle.salesmanagement.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Clears the cached order counts once a transaction that wrote an order commits. As an entity listener it also
+// sees status changes made by dirty checking, not just repository saves; at most one eviction per transaction.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderCountsEvictionListener {
+
+    private final ObjectProvider<CacheManager> cacheManager;
+
+    private final TransactionSynchronization evictAfterCommit = new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+            evict();
+        }
+    };
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void orderChanged(Object order) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict();
+        } else if (!TransactionSynchronizationManager.getSynchronizations().contains(evictAfterCommit)) {
+            TransactionSynchronizationManager.registerSynchronization(evictAfterCommit);
+        }
+    }
+
+    private void evict() {
+        CacheManager manager = cacheManager.getIfAvailable();
+        Cache cache = manager != null ? manager.getCache(CacheNames.ORDER_COUNTS) : null;
+        if (cache == null) {
+            return;
+        }
+        try {
+            // invalidate, not evict or clear: the transaction-aware cache would defer those past this commit
+            cache.invalidate();
+        } catch (RuntimeException e) {
+            log.warn("Could not evict the order counts, they expire after their TTL: {}", e.getMessage());
+        }
+    }
+}
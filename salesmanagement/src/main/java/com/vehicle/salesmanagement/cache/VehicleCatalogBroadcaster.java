@@ -0,0 +1,62 @@
+package com.vehicle.salesmanagement.cache;
+
+import com.vehicle.salesmanagement.event.VehicleCatalogChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Relays catalog changes between app nodes over Redis pub/sub, so every node refreshes its in-memory
+// dropdown snapshot and nobody writes stale attributes back into the shared cache.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cache.type", havingValue = "redis")
+public class VehicleCatalogBroadcaster {
+
+    private static final ChannelTopic TOPIC = new ChannelTopic("salesmanagement:vehicle-catalog-changed");
+    private static final String NODE_ID = UUID.randomUUID().toString();
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 2);
+            if (parts.length < 2 || NODE_ID.equals(parts[0])) {
+                return;
+            }
+            Set<String> modelNames = Arrays.stream(parts[1].split("\n"))
+                    .filter(name -> !name.isEmpty())
+                    .collect(Collectors.toSet());
+            log.info("Vehicle catalog changed on node {} for models: {}", parts[0], modelNames);
+            eventPublisher.publishEvent(new VehicleCatalogChangedEvent(modelNames, true));
+        }, TOPIC);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(VehicleCatalogChangedEvent event) {
+        if (event.remote()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(TOPIC.getTopic(), NODE_ID + "|" + String.join("\n", event.modelNames()));
+        } catch (Exception e) {
+            log.error("Failed to broadcast vehicle catalog change for models {}: {}", event.modelNames(), e.getMessage());
+        }
+    }
+}
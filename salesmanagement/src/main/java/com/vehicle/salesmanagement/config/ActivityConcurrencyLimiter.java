@@ -0,0 +1,67 @@
+package com.vehicle.salesmanagement.config;
+
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptor;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptorBase;
+import io.temporal.common.interceptors.WorkerInterceptorBase;
+import io.temporal.failure.ApplicationFailure;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Caps how many activities run at once across all task queues to what the JDBC pool can serve. With
+// activities on virtual threads (VirtualThreadActivityDispatcher) only the activity slots bound their
+// concurrency, and every activity goes to the database, so without this hundreds of activities would queue
+// inside Hikari and fail on its connection timeout. Part of the pool is left to web requests and background jobs.
+@Slf4j
+@Component
+public class ActivityConcurrencyLimiter extends WorkerInterceptorBase {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+
+    public ActivityConcurrencyLimiter(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                      @Value("${temporal.worker.activity-limiter.reserved-connections:2}") int reservedConnections,
+                                      @Value("${temporal.worker.activity-limiter.acquire-timeout-ms:60000}") long acquireTimeoutMs) {
+        int activityPermits = Math.max(1, poolSize - reservedConnections);
+        this.permits = new Semaphore(activityPermits, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        log.info("Activities limited to {} concurrent executions ({} of {} pooled connections reserved)",
+                activityPermits, reservedConnections, poolSize);
+    }
+
+    @Override
+    public ActivityInboundCallsInterceptor interceptActivity(ActivityInboundCallsInterceptor next) {
+        return new ActivityInboundCallsInterceptorBase(next) {
+            @Override
+            public ActivityOutput execute(ActivityInput input) {
+                return withPermit(() -> super.execute(input));
+            }
+        };
+    }
+
+    public <T> T withPermit(Supplier<T> activity) {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                // retryable, the activity's retry policy tries again once connections free up
+                throw ApplicationFailure.newFailure("No database capacity for the activity within "
+                        + acquireTimeoutMs + " ms", "ActivityLimiterTimeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for database capacity", e);
+        }
+        try {
+            return activity.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,95 @@
+package com.vehicle.salesmanagement.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicle.salesmanagement.cache.CacheNames;
+import com.vehicle.salesmanagement.cache.InstrumentedCacheManager;
+import com.vehicle.salesmanagement.cache.LocalTtlCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// cache.type=redis shares the caches between all app nodes, cache.type=local keeps them in process.
+// Either way values expire after their TTL and a Redis outage only costs a trip to PostgreSQL. The only cache
+// is ORDER_COUNTS, behind the order count endpoints (/total, /pending/count, /finance-pending/count,
+// /closed/count); OrderCountsEvictionListener clears it after every committed order write. Nothing else is
+// read through Redis, it also relays catalog changes between nodes (VehicleCatalogBroadcaster).
+@Slf4j
+@Configuration
+@EnableCaching
+public class CacheConfig implements CachingConfigurer {
+
+    @Value("${cache.type:local}")
+    private String cacheType;
+
+    @Value("${cache.ttl-seconds.order-counts:30}")
+    private long orderCountsTtlSeconds;
+
+    @Bean
+    public InstrumentedCacheManager instrumentedCacheManager(RedisConnectionFactory redisConnectionFactory, ObjectMapper objectMapper) {
+        Map<String, CacheSpec> specs = Map.of(
+                CacheNames.ORDER_COUNTS, new CacheSpec(Long.class, Duration.ofSeconds(orderCountsTtlSeconds))
+        );
+        log.info("Using {} caches: {}", cacheType, specs.keySet());
+        if ("redis".equalsIgnoreCase(cacheType)) {
+            return new InstrumentedCacheManager(redisCacheManager(redisConnectionFactory, objectMapper, specs));
+        }
+        SimpleCacheManager localCacheManager = new SimpleCacheManager();
+        localCacheManager.setCaches(specs.entrySet().stream()
+                .map(spec -> new LocalTtlCache(spec.getKey(), spec.getValue().ttl()))
+                .toList());
+        localCacheManager.initializeCaches();
+        return new InstrumentedCacheManager(localCacheManager);
+    }
+
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.type", havingValue = "redis")
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
+
+    private CacheManager redisCacheManager(RedisConnectionFactory redisConnectionFactory, ObjectMapper objectMapper,
+                                           Map<String, CacheSpec> specs) {
+        // one typed serializer per cache, so values read back as the class that was cached
+        Map<String, RedisCacheConfiguration> configurations = new HashMap<>();
+        specs.forEach((name, spec) -> configurations.put(name, RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(spec.ttl())
+                .disableCachingNullValues()
+                .prefixCacheNameWith("salesmanagement::")
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new Jackson2JsonRedisSerializer<>(objectMapper, spec.valueType())))));
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
+                .withInitialCacheConfigurations(configurations)
+                .disableCreateOnMissingCache()
+                .build();
+        redisCacheManager.initializeCaches();
+        return redisCacheManager;
+    }
+
+    private record CacheSpec(Class<?> valueType, Duration ttl) {
+    }
+}
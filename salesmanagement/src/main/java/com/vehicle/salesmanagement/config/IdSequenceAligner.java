@@ -0,0 +1,49 @@
+package com.vehicle.salesmanagement.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Tables that moved from identity columns to pooled sequences keep their existing rows, so each sequence is
+// pushed past the current MAX(id) before Hibernate hands out the first block of ids.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdSequenceAligner {
+
+    private static final Map<String, String> SEQUENCE_TABLES = Map.of(
+            "vehicle_order_details_seq", "vehicle_order_details.customer_order_id",
+            "stock_details_seq", "stock_details.stock_id",
+            "mddp_stock_seq", "mddp_stock.mddp_order_id",
+            "vehicle_model_seq", "vehicle_model.vehicle_model_id",
+            "vehicle_variant_seq", "vehicle_variant.vehicle_variant_id"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    // the schema update has to run before the sequences can be aligned
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCE_TABLES.forEach((sequence, column) -> {
+            String table = column.substring(0, column.indexOf('.'));
+            String idColumn = column.substring(column.indexOf('.') + 1);
+            try {
+                jdbcTemplate.query(
+                        "SELECT setval('sales_tracking." + sequence + "', m.max_id) " +
+                                "FROM (SELECT MAX(" + idColumn + ") AS max_id FROM sales_tracking." + table + ") m, " +
+                                "sales_tracking." + sequence + " s WHERE m.max_id > s.last_value",
+                        rs -> {
+                            log.info("Moved sequence {} past existing ids of {}", sequence, table);
+                        });
+            } catch (Exception e) {
+                log.error("Failed to align sequence {} with {}: {}", sequence, column, e.getMessage());
+            }
+        });
+    }
+}
@@ -1,32 +1,92 @@
 package com.vehicle.salesmanagement.config;
 
+import com.uber.m3.tally.RootScopeBuilder;
+import com.uber.m3.tally.Scope;
+import com.vehicle.salesmanagement.activity.DispatchDeliveryActivitiesImpl;
+import com.vehicle.salesmanagement.activity.FinanceActivitiesImpl;
 import com.vehicle.salesmanagement.activity.VehicleOrderActivitiesImpl;
+import com.vehicle.salesmanagement.workflow.DispatchDeliveryWorkflowImpl;
+import com.vehicle.salesmanagement.workflow.FinanceWorkflowImpl;
+import com.vehicle.salesmanagement.workflow.OrderLifecycleWorkflowImpl;
 import com.vehicle.salesmanagement.workflow.VehicleCancelWorkflowImpl;
 import com.vehicle.salesmanagement.workflow.VehicleOrderWorkflowImpl;
 import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.common.interceptors.WorkerInterceptor;
 import io.temporal.serviceclient.WorkflowServiceStubs;
 import io.temporal.serviceclient.WorkflowServiceStubsOptions;
 import io.temporal.worker.Worker;
 import io.temporal.worker.WorkerFactory;
+import io.temporal.worker.WorkerFactoryOptions;
+import io.temporal.worker.WorkerOptions;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// One connection, one WorkflowClient and one WorkerFactory for every task queue. Concurrency per task queue
+// is read from temporal.worker.<task-queue>.<option>, falling back to temporal.worker.default.<option>; the
+// workflow cache and thread pool are shared by all workers of the factory. With virtual-threads on, a queue's
+// activities run on virtual threads (VirtualThreadActivityDispatcher); ActivityConcurrencyLimiter bounds the
+// activities by the JDBC pool.
 @Slf4j
 @Configuration
 @RequiredArgsConstructor
 public class TemporalWorkerConfig {
 
+    public static final String VEHICLE_ORDER_TASK_QUEUE = "vehicle-order-task-queue";
+    public static final String FINANCE_TASK_QUEUE = "finance-task-queue";
+    public static final String DISPATCH_DELIVERY_TASK_QUEUE = "dispatch-delivery-task-queue";
+
     private final VehicleOrderActivitiesImpl vehicleOrderActivities;
+    private final FinanceActivitiesImpl financeActivities;
+    private final DispatchDeliveryActivitiesImpl dispatchDeliveryActivities;
+    private final TemporalWorkerMetrics temporalWorkerMetrics;
+    private final ActivityConcurrencyLimiter activityConcurrencyLimiter;
+    private final Environment environment;
+
+    @Value("${temporal.host:localhost}")
+    private String host;
+
+    @Value("${temporal.port:7233}")
+    private int port;
+
+    @Value("${temporal.namespace:default}")
+    private String namespace;
+
+    @Value("${temporal.worker.factory.workflow-cache-size:600}")
+    private int workflowCacheSize;
+
+    @Value("${temporal.worker.factory.max-workflow-threads:600}")
+    private int maxWorkflowThreads;
+
+    @Value("${temporal.metrics.report-interval-seconds:10}")
+    private int metricsReportIntervalSeconds;
+
+    private VirtualThreadActivityDispatcher virtualThreadActivityDispatcher;
 
     @Bean
     public WorkflowServiceStubs workflowServiceStubs() {
-        log.info("Creating WorkflowServiceStubs for Temporal connection");
+        log.info("Creating WorkflowServiceStubs for Temporal connection to {}:{}", host, port);
+        Scope metricsScope = new RootScopeBuilder()
+                .reporter(temporalWorkerMetrics)
+                .reportEvery(com.uber.m3.util.Duration.ofSeconds(metricsReportIntervalSeconds));
         try {
             return WorkflowServiceStubs.newServiceStubs(
                     WorkflowServiceStubsOptions.newBuilder()
-                            .setTarget("localhost:7233")
+                            .setTarget(host + ":" + port)
+                            .setMetricsScope(metricsScope)
                             .build()
             );
         } catch (Exception e) {
@@ -37,32 +97,100 @@ public class TemporalWorkerConfig {
 
     @Bean
     public WorkflowClient workflowClient(WorkflowServiceStubs workflowServiceStubs) {
-        log.info("Creating WorkflowClient for Vehicle Order");
-        return WorkflowClient.newInstance(workflowServiceStubs);
+        log.info("Creating WorkflowClient for namespace: {}", namespace);
+        return WorkflowClient.newInstance(workflowServiceStubs,
+                WorkflowClientOptions.newBuilder().setNamespace(namespace).build());
     }
 
     @Bean
     public WorkerFactory workerFactory(WorkflowClient workflowClient) {
-        log.info("Creating WorkerFactory for Vehicle Order");
-        return WorkerFactory.newInstance(workflowClient);
+        log.info("Creating WorkerFactory with workflow cache size {} and {} workflow threads", workflowCacheSize, maxWorkflowThreads);
+        WorkerFactory workerFactory = WorkerFactory.newInstance(workflowClient, WorkerFactoryOptions.newBuilder()
+                .setWorkflowCacheSize(workflowCacheSize)
+                .setMaxWorkflowThreadCount(maxWorkflowThreads)
+                .setWorkerInterceptors(workerInterceptors())
+                .build());
+
+        Worker vehicleOrderWorker = newWorker(workerFactory, VEHICLE_ORDER_TASK_QUEUE);
+        vehicleOrderWorker.registerWorkflowImplementationTypes(VehicleOrderWorkflowImpl.class, VehicleCancelWorkflowImpl.class,
+                OrderLifecycleWorkflowImpl.class);
+        vehicleOrderWorker.registerActivitiesImplementations(vehicleOrderActivities);
+
+        Worker financeWorker = newWorker(workerFactory, FINANCE_TASK_QUEUE);
+        financeWorker.registerWorkflowImplementationTypes(FinanceWorkflowImpl.class);
+        financeWorker.registerActivitiesImplementations(financeActivities);
+
+        Worker dispatchDeliveryWorker = newWorker(workerFactory, DISPATCH_DELIVERY_TASK_QUEUE);
+        dispatchDeliveryWorker.registerWorkflowImplementationTypes(DispatchDeliveryWorkflowImpl.class);
+        dispatchDeliveryWorker.registerActivitiesImplementations(dispatchDeliveryActivities);
+        return workerFactory;
     }
 
-    @Bean
-    public Worker vehicleOrderWorker(WorkerFactory workerFactory) {
-        log.info("Configuring Temporal worker for task queue: vehicle-order-task-queue");
+    // polling starts once the whole context is up and the other ready listeners (the stock availability index load)
+    // have run, the factory is shut down with the context
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWorkers(ApplicationReadyEvent event) {
+        WorkerFactory workerFactory = event.getApplicationContext().getBean(WorkerFactory.class);
         try {
-            Worker worker = workerFactory.newWorker("vehicle-order-task-queue");
-            worker.registerWorkflowImplementationTypes(
-                    VehicleOrderWorkflowImpl.class,
-                    VehicleCancelWorkflowImpl.class
-            );
-            worker.registerActivitiesImplementations(vehicleOrderActivities);
             workerFactory.start();
-            log.info("Temporal worker configured and started successfully for task queue: vehicle-order-task-queue");
-            return worker;
+            log.info("Temporal workers started for task queues: {}, {}, {}",
+                    VEHICLE_ORDER_TASK_QUEUE, FINANCE_TASK_QUEUE, DISPATCH_DELIVERY_TASK_QUEUE);
         } catch (Exception e) {
-            log.error("Failed to configure or start Temporal worker: {}", e.getMessage(), e);
+            log.error("Failed to start Temporal workers: {}", e.getMessage(), e);
             throw new RuntimeException("Worker configuration failed", e);
         }
     }
-}
\ No newline at end of file
+
+    @PreDestroy
+    public void shutdownVirtualThreads() {
+        if (virtualThreadActivityDispatcher != null) {
+            virtualThreadActivityDispatcher.shutdown();
+        }
+    }
+
+    // the dispatcher is registered last so it wraps the limiter: the wait for a permit happens on the virtual thread
+    public WorkerInterceptor[] workerInterceptors() {
+        if (virtualThreadActivityDispatcher == null) {
+            virtualThreadActivityDispatcher = new VirtualThreadActivityDispatcher(virtualThreadTaskQueues());
+        }
+        return new WorkerInterceptor[]{activityConcurrencyLimiter, virtualThreadActivityDispatcher};
+    }
+
+    public Set<String> virtualThreadTaskQueues() {
+        return Stream.of(VEHICLE_ORDER_TASK_QUEUE, FINANCE_TASK_QUEUE, DISPATCH_DELIVERY_TASK_QUEUE)
+                .filter(taskQueue -> flag(taskQueue, "virtual-threads"))
+                .collect(Collectors.toSet());
+    }
+
+    private Worker newWorker(WorkerFactory workerFactory, String taskQueue) {
+        WorkerOptions options = workerOptions(taskQueue);
+        temporalWorkerMetrics.registerWorker(taskQueue, options.getMaxConcurrentWorkflowTaskExecutionSize(),
+                options.getMaxConcurrentActivityExecutionSize(), options.getMaxConcurrentLocalActivityExecutionSize());
+        log.info("Configuring Temporal worker for task queue: {} ({} activities, {} workflow tasks, {}/{} pollers, virtual threads: {})",
+                taskQueue, options.getMaxConcurrentActivityExecutionSize(), options.getMaxConcurrentWorkflowTaskExecutionSize(),
+                options.getMaxConcurrentActivityTaskPollers(), options.getMaxConcurrentWorkflowTaskPollers(),
+                virtualThreadTaskQueues().contains(taskQueue));
+        return workerFactory.newWorker(taskQueue, options);
+    }
+
+    public WorkerOptions workerOptions(String taskQueue) {
+        return WorkerOptions.newBuilder()
+                .setMaxConcurrentActivityExecutionSize(option(taskQueue, "max-concurrent-activities", 200))
+                .setMaxConcurrentWorkflowTaskExecutionSize(option(taskQueue, "max-concurrent-workflow-tasks", 200))
+                .setMaxConcurrentLocalActivityExecutionSize(option(taskQueue, "max-concurrent-local-activities", 200))
+                .setMaxConcurrentActivityTaskPollers(option(taskQueue, "activity-pollers", 5))
+                .setMaxConcurrentWorkflowTaskPollers(option(taskQueue, "workflow-pollers", 5))
+                .build();
+    }
+
+    private int option(String taskQueue, String name, int sdkDefault) {
+        Integer fallback = environment.getProperty("temporal.worker.default." + name, Integer.class, sdkDefault);
+        return environment.getProperty("temporal.worker." + taskQueue + "." + name, Integer.class, fallback);
+    }
+
+    private boolean flag(String taskQueue, String name) {
+        Boolean fallback = environment.getProperty("temporal.worker.default." + name, Boolean.class, false);
+        return environment.getProperty("temporal.worker." + taskQueue + "." + name, Boolean.class, fallback);
+    }
+}
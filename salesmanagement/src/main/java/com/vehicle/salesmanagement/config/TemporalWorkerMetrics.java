@@ -0,0 +1,87 @@
+package com.vehicle.salesmanagement.config;
+
+import com.uber.m3.tally.Buckets;
+import com.uber.m3.tally.Capabilities;
+import com.uber.m3.tally.CapableOf;
+import com.uber.m3.tally.StatsReporter;
+import com.uber.m3.util.Duration;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.TemporalWorkerSlotMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Receives the Temporal SDK's metrics and keeps the latest task slot gauge of every worker, so slot
+// utilisation can be read per task queue next to the limits configured in TemporalWorkerConfig.
+@Component
+public class TemporalWorkerMetrics implements StatsReporter {
+
+    private static final String SLOTS_AVAILABLE = "temporal_worker_task_slots_available";
+
+    private final Map<SlotKey, Integer> maxSlots = new ConcurrentHashMap<>();
+    private final Map<SlotKey, Integer> availableSlots = new ConcurrentHashMap<>();
+
+    void registerWorker(String taskQueue, int maxWorkflowTasks, int maxActivities, int maxLocalActivities) {
+        maxSlots.put(new SlotKey(taskQueue, "WorkflowWorker"), maxWorkflowTasks);
+        maxSlots.put(new SlotKey(taskQueue, "ActivityWorker"), maxActivities);
+        maxSlots.put(new SlotKey(taskQueue, "LocalActivityWorker"), maxLocalActivities);
+    }
+
+    public List<TemporalWorkerSlotMetrics> getSlotMetrics() {
+        List<TemporalWorkerSlotMetrics> metrics = new ArrayList<>();
+        maxSlots.forEach((key, max) -> {
+            // until the first report every slot is free
+            int available = availableSlots.getOrDefault(key, max);
+            int used = Math.max(0, max - available);
+            metrics.add(new TemporalWorkerSlotMetrics(key.taskQueue(), key.workerType(), max, used, available,
+                    max > 0 ? Math.round(used * 1000.0 / max) / 10.0 : 0));
+        });
+        metrics.sort(Comparator.comparing(TemporalWorkerSlotMetrics::getTaskQueue)
+                .thenComparing(TemporalWorkerSlotMetrics::getWorkerType));
+        return metrics;
+    }
+
+    @Override
+    public void reportGauge(String name, Map<String, String> tags, double value) {
+        if (SLOTS_AVAILABLE.equals(name) && tags.containsKey("task_queue") && tags.containsKey("worker_type")) {
+            availableSlots.put(new SlotKey(tags.get("task_queue"), tags.get("worker_type")), (int) value);
+        }
+    }
+
+    @Override
+    public void reportCounter(String name, Map<String, String> tags, long value) {
+    }
+
+    @Override
+    public void reportTimer(String name, Map<String, String> tags, Duration interval) {
+    }
+
+    @Override
+    public void reportHistogramValueSamples(String name, Map<String, String> tags, Buckets buckets,
+                                            double bucketLowerBound, double bucketUpperBound, long samples) {
+    }
+
+    @Override
+    public void reportHistogramDurationSamples(String name, Map<String, String> tags, Buckets buckets,
+                                               Duration bucketLowerBound, Duration bucketUpperBound, long samples) {
+    }
+
+    @Override
+    public Capabilities capabilities() {
+        return CapableOf.REPORTING;
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private record SlotKey(String taskQueue, String workerType) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.vehicle.salesmanagement.config;
+
+import io.temporal.activity.ActivityExecutionContext;
+import io.temporal.activity.ManualActivityCompletionClient;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptor;
+import io.temporal.common.interceptors.ActivityInboundCallsInterceptorBase;
+import io.temporal.common.interceptors.WorkerInterceptorBase;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Runs the activities of the given task queues on virtual threads. The SDK in use has no virtual-thread worker
+// option, so the activity switches to local manual completion: the SDK's executor thread hands it to a virtual
+// thread and is free again at once, while the activity keeps its slot until the virtual thread completes it.
+// Interceptors registered before this one (ActivityConcurrencyLimiter) run on the virtual thread. Activities run
+// this way cannot use Activity.getExecutionContext(), which belongs to the executor thread.
+@Slf4j
+public class VirtualThreadActivityDispatcher extends WorkerInterceptorBase {
+
+    private final Set<String> taskQueues;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public VirtualThreadActivityDispatcher(Set<String> taskQueues) {
+        this.taskQueues = Set.copyOf(taskQueues);
+    }
+
+    @Override
+    public ActivityInboundCallsInterceptor interceptActivity(ActivityInboundCallsInterceptor next) {
+        return new ActivityInboundCallsInterceptorBase(next) {
+
+            private ActivityExecutionContext context;
+
+            @Override
+            public void init(ActivityExecutionContext context) {
+                this.context = context;
+                super.init(context);
+            }
+
+            @Override
+            public ActivityOutput execute(ActivityInput input) {
+                if (!taskQueues.contains(context.getInfo().getActivityTaskQueue())) {
+                    return super.execute(input);
+                }
+                ManualActivityCompletionClient completion = context.useLocalManualCompletion();
+                executor.execute(() -> complete(completion, input));
+                return new ActivityOutput(null);
+            }
+
+            private void complete(ManualActivityCompletionClient completion, ActivityInput input) {
+                Object result;
+                try {
+                    result = super.execute(input).getResult();
+                } catch (Throwable e) {
+                    fail(completion, e);
+                    return;
+                }
+                try {
+                    completion.complete(result);
+                } catch (RuntimeException e) {
+                    // e.g. the activity timed out meanwhile, the server no longer takes its result
+                    log.warn("Could not complete activity {}: {}", context.getInfo().getActivityType(), e.getMessage());
+                }
+            }
+
+            private void fail(ManualActivityCompletionClient completion, Throwable error) {
+                try {
+                    completion.fail(error);
+                } catch (RuntimeException e) {
+                    log.warn("Could not fail activity {}: {}", context.getInfo().getActivityType(), e.getMessage());
+                }
+            }
+        };
+    }
+
+    public Set<String> getTaskQueues() {
+        return taskQueues;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -17,7 +17,6 @@ import io.temporal.client.WorkflowStub;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -31,7 +30,7 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Dispatch and Delivery Management")
 public class DispatchDeliveryController {
 
-    private final @Qualifier("dispatchDeliveryWorkflowClient") WorkflowClient workflowClient;
+    private final WorkflowClient workflowClient;
     private final DispatchDeliveryService dispatchDeliveryService;
 
     @PostMapping("/initiate-dispatch")
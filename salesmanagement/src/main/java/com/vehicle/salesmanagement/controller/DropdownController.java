@@ -2,7 +2,9 @@ package com.vehicle.salesmanagement.controller;
 
 import com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.VehicleAttributesResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.VehicleFacetResponse;
 import com.vehicle.salesmanagement.service.DropdownService;
+import com.vehicle.salesmanagement.service.VehicleFacetService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -18,6 +20,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -26,6 +30,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class DropdownController {
 
     private final DropdownService dropdownService;
+    private final VehicleFacetService vehicleFacetService;
 
     @GetMapping("/vehicleAttributes")
     @Operation(summary = "Get vehicle attributes", description = "Retrieves all vehicle attributes, optionally filtered by model name and variant")
@@ -92,6 +97,35 @@ public class DropdownController {
         }
     }
 
+    @GetMapping("/facets")
+    @Operation(summary = "Get vehicle facets", description = "Retrieves every vehicle attribute with the number of matching variants, narrowed by any facet passed as a query parameter (e.g. ?fuelType=Petrol&modelName=Creta)")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Vehicle facets retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unknown facet provided",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class)))
+    })
+    public ResponseEntity<ApiResponse> getVehicleFacets(@RequestParam Map<String, String> filters) {
+        log.info("Received request for vehicle facets with filters: {}", filters);
+        try {
+            VehicleFacetResponse response = vehicleFacetService.getFacets(filters);
+            return ResponseEntity.ok(new ApiResponse(HttpStatus.OK.value(), "Vehicle facets retrieved successfully", response));
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid facet filter: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage(), null));
+        } catch (Exception e) {
+            log.error("Unexpected error retrieving vehicle facets: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Internal server error: " + e.getMessage(), null));
+        }
+    }
+
     private String buildResponseMessage(String modelName, String variant) {
         if (modelName != null && variant != null) {
             return "Vehicle attributes for model " + modelName + " and variant " + variant + " retrieved successfully";
@@ -2,26 +2,30 @@ package com.vehicle.salesmanagement.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.vehicle.salesmanagement.domain.dto.apirequest.ApproveFinanceRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.BulkFinanceDecisionRequest;
 import com.vehicle.salesmanagement.domain.dto.apirequest.FinanceRequest;
 import com.vehicle.salesmanagement.domain.dto.apirequest.RejectFinanceRequest;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.FinanceDecisionResult;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.FinanceResponse;
 import com.vehicle.salesmanagement.domain.entity.model.VehicleOrderDetails;
 import com.vehicle.salesmanagement.enums.OrderStatus;
 import com.vehicle.salesmanagement.repository.VehicleOrderDetailsRepository;
+import com.vehicle.salesmanagement.service.FinanceDecisionService;
 import com.vehicle.salesmanagement.service.FinanceService;
 import com.vehicle.salesmanagement.workflow.FinanceWorkflow;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import io.temporal.failure.ApplicationFailure;
 import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowExecutionAlreadyStarted;
 import io.temporal.client.WorkflowFailedException;
 import io.temporal.client.WorkflowOptions;
-import io.temporal.client.WorkflowStub;
+import io.temporal.client.WorkflowUpdateException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -29,6 +33,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -36,8 +43,9 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Finance Management")
 public class FinanceController {
 
-    private final @Qualifier("financeWorkflowClient") WorkflowClient workflowClient;
+    private final WorkflowClient workflowClient;
     private final FinanceService financeService;
+    private final FinanceDecisionService financeDecisionService;
     private final VehicleOrderDetailsRepository vehicleOrderDetailsRepository;
     private final ObjectMapper objectMapper;
 
@@ -102,16 +110,14 @@ public class FinanceController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Finance approved successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid request data"),
+            @ApiResponse(responseCode = "409", description = "Finance already decided"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<FinanceResponse>> approveFinance(@Valid @RequestBody ApproveFinanceRequest request) {
         log.info("Approving finance for order ID: {}", request.getCustomerOrderId());
 
         try {
-            WorkflowStub workflow = workflowClient.newUntypedWorkflowStub("finance-" + request.getCustomerOrderId());
-            workflow.signal("approveFinance", request.getApprovedBy());
-
-            FinanceResponse financeResponse = workflow.getResult(FinanceResponse.class);
+            FinanceResponse financeResponse = financeDecisionService.approve(request.getCustomerOrderId(), request.getApprovedBy());
             log.info("Finance approved, order status set to ALLOTTED for order ID: {}", request.getCustomerOrderId());
 
             return ResponseEntity.ok(new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<>(
@@ -126,6 +132,22 @@ public class FinanceController {
                     "Failed to approve finance: Workflow execution failed for workflowId='finance-" + request.getCustomerOrderId() + "': " + e.getMessage(),
                     null
             ));
+        } catch (WorkflowUpdateException e) {
+            HttpStatus status = updateFailureStatus(e);
+            log.error("Finance approve update failed for order ID: {} ({}): {}", request.getCustomerOrderId(), status.value(), e.getMessage());
+            return ResponseEntity.status(status).body(new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<>(
+                    status.value(),
+                    "Failed to approve finance: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()),
+                    null
+            ));
+        } catch (WorkflowExecutionAlreadyStarted e) {
+            // no running workflow, and the finished one already decided the finance
+            log.warn("Finance for order ID: {} was already decided by a finished workflow", request.getCustomerOrderId());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<>(
+                    HttpStatus.CONFLICT.value(),
+                    "Failed to approve finance: Finance has already been decided for order ID: " + request.getCustomerOrderId(),
+                    null
+            ));
         } catch (Exception e) {
             log.error("Failed to approve finance for order ID: {}: {}", request.getCustomerOrderId(), e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<>(
@@ -141,16 +163,14 @@ public class FinanceController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Finance rejected successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid request data"),
+            @ApiResponse(responseCode = "409", description = "Finance already decided"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<FinanceResponse>> rejectFinance(@Valid @RequestBody RejectFinanceRequest request) {
         log.info("Rejecting finance for order ID: {}", request.getCustomerOrderId());
 
         try {
-            WorkflowStub workflow = workflowClient.newUntypedWorkflowStub("finance-" + request.getCustomerOrderId());
-            workflow.signal("rejectFinance", request.getRejectedBy());
-
-            FinanceResponse financeResponse = workflow.getResult(FinanceResponse.class);
+            FinanceResponse financeResponse = financeDecisionService.reject(request.getCustomerOrderId(), request.getRejectedBy());
             log.info("Finance rejected, order status set to PENDING for order ID: {}", request.getCustomerOrderId());
 
             return ResponseEntity.ok(new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<>(
@@ -165,6 +185,22 @@ public class FinanceController {
                     "Failed to reject finance: Workflow execution failed for workflowId='finance-" + request.getCustomerOrderId() + "': " + e.getMessage(),
                     null
             ));
+        } catch (WorkflowUpdateException e) {
+            HttpStatus status = updateFailureStatus(e);
+            log.error("Finance reject update failed for order ID: {} ({}): {}", request.getCustomerOrderId(), status.value(), e.getMessage());
+            return ResponseEntity.status(status).body(new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<>(
+                    status.value(),
+                    "Failed to reject finance: " + (e.getCause() != null ? e.getCause().getMessage() : e.getMessage()),
+                    null
+            ));
+        } catch (WorkflowExecutionAlreadyStarted e) {
+            // no running workflow, and the finished one already decided the finance
+            log.warn("Finance for order ID: {} was already decided by a finished workflow", request.getCustomerOrderId());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<>(
+                    HttpStatus.CONFLICT.value(),
+                    "Failed to reject finance: Finance has already been decided for order ID: " + request.getCustomerOrderId(),
+                    null
+            ));
         } catch (Exception e) {
             log.error("Failed to reject finance for order ID: {}: {}", request.getCustomerOrderId(), e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<>(
@@ -174,4 +210,73 @@ public class FinanceController {
             ));
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/approve/bulk")
+    @Operation(summary = "Approve finance for many orders", description = "Sends the approve update to the finance workflows of all given orders at once and reports the outcome of each within one deadline; orders whose finance is already decided are reported as FAILED")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Approvals sent, see the status of each order"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or too many orders")
+    })
+    public CompletableFuture<ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<List<FinanceDecisionResult>>>> approveFinanceBulk(
+            @Valid @RequestBody BulkFinanceDecisionRequest request) {
+        log.info("Approving finance for {} orders", request.getCustomerOrderIds().size());
+        try {
+            return financeDecisionService.approveAll(request.getCustomerOrderIds(), request.getDecidedBy())
+                    .thenApply(results -> toBulkResponse("approved", results));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(bulkBadRequest(e));
+        }
+    }
+
+    @PostMapping("/reject/bulk")
+    @Operation(summary = "Reject finance for many orders", description = "Sends the reject update to the finance workflows of all given orders at once and reports the outcome of each within one deadline; orders whose finance is already decided are reported as FAILED")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Rejections sent, see the status of each order"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or too many orders")
+    })
+    public CompletableFuture<ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<List<FinanceDecisionResult>>>> rejectFinanceBulk(
+            @Valid @RequestBody BulkFinanceDecisionRequest request) {
+        log.info("Rejecting finance for {} orders", request.getCustomerOrderIds().size());
+        try {
+            return financeDecisionService.rejectAll(request.getCustomerOrderIds(), request.getDecidedBy())
+                    .thenApply(results -> toBulkResponse("rejected", results));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(bulkBadRequest(e));
+        }
+    }
+
+    private ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<List<FinanceDecisionResult>>> toBulkResponse(
+            String decision, List<FinanceDecisionResult> results) {
+        long completed = results.stream().filter(result -> "COMPLETED".equals(result.getStatus())).count();
+        log.info("Finance {} for {} of {} orders before the deadline", decision, completed, results.size());
+        return ResponseEntity.ok(new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<>(
+                HttpStatus.OK.value(),
+                "Finance " + decision + " for " + completed + " of " + results.size() + " orders",
+                results
+        ));
+    }
+
+    private ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<List<FinanceDecisionResult>>> bulkBadRequest(
+            IllegalArgumentException e) {
+        log.error("Invalid bulk finance request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse<>(
+                HttpStatus.BAD_REQUEST.value(),
+                e.getMessage(),
+                null
+        ));
+    }
+
+    // 409 only when the update validator refused a finance that is already decided, 400 when it refused the
+    // request itself; an update that failed while deciding is a server error
+    private HttpStatus updateFailureStatus(WorkflowUpdateException e) {
+        if (e.getCause() instanceof ApplicationFailure failure) {
+            if (IllegalStateException.class.getName().equals(failure.getType())) {
+                return HttpStatus.CONFLICT;
+            }
+            if (IllegalArgumentException.class.getName().equals(failure.getType())) {
+                return HttpStatus.BAD_REQUEST;
+            }
+        }
+        return HttpStatus.INTERNAL_SERVER_ERROR;
+    }
+}
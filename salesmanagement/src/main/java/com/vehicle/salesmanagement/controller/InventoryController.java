@@ -0,0 +1,96 @@
+package com.vehicle.salesmanagement.controller;
+
+import com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.InventorySearchResponse;
+import com.vehicle.salesmanagement.service.InventorySearchIndex;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/inventory")
+@Tag(name = "Inventory Search")
+public class InventoryController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final InventorySearchIndex inventorySearchIndex;
+
+    @GetMapping("/search")
+    @Operation(summary = "Search available inventory", description = "Finds available stock and MDDP stock by any combination of attributes and a price range, with facet counts for every attribute. Repeat a parameter (or separate values with commas) to match any of several values")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Inventory search completed successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Invalid price range or limit provided",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class)))
+    })
+    public ResponseEntity<ApiResponse> searchInventory(
+            @RequestParam(value = "source", required = false) List<String> source,
+            @RequestParam(value = "modelName", required = false) List<String> modelName,
+            @RequestParam(value = "variant", required = false) List<String> variant,
+            @RequestParam(value = "colour", required = false) List<String> colour,
+            @RequestParam(value = "fuelType", required = false) List<String> fuelType,
+            @RequestParam(value = "transmissionType", required = false) List<String> transmissionType,
+            @RequestParam(value = "interiorColour", required = false) List<String> interiorColour,
+            @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+            @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        if (limit < 0 || limit > MAX_LIMIT) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse(
+                    HttpStatus.BAD_REQUEST.value(), "Limit must be between 0 and " + MAX_LIMIT, null));
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse(
+                    HttpStatus.BAD_REQUEST.value(), "minPrice cannot be greater than maxPrice", null));
+        }
+        Map<String, Set<String>> filters = new HashMap<>();
+        addFilter(filters, "source", source);
+        addFilter(filters, "modelName", modelName);
+        addFilter(filters, "variant", variant);
+        addFilter(filters, "colour", colour);
+        addFilter(filters, "fuelType", fuelType);
+        addFilter(filters, "transmissionType", transmissionType);
+        addFilter(filters, "interiorColour", interiorColour);
+        log.info("Received inventory search with filters: {}, price range: {} - {}", filters, minPrice, maxPrice);
+
+        InventorySearchResponse response = inventorySearchIndex.search(filters, minPrice, maxPrice, limit);
+        return ResponseEntity.ok(new ApiResponse(
+                HttpStatus.OK.value(),
+                response.getTotalMatches() + " matching inventory rows found",
+                response
+        ));
+    }
+
+    private void addFilter(Map<String, Set<String>> filters, String attribute, List<String> values) {
+        if (values == null) {
+            return;
+        }
+        Set<String> cleaned = new LinkedHashSet<>();
+        values.stream().map(String::trim).filter(value -> !value.isEmpty()).forEach(cleaned::add);
+        if (!cleaned.isEmpty()) {
+            filters.put(attribute, cleaned);
+        }
+    }
+}
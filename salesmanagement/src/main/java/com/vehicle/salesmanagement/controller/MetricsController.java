@@ -0,0 +1,124 @@
+package com.vehicle.salesmanagement.controller;
+
+import com.vehicle.salesmanagement.cache.InstrumentedCacheManager;
+import com.vehicle.salesmanagement.config.TemporalWorkerMetrics;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.AllocationLaneMetrics;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.CacheMetrics;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.HistoryOutboxMetrics;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.TemporalWorkerSlotMetrics;
+import com.vehicle.salesmanagement.service.HistoryOutboxRelay;
+import com.vehicle.salesmanagement.service.StockAllocationEngine;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/metrics")
+@Tag(name = "Runtime Metrics")
+public class MetricsController {
+
+    private final StockAllocationEngine stockAllocationEngine;
+    private final InstrumentedCacheManager cacheManager;
+    private final TemporalWorkerMetrics temporalWorkerMetrics;
+    private final HistoryOutboxRelay historyOutboxRelay;
+
+    @GetMapping("/allocation-lanes")
+    @Operation(summary = "Get stock allocation lane metrics", description = "Retrieves queue depth and wait times for each stock allocation lane")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Lane metrics retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    public ResponseEntity<ApiResponse> getAllocationLaneMetrics() {
+        log.info("Received request for stock allocation lane metrics");
+        List<AllocationLaneMetrics> metrics = stockAllocationEngine.getLaneMetrics();
+        return ResponseEntity.ok(new ApiResponse(
+                HttpStatus.OK.value(),
+                "Allocation lane metrics retrieved successfully",
+                metrics
+        ));
+    }
+
+    @GetMapping("/cache")
+    @Operation(summary = "Get cache metrics", description = "Retrieves hit, miss, put and eviction counts for each cache on this node")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Cache metrics retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    public ResponseEntity<ApiResponse> getCacheMetrics() {
+        log.info("Received request for cache metrics");
+        List<CacheMetrics> metrics = cacheManager.getMetrics();
+        return ResponseEntity.ok(new ApiResponse(
+                HttpStatus.OK.value(),
+                "Cache metrics retrieved successfully",
+                metrics
+        ));
+    }
+
+    @GetMapping("/temporal-workers")
+    @Operation(summary = "Get Temporal worker slot metrics", description = "Retrieves used and available task slots of every Temporal worker on this node")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Worker slot metrics retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    public ResponseEntity<ApiResponse> getTemporalWorkerMetrics() {
+        log.info("Received request for Temporal worker slot metrics");
+        List<TemporalWorkerSlotMetrics> metrics = temporalWorkerMetrics.getSlotMetrics();
+        return ResponseEntity.ok(new ApiResponse(
+                HttpStatus.OK.value(),
+                "Temporal worker slot metrics retrieved successfully",
+                metrics
+        ));
+    }
+
+    @GetMapping("/history-outbox")
+    @Operation(summary = "Get history outbox metrics", description = "Retrieves pending, retrying and set-aside row counts of the history outbox")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "History outbox metrics retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "403", description = "Forbidden",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    public ResponseEntity<ApiResponse> getHistoryOutboxMetrics() {
+        log.info("Received request for history outbox metrics");
+        HistoryOutboxMetrics metrics = historyOutboxRelay.getMetrics();
+        return ResponseEntity.ok(new ApiResponse(
+                HttpStatus.OK.value(),
+                "History outbox metrics retrieved successfully",
+                metrics
+        ));
+    }
+}
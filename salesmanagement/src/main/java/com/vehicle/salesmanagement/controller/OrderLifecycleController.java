@@ -0,0 +1,141 @@
+package com.vehicle.salesmanagement.controller;
+
+import com.vehicle.salesmanagement.domain.dto.apirequest.ApproveFinanceRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.DeliveryRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.DispatchRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.FinanceRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.RejectFinanceRequest;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.WorkflowStatusResponse;
+import com.vehicle.salesmanagement.service.OrderLifecycleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.temporal.client.WorkflowException;
+import io.temporal.client.WorkflowNotFoundException;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// Moves orders placed with /api/orders/create?lifecycle=true through their stages. Every call only signals the
+// running order-lifecycle workflow; progress is read from GET /{customerOrderId}/status.
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/order-lifecycle")
+@Tag(name = "Order Lifecycle")
+public class OrderLifecycleController {
+
+    private final OrderLifecycleService orderLifecycleService;
+
+    @PostMapping("/finance")
+    @Operation(summary = "Request finance", description = "Signals the order lifecycle workflow to create the finance details")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Finance request accepted"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No running order lifecycle workflow")
+    })
+    public ResponseEntity<ApiResponse> requestFinance(@Valid @RequestBody FinanceRequest financeRequest) {
+        return signal(financeRequest.getCustomerOrderId(), "Finance request",
+                () -> orderLifecycleService.requestFinance(financeRequest));
+    }
+
+    @PostMapping("/finance/approve")
+    @Operation(summary = "Approve finance", description = "Signals the order lifecycle workflow to approve the finance")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Finance approval accepted"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No running order lifecycle workflow")
+    })
+    public ResponseEntity<ApiResponse> approveFinance(@Valid @RequestBody ApproveFinanceRequest request) {
+        return signal(request.getCustomerOrderId(), "Finance approval",
+                () -> orderLifecycleService.approveFinance(request.getCustomerOrderId(), request.getApprovedBy()));
+    }
+
+    @PostMapping("/finance/reject")
+    @Operation(summary = "Reject finance", description = "Signals the order lifecycle workflow to reject the finance")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Finance rejection accepted"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No running order lifecycle workflow")
+    })
+    public ResponseEntity<ApiResponse> rejectFinance(@Valid @RequestBody RejectFinanceRequest request) {
+        return signal(request.getCustomerOrderId(), "Finance rejection",
+                () -> orderLifecycleService.rejectFinance(request.getCustomerOrderId(), request.getRejectedBy()));
+    }
+
+    @PostMapping("/dispatch")
+    @Operation(summary = "Request dispatch", description = "Signals the order lifecycle workflow to dispatch the vehicle")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Dispatch request accepted"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No running order lifecycle workflow")
+    })
+    public ResponseEntity<ApiResponse> requestDispatch(@Valid @RequestBody DispatchRequest dispatchRequest) {
+        return signal(dispatchRequest.getCustomerOrderId(), "Dispatch request",
+                () -> orderLifecycleService.requestDispatch(dispatchRequest));
+    }
+
+    @PostMapping("/delivery")
+    @Operation(summary = "Confirm delivery", description = "Signals the order lifecycle workflow that the vehicle was delivered")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Delivery confirmation accepted"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No running order lifecycle workflow")
+    })
+    public ResponseEntity<ApiResponse> confirmDelivery(@Valid @RequestBody DeliveryRequest deliveryRequest) {
+        return signal(deliveryRequest.getCustomerOrderId(), "Delivery confirmation",
+                () -> orderLifecycleService.confirmDelivery(deliveryRequest));
+    }
+
+    @PostMapping("/cancel")
+    @Operation(summary = "Cancel order", description = "Signals the order lifecycle workflow to cancel the order")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Cancellation accepted"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No running order lifecycle workflow")
+    })
+    public ResponseEntity<ApiResponse> cancelOrder(@RequestParam Long customerOrderId) {
+        return signal(customerOrderId, "Cancellation", () -> orderLifecycleService.cancel(customerOrderId));
+    }
+
+    @GetMapping("/{customerOrderId}/status")
+    @Operation(summary = "Get order lifecycle status", description = "Returns the stage, pending signals and last activity result of the order lifecycle workflow")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Status retrieved"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No order lifecycle workflow for this order")
+    })
+    public ResponseEntity<ApiResponse> getStatus(@PathVariable Long customerOrderId) {
+        try {
+            WorkflowStatusResponse status = orderLifecycleService.getStatus(customerOrderId);
+            return ResponseEntity.ok(new ApiResponse(HttpStatus.OK.value(),
+                    "Order lifecycle status retrieved for ID: " + customerOrderId, status));
+        } catch (WorkflowNotFoundException e) {
+            return notFound(customerOrderId);
+        }
+    }
+
+    private ResponseEntity<ApiResponse> signal(Long customerOrderId, String action, Runnable signal) {
+        try {
+            signal.run();
+            log.info("{} signalled to order lifecycle workflow for order ID: {}", action, customerOrderId);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(new ApiResponse(HttpStatus.ACCEPTED.value(),
+                    action + " accepted for order ID: " + customerOrderId, null));
+        } catch (WorkflowNotFoundException e) {
+            return notFound(customerOrderId);
+        } catch (WorkflowException e) {
+            log.error("{} failed for order ID: {}: {}", action, customerOrderId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse(
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(), action + " failed: " + e.getMessage(), null));
+        }
+    }
+
+    private ResponseEntity<ApiResponse> notFound(Long customerOrderId) {
+        log.warn("No running order lifecycle workflow for order ID: {}", customerOrderId);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(HttpStatus.NOT_FOUND.value(),
+                "No running order lifecycle workflow for order ID: " + customerOrderId, null));
+    }
+}
@@ -1,4 +1,5 @@
 package com.vehicle.salesmanagement.controller;
+import com.vehicle.salesmanagement.domain.dto.apirequest.KendoDataSourceRequest;
 import com.vehicle.salesmanagement.domain.dto.apirequest.StockDTO;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.KendoResponse;
@@ -8,6 +9,7 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Collections;
 
+@Slf4j
 @RestController
 @RequestMapping("/api")
 public class StockController {
@@ -46,6 +49,33 @@ public class StockController {
         }
     }
 
+    @PostMapping("/stock")
+    @Operation(summary = "Query stock for a Kendo grid", description = "Applies the Kendo DataSource server operations (skip/take, sort and filter) " +
+            "to available stock and returns one page with the total matching count")
+    @ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "stock page retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unknown field or invalid filter",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiResponse.class)))
+    })
+    public ResponseEntity<KendoResponse<StockDTO>> getStockDetailsPage(@RequestBody KendoDataSourceRequest request) {
+        try {
+            KendoResponse<StockDTO> response = stockService.getStockDetails(request);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected stock grid request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(KendoResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Stock grid request failed", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(KendoResponse.error("Internal server error"));
+        }
+    }
+
     @PutMapping("/updatestock")
     @Operation(summary = "Update stock details", description = "Updates specific fields of a stock entry based on stock ID")
     @ApiResponses({
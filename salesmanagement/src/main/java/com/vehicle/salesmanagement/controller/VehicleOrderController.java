@@ -6,11 +6,20 @@ import com.vehicle.salesmanagement.domain.dto.apiresponse.*;
 import com.vehicle.salesmanagement.domain.entity.model.VehicleOrderDetails;
 import com.vehicle.salesmanagement.domain.entity.model.VehicleVariant;
 import com.vehicle.salesmanagement.enums.OrderStatus;
+import com.vehicle.salesmanagement.errorhandling.OrderNotFoundException;
 import com.vehicle.salesmanagement.repository.VehicleModelRepository;
 import com.vehicle.salesmanagement.repository.VehicleOrderDetailsRepository;
 import com.vehicle.salesmanagement.repository.VehicleVariantRepository;
+import com.vehicle.salesmanagement.service.BulkImportService;
+import com.vehicle.salesmanagement.service.MultiOrderIntakeService;
+import com.vehicle.salesmanagement.service.OrderLifecycleService;
+import com.vehicle.salesmanagement.service.OrderHistoryStore;
+import com.vehicle.salesmanagement.service.OrderResultTracker;
+import com.vehicle.salesmanagement.service.OrderStatusQueryService;
+import com.vehicle.salesmanagement.service.OrderStatusCounterService;
+import com.vehicle.salesmanagement.service.OrderTimelineService;
+import com.vehicle.salesmanagement.service.StockIngestionService;
 import com.vehicle.salesmanagement.service.VehicleOrderService;
-import com.vehicle.salesmanagement.workflow.VehicleCancelWorkflow;
 import com.vehicle.salesmanagement.workflow.VehicleOrderWorkflow;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,20 +28,33 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowNotFoundException;
 import io.temporal.client.WorkflowOptions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import jakarta.validation.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -48,8 +70,20 @@ public class VehicleOrderController {
     private final VehicleModelRepository vehicleModelRepository;
     private final VehicleVariantRepository vehicleVariantRepository;
     private final VehicleOrderService vehicleOrderService;
+    private final OrderResultTracker orderResultTracker;
+    private final OrderStatusQueryService orderStatusQueryService;
+    private final MultiOrderIntakeService multiOrderIntakeService;
+    private final OrderLifecycleService orderLifecycleService;
+    private final BulkImportService bulkImportService;
+    private final StockIngestionService stockIngestionService;
+    private final OrderStatusCounterService orderStatusCounterService;
+    private final OrderHistoryStore orderHistoryStore;
+    private final OrderTimelineService orderTimelineService;
     private final ObjectMapper objectMapper;
 
+    @Value("${bulk.import.stream-timeout-minutes:30}")
+    private long importStreamTimeoutMinutes;
+
     @Transactional
     @PostMapping("/create")
     @Operation(summary = "Place vehicle order(s)", description = "Initiates one or multiple vehicle orders and starts workflows for each")
@@ -58,7 +92,10 @@ public class VehicleOrderController {
             @ApiResponse(responseCode = "400", description = "Invalid request data"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> placeOrder(@RequestBody Object request) {
+    public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> placeOrder(
+            @RequestBody Object request,
+            @RequestParam(value = "async", defaultValue = "false") boolean async,
+            @RequestParam(value = "lifecycle", defaultValue = "false") boolean lifecycle) {
         try {
             String rawRequest = objectMapper.writeValueAsString(request);
             log.info("Received raw request: {}", rawRequest);
@@ -76,7 +113,7 @@ public class VehicleOrderController {
                         }
                     }
                     log.info("Deserialized as MultiOrderRequest with {} orders", multiOrderRequest.getVehicleOrders().size());
-                    return handleMultiOrder(multiOrderRequest);
+                    return handleMultiOrder(multiOrderRequest, async, lifecycle);
                 }
 
                 OrderRequest orderRequest = objectMapper.convertValue(request, OrderRequest.class);
@@ -85,7 +122,7 @@ public class VehicleOrderController {
                     throw new ConstraintViolationException(violations);
                 }
                 log.info("Deserialized as OrderRequest");
-                return handleSingleOrder(orderRequest);
+                return handleSingleOrder(orderRequest, async, lifecycle);
             }
 
             if (request instanceof OrderRequest orderRequest) {
@@ -94,7 +131,7 @@ public class VehicleOrderController {
                     throw new ConstraintViolationException(violations);
                 }
                 log.info("Received single OrderRequest: {}", orderRequest);
-                return handleSingleOrder(orderRequest);
+                return handleSingleOrder(orderRequest, async, lifecycle);
             } else if (request instanceof MultiOrderRequest multiOrderRequest) {
                 for (OrderRequest order : multiOrderRequest.getVehicleOrders()) {
                     Set<ConstraintViolation<OrderRequest>> violations = validator.validate(order);
@@ -103,7 +140,7 @@ public class VehicleOrderController {
                     }
                 }
                 log.info("Received MultiOrderRequest with {} vehicle orders", multiOrderRequest.getVehicleOrders().size());
-                return handleMultiOrder(multiOrderRequest);
+                return handleMultiOrder(multiOrderRequest, async, lifecycle);
             } else {
                 log.error("Invalid request type: {}", request.getClass().getName());
                 throw new IllegalArgumentException("Request must be either OrderRequest or MultiOrderRequest");
@@ -138,13 +175,25 @@ public class VehicleOrderController {
         }
     }
 
-    private ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> handleSingleOrder(@Valid OrderRequest orderRequest) {
+    private ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> handleSingleOrder(@Valid OrderRequest orderRequest, boolean async, boolean lifecycle) {
         VehicleOrderDetails orderDetails = mapOrderRequestToEntity(orderRequest);
         orderDetails.setCreatedAt(LocalDateTime.now());
         orderDetails.setUpdatedAt(LocalDateTime.now());
         orderDetails = orderRepository.saveAndFlush(orderDetails);
         log.info("Order saved with ID: {}", orderDetails.getCustomerOrderId());
 
+        if (lifecycle) {
+            orderLifecycleService.start(orderDetails.getCustomerOrderId(), orderRequest);
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.ACCEPTED.value(),
+                    "Order accepted with ID: " + orderDetails.getCustomerOrderId() + ". Order lifecycle workflow started.",
+                    toLifecycleIntakeResponse(orderDetails.getCustomerOrderId())
+            );
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create(lifecycleStatusUrl(orderDetails.getCustomerOrderId())))
+                    .body(apiResponse);
+        }
+
         WorkflowOptions options = WorkflowOptions.newBuilder()
                 .setTaskQueue("vehicle-order-task-queue")
                 .setWorkflowId("order-" + orderDetails.getCustomerOrderId())
@@ -153,6 +202,18 @@ public class VehicleOrderController {
         VehicleOrderWorkflow workflow = workflowClient.newWorkflowStub(VehicleOrderWorkflow.class, options);
         WorkflowClient.start(workflow::placeOrder, orderRequest);
 
+        if (async) {
+            orderResultTracker.track(orderDetails.getCustomerOrderId(), orderRequest);
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.ACCEPTED.value(),
+                    "Order accepted with ID: " + orderDetails.getCustomerOrderId() + ". Workflow started.",
+                    toIntakeResponse(orderDetails.getCustomerOrderId())
+            );
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .location(URI.create(statusUrl(orderDetails.getCustomerOrderId())))
+                    .body(apiResponse);
+        }
+
         OrderResponse response;
         try {
             response = workflowClient.newUntypedWorkflowStub("order-" + orderDetails.getCustomerOrderId())
@@ -183,50 +244,45 @@ public class VehicleOrderController {
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(apiResponse);
     }
 
-    private ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> handleMultiOrder(@Valid MultiOrderRequest multiOrderRequest) {
-        List<OrderResponse> orderResponses = new ArrayList<>();
-        List<Long> orderIds = new ArrayList<>();
-
-        for (OrderRequest orderRequest : multiOrderRequest.getVehicleOrders()) {
+    private ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> handleMultiOrder(@Valid MultiOrderRequest multiOrderRequest, boolean async, boolean lifecycle) {
+        List<OrderRequest> orderRequests = multiOrderRequest.getVehicleOrders();
+        List<VehicleOrderDetails> orders = new ArrayList<>();
+        for (OrderRequest orderRequest : orderRequests) {
             VehicleOrderDetails orderDetails = mapOrderRequestToEntity(orderRequest);
             orderDetails.setCreatedAt(LocalDateTime.now());
             orderDetails.setUpdatedAt(LocalDateTime.now());
-            orderDetails = orderRepository.saveAndFlush(orderDetails);
-            orderIds.add(orderDetails.getCustomerOrderId());
-            log.info("Order saved with ID: {}", orderDetails.getCustomerOrderId());
-
-            WorkflowOptions options = WorkflowOptions.newBuilder()
-                    .setTaskQueue("vehicle-order-task-queue")
-                    .setWorkflowId("order-" + orderDetails.getCustomerOrderId())
-                    .build();
-
-            VehicleOrderWorkflow workflow = workflowClient.newWorkflowStub(VehicleOrderWorkflow.class, options);
-            WorkflowClient.start(workflow::placeOrder, orderRequest);
-
-            OrderResponse response;
-            try {
-                response = workflowClient.newUntypedWorkflowStub("order-" + orderDetails.getCustomerOrderId())
-                        .getResult(30, TimeUnit.SECONDS, OrderResponse.class);
-            } catch (Exception e) {
-                log.error("Failed to get workflow result for order ID: {} - {}", orderDetails.getCustomerOrderId(), e.getMessage());
-                response = vehicleOrderService.mapToOrderResponse(orderRequest);
-                response.setOrderStatus(OrderStatus.PENDING);
-                response.setCustomerName(orderRequest.getCustomerName());
-                response.setModelName(orderRequest.getModelName());
-                response.setCreatedAt(LocalDateTime.now());
-                response.setCustomerOrderId(orderDetails.getCustomerOrderId());
-            }
+            orders.add(orderDetails);
+        }
+        orders = multiOrderIntakeService.saveOrders(orders);
+        List<Long> orderIds = orders.stream().map(VehicleOrderDetails::getCustomerOrderId).toList();
+        log.info("Orders saved with IDs: {}", orderIds);
 
-            if (response.getOrderStatus() == null) {
-                log.warn("Workflow returned null status for order ID: {}, defaulting to PENDING", orderDetails.getCustomerOrderId());
-                response.setOrderStatus(OrderStatus.PENDING);
+        if (lifecycle) {
+            for (int i = 0; i < orders.size(); i++) {
+                orderLifecycleService.start(orderIds.get(i), orderRequests.get(i));
             }
+            List<OrderIntakeResponse> intakeResponses = orderIds.stream().map(this::toLifecycleIntakeResponse).toList();
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.ACCEPTED.value(),
+                    "Orders accepted with IDs: " + orderIds + ". Order lifecycle workflows started.",
+                    intakeResponses
+            );
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(apiResponse);
+        }
 
-            orderDetails.setOrderStatus(response.getOrderStatus());
-            orderRepository.save(orderDetails);
-            orderResponses.add(response);
+        if (async) {
+            multiOrderIntakeService.placeOrdersAsync(orders, orderRequests);
+            List<OrderIntakeResponse> intakeResponses = orderIds.stream().map(this::toIntakeResponse).toList();
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.ACCEPTED.value(),
+                    "Orders accepted with IDs: " + orderIds + ". Workflows started.",
+                    intakeResponses
+            );
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(apiResponse);
         }
 
+        List<OrderResponse> orderResponses = multiOrderIntakeService.placeOrders(orders, orderRequests);
+
         MultiOrderResponse multiOrderResponse = new MultiOrderResponse(
                 HttpStatus.ACCEPTED.value(),
                 "Orders placed successfully with IDs: " + orderIds,
@@ -242,47 +298,179 @@ public class VehicleOrderController {
         return ResponseEntity.status(HttpStatus.ACCEPTED).body(apiResponse);
     }
 
+    @GetMapping("/{customerOrderId}/result")
+    @Operation(summary = "Get order intake result", description = "Returns the workflow result of an order placed with async=true, or its status from the order workflows or the database once the result is no longer tracked")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Order result available"),
+            @ApiResponse(responseCode = "202", description = "Order workflow still running"),
+            @ApiResponse(responseCode = "404", description = "Order not found")
+    })
+    public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> getOrderResult(@PathVariable Long customerOrderId) {
+        Optional<CompletableFuture<OrderResponse>> tracked = orderResultTracker.find(customerOrderId);
+        if (tracked.isPresent() && !tracked.get().isDone()) {
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.ACCEPTED.value(),
+                    "Order workflow still running for ID: " + customerOrderId,
+                    toIntakeResponse(customerOrderId)
+            );
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(apiResponse);
+        }
+        if (tracked.isPresent() && !tracked.get().isCompletedExceptionally()) {
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.OK.value(),
+                    "Order result retrieved for ID: " + customerOrderId,
+                    tracked.get().join()
+            );
+            return ResponseEntity.ok(apiResponse);
+        }
+        // not tracked here (released, expired or placed before a restart): ask the order's workflows, then the database
+        try {
+            OrderLiveStatusResponse response = orderStatusQueryService.getStatus(customerOrderId);
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.OK.value(),
+                    "Order status retrieved for ID: " + customerOrderId,
+                    response
+            );
+            return ResponseEntity.ok(apiResponse);
+        } catch (RuntimeException e) {
+            log.error("Order not found for customer order ID: {} - {}", customerOrderId, e.getMessage());
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.NOT_FOUND.value(),
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(apiResponse);
+        }
+    }
+
+    @GetMapping("/{customerOrderId}/status")
+    @Operation(summary = "Get live order status", description = "Returns the stage, pending signals and last activity result of the order's running workflows, or the stored order status once they are closed")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Order status retrieved"),
+            @ApiResponse(responseCode = "404", description = "Order not found")
+    })
+    public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> getOrderStatus(@PathVariable Long customerOrderId) {
+        try {
+            OrderLiveStatusResponse response = orderStatusQueryService.getStatus(customerOrderId);
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.OK.value(),
+                    "Order status retrieved for ID: " + customerOrderId,
+                    response
+            );
+            return ResponseEntity.ok(apiResponse);
+        } catch (RuntimeException e) {
+            log.error("Order not found for customer order ID: {} - {}", customerOrderId, e.getMessage());
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.NOT_FOUND.value(),
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(apiResponse);
+        }
+    }
+
+    @GetMapping(value = "/{customerOrderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream order intake result", description = "Server-sent event stream that emits the order result once its workflow completes")
+    public SseEmitter streamOrderResult(@PathVariable Long customerOrderId) {
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(2));
+        Optional<CompletableFuture<OrderResponse>> tracked = orderResultTracker.find(customerOrderId);
+        if (tracked.isEmpty()) {
+            try {
+                emitter.send(SseEmitter.event().name("order-status")
+                        .data(orderStatusQueryService.getStatus(customerOrderId)));
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+            return emitter;
+        }
+        tracked.get().whenComplete((response, error) -> {
+            try {
+                if (error != null) {
+                    emitter.send(SseEmitter.event().name("order-error").data(error.getMessage()));
+                } else {
+                    emitter.send(SseEmitter.event().name("order-result").data(response));
+                }
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
     @PostMapping("/cancel")
-    @Operation(summary = "Cancel a vehicle order", description = "Cancels an existing vehicle order by ID")
+    @Operation(summary = "Cancel a vehicle order", description = "Signals the running order workflow to cancel the order and reports completion through the status URL, or cancels the order directly when no workflow is running")
     @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Cancellation signalled to the running order workflow"),
             @ApiResponse(responseCode = "200", description = "Order canceled successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid order ID"),
+            @ApiResponse(responseCode = "400", description = "Order cannot be canceled"),
+            @ApiResponse(responseCode = "404", description = "Order not found"),
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> cancelOrder(@Valid @RequestParam Long customerOrderId) {
         log.info("Canceling order with ID: {}", customerOrderId);
         try {
-            WorkflowOptions options = WorkflowOptions.newBuilder()
-                    .setTaskQueue("vehicle-order-task-queue")
-                    .setWorkflowId("cancel-order-" + customerOrderId)
-                    .build();
-
-            VehicleCancelWorkflow workflow = workflowClient.newWorkflowStub(VehicleCancelWorkflow.class, options);
-            WorkflowClient.start(workflow::startCancelOrder, customerOrderId);
-
-            OrderResponse response = workflowClient.newUntypedWorkflowStub("cancel-order-" + customerOrderId)
-                    .getResult(10, TimeUnit.SECONDS, OrderResponse.class);
+            workflowClient.newWorkflowStub(VehicleOrderWorkflow.class, "order-" + customerOrderId).cancelOrder(customerOrderId);
+            return cancellationAccepted(customerOrderId, "order workflow");
+        } catch (WorkflowNotFoundException e) {
+            log.debug("No running order workflow for order ID: {}", customerOrderId);
+        }
+        try {
+            orderLifecycleService.cancel(customerOrderId);
+            return cancellationAccepted(customerOrderId, "order lifecycle workflow");
+        } catch (WorkflowNotFoundException e) {
+            log.debug("No running order lifecycle workflow for order ID: {}", customerOrderId);
+        }
 
-            log.info("Cancellation workflow started and completed successfully for order ID: {}", customerOrderId);
+        // the workflow has already finished with the order, e.g. once the stock is blocked
+        try {
+            OrderResponse response = vehicleOrderService.cancelOrder(customerOrderId);
+            log.info("Order canceled directly with ID: {}", customerOrderId);
             com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
                     HttpStatus.OK.value(),
                     "Order canceled successfully with ID: " + customerOrderId,
                     response
             );
             return ResponseEntity.ok(apiResponse);
-        } catch (Exception e) {
-            log.error("Failed to start or complete cancellation workflow for order ID: {} - {}", customerOrderId, e.getMessage());
-            OrderResponse response = vehicleOrderService.cancelOrder(customerOrderId);
-            log.info("Fallback: Order canceled directly with ID: {}", customerOrderId);
+        } catch (IllegalStateException e) {
+            log.error("Order ID: {} cannot be canceled - {}", customerOrderId, e.getMessage());
             com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
-                    HttpStatus.OK.value(),
-                    "Order canceled successfully with ID: " + customerOrderId + " (via fallback)",
-                    response
+                    HttpStatus.BAD_REQUEST.value(),
+                    e.getMessage(),
+                    null
             );
-            return ResponseEntity.ok(apiResponse);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiResponse);
+        } catch (OrderNotFoundException e) {
+            log.error("Order ID: {} not found - {}", customerOrderId, e.getMessage());
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.NOT_FOUND.value(),
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(apiResponse);
+        } catch (RuntimeException e) {
+            log.error("Failed to cancel order ID: {} - {}", customerOrderId, e.getMessage(), e);
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    "Failed to cancel order: " + e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(apiResponse);
         }
     }
 
+    private ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> cancellationAccepted(Long customerOrderId, String workflow) {
+        log.info("Cancellation signalled to the {} for order ID: {}", workflow, customerOrderId);
+        String statusUrl = "/api/orders/" + customerOrderId + "/status";
+        com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                HttpStatus.ACCEPTED.value(),
+                "Cancellation accepted for order ID: " + customerOrderId,
+                new OrderIntakeResponse(customerOrderId, OrderStatus.PROCESSING, statusUrl, null)
+        );
+        return ResponseEntity.status(HttpStatus.ACCEPTED).location(URI.create(statusUrl)).body(apiResponse);
+    }
+
 
 
 
@@ -324,7 +512,7 @@ public class VehicleOrderController {
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> addBulkStock(@Valid @RequestBody BulkStockAddRequest request) {
-        List<String> messages = vehicleOrderService.addBulkVehicleStock(request.getStocks());
+        List<String> messages = bulkImportService.importVehicleStock(request.getStocks());
         com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
                 HttpStatus.OK.value(),
                 "Bulk stock addition completed: " + messages.size() + " records processed",
@@ -358,7 +546,7 @@ public class VehicleOrderController {
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> addBulkModel(@Valid @RequestBody BulkVehicleModelRequest request) {
-        List<VehicleModelResponse> responses = vehicleOrderService.addBulkVehicleModel(request.getModels());
+        List<VehicleModelResponse> responses = bulkImportService.importVehicleModels(request.getModels());
         com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
                 HttpStatus.OK.value(),
                 "Bulk vehicle model addition completed: " + responses.size() + " records processed",
@@ -392,7 +580,7 @@ public class VehicleOrderController {
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> addBulkVariant(@Valid @RequestBody BulkVehicleVariantRequest request) {
-        List<VehicleVariant> savedVariants = vehicleOrderService.addBulkVariantToModel(request.getVariants());
+        List<VehicleVariant> savedVariants = bulkImportService.importVariants(request.getVariants());
         com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
                 HttpStatus.OK.value(),
                 "Bulk variant addition completed: " + savedVariants.size() + " records processed",
@@ -401,6 +589,23 @@ public class VehicleOrderController {
         return ResponseEntity.ok(apiResponse);
     }
 
+    private OrderIntakeResponse toIntakeResponse(Long customerOrderId) {
+        return new OrderIntakeResponse(customerOrderId, OrderStatus.PROCESSING, statusUrl(customerOrderId),
+                "/api/orders/" + customerOrderId + "/events");
+    }
+
+    private String statusUrl(Long customerOrderId) {
+        return "/api/orders/" + customerOrderId + "/result";
+    }
+
+    private OrderIntakeResponse toLifecycleIntakeResponse(Long customerOrderId) {
+        return new OrderIntakeResponse(customerOrderId, OrderStatus.PROCESSING, lifecycleStatusUrl(customerOrderId), null);
+    }
+
+    private String lifecycleStatusUrl(Long customerOrderId) {
+        return "/api/order-lifecycle/" + customerOrderId + "/status";
+    }
+
     private VehicleOrderDetails mapOrderRequestToEntity(OrderRequest request) {
         VehicleOrderDetails order = new VehicleOrderDetails();
         order.setVehicleModel(vehicleModelRepository.findById(request.getVehicleModelId())
@@ -455,7 +660,7 @@ public class VehicleOrderController {
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> addBulkMddpStock(@Valid @RequestBody BulkMddpStockAddRequest request) {
-        List<String> messages = vehicleOrderService.addBulkMddpStock(request.getStocks());
+        List<String> messages = bulkImportService.importMddpStock(request.getStocks());
         com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
                 HttpStatus.OK.value(),
                 "Bulk MDDP stock addition completed: " + messages.size() + " records processed",
@@ -464,6 +669,53 @@ public class VehicleOrderController {
         return ResponseEntity.ok(apiResponse);
     }
 
+    @PostMapping(value = "/importStock", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/x-ndjson")
+    @Operation(summary = "Stream stock import", description = "Imports stock rows from a CSV or newline-delimited JSON body and streams progress and per-row errors back as NDJSON")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import started, progress is streamed in the response body"),
+            @ApiResponse(responseCode = "415", description = "Unsupported content type")
+    })
+    public WebAsyncTask<Void> importStock(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        return streamImport(request, response, "Stock", stockIngestionService::ingestVehicleStock);
+    }
+
+    @PostMapping(value = "/importMddpStock", consumes = {"text/csv", "application/x-ndjson"}, produces = "application/x-ndjson")
+    @Operation(summary = "Stream MDDP stock import", description = "Imports MDDP stock rows from a CSV or newline-delimited JSON body and streams progress and per-row errors back as NDJSON")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import started, progress is streamed in the response body"),
+            @ApiResponse(responseCode = "415", description = "Unsupported content type")
+    })
+    public WebAsyncTask<Void> importMddpStock(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        return streamImport(request, response, "MDDP stock", stockIngestionService::ingestMddpStock);
+    }
+
+    // A large feed outlives the default async request timeout, so each import stream gets its own timeout
+    // instead of raising it for every async request.
+    private WebAsyncTask<Void> streamImport(HttpServletRequest request, HttpServletResponse response, String feed,
+                                            StockIngestion ingestion) throws IOException {
+        InputStream body = request.getInputStream();
+        boolean csv = isCsv(request.getContentType());
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        WebAsyncTask<Void> task = new WebAsyncTask<>(TimeUnit.MINUTES.toMillis(importStreamTimeoutMinutes), () -> {
+            ingestion.ingest(body, csv, response.getOutputStream());
+            return null;
+        });
+        task.onTimeout(() -> {
+            log.error("{} import stream timed out after {} minutes", feed, importStreamTimeoutMinutes);
+            return null;
+        });
+        return task;
+    }
+
+    private boolean isCsv(String contentType) {
+        return contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.valueOf("text/csv"));
+    }
+
+    private interface StockIngestion {
+        void ingest(InputStream body, boolean csv, OutputStream out) throws IOException;
+    }
+
 
 
 
@@ -743,9 +995,159 @@ public class VehicleOrderController {
         }
     }
 
+    @GetMapping("/status-summary")
+    @Operation(summary = "Get order counts per status", description = "Retrieves the number of orders in every order status in one call, " +
+            "from the maintained status counters or, with exact=true, by counting the orders")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Order status summary retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> getOrderStatusSummary(
+            @RequestParam(value = "exact", defaultValue = "false") boolean exact) {
+        log.info("Received request for order status summary, exact: {}", exact);
+        try {
+            OrderStatusSummaryResponse response = orderStatusCounterService.getSummary(exact);
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.OK.value(),
+                    "Order status summary retrieved successfully",
+                    response
+            );
+            return ResponseEntity.ok(apiResponse);
+        } catch (Exception e) {
+            log.error("Unexpected error retrieving order status summary: {}", e.getMessage());
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    "Internal server error: " + e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(apiResponse);
+        }
+    }
+
+    @PostMapping("/status-summary/reconcile")
+    @Operation(summary = "Rebuild order status counters", description = "Recounts the orders per status and replaces the maintained status counters")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN')")
+    public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> reconcileOrderStatusCounters() {
+        log.info("Received request to reconcile order status counters");
+        try {
+            OrderStatusSummaryResponse response = orderStatusCounterService.reconcile();
+            return ResponseEntity.ok(new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.OK.value(),
+                    "Order status counters reconciled successfully",
+                    response
+            ));
+        } catch (Exception e) {
+            log.error("Unexpected error reconciling order status counters: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    "Internal server error: " + e.getMessage(),
+                    null
+            ));
+        }
+    }
+
 
 
 
+    @GetMapping("/{customerOrderId}/timeline")
+    @Operation(summary = "Get order timeline", description = "Retrieves the order, finance, dispatch and delivery history of an order " +
+            "as one chronological stream, one page at a time; pass nextCursor back as cursor for the next page")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Order timeline retrieved successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> getOrderTimeline(
+            @PathVariable Long customerOrderId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        log.info("Received request for timeline of order ID: {}, cursor: {}, limit: {}", customerOrderId, cursor, limit);
+        try {
+            OrderTimelineResponse response = orderTimelineService.getTimeline(customerOrderId, cursor, limit);
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.OK.value(),
+                    "Order timeline retrieved successfully for customer order ID: " + customerOrderId,
+                    response
+            );
+            return ResponseEntity.ok(apiResponse);
+        } catch (IllegalArgumentException e) {
+            log.error("Invalid timeline request: {}", e.getMessage());
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.BAD_REQUEST.value(),
+                    "Invalid request: " + e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(apiResponse);
+        } catch (Exception e) {
+            log.error("Unexpected error retrieving timeline for order ID: {} - {}", customerOrderId, e.getMessage());
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    "Internal server error: " + e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(apiResponse);
+        }
+    }
+
+    @GetMapping("/{customerOrderId}/history/state")
+    @Operation(summary = "Get order state at a point in time", description = "Rebuilds the order as it was recorded at the given time " +
+            "(ISO date-time, defaults to now) from the order's history")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Order state rebuilt successfully",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse.class))),
+            @ApiResponse(responseCode = "404", description = "No history recorded for the order at that time",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse.class)))
+    })
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER')")
+    public ResponseEntity<com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse> getOrderStateAt(
+            @PathVariable Long customerOrderId,
+            @RequestParam(value = "at", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        LocalDateTime pointInTime = at != null ? at : LocalDateTime.now();
+        log.info("Received request for state of order ID: {} at {}", customerOrderId, pointInTime);
+        try {
+            OrderHistoryStateResponse response = orderHistoryStore.getOrderStateAt(customerOrderId, pointInTime);
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.OK.value(),
+                    "Order state rebuilt successfully for customer order ID: " + customerOrderId,
+                    response
+            );
+            return ResponseEntity.ok(apiResponse);
+        } catch (DataAccessException e) {
+            log.error("Unexpected error rebuilding state of order ID: {} - {}", customerOrderId, e.getMessage());
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(),
+                    "Internal server error: " + e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(apiResponse);
+        } catch (RuntimeException e) {
+            log.error("No history for order ID: {} - {}", customerOrderId, e.getMessage());
+            com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse apiResponse = new com.vehicle.salesmanagement.domain.dto.apiresponse.ApiResponse(
+                    HttpStatus.NOT_FOUND.value(),
+                    e.getMessage(),
+                    null
+            );
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(apiResponse);
+        }
+    }
+
     @GetMapping("/{customerOrderId}")
     @Operation(summary = "Get order details by customer order ID", description = "Retrieves specific details of a vehicle order by customer order ID")
     @ApiResponses({
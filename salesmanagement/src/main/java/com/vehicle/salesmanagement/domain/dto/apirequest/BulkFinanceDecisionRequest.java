@@ -0,0 +1,20 @@
+package com.vehicle.salesmanagement.domain.dto.apirequest;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkFinanceDecisionRequest {
+
+    @NotEmpty(message = "Customer order IDs cannot be empty")
+    private List<@NotNull(message = "Customer order ID cannot be null") Long> customerOrderIds;
+
+    // approver or rejecter, recorded on every order of the batch
+    @NotNull(message = "Decided by cannot be null")
+    @Size(min = 1, max = 100, message = "Decided by must be between 1 and 100 characters")
+    private String decidedBy;
+}
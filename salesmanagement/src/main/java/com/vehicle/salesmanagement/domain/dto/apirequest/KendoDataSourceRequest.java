@@ -0,0 +1,17 @@
+package com.vehicle.salesmanagement.domain.dto.apirequest;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Kendo DataSource server operations, as sent with transport.parameterMap = JSON.stringify
+@Data
+public class KendoDataSourceRequest {
+    private Integer skip;
+    private Integer take;
+    // used when skip/take are not sent
+    private Integer page;
+    private Integer pageSize;
+    private List<KendoSortDescriptor> sort;
+    private KendoFilterDescriptor filter;
+}
@@ -0,0 +1,16 @@
+package com.vehicle.salesmanagement.domain.dto.apirequest;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Either a composite (logic + filters) or a single condition (field + operator + value)
+@Data
+public class KendoFilterDescriptor {
+    private String logic;
+    private List<KendoFilterDescriptor> filters;
+    private String field;
+    private String operator;
+    private Object value;
+    private Boolean ignoreCase;
+}
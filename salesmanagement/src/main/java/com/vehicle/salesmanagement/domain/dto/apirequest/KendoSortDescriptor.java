@@ -0,0 +1,10 @@
+package com.vehicle.salesmanagement.domain.dto.apirequest;
+
+import lombok.Data;
+
+@Data
+public class KendoSortDescriptor {
+    private String field;
+    // asc or desc
+    private String dir;
+}
@@ -13,6 +13,25 @@ public class MddpDto {
     private String colour;
     private String interiorColour;
 
+    public MddpDto() {
+    }
+
+    // used by the grid's constructor projection
+    public MddpDto(Long mddpOrderId, String modelName, String fuelType, String transmissionType, String variant, Integer quantity,
+                   String vinNumber, String suffix, String engineColour, String colour, String interiorColour) {
+        this.mddpOrderId = mddpOrderId;
+        this.modelName = modelName;
+        this.fuelType = fuelType;
+        this.transmissionType = transmissionType;
+        this.variant = variant;
+        this.quantity = quantity;
+        this.vinNumber = vinNumber;
+        this.suffix = suffix;
+        this.engineColour = engineColour;
+        this.colour = colour;
+        this.interiorColour = interiorColour;
+    }
+
     public Long getMddpOrderId() {
         return mddpOrderId;
     }
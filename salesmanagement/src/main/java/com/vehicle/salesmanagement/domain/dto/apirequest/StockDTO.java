@@ -16,6 +16,25 @@ public class StockDTO {
     private String colour;
     private String interiorColour;
 
+    public StockDTO() {
+    }
+
+    // used by the grid's constructor projection
+    public StockDTO(Long stockId, String modelName, String fuelType, String transmissionType, String variant, Integer quantity,
+                    String vinNumber, String suffix, String engineColour, String colour, String interiorColour) {
+        this.stockId = stockId;
+        this.modelName = modelName;
+        this.fuelType = fuelType;
+        this.transmissionType = transmissionType;
+        this.variant = variant;
+        this.quantity = quantity;
+        this.vinNumber = vinNumber;
+        this.suffix = suffix;
+        this.engineColour = engineColour;
+        this.colour = colour;
+        this.interiorColour = interiorColour;
+    }
+
     public Long getStockId() {
         return stockId;
     }
@@ -0,0 +1,18 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AllocationLaneMetrics {
+    private int laneId;
+    private int queueDepth;
+    private long allocations;
+    private long batches;
+    private long replayedBatches;
+    private long averageWaitMillis;
+    private long maxWaitMillis;
+}
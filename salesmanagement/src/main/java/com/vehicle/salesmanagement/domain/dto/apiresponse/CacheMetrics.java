@@ -0,0 +1,17 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheMetrics {
+    private String cacheName;
+    private long hits;
+    private long misses;
+    private long puts;
+    private long evictions;
+    private double hitRatio;
+}
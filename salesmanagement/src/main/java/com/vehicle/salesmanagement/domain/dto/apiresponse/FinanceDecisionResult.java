@@ -0,0 +1,17 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FinanceDecisionResult {
+    private Long customerOrderId;
+    // COMPLETED: workflow finished with the decision, PENDING: signalled but no result before the deadline,
+    // FAILED: the signal or the workflow failed
+    private String status;
+    private String message;
+    private FinanceResponse finance;
+}
@@ -0,0 +1,20 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HistoryOutboxMetrics {
+    private long pendingRows;
+    // failed at least once and waiting out their backoff
+    private long retryingRows;
+    // failed max-attempts times and no longer relayed until fixed by hand
+    private long setAsideRows;
+    private LocalDateTime oldestSetAsideAt;
+    private int maxAttempts;
+}
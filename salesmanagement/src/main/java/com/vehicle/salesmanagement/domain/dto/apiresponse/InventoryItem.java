@@ -0,0 +1,26 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventoryItem {
+    // "STOCK" for stock_details rows, "MDDP" for mddp_stock rows
+    private String source;
+    private Long id;
+    private String modelName;
+    private String variant;
+    private String colour;
+    private String fuelType;
+    private String transmissionType;
+    private String interiorColour;
+    private String vinNumber;
+    private Integer quantity;
+    // list price of the vehicle variant
+    private BigDecimal price;
+}
@@ -0,0 +1,18 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class InventorySearchResponse {
+    private Long totalMatches;
+    // at most the requested limit of the matches
+    private List<InventoryItem> items;
+    private Map<String, List<VehicleFacetResponse.FacetValue>> facets;
+}
@@ -1,16 +1,27 @@
 package com.vehicle.salesmanagement.domain.dto.apiresponse;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class KendoResponse<T> {
     private List<T> data;
     private long total;
+    // read by the grid through schema.errors, set only on failed requests
+    private String errors;
 
     public KendoResponse(List<T> data, long total) {
         this.data = data;
         this.total = total;
     }
 
+    public static <T> KendoResponse<T> error(String errors) {
+        KendoResponse<T> response = new KendoResponse<>(List.of(), 0);
+        response.setErrors(errors);
+        return response;
+    }
+
     public List<T> getData() {
         return data;
     }
@@ -26,4 +37,12 @@ public class KendoResponse<T> {
     public void setTotal(long total) {
         this.total = total;
     }
-}
\ No newline at end of file
+
+    public String getErrors() {
+        return errors;
+    }
+
+    public void setErrors(String errors) {
+        this.errors = errors;
+    }
+}
@@ -21,6 +21,6 @@ public class OrderDetailsResponse {
     private String fuelType;
     private String colour;
     private String variant;
-    private int quantity;
+    private Integer quantity;
     private OrderStatus orderStatus;
 }
\ No newline at end of file
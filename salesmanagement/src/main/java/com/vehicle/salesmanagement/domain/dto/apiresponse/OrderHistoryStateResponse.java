@@ -0,0 +1,20 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderHistoryStateResponse {
+    private Long customerOrderId;
+    private LocalDateTime at;
+    // when the last change at or before "at" was recorded
+    private LocalDateTime changedAt;
+    private String orderStatus;
+    private Map<String, Object> state;
+}
@@ -0,0 +1,16 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import com.vehicle.salesmanagement.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderIntakeResponse {
+    private Long customerOrderId;
+    private OrderStatus orderStatus;
+    private String statusUrl;
+    private String eventsUrl;
+}
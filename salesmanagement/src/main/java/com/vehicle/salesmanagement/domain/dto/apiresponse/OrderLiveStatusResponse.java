@@ -0,0 +1,21 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import com.vehicle.salesmanagement.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderLiveStatusResponse {
+    private Long customerOrderId;
+    // WORKFLOW when answered by running workflows, DATABASE once none of them is open
+    private String source;
+    private OrderStatus orderStatus;
+    // keyed by workflow ID, the running workflows queried up to the one that gave the order status
+    private Map<String, WorkflowStatusResponse> workflows;
+    private OrderDetailsResponse details;
+}
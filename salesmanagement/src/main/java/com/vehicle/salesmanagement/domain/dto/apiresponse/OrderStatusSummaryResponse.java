@@ -0,0 +1,18 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import com.vehicle.salesmanagement.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderStatusSummaryResponse {
+    private Long totalOrders;
+    private Map<OrderStatus, Long> statusCounts;
+    // "counters" when read from the maintained counter table, "query" when counted from the orders
+    private String source;
+}
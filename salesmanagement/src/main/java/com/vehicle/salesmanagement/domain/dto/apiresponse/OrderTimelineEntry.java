@@ -0,0 +1,23 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderTimelineEntry {
+    // ORDER, ORDER_SNAPSHOT (history recorded before order deltas), FINANCE, DISPATCH or DELIVERY
+    private String source;
+    private Long entryId;
+    private LocalDateTime changedAt;
+    private String fromStatus;
+    private String status;
+    private String changedBy;
+    private String details;
+}
@@ -0,0 +1,17 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderTimelineResponse {
+    private Long customerOrderId;
+    private List<OrderTimelineEntry> entries;
+    // pass back as ?cursor= for the next page; null on the last page
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockIngestionEvent {
+    // "error" for a rejected row, "progress" after each written batch, "completed" at the end of the file
+    private String type;
+    private Long line;
+    private String vin;
+    private String message;
+    private Long processed;
+    private Long saved;
+    private Long failed;
+}
@@ -0,0 +1,18 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TemporalWorkerSlotMetrics {
+    private String taskQueue;
+    // WorkflowWorker, ActivityWorker or LocalActivityWorker
+    private String workerType;
+    private int maxSlots;
+    private int usedSlots;
+    private int availableSlots;
+    private double utilisationPercent;
+}
@@ -0,0 +1,25 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleFacetResponse {
+    private Map<String, String> appliedFilters;
+    // facet name -> values with the number of matching variants, most common first
+    private Map<String, List<FacetValue>> facets;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FacetValue {
+        private String value;
+        private Long count;
+    }
+}
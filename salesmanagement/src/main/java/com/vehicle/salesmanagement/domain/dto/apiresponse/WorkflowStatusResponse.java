@@ -0,0 +1,20 @@
+package com.vehicle.salesmanagement.domain.dto.apiresponse;
+
+import com.vehicle.salesmanagement.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class WorkflowStatusResponse {
+    private String stage;
+    private OrderStatus orderStatus;
+    // signal and update names the workflow is currently waiting for
+    private List<String> pendingSignals = List.of();
+    private String lastActivity;
+    private Object lastActivityResult;
+}
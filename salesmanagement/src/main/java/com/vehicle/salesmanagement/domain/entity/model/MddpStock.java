@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
 public class MddpStock {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mddp_stock_seq")
+    @SequenceGenerator(name = "mddp_stock_seq", sequenceName = "mddp_stock_seq",
+            schema = "sales_tracking", allocationSize = 50)
     @Column(name = "mddp_order_id")
     private Long mddpOrderId;
 
@@ -17,7 +17,9 @@ import java.time.LocalDateTime;
 public class StockDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_details_seq")
+    @SequenceGenerator(name = "stock_details_seq", sequenceName = "stock_details_seq",
+            schema = "sales_tracking", allocationSize = 50)
     @Column(name = "stock_id")
     private Long stockId;
 
@@ -15,7 +15,9 @@ import java.time.LocalDateTime;
 public class VehicleModel {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicle_model_seq")
+    @SequenceGenerator(name = "vehicle_model_seq", sequenceName = "vehicle_model_seq",
+            schema = "sales_tracking", allocationSize = 50)
     @Column(name = "vehicle_model_id",nullable = false)
     private Long vehicleModelId;
 
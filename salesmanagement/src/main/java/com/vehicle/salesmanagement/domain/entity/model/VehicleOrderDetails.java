@@ -335,6 +335,7 @@
 package com.vehicle.salesmanagement.domain.entity.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.vehicle.salesmanagement.cache.OrderCountsEvictionListener;
 import com.vehicle.salesmanagement.enums.OrderStatus;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -349,13 +350,16 @@ import java.time.LocalDateTime;
 @Entity
 @Data
 @Table(name = "vehicle_order_details", schema = "sales_tracking")
+@EntityListeners(OrderCountsEvictionListener.class)
 @AllArgsConstructor
 @NoArgsConstructor
 @JsonIgnoreProperties({"vehicleModel", "vehicleVariant"})
 public class VehicleOrderDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicle_order_details_seq")
+    @SequenceGenerator(name = "vehicle_order_details_seq", sequenceName = "vehicle_order_details_seq",
+            schema = "sales_tracking", allocationSize = 50)
     @Column(name = "customer_order_id")
     private Long customerOrderId;
 
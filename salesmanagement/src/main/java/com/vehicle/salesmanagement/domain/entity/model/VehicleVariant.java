@@ -15,7 +15,9 @@ import java.time.LocalDateTime;
 public class VehicleVariant {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vehicle_variant_seq")
+    @SequenceGenerator(name = "vehicle_variant_seq", sequenceName = "vehicle_variant_seq",
+            schema = "sales_tracking", allocationSize = 50)
     @Column(name = "vehicle_variant_id")
     private Long vehicleVariantId;
 
@@ -0,0 +1,38 @@
+package com.vehicle.salesmanagement.enums;
+
+import java.util.List;
+
+public enum HistoryType {
+    // order history is stored as deltas of these fields, see OrderHistoryStore
+    ORDER("vehicle_order_delta_history", List.of(
+            "aadhar_no", "booking_amount", "colour", "created_at", "created_by", "current_address", "customer_name",
+            "email", "fuel_type", "model_name", "order_status", "pan_no", "payment_mode", "permanent_address",
+            "phone_number", "quantity", "total_price", "transmission_type", "updated_at", "updated_by", "variant",
+            "vehicle_model_id", "vehicle_variant_id")),
+    FINANCE("finance_details_history", List.of(
+            "finance_id", "customer_order_id", "customer_name", "finance_status", "created_at", "updated_at",
+            "approved_by", "rejected_by", "changed_at", "finance_status_history")),
+    DISPATCH("dispatch_details_history", List.of(
+            "dispatch_id", "customer_order_id", "customer_name", "dispatch_status", "dispatch_date", "dispatched_by",
+            "created_at", "updated_at", "created_by", "updated_by", "changed_at", "dispatch_status_history")),
+    DELIVERY("delivery_details_history", List.of(
+            "delivery_id", "customer_order_id", "customer_name", "delivery_status", "delivery_date", "delivered_by",
+            "recipient_name", "created_at", "updated_at", "created_by", "updated_by", "changed_at",
+            "delivery_status_history"));
+
+    private final String table;
+    private final List<String> columns;
+
+    HistoryType(String table, List<String> columns) {
+        this.table = table;
+        this.columns = columns;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+}
@@ -0,0 +1,12 @@
+package com.vehicle.salesmanagement.event;
+
+import java.util.Set;
+
+// Published when vehicle models or variants are added so read-side views of the catalog can refresh
+// the affected models only. remote is set when the change was made on another app node.
+public record VehicleCatalogChangedEvent(Set<String> modelNames, boolean remote) {
+
+    public VehicleCatalogChangedEvent(Set<String> modelNames) {
+        this(modelNames, false);
+    }
+}
@@ -4,10 +4,12 @@ import com.vehicle.salesmanagement.domain.entity.model.MddpStock;
 import com.vehicle.salesmanagement.domain.entity.model.VehicleVariant;
 import com.vehicle.salesmanagement.enums.StockStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 @Repository
@@ -18,4 +20,16 @@ public interface MddpStockRepository extends JpaRepository<MddpStock, Long> {
     List<MddpStock> findByStockStatus(StockStatus stockStatus);
 
     Optional<Object> findByVinNumber(String vinNumber);
+
+    @Query("SELECT m.vinNumber FROM MddpStock m WHERE m.vinNumber IN :vinNumbers")
+    List<String> findExistingVinNumbers(@Param("vinNumbers") Collection<String> vinNumbers);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE MddpStock m SET m.quantity = m.quantity - :quantity, " +
+            "m.stockStatus = CASE WHEN m.quantity = :quantity " +
+            "THEN com.vehicle.salesmanagement.enums.StockStatus.DEPLETED ELSE m.stockStatus END, " +
+            "m.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE m.mddpOrderId = :mddpOrderId AND m.stockStatus = com.vehicle.salesmanagement.enums.StockStatus.AVAILABLE " +
+            "AND m.quantity >= :quantity")
+    int decrementIfAvailable(@Param("mddpOrderId") Long mddpOrderId, @Param("quantity") Integer quantity);
 }
\ No newline at end of file
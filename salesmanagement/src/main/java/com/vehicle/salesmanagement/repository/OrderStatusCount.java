@@ -0,0 +1,8 @@
+package com.vehicle.salesmanagement.repository;
+
+// One row of a per-status order count, from either the grouped order query or the counter table.
+public interface OrderStatusCount {
+    String getStatus();
+
+    Long getOrderCount();
+}
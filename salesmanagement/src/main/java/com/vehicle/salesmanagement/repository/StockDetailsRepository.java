@@ -5,10 +5,12 @@ import com.vehicle.salesmanagement.domain.entity.model.VehicleModel;
 import com.vehicle.salesmanagement.domain.entity.model.VehicleVariant;
 import com.vehicle.salesmanagement.enums.StockStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,5 +26,28 @@ public interface StockDetailsRepository extends JpaRepository<StockDetails,Long>
 
     List<StockDetails> findByStockStatus(StockStatus stockStatus);
 
+    Optional<StockDetails> findFirstByVehicleVariantAndColourAndFuelTypeAndTransmissionTypeAndStockStatusAndQuantityGreaterThanEqualOrderByQuantityAsc(
+            VehicleVariant vehicleVariant, String colour, String fuelType, String transmissionType,
+            StockStatus stockStatus, Integer quantity);
+
     Optional<Object> findByVinNumber(String vinNumber);
+
+    @Query("SELECT s.vinNumber FROM StockDetails s WHERE s.vinNumber IN :vinNumbers")
+    List<String> findExistingVinNumbers(@Param("vinNumbers") Collection<String> vinNumbers);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockDetails s SET s.quantity = s.quantity - :quantity, " +
+            "s.stockStatus = CASE WHEN s.quantity = :quantity " +
+            "THEN com.vehicle.salesmanagement.enums.StockStatus.DEPLETED ELSE s.stockStatus END, " +
+            "s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.stockId = :stockId AND s.stockStatus = com.vehicle.salesmanagement.enums.StockStatus.AVAILABLE " +
+            "AND s.quantity >= :quantity AND s.colour = :colour AND s.fuelType = :fuelType " +
+            "AND s.transmissionType = :transmissionType")
+    int decrementIfAvailable(
+            @Param("stockId") Long stockId,
+            @Param("quantity") Integer quantity,
+            @Param("colour") String colour,
+            @Param("fuelType") String fuelType,
+            @Param("transmissionType") String transmissionType
+    );
 }
\ No newline at end of file
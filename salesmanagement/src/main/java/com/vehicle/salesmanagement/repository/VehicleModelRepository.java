@@ -2,11 +2,18 @@ package com.vehicle.salesmanagement.repository;
 
 import com.vehicle.salesmanagement.domain.entity.model.VehicleModel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface VehicleModelRepository extends JpaRepository<VehicleModel,Long> {
     Optional<Object> findByModelName(String modelName);
+
+    @Query("SELECT m.modelName FROM VehicleModel m WHERE m.modelName IN :modelNames")
+    List<String> findExistingModelNames(@Param("modelNames") Collection<String> modelNames);
 }
@@ -1,25 +1,48 @@
 package com.vehicle.salesmanagement.repository;
 
+import com.vehicle.salesmanagement.cache.CacheNames;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderDetailsResponse;
 import com.vehicle.salesmanagement.domain.entity.model.VehicleOrderDetails;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 
 @Repository
 public interface VehicleOrderDetailsRepository extends JpaRepository<VehicleOrderDetails,Long> {
 
+    @Cacheable(cacheNames = CacheNames.ORDER_COUNTS, key = "'total'")
     @Query("SELECT COUNT(o) FROM VehicleOrderDetails o")
     Long countTotalOrders();
 
+    @Cacheable(cacheNames = CacheNames.ORDER_COUNTS, key = "'pending'")
     @Query("SELECT COUNT(o) FROM VehicleOrderDetails o WHERE o.orderStatus = 'PENDING'")
     Long countPendingOrders();
 
+    @Cacheable(cacheNames = CacheNames.ORDER_COUNTS, key = "'financePending'")
     @Query("SELECT COUNT(o) FROM VehicleOrderDetails o WHERE o.orderStatus = 'PENDING_FINANCE'")
     Long countFinancePendingOrders();
 
+    @Cacheable(cacheNames = CacheNames.ORDER_COUNTS, key = "'closed'")
     @Query("SELECT COUNT(o) FROM VehicleOrderDetails o WHERE o.orderStatus = 'DELIVERED'")
     Long countClosedOrders();
 
+    @Query("SELECT new com.vehicle.salesmanagement.domain.dto.apiresponse.OrderDetailsResponse(" +
+            "o.customerName, o.phoneNumber, o.email, o.aadharNo, o.panNo, o.modelName, o.fuelType, o.colour, " +
+            "o.variant, o.quantity, o.orderStatus) FROM VehicleOrderDetails o WHERE o.customerOrderId = :customerOrderId")
+    Optional<OrderDetailsResponse> findOrderDetailsById(@Param("customerOrderId") Long customerOrderId);
+
+    @Query("SELECT o.orderStatus AS status, COUNT(o) AS orderCount FROM VehicleOrderDetails o " +
+            "WHERE o.orderStatus IS NOT NULL GROUP BY o.orderStatus")
+    List<OrderStatusCount> countGroupedByStatus();
+
+    @Query(value = "SELECT status AS status, SUM(order_count) AS orderCount " +
+            "FROM sales_tracking.order_status_counter GROUP BY status", nativeQuery = true)
+    List<OrderStatusCount> sumStatusCounters();
 
 }
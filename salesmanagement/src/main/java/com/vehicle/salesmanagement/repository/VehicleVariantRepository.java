@@ -7,13 +7,12 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface VehicleVariantRepository extends JpaRepository<VehicleVariant,Long> {
 
-
-
     @Query("SELECT DISTINCT v.vehicleModel.modelName FROM VehicleVariant v")
     List<String> findDistinctModelNames();
 
@@ -177,4 +176,7 @@ public interface VehicleVariantRepository extends JpaRepository<VehicleVariant,L
     List<VehicleVariant> findByVehicleModel_ModelNameAndVariant(String modelName, String variant);
 
     List<VehicleVariant> findByVehicleModel_ModelName(String modelName);
+
+    @Query("SELECT v.vinNumber FROM VehicleVariant v WHERE v.vinNumber IN :vinNumbers")
+    List<String> findExistingVinNumbers(@Param("vinNumbers") Collection<String> vinNumbers);
 }
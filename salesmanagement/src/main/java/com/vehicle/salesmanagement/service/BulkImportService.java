@@ -0,0 +1,316 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.domain.dto.apirequest.MddpStockAddRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.StockAddRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.VehicleModelRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.VehicleVariantRequest;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.VehicleModelResponse;
+import com.vehicle.salesmanagement.domain.entity.model.MddpStock;
+import com.vehicle.salesmanagement.domain.entity.model.StockDetails;
+import com.vehicle.salesmanagement.domain.entity.model.VehicleModel;
+import com.vehicle.salesmanagement.domain.entity.model.VehicleVariant;
+import com.vehicle.salesmanagement.event.VehicleCatalogChangedEvent;
+import com.vehicle.salesmanagement.repository.MddpStockRepository;
+import com.vehicle.salesmanagement.repository.StockDetailsRepository;
+import com.vehicle.salesmanagement.repository.VehicleModelRepository;
+import com.vehicle.salesmanagement.repository.VehicleVariantRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Bulk imports for the dealer feeds: referenced models and variants are fetched once per import, duplicate
+// VINs are rejected before touching the database and rows are written in JDBC batches, one transaction per
+// batch. A batch that fails is replayed row by row so a single bad row only fails itself.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkImportService {
+
+    // stays well below the bind parameter limit of a single PostgreSQL statement
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final VehicleOrderService vehicleOrderService;
+    private final VehicleModelRepository vehicleModelRepository;
+    private final VehicleVariantRepository variantRepository;
+    private final StockDetailsRepository stockRepository;
+    private final MddpStockRepository mddpStockRepository;
+    private final StockAvailabilityIndex stockAvailabilityIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${bulk.import.batch-size:500}")
+    private int batchSize;
+
+    public List<String> importVehicleStock(List<StockAddRequest> requests) {
+        List<String> errors = saveVehicleStock(requests);
+        List<String> messages = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String vin = requests.get(i).getVinNumber();
+            messages.add(errors.get(i) == null
+                    ? "Stock added successfully for VIN: " + vin
+                    : "Failed to add stock for VIN " + vin + ": " + errors.get(i));
+        }
+        return messages;
+    }
+
+    // Returns one entry per request: null when the row was saved, otherwise the reason it was not.
+    public List<String> saveVehicleStock(List<StockAddRequest> requests) {
+        Map<Long, VehicleModel> models = findModels(requests.stream().map(StockAddRequest::getModelId));
+        Map<Long, VehicleVariant> variants = findVariants(requests.stream().map(StockAddRequest::getVariantId));
+        Set<String> existingVins = findExisting(requests.stream().map(StockAddRequest::getVinNumber),
+                stockRepository::findExistingVinNumbers);
+
+        String[] errors = new String[requests.size()];
+        Set<String> seenVins = new HashSet<>();
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            StockAddRequest request = requests.get(i);
+            errors[i] = checkReferences(models, request.getModelId(), variants, request.getVariantId());
+            if (errors[i] == null) {
+                errors[i] = checkVin(request.getVinNumber(), existingVins, seenVins);
+            }
+            if (errors[i] == null) {
+                rows.add(i);
+            }
+        }
+
+        BatchResult<StockDetails> result = saveInBatches(rows, i -> {
+            StockAddRequest request = requests.get(i);
+            return vehicleOrderService.newVehicleStock(models.get(request.getModelId()),
+                    variants.get(request.getVariantId()), request);
+        }, stockRepository, stockAvailabilityIndex::putAfterCommit);
+
+        log.info("Bulk stock import finished: {} of {} rows saved", result.saved().size(), requests.size());
+        return rowErrors(errors, result);
+    }
+
+    public List<String> importMddpStock(List<MddpStockAddRequest> requests) {
+        List<String> errors = saveMddpStock(requests);
+        List<String> messages = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String vin = requests.get(i).getVin();
+            messages.add(errors.get(i) == null
+                    ? "MDDP stock added successfully for VIN: " + vin
+                    : "Failed to add MDDP stock for VIN " + vin + ": " + errors.get(i));
+        }
+        return messages;
+    }
+
+    public List<String> saveMddpStock(List<MddpStockAddRequest> requests) {
+        Map<Long, VehicleModel> models = findModels(requests.stream().map(MddpStockAddRequest::getModelId));
+        Map<Long, VehicleVariant> variants = findVariants(requests.stream().map(MddpStockAddRequest::getVariantId));
+        Set<String> existingVins = findExisting(requests.stream().map(MddpStockAddRequest::getVin),
+                mddpStockRepository::findExistingVinNumbers);
+
+        String[] errors = new String[requests.size()];
+        Set<String> seenVins = new HashSet<>();
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            MddpStockAddRequest request = requests.get(i);
+            errors[i] = checkReferences(models, request.getModelId(), variants, request.getVariantId());
+            if (errors[i] == null) {
+                errors[i] = checkVin(request.getVin(), existingVins, seenVins);
+            }
+            if (errors[i] == null) {
+                rows.add(i);
+            }
+        }
+
+        BatchResult<MddpStock> result = saveInBatches(rows, i -> {
+            MddpStockAddRequest request = requests.get(i);
+            return vehicleOrderService.newMddpStock(request, models.get(request.getModelId()),
+                    variants.get(request.getVariantId()));
+        }, mddpStockRepository, stock -> {
+        });
+
+        log.info("Bulk MDDP stock import finished: {} of {} rows saved", result.saved().size(), requests.size());
+        return rowErrors(errors, result);
+    }
+
+    public List<VehicleVariant> importVariants(List<VehicleVariantRequest> requests) {
+        Map<Long, VehicleModel> models = findModels(requests.stream().map(VehicleVariantRequest::getModelId));
+        Set<String> existingVins = findExisting(requests.stream().map(VehicleVariantRequest::getVinNumber),
+                variantRepository::findExistingVinNumbers);
+
+        Set<String> seenVins = new HashSet<>();
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            VehicleVariantRequest request = requests.get(i);
+            String error = models.containsKey(request.getModelId())
+                    ? checkVin(request.getVinNumber(), existingVins, seenVins)
+                    : "Vehicle model not found with ID: " + request.getModelId();
+            if (error == null) {
+                rows.add(i);
+            } else {
+                log.warn("Failed to add variant for model ID {}: {}", request.getModelId(), error);
+            }
+        }
+
+        BatchResult<VehicleVariant> result = saveInBatches(rows, i -> {
+            VehicleVariantRequest request = requests.get(i);
+            return vehicleOrderService.newVariant(request, models.get(request.getModelId()));
+        }, variantRepository, variant -> {
+        });
+        result.failures().forEach((i, error) ->
+                log.warn("Failed to add variant for model ID {}: {}", requests.get(i).getModelId(), error));
+        publishCatalogChange(result.saved().values().stream().map(variant -> variant.getVehicleModel().getModelName()));
+
+        log.info("Bulk variant import finished: {} of {} rows saved", result.saved().size(), requests.size());
+        return rows.stream().map(result.saved()::get).filter(Objects::nonNull).toList();
+    }
+
+    public List<VehicleModelResponse> importVehicleModels(List<VehicleModelRequest> requests) {
+        Set<String> existingNames = findExisting(requests.stream().map(VehicleModelRequest::getModelName),
+                vehicleModelRepository::findExistingModelNames);
+
+        Set<String> seenNames = new HashSet<>();
+        List<Integer> rows = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String modelName = requests.get(i).getModelName();
+            if (!existingNames.contains(modelName) && seenNames.add(modelName)) {
+                rows.add(i);
+            }
+        }
+
+        BatchResult<VehicleModel> result = saveInBatches(rows,
+                i -> vehicleOrderService.newVehicleModel(requests.get(i)), vehicleModelRepository, model -> {
+                });
+        publishCatalogChange(result.saved().values().stream().map(VehicleModel::getModelName));
+
+        List<VehicleModelResponse> responses = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String modelName = requests.get(i).getModelName();
+            VehicleModel saved = result.saved().get(i);
+            if (saved != null) {
+                responses.add(new VehicleModelResponse(saved.getModelName(), saved.getVehicleModelId(), null));
+            } else if (result.failures().containsKey(i)) {
+                responses.add(new VehicleModelResponse(modelName, null,
+                        "Failed to add vehicle model: " + result.failures().get(i)));
+            } else {
+                responses.add(new VehicleModelResponse(modelName, null,
+                        "Vehicle model '" + modelName + "' already exists."));
+            }
+        }
+        log.info("Bulk vehicle model import finished: {} of {} rows saved", result.saved().size(), requests.size());
+        return responses;
+    }
+
+    private <E> BatchResult<E> saveInBatches(List<Integer> rows, IntFunction<E> builder,
+                                             JpaRepository<E, Long> repository, Consumer<E> afterSave) {
+        Map<Integer, E> saved = new HashMap<>();
+        Map<Integer, String> failures = new HashMap<>();
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<Integer> batch = rows.subList(from, Math.min(from + batchSize, rows.size()));
+            try {
+                Map<Integer, E> entities = new LinkedHashMap<>();
+                transactionTemplate.executeWithoutResult(status -> {
+                    batch.forEach(i -> entities.put(i, builder.apply(i)));
+                    repository.saveAllAndFlush(entities.values()).forEach(afterSave);
+                });
+                saved.putAll(entities);
+            } catch (Exception e) {
+                log.warn("Batch of {} rows failed, retrying row by row: {}", batch.size(), e.getMessage());
+                for (Integer i : batch) {
+                    try {
+                        // rebuilt so the row does not carry an id handed out to the failed batch
+                        E entity = builder.apply(i);
+                        transactionTemplate.executeWithoutResult(status ->
+                                afterSave.accept(repository.saveAndFlush(entity)));
+                        saved.put(i, entity);
+                    } catch (Exception rowError) {
+                        failures.put(i, rowError.getMessage());
+                    }
+                }
+            } finally {
+                // the request scoped persistence context would otherwise keep every imported row
+                entityManager.clear();
+            }
+        }
+        return new BatchResult<>(saved, failures);
+    }
+
+    private void publishCatalogChange(Stream<String> modelNames) {
+        Set<String> changed = modelNames.filter(Objects::nonNull).collect(Collectors.toSet());
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new VehicleCatalogChangedEvent(changed));
+        }
+    }
+
+    private List<String> rowErrors(String[] errors, BatchResult<?> result) {
+        List<String> rowErrors = new ArrayList<>(errors.length);
+        for (int i = 0; i < errors.length; i++) {
+            rowErrors.add(errors[i] != null ? errors[i] : result.failures().get(i));
+        }
+        return rowErrors;
+    }
+
+    private String checkReferences(Map<Long, VehicleModel> models, Long modelId,
+                                   Map<Long, VehicleVariant> variants, Long variantId) {
+        if (!models.containsKey(modelId)) {
+            return "Vehicle model not found: " + modelId;
+        }
+        if (!variants.containsKey(variantId)) {
+            return "Vehicle variant not found: " + variantId;
+        }
+        return null;
+    }
+
+    private String checkVin(String vin, Set<String> existingVins, Set<String> seenVins) {
+        if (vin == null) {
+            return null;
+        }
+        if (existingVins.contains(vin)) {
+            return "VIN already exists: " + vin;
+        }
+        if (!seenVins.add(vin)) {
+            return "VIN appears more than once in this import: " + vin;
+        }
+        return null;
+    }
+
+    private Map<Long, VehicleModel> findModels(Stream<Long> ids) {
+        List<Long> distinctIds = ids.filter(Objects::nonNull).distinct().toList();
+        return vehicleModelRepository.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(VehicleModel::getVehicleModelId, Function.identity()));
+    }
+
+    private Map<Long, VehicleVariant> findVariants(Stream<Long> ids) {
+        List<Long> distinctIds = ids.filter(Objects::nonNull).distinct().toList();
+        return variantRepository.findAllById(distinctIds).stream()
+                .collect(Collectors.toMap(VehicleVariant::getVehicleVariantId, Function.identity()));
+    }
+
+    private Set<String> findExisting(Stream<String> values,
+                                     Function<Collection<String>, List<String>> lookup) {
+        List<String> distinctValues = values.filter(Objects::nonNull).distinct().toList();
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < distinctValues.size(); from += LOOKUP_CHUNK_SIZE) {
+            existing.addAll(lookup.apply(distinctValues.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinctValues.size()))));
+        }
+        return existing;
+    }
+
+    private record BatchResult<E>(Map<Integer, E> saved, Map<Integer, String> failures) {
+    }
+}
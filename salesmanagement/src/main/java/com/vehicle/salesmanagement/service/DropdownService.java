@@ -1,15 +1,21 @@
 package com.vehicle.salesmanagement.service;
 
 import com.vehicle.salesmanagement.domain.dto.apiresponse.VehicleAttributesResponse;
+import com.vehicle.salesmanagement.domain.entity.model.VehicleModel;
 import com.vehicle.salesmanagement.domain.entity.model.VehicleVariant;
+import com.vehicle.salesmanagement.event.VehicleCatalogChangedEvent;
 import com.vehicle.salesmanagement.repository.VehicleModelRepository;
 import com.vehicle.salesmanagement.repository.VehicleVariantRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -19,252 +25,323 @@ public class DropdownService {
     private final VehicleModelRepository vehicleModelRepository;
     private final VehicleVariantRepository vehicleVariantRepository;
 
+    private volatile CatalogSnapshot snapshot;
+
     public VehicleAttributesResponse getVehicleAttributes(String modelName, String variant) {
-        VehicleAttributesResponse response = new VehicleAttributesResponse();
-        
-        // Fetch all model names, handle nulls
-        List<String> modelNames = vehicleModelRepository.findAll().stream()
-                .map(model -> model.getModelName() != null ? model.getModelName() : "")
-                .filter(name -> !name.isEmpty())
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
-        response.setModelNames(modelNames);
-
-        // Initialize model details map
-        Map<String, VehicleAttributesResponse.ModelAttributes> modelDetails = new HashMap<>();
-        response.setModelDetails(modelDetails);
-
-        // Fetch variants based on modelName and variant
-        List<VehicleVariant> variants;
-        if (modelName != null && variant != null) {
-            variants = vehicleVariantRepository.findByVehicleModel_ModelNameAndVariant(modelName, variant);
-        } else if (modelName != null) {
-            variants = vehicleVariantRepository.findByVehicleModel_ModelName(modelName);
+        CatalogSnapshot catalog = currentSnapshot();
+
+        // the snapshot is shared by every caller, so each response gets its own copies of the entries
+        Map<String, VehicleAttributesResponse.ModelAttributes> modelDetails = new TreeMap<>();
+        if (modelName == null) {
+            catalog.modelDetails().forEach((name, attributes) -> modelDetails.put(name, copy(attributes)));
         } else {
-            variants = vehicleVariantRepository.findAll();
+            VehicleAttributesResponse.ModelAttributes attributes = variant == null
+                    ? catalog.modelDetails().get(modelName)
+                    : catalog.variantDetails().getOrDefault(modelName, Map.of()).get(variant);
+            // unknown model or model+variant, same empty entry the per-request queries used to return
+            if (attributes == null) {
+                attributes = new VehicleAttributesResponse.ModelAttributes();
+                if (variant != null) {
+                    attributes.setVariants(Collections.singletonList(variant));
+                }
+            } else {
+                attributes = copy(attributes);
+            }
+            modelDetails.put(modelName, attributes);
         }
+        return new VehicleAttributesResponse(catalog.modelNames(), modelDetails);
+    }
 
-        // Handle empty variants for specific model or model+variant
-        if (variants.isEmpty() && modelName != null) {
-            VehicleAttributesResponse.ModelAttributes emptyAttributes = new VehicleAttributesResponse.ModelAttributes();
-            if (variant != null) {
-                emptyAttributes.setVariants(Collections.singletonList(variant));
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuildCatalog() {
+        Map<String, List<VehicleVariant>> variantsByModel = groupByModel(vehicleVariantRepository.findAll());
+        Map<String, VehicleAttributesResponse.ModelAttributes> modelDetails = new TreeMap<>();
+        Map<String, Map<String, VehicleAttributesResponse.ModelAttributes>> variantDetails = new TreeMap<>();
+        variantsByModel.forEach((name, variants) -> {
+            modelDetails.put(name, buildAttributes(variants));
+            variantDetails.put(name, buildVariantAttributes(variants));
+        });
+        snapshot = new CatalogSnapshot(
+                sortedModelNames(vehicleModelRepository.findAll().stream().map(VehicleModel::getModelName)),
+                Collections.unmodifiableMap(modelDetails),
+                Collections.unmodifiableMap(variantDetails));
+        log.info("Vehicle attribute catalog built for {} models", modelDetails.size());
+    }
+
+    // Recomputes only the models named in the event and swaps in a new snapshot; readers keep the old one until then.
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(VehicleCatalogChangedEvent event) {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        Map<String, VehicleAttributesResponse.ModelAttributes> modelDetails = new TreeMap<>(current.modelDetails());
+        Map<String, Map<String, VehicleAttributesResponse.ModelAttributes>> variantDetails = new TreeMap<>(current.variantDetails());
+        for (String modelName : event.modelNames()) {
+            List<VehicleVariant> variants = groupByModel(vehicleVariantRepository.findByVehicleModel_ModelName(modelName))
+                    .getOrDefault(modelName, List.of());
+            if (variants.isEmpty()) {
+                modelDetails.remove(modelName);
+                variantDetails.remove(modelName);
+            } else {
+                modelDetails.put(modelName, buildAttributes(variants));
+                variantDetails.put(modelName, buildVariantAttributes(variants));
             }
-            modelDetails.put(modelName, emptyAttributes);
-            return response;
         }
+        snapshot = new CatalogSnapshot(
+                sortedModelNames(Stream.concat(current.modelNames().stream(), event.modelNames().stream())),
+                Collections.unmodifiableMap(modelDetails),
+                Collections.unmodifiableMap(variantDetails));
+        log.info("Vehicle attribute catalog refreshed for models: {}", event.modelNames());
+    }
+
+    private CatalogSnapshot currentSnapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            rebuildCatalog();
+            current = snapshot;
+        }
+        return current;
+    }
 
-        // Group variants by model name, filter out invalid entries
-        Map<String, List<VehicleVariant>> variantsByModel = variants.stream()
+    private Map<String, List<VehicleVariant>> groupByModel(List<VehicleVariant> variants) {
+        return variants.stream()
                 .filter(v -> v.getVehicleModel() != null && v.getVehicleModel().getModelName() != null)
                 .collect(Collectors.groupingBy(v -> v.getVehicleModel().getModelName()));
+    }
 
-        // Populate attributes for each model
-        variantsByModel.forEach((mName, modelVariants) -> {
-            VehicleAttributesResponse.ModelAttributes attributes = new VehicleAttributesResponse.ModelAttributes();
-
-            attributes.setVariants(modelVariants.stream()
-                    .map(VehicleVariant::getVariant)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setColours(modelVariants.stream()
-                    .map(VehicleVariant::getColour)
-                    .filter(Objects::nonNull)
-                    .flatMap(colour -> Arrays.stream(colour.split(",\\s*")))
-                    .filter(colour -> !colour.isEmpty())
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setEngineColours(modelVariants.stream()
-                    .map(VehicleVariant::getEngineColour)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setInteriorColours(modelVariants.stream()
-                    .map(VehicleVariant::getInteriorColour)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setFuelTypes(modelVariants.stream()
-                    .map(VehicleVariant::getFuelType)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setTransmissionTypes(modelVariants.stream()
-                    .map(VehicleVariant::getTransmissionType)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setPrices(modelVariants.stream()
-                    .map(VehicleVariant::getPrice)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setYearsOfManufacture(modelVariants.stream()
-                    .map(VehicleVariant::getYearOfManufacture)
-                    .filter(Objects::nonNull)
-                    .map(this::parseInteger)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setBodyTypes(modelVariants.stream()
-                    .map(VehicleVariant::getBodyType)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setFuelTankCapacities(modelVariants.stream()
-                    .map(VehicleVariant::getFuelTankCapacity)
-                    .filter(Objects::nonNull)
-                    .map(this::parseDouble)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setNumberOfAirbags(modelVariants.stream()
-                    .map(VehicleVariant::getNumberOfAirBags)
-                    .filter(Objects::nonNull)
-                    .map(this::parseInteger)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setMileageCities(modelVariants.stream()
-                    .map(VehicleVariant::getMileageCity)
-                    .filter(Objects::nonNull)
-                    .map(this::parseDouble)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setMileageHighways(modelVariants.stream()
-                    .map(VehicleVariant::getMileageHighway)
-                    .filter(Objects::nonNull)
-                    .map(this::parseDouble)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setSeatingCapacities(modelVariants.stream()
-                    .map(VehicleVariant::getSeatingCapacity)
-                    .filter(Objects::nonNull)
-                    .map(this::parseInteger)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setMaxPowers(modelVariants.stream()
-                    .map(VehicleVariant::getMaxPower)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setMaxTorques(modelVariants.stream()
-                    .map(VehicleVariant::getMaxTorque)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setTopSpeeds(modelVariants.stream()
-                    .map(VehicleVariant::getTopSpeed)
-                    .filter(Objects::nonNull)
-                    .map(this::parseInteger)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setWheelBases(modelVariants.stream()
-                    .map(VehicleVariant::getWheelBase)
-                    .filter(Objects::nonNull)
-                    .map(this::parseInteger)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setWidths(modelVariants.stream()
-                    .map(VehicleVariant::getWidth)
-                    .filter(Objects::nonNull)
-                    .map(this::parseInteger)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setLengths(modelVariants.stream()
-                    .map(VehicleVariant::getLength)
-                    .filter(Objects::nonNull)
-                    .map(this::parseInteger)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setSafetyFeatures(modelVariants.stream()
-                    .map(VehicleVariant::getSafetyFeature)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setInfotainments(modelVariants.stream()
-                    .map(VehicleVariant::getInfotainment)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setComforts(modelVariants.stream()
-                    .map(VehicleVariant::getComfort)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setSuffixes(modelVariants.stream()
-                    .map(VehicleVariant::getSuffix)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            attributes.setEngineCapacities(modelVariants.stream()
-                    .map(VehicleVariant::getEngineCapacity)
-                    .filter(Objects::nonNull)
-                    .distinct()
-                    .sorted()
-                    .collect(Collectors.toList()));
-
-            modelDetails.put(mName, attributes);
-        });
+    private List<String> sortedModelNames(Stream<String> modelNames) {
+        return modelNames
+                .filter(name -> name != null && !name.isEmpty())
+                .distinct()
+                .sorted()
+                .toList();
+    }
+
+    private Map<String, VehicleAttributesResponse.ModelAttributes> buildVariantAttributes(List<VehicleVariant> variants) {
+        Map<String, VehicleAttributesResponse.ModelAttributes> byVariant = new TreeMap<>();
+        variants.stream()
+                .filter(v -> v.getVariant() != null)
+                .collect(Collectors.groupingBy(VehicleVariant::getVariant))
+                .forEach((variantName, variantRows) -> byVariant.put(variantName, buildAttributes(variantRows)));
+        return Collections.unmodifiableMap(byVariant);
+    }
+
+    private VehicleAttributesResponse.ModelAttributes buildAttributes(List<VehicleVariant> variants) {
+        VehicleAttributesResponse.ModelAttributes attributes = new VehicleAttributesResponse.ModelAttributes();
+
+        attributes.setVariants(variants.stream()
+                .map(VehicleVariant::getVariant)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setColours(variants.stream()
+                .map(VehicleVariant::getColour)
+                .filter(Objects::nonNull)
+                .flatMap(colour -> Arrays.stream(colour.split(",\\s*")))
+                .filter(colour -> !colour.isEmpty())
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setEngineColours(variants.stream()
+                .map(VehicleVariant::getEngineColour)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setInteriorColours(variants.stream()
+                .map(VehicleVariant::getInteriorColour)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setFuelTypes(variants.stream()
+                .map(VehicleVariant::getFuelType)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setTransmissionTypes(variants.stream()
+                .map(VehicleVariant::getTransmissionType)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setPrices(variants.stream()
+                .map(VehicleVariant::getPrice)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setYearsOfManufacture(variants.stream()
+                .map(VehicleVariant::getYearOfManufacture)
+                .filter(Objects::nonNull)
+                .map(this::parseInteger)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setBodyTypes(variants.stream()
+                .map(VehicleVariant::getBodyType)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setFuelTankCapacities(variants.stream()
+                .map(VehicleVariant::getFuelTankCapacity)
+                .filter(Objects::nonNull)
+                .map(this::parseDouble)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setNumberOfAirbags(variants.stream()
+                .map(VehicleVariant::getNumberOfAirBags)
+                .filter(Objects::nonNull)
+                .map(this::parseInteger)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setMileageCities(variants.stream()
+                .map(VehicleVariant::getMileageCity)
+                .filter(Objects::nonNull)
+                .map(this::parseDouble)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setMileageHighways(variants.stream()
+                .map(VehicleVariant::getMileageHighway)
+                .filter(Objects::nonNull)
+                .map(this::parseDouble)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setSeatingCapacities(variants.stream()
+                .map(VehicleVariant::getSeatingCapacity)
+                .filter(Objects::nonNull)
+                .map(this::parseInteger)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setMaxPowers(variants.stream()
+                .map(VehicleVariant::getMaxPower)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setMaxTorques(variants.stream()
+                .map(VehicleVariant::getMaxTorque)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setTopSpeeds(variants.stream()
+                .map(VehicleVariant::getTopSpeed)
+                .filter(Objects::nonNull)
+                .map(this::parseInteger)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setWheelBases(variants.stream()
+                .map(VehicleVariant::getWheelBase)
+                .filter(Objects::nonNull)
+                .map(this::parseInteger)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
 
-        return response;
+        attributes.setWidths(variants.stream()
+                .map(VehicleVariant::getWidth)
+                .filter(Objects::nonNull)
+                .map(this::parseInteger)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setLengths(variants.stream()
+                .map(VehicleVariant::getLength)
+                .filter(Objects::nonNull)
+                .map(this::parseInteger)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setSafetyFeatures(variants.stream()
+                .map(VehicleVariant::getSafetyFeature)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setInfotainments(variants.stream()
+                .map(VehicleVariant::getInfotainment)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setComforts(variants.stream()
+                .map(VehicleVariant::getComfort)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setSuffixes(variants.stream()
+                .map(VehicleVariant::getSuffix)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        attributes.setEngineCapacities(variants.stream()
+                .map(VehicleVariant::getEngineCapacity)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList());
+
+        return attributes;
+    }
+
+    // the lists are immutable (toList), so sharing them between copies is safe
+    private VehicleAttributesResponse.ModelAttributes copy(VehicleAttributesResponse.ModelAttributes attributes) {
+        return new VehicleAttributesResponse.ModelAttributes(
+                attributes.getVariants(), attributes.getColours(), attributes.getEngineColours(),
+                attributes.getInteriorColours(), attributes.getFuelTypes(), attributes.getTransmissionTypes(),
+                attributes.getPrices(), attributes.getYearsOfManufacture(), attributes.getBodyTypes(),
+                attributes.getFuelTankCapacities(), attributes.getNumberOfAirbags(), attributes.getMileageCities(),
+                attributes.getMileageHighways(), attributes.getSeatingCapacities(), attributes.getMaxPowers(),
+                attributes.getMaxTorques(), attributes.getTopSpeeds(), attributes.getWheelBases(),
+                attributes.getWidths(), attributes.getLengths(), attributes.getSafetyFeatures(),
+                attributes.getInfotainments(), attributes.getComforts(), attributes.getSuffixes(),
+                attributes.getEngineCapacities());
     }
 
     private Integer parseInteger(Object value) {
@@ -323,4 +400,9 @@ public class DropdownService {
         }
         return null;
     }
+
+    private record CatalogSnapshot(List<String> modelNames,
+                                   Map<String, VehicleAttributesResponse.ModelAttributes> modelDetails,
+                                   Map<String, Map<String, VehicleAttributesResponse.ModelAttributes>> variantDetails) {
+    }
 }
\ No newline at end of file
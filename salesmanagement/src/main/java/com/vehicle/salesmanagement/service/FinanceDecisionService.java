@@ -0,0 +1,193 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.domain.dto.apirequest.FinanceRequest;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.FinanceDecisionResult;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.FinanceResponse;
+import com.vehicle.salesmanagement.workflow.FinanceWorkflow;
+import io.temporal.api.enums.v1.WorkflowIdReusePolicy;
+import io.temporal.client.BatchRequest;
+import io.temporal.client.UpdateHandle;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowFailedException;
+import io.temporal.client.WorkflowNotFoundException;
+import io.temporal.client.WorkflowOptions;
+import io.temporal.client.WorkflowStub;
+import io.temporal.client.WorkflowUpdateException;
+import io.temporal.client.WorkflowUpdateStage;
+import io.temporal.failure.ApplicationFailure;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+// Approves or rejects finance workflows. A single decision is a workflow update that returns the updated
+// finance details in one round trip; when no workflow is running for the order, the decision is sent with
+// signal-with-start and the result awaited for a bounded time. An update on a closed workflow also lands there,
+// so signal-with-start refuses to reuse the workflow id of a finished run (WorkflowExecutionAlreadyStarted)
+// instead of deciding the same finance a second time. Bulk decisions go out as the same updates, started
+// concurrently on virtual threads and only awaited until the workflow accepts them, so the validator refuses a
+// finance that is already decided; results are collected with getResultAsync under one deadline for the whole
+// batch, so neither the request thread nor a pool thread waits on any single workflow.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FinanceDecisionService {
+
+    private final WorkflowClient workflowClient;
+
+    @Value("${finance.decision.timeout-seconds:30}")
+    private long decisionTimeoutSeconds;
+
+    @Value("${finance.bulk.deadline-seconds:20}")
+    private long deadlineSeconds;
+
+    @Value("${finance.bulk.max-orders:200}")
+    private int maxOrders;
+
+    private final ExecutorService decisionExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    public void shutdown() {
+        decisionExecutor.shutdown();
+    }
+
+    public FinanceResponse approve(Long customerOrderId, String approvedBy) {
+        try {
+            return workflowStub(customerOrderId).approve(approvedBy);
+        } catch (WorkflowNotFoundException e) {
+            log.info("No running finance workflow for order ID: {}, approving with signal-with-start", customerOrderId);
+            return signalWithStart(customerOrderId, (workflow, request) -> request.add(workflow::approveFinance, approvedBy));
+        }
+    }
+
+    public FinanceResponse reject(Long customerOrderId, String rejectedBy) {
+        try {
+            return workflowStub(customerOrderId).reject(rejectedBy);
+        } catch (WorkflowNotFoundException e) {
+            log.info("No running finance workflow for order ID: {}, rejecting with signal-with-start", customerOrderId);
+            return signalWithStart(customerOrderId, (workflow, request) -> request.add(workflow::rejectFinance, rejectedBy));
+        }
+    }
+
+    public CompletableFuture<List<FinanceDecisionResult>> approveAll(List<Long> customerOrderIds, String approvedBy) {
+        return decideAll(customerOrderIds, "approve", approvedBy);
+    }
+
+    public CompletableFuture<List<FinanceDecisionResult>> rejectAll(List<Long> customerOrderIds, String rejectedBy) {
+        return decideAll(customerOrderIds, "reject", rejectedBy);
+    }
+
+    private FinanceWorkflow workflowStub(Long customerOrderId) {
+        return workflowClient.newWorkflowStub(FinanceWorkflow.class, "finance-" + customerOrderId);
+    }
+
+    private FinanceResponse signalWithStart(Long customerOrderId, BiConsumer<FinanceWorkflow, BatchRequest> decision) {
+        FinanceWorkflow workflow = workflowClient.newWorkflowStub(FinanceWorkflow.class, WorkflowOptions.newBuilder()
+                .setTaskQueue("finance-task-queue")
+                .setWorkflowId("finance-" + customerOrderId)
+                // a closed run means the finance was already decided, only a running one may be signalled
+                .setWorkflowIdReusePolicy(WorkflowIdReusePolicy.WORKFLOW_ID_REUSE_POLICY_REJECT_DUPLICATE)
+                .build());
+        // the workflow only needs the order id, the finance details were stored when finance was initiated
+        FinanceRequest financeRequest = new FinanceRequest();
+        financeRequest.setCustomerOrderId(customerOrderId);
+        BatchRequest request = workflowClient.newSignalWithStartRequest();
+        request.add(workflow::processFinance, financeRequest);
+        decision.accept(workflow, request);
+        workflowClient.signalWithStart(request);
+        try {
+            return WorkflowStub.fromTyped(workflow).getResult(decisionTimeoutSeconds, TimeUnit.SECONDS, FinanceResponse.class);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Finance decision for order ID: " + customerOrderId
+                    + " was sent but did not complete within " + decisionTimeoutSeconds + " seconds");
+        }
+    }
+
+    private CompletableFuture<List<FinanceDecisionResult>> decideAll(List<Long> customerOrderIds, String update, String decidedBy) {
+        List<Long> orderIds = new ArrayList<>(new LinkedHashSet<>(customerOrderIds));
+        if (orderIds.size() > maxOrders) {
+            throw new IllegalArgumentException("At most " + maxOrders + " orders can be decided at once, got " + orderIds.size());
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(deadlineSeconds);
+        List<Decision> decisions = new ArrayList<>(orderIds.size());
+        for (Long customerOrderId : orderIds) {
+            String workflowId = "finance-" + customerOrderId;
+            CompletableFuture<UpdateHandle<FinanceResponse>> accepted = CompletableFuture.supplyAsync(
+                    () -> workflowClient.newUntypedWorkflowStub(workflowId)
+                            .startUpdate(update, WorkflowUpdateStage.ACCEPTED, FinanceResponse.class, decidedBy), decisionExecutor);
+            CompletableFuture<FinanceResponse> result = accepted.thenCompose(handle ->
+                    handle.getResultAsync(remainingNanos(deadline), TimeUnit.NANOSECONDS));
+            decisions.add(new Decision(customerOrderId, accepted, result));
+        }
+        log.info("Sent {} update to {} finance workflows", update, decisions.size());
+
+        return CompletableFuture.allOf(decisions.stream().map(Decision::result).toArray(CompletableFuture[]::new))
+                .handle((done, error) -> null)
+                .completeOnTimeout(null, deadlineSeconds, TimeUnit.SECONDS)
+                .thenApply(ignored -> decisions.stream().map(this::toResult).toList());
+    }
+
+    private FinanceDecisionResult toResult(Decision decision) {
+        Long customerOrderId = decision.customerOrderId();
+        if (decision.result().isDone() && !decision.result().isCompletedExceptionally()) {
+            return new FinanceDecisionResult(customerOrderId, "COMPLETED", "Finance workflow completed", decision.result().join());
+        }
+        if (decision.accepted().isCompletedExceptionally()) {
+            Throwable cause = cause(decision.accepted());
+            String message;
+            if (cause instanceof WorkflowNotFoundException) {
+                message = "No running finance workflow for order ID: " + customerOrderId;
+            } else if (cause instanceof WorkflowUpdateException && cause.getCause() instanceof ApplicationFailure failure) {
+                // refused by the validator, e.g. the finance has already been decided
+                message = "Decision refused: " + failure.getOriginalMessage();
+            } else {
+                message = "Failed to send the decision: " + cause.getMessage();
+            }
+            return new FinanceDecisionResult(customerOrderId, "FAILED", message, null);
+        }
+        if (decision.result().isCompletedExceptionally()) {
+            Throwable cause = cause(decision.result());
+            if (cause instanceof WorkflowUpdateException || cause instanceof WorkflowFailedException) {
+                String message = cause.getCause() != null ? cause.getCause().getMessage() : cause.getMessage();
+                return new FinanceDecisionResult(customerOrderId, "FAILED", "Finance decision failed: " + message, null);
+            }
+            if (!(cause instanceof TimeoutException)) {
+                return new FinanceDecisionResult(customerOrderId, "FAILED", "Failed to get finance result: " + cause.getMessage(), null);
+            }
+        }
+        log.warn("No finance result within {}s for order ID: {}", deadlineSeconds, customerOrderId);
+        return new FinanceDecisionResult(customerOrderId, "PENDING",
+                decision.accepted().isDone() ? "Decision accepted, workflow still deciding" : "Decision not yet accepted", null);
+    }
+
+    private Throwable cause(CompletableFuture<?> future) {
+        try {
+            future.join();
+            return null;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause instanceof ExecutionException && cause.getCause() != null ? cause.getCause() : cause;
+        }
+    }
+
+    private long remainingNanos(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    private record Decision(Long customerOrderId, CompletableFuture<UpdateHandle<FinanceResponse>> accepted,
+                            CompletableFuture<FinanceResponse> result) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.vehicle.salesmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicle.salesmanagement.enums.HistoryType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Write side of the history pipeline. Rows recorded during a transaction are buffered and written to the
+// outbox with a single JDBC batch just before that transaction commits, so they are stored (or rolled back)
+// together with the change they describe; HistoryOutboxRelay copies them into the history tables afterwards.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HistoryOutbox {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sales_tracking.history_outbox (history_type, payload) VALUES (?, ?::jsonb)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final HistoryOutboxRelay relay;
+
+    public void enqueue(HistoryType type, Map<String, Object> row) {
+        PendingRow pendingRow = new PendingRow(type, toJson(row));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(List.of(pendingRow));
+            relay.wakeUp();
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<PendingRow> pending = (List<PendingRow>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<PendingRow> rows = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, rows);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(rows);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(HistoryOutbox.this);
+                    if (status == STATUS_COMMITTED) {
+                        relay.wakeUp();
+                    }
+                }
+            });
+            pending = rows;
+        }
+        pending.add(pendingRow);
+    }
+
+    private void write(List<PendingRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.type().name());
+            ps.setString(2, row.payload());
+        });
+        log.debug("Queued {} history rows in the outbox", rows.size());
+    }
+
+    private String toJson(Map<String, Object> row) {
+        try {
+            return objectMapper.writeValueAsString(row);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize history row: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private record PendingRow(HistoryType type, String payload) {
+    }
+}
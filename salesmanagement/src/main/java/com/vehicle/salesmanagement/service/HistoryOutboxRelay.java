@@ -0,0 +1,221 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.domain.dto.apiresponse.HistoryOutboxMetrics;
+import com.vehicle.salesmanagement.enums.HistoryType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Moves history rows from sales_tracking.history_outbox into the history tables in the background. Each pass
+// claims a batch with DELETE ... RETURNING and inserts it with one JDBC batch per history table in the same
+// transaction; rows left behind by a crash or a failed pass are simply picked up by the next one. Passes are
+// serialized across nodes because order deltas must be computed in outbox order.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HistoryOutboxRelay {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final OrderHistoryStore orderHistoryStore;
+    // the schema update has to create the history tables before anything is relayed into them
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${history.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${history.outbox.poll-interval-ms:5000}")
+    private long pollIntervalMs;
+
+    @Value("${history.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${history.outbox.retry-backoff-ms:5000}")
+    private long retryBackoffMs;
+
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final ExecutorService relayExecutor = Executors.newSingleThreadExecutor();
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS sales_tracking.history_outbox (" +
+                    "outbox_id BIGSERIAL PRIMARY KEY, " +
+                    "history_type VARCHAR(32) NOT NULL, " +
+                    "payload JSONB NOT NULL, " +
+                    "created_at TIMESTAMP NOT NULL DEFAULT now(), " +
+                    "attempts INT NOT NULL DEFAULT 0, " +
+                    "last_error TEXT)");
+            jdbcTemplate.execute("ALTER TABLE sales_tracking.history_outbox ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP");
+        } catch (Exception e) {
+            log.error("Failed to create the history outbox table: {}", e.getMessage());
+        }
+        running = true;
+        relayExecutor.submit(this::relayLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // anything still in the outbox is relayed after the next start
+        running = false;
+        wakeUp();
+        relayExecutor.shutdown();
+        relayExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    public void wakeUp() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    private void relayLoop() {
+        while (running) {
+            try {
+                if (relayBatch() < batchSize) {
+                    wakeUps.tryAcquire(pollIntervalMs, TimeUnit.MILLISECONDS);
+                    wakeUps.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("History outbox relay failed, retrying in {} ms: {}", pollIntervalMs, e.getMessage());
+                try {
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    int relayBatch() {
+        try {
+            Integer relayed = new TransactionTemplate(transactionManager).execute(status -> {
+                List<OutboxEntry> entries = claim(batchSize);
+                insertHistory(entries);
+                return entries.size();
+            });
+            if (relayed != null && relayed > 0) {
+                log.debug("Relayed {} history rows", relayed);
+            }
+            return relayed != null ? relayed : 0;
+        } catch (RuntimeException e) {
+            log.warn("History batch failed, relaying rows one at a time: {}", e.getMessage());
+            return relayOneByOne();
+        }
+    }
+
+    // Isolates the row(s) that break a batch; each failure is recorded on the row, which then waits out a doubling
+    // backoff before it is claimed again. After max-attempts failures the row is set aside, so one bad row can't
+    // hold up the rest of the outbox; set-aside rows are counted by getMetrics.
+    private int relayOneByOne() {
+        int relayed = 0;
+        for (int i = 0; i < batchSize; i++) {
+            List<Long> claimed = new ArrayList<>(1);
+            try {
+                Integer count = new TransactionTemplate(transactionManager).execute(status -> {
+                    List<OutboxEntry> entries = claim(1);
+                    entries.forEach(entry -> claimed.add(entry.outboxId()));
+                    insertHistory(entries);
+                    return entries.size();
+                });
+                if (count == null || count == 0) {
+                    break;
+                }
+                relayed += count;
+            } catch (RuntimeException e) {
+                if (claimed.isEmpty()) {
+                    throw e;
+                }
+                recordFailure(claimed.get(0), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+        return relayed;
+    }
+
+    private void recordFailure(long outboxId, String error) {
+        // attempts on the right-hand side is the count before this failure, so the waits are backoff, 2x, 4x, ...
+        Integer attempts = jdbcTemplate.queryForObject("UPDATE sales_tracking.history_outbox " +
+                        "SET attempts = attempts + 1, last_error = ?, " +
+                        "next_attempt_at = now() + ? * power(2, attempts) * interval '1 millisecond' " +
+                        "WHERE outbox_id = ? RETURNING attempts",
+                Integer.class, error, retryBackoffMs, outboxId);
+        if (attempts != null && attempts >= maxAttempts) {
+            log.error("History outbox row {} set aside after {} failed attempts: {}", outboxId, attempts, error);
+        } else {
+            log.warn("Could not relay history outbox row {} (attempt {} of {}): {}", outboxId, attempts, maxAttempts, error);
+        }
+    }
+
+    public HistoryOutboxMetrics getMetrics() {
+        return jdbcTemplate.queryForObject("SELECT " +
+                        "count(*) FILTER (WHERE attempts = 0) AS pending, " +
+                        "count(*) FILTER (WHERE attempts > 0 AND attempts < ?) AS retrying, " +
+                        "count(*) FILTER (WHERE attempts >= ?) AS set_aside, " +
+                        "min(created_at) FILTER (WHERE attempts >= ?) AS oldest_set_aside " +
+                        "FROM sales_tracking.history_outbox",
+                (rs, rowNum) -> new HistoryOutboxMetrics(rs.getLong("pending"), rs.getLong("retrying"),
+                        rs.getLong("set_aside"), rs.getObject("oldest_set_aside", LocalDateTime.class), maxAttempts),
+                maxAttempts, maxAttempts, maxAttempts);
+    }
+
+    private List<OutboxEntry> claim(int limit) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(hashtext('sales_tracking.history_outbox'))");
+        return jdbcTemplate.query("DELETE FROM sales_tracking.history_outbox WHERE outbox_id IN (" +
+                        "SELECT outbox_id FROM sales_tracking.history_outbox WHERE attempts < ? " +
+                        "AND (next_attempt_at IS NULL OR next_attempt_at <= now()) " +
+                        "ORDER BY outbox_id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                        "RETURNING outbox_id, history_type, payload::text AS payload",
+                (rs, rowNum) -> new OutboxEntry(rs.getLong("outbox_id"),
+                        HistoryType.valueOf(rs.getString("history_type")), rs.getString("payload")),
+                maxAttempts, limit);
+    }
+
+    private void insertHistory(List<OutboxEntry> entries) {
+        Map<HistoryType, List<String>> payloadsByType = new LinkedHashMap<>();
+        entries.stream()
+                .sorted((a, b) -> Long.compare(a.outboxId(), b.outboxId()))
+                .forEach(entry -> payloadsByType.computeIfAbsent(entry.type(), type -> new ArrayList<>()).add(entry.payload()));
+        payloadsByType.forEach((type, payloads) -> {
+            if (type == HistoryType.ORDER) {
+                orderHistoryStore.appendSnapshots(payloads);
+            } else {
+                jdbcTemplate.batchUpdate(insertSql(type), payloads, payloads.size(),
+                        (ps, payload) -> ps.setString(1, payload));
+            }
+        });
+    }
+
+    // the payload keys are the history column names, so PostgreSQL converts every value to its column type
+    private String insertSql(HistoryType type) {
+        String table = "sales_tracking." + type.getTable();
+        String columns = String.join(", ", type.getColumns());
+        return "INSERT INTO " + table + " (" + columns + ") SELECT " + columns +
+                " FROM jsonb_populate_record(NULL::" + table + ", ?::jsonb)";
+    }
+
+    private record OutboxEntry(long outboxId, HistoryType type, String payload) {
+    }
+}
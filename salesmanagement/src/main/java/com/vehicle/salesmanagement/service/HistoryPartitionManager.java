@@ -0,0 +1,237 @@
+package com.vehicle.salesmanagement.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+// Keeps the history tables range-partitioned by month on changed_at. A plain table is converted once: it is
+// renamed to <table>_legacy and attached as the partition holding everything up to the end of its last month,
+// so no rows are copied. Monthly partitions are created ahead of time, with a DEFAULT partition catching rows past
+// them, and partitions that end before the retention window are exported to gzipped CSV in the archive directory
+// and then dropped. All of it runs under a per-table advisory lock, so only one node works on a table at a time.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HistoryPartitionManager {
+
+    // table -> id column; rows are only inserted through the parent, which keeps its own id sequence
+    private static final Map<String, String> HISTORY_TABLES = Map.of(
+            "vehicle_order_delta_history", "delta_id",
+            "vehicle_order_details_history", "history_id",
+            "finance_details_history", "history_id",
+            "dispatch_details_history", "history_id",
+            "delivery_details_history", "history_id"
+    );
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${history.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${history.partitioning.retention-months:24}")
+    private int retentionMonths;
+
+    // must be durable storage (a mounted volume); an expired partition is dropped once its export is written here
+    @Value("${history.partitioning.archive-dir:/var/lib/salesmanagement/history-archive}")
+    private String archiveDir;
+
+    // after ApplicationReady, so Hibernate and OrderHistoryStore have created the tables
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${history.partitioning.cron:0 30 1 * * *}")
+    public void maintainPartitions() {
+        HISTORY_TABLES.forEach((table, idColumn) -> {
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    lock(table);
+                    convertToPartitioned(table, idColumn);
+                    createFuturePartitions(table);
+                    createDefaultPartition(table);
+                    // seek index for the order timeline: (customer_order_id, changed_at, id) > cursor
+                    jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + table + "_timeline_idx ON sales_tracking." + table +
+                            " (customer_order_id, changed_at, " + idColumn + ")");
+                });
+                warnAboutDefaultPartitionRows(table);
+                if (retentionMonths > 0) {
+                    archiveExpiredPartitions(table);
+                }
+            } catch (Exception e) {
+                log.error("Partition maintenance failed for {}: {}", table, e.getMessage());
+            }
+        });
+    }
+
+    // one node at a time; conversion and partition DDL take exclusive locks anyway, and two nodes archiving the
+    // same partition would both export it and one of them fail on the drop
+    private void lock(String table) {
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(hashtext('sales_tracking." + table + "'))");
+    }
+
+    private void convertToPartitioned(String table, String idColumn) {
+        List<String> kind = jdbcTemplate.queryForList("SELECT c.relkind::text FROM pg_class c " +
+                "JOIN pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = 'sales_tracking' AND c.relname = ?",
+                String.class, table);
+        if (kind.isEmpty() || !"r".equals(kind.get(0))) {
+            return;
+        }
+        String qualified = "sales_tracking." + table;
+        String legacy = table + "_legacy";
+        String sequence = "sales_tracking." + table + "_id_seq";
+        Timestamp lastChange = jdbcTemplate.queryForObject("SELECT MAX(changed_at) FROM " + qualified, Timestamp.class);
+        LocalDate boundary = (lastChange != null ? lastChange.toLocalDateTime().toLocalDate() : LocalDate.now().minusMonths(1))
+                .withDayOfMonth(1).plusMonths(1);
+
+        jdbcTemplate.execute("ALTER TABLE " + qualified + " RENAME TO " + legacy);
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence);
+        jdbcTemplate.queryForList("SELECT setval('" + sequence + "', COALESCE((SELECT MAX(" + idColumn + ") FROM sales_tracking." +
+                legacy + "), 0) + 1, false)");
+        // identity columns can't be attached as a partition; the parent hands out ids from now on
+        jdbcTemplate.execute("ALTER TABLE sales_tracking." + legacy + " ALTER COLUMN " + idColumn + " DROP IDENTITY IF EXISTS");
+        jdbcTemplate.execute("CREATE TABLE " + qualified + " (LIKE sales_tracking." + legacy + " INCLUDING DEFAULTS) " +
+                "PARTITION BY RANGE (changed_at)");
+        jdbcTemplate.execute("ALTER TABLE " + qualified + " ALTER COLUMN " + idColumn + " SET DEFAULT nextval('" + sequence + "')");
+        jdbcTemplate.execute("ALTER TABLE " + qualified + " ADD CONSTRAINT " + table + "_part_pkey PRIMARY KEY (" + idColumn + ", changed_at)");
+        jdbcTemplate.execute("ALTER TABLE " + qualified + " ATTACH PARTITION sales_tracking." + legacy +
+                " FOR VALUES FROM (MINVALUE) TO ('" + boundary + "')");
+        log.info("Converted {} to monthly partitions, existing rows kept in {} up to {}", table, legacy, boundary);
+    }
+
+    private void createFuturePartitions(String table) {
+        if (!isPartitioned(table)) {
+            return;
+        }
+        LocalDate lastMonth = LocalDate.now().withDayOfMonth(1).plusMonths(monthsAhead);
+        // the legacy partition may already cover the current month
+        LocalDate month = partitionUpperBounds(table).values().stream()
+                .map(LocalDateTime::toLocalDate)
+                .max(LocalDate::compareTo)
+                .orElse(LocalDate.now().withDayOfMonth(1));
+        for (; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            String partition = table + "_p" + month.format(PARTITION_SUFFIX);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS sales_tracking." + partition +
+                    " PARTITION OF sales_tracking." + table +
+                    " FOR VALUES FROM ('" + month + "') TO ('" + month.plusMonths(1) + "')");
+            log.info("Created history partition {}", partition);
+        }
+    }
+
+    // catches rows past the last monthly partition (e.g. a clock far ahead) instead of failing their insert
+    private void createDefaultPartition(String table) {
+        if (!isPartitioned(table)) {
+            return;
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS sales_tracking." + table + "_default" +
+                " PARTITION OF sales_tracking." + table + " DEFAULT");
+    }
+
+    // rows in the DEFAULT partition block creating the monthly partition they belong to, so they need a look
+    private void warnAboutDefaultPartitionRows(String table) {
+        if (!isPartitioned(table)) {
+            return;
+        }
+        List<Map<String, Object>> stray = jdbcTemplate.queryForList("SELECT count(*) AS row_count, " +
+                "min(changed_at) AS first_change, max(changed_at) AS last_change FROM sales_tracking." + table + "_default");
+        Number rows = stray.isEmpty() ? null : (Number) stray.get(0).get("row_count");
+        if (rows != null && rows.longValue() > 0) {
+            log.error("{} rows of {} fall outside its monthly partitions ({} to {}) and sit in {}_default; " +
+                            "move them before the partitions for those months can be created",
+                    rows, table, stray.get(0).get("first_change"), stray.get(0).get("last_change"), table);
+        }
+    }
+
+    private void archiveExpiredPartitions(String table) {
+        LocalDateTime cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths).atStartOfDay();
+        partitionUpperBounds(table).forEach((partition, upperBound) -> {
+            if (upperBound.isAfter(cutoff)) {
+                return;
+            }
+            // export and drop in one transaction under the table lock; a failed export leaves the partition attached
+            Path archive = new TransactionTemplate(transactionManager).execute(status -> {
+                lock(table);
+                if (!partitionUpperBounds(table).containsKey(partition)) {
+                    return null;
+                }
+                Path exported = exportPartition(partition);
+                jdbcTemplate.execute("ALTER TABLE sales_tracking." + table + " DETACH PARTITION sales_tracking." + partition);
+                jdbcTemplate.execute("DROP TABLE sales_tracking." + partition);
+                return exported;
+            });
+            if (archive != null) {
+                log.info("Archived history partition {} (rows before {}) to {}", partition, upperBound, archive);
+            }
+        });
+    }
+
+    private Path exportPartition(String partition) {
+        try {
+            Path directory = Files.createDirectories(Paths.get(archiveDir));
+            Path target = directory.resolve(partition + ".csv.gz");
+            Path temporary = directory.resolve(partition + ".csv.gz.part");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporary))) {
+                long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                    try {
+                        return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(
+                                "COPY sales_tracking." + partition + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                log.info("Exported {} rows of {}", rows, partition);
+            }
+            return Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not export " + partition, e);
+        }
+    }
+
+    private boolean isPartitioned(String table) {
+        return !jdbcTemplate.queryForList("SELECT 1 FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                "WHERE n.nspname = 'sales_tracking' AND c.relname = ? AND c.relkind = 'p'", table).isEmpty();
+    }
+
+    private Map<String, LocalDateTime> partitionUpperBounds(String table) {
+        Map<String, LocalDateTime> bounds = new TreeMap<>();
+        jdbcTemplate.query("SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bound FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+                "JOIN pg_namespace n ON n.oid = p.relnamespace WHERE n.nspname = 'sales_tracking' AND p.relname = ?", rs -> {
+            Matcher matcher = UPPER_BOUND.matcher(rs.getString("bound"));
+            if (matcher.find()) {
+                bounds.put(rs.getString("relname"), LocalDateTime.parse(matcher.group(1).replace(' ', 'T')));
+            }
+        }, table);
+        return bounds;
+    }
+}
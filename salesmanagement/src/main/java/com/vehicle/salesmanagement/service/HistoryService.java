@@ -1,139 +1,141 @@
 package com.vehicle.salesmanagement.service;
 import com.vehicle.salesmanagement.domain.entity.model.*;
+import com.vehicle.salesmanagement.enums.HistoryType;
 import com.vehicle.salesmanagement.enums.OrderStatus;
-import com.vehicle.salesmanagement.repository.DeliveryDetailsHistoryRepository;
-import com.vehicle.salesmanagement.repository.DispatchDetailsHistoryRepository;
-import com.vehicle.salesmanagement.repository.FinanceDetailsHistoryRepository;
-import com.vehicle.salesmanagement.repository.VehicleOrderDetailsHistoryRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+// History rows are snapshotted here and written through the outbox; the keys are the history table columns.
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class HistoryService {
 
-    private final VehicleOrderDetailsHistoryRepository orderHistoryRepository;
-    private final FinanceDetailsHistoryRepository financeHistoryRepository;
-    private final DispatchDetailsHistoryRepository dispatchHistoryRepository;
-    private final DeliveryDetailsHistoryRepository deliveryHistoryRepository;
+    private final HistoryOutbox historyOutbox;
 
     @Transactional
     public void saveOrderHistory(VehicleOrderDetails orderDetails, String updatedBy, OrderStatus newStatus) {
         log.info("Saving history for VehicleOrderDetails with ID: {}", orderDetails.getCustomerOrderId());
-        VehicleOrderDetailsHistory history = new VehicleOrderDetailsHistory();
-
-        // Map fields from VehicleOrderDetails to VehicleOrderDetailsHistory
-        history.setVehicleOrderDetails(orderDetails);
-        history.setCustomerOrderId(orderDetails.getCustomerOrderId());
-        history.setCustomerName(orderDetails.getCustomerName());
-        history.setAadharNo(orderDetails.getAadharNo());
-        history.setBookingAmount(orderDetails.getBookingAmount());
-        history.setColour(orderDetails.getColour());
-        history.setCreatedAt(orderDetails.getCreatedAt());
-        history.setCreatedBy(orderDetails.getCreatedBy());
-        history.setCurrentAddress(orderDetails.getCurrentAddress());
-        history.setEmail(orderDetails.getEmail());
-        history.setFuelType(orderDetails.getFuelType());
-        history.setModelName(orderDetails.getModelName());
-        history.setOrderStatus(newStatus.name()); // Set to new status
-        history.setPanNo(orderDetails.getPanNo());
-        history.setPaymentMode(orderDetails.getPaymentMode());
-        history.setPermanentAddress(orderDetails.getPermanentAddress());
-        history.setPhoneNumber(orderDetails.getPhoneNumber());
-        history.setQuantity(orderDetails.getQuantity());
-        history.setTotalPrice(orderDetails.getTotalPrice());
-        history.setTransmissionType(orderDetails.getTransmissionType());
-        history.setUpdatedAt(orderDetails.getUpdatedAt());
-        history.setUpdatedBy(orderDetails.getUpdatedBy());
-        history.setVariant(orderDetails.getVariant());
-        history.setVehicleModel(orderDetails.getVehicleModel());
-        history.setVehicleVariant(orderDetails.getVehicleVariant());
+        Map<String, Object> history = new LinkedHashMap<>();
+        LocalDateTime changedAt = LocalDateTime.now();
+
+        // Full snapshot; OrderHistoryStore keeps only the fields that changed since the previous one
+        history.put("customer_order_id", orderDetails.getCustomerOrderId());
+        history.put("customer_name", orderDetails.getCustomerName());
+        history.put("aadhar_no", orderDetails.getAadharNo());
+        history.put("booking_amount", orderDetails.getBookingAmount());
+        history.put("colour", orderDetails.getColour());
+        history.put("created_at", orderDetails.getCreatedAt());
+        history.put("created_by", orderDetails.getCreatedBy());
+        history.put("current_address", orderDetails.getCurrentAddress());
+        history.put("email", orderDetails.getEmail());
+        history.put("fuel_type", orderDetails.getFuelType());
+        history.put("model_name", orderDetails.getModelName());
+        history.put("order_status", newStatus.name()); // Set to new status
+        history.put("pan_no", orderDetails.getPanNo());
+        history.put("payment_mode", orderDetails.getPaymentMode());
+        history.put("permanent_address", orderDetails.getPermanentAddress());
+        history.put("phone_number", orderDetails.getPhoneNumber());
+        history.put("quantity", orderDetails.getQuantity());
+        history.put("total_price", orderDetails.getTotalPrice());
+        history.put("transmission_type", orderDetails.getTransmissionType());
+        history.put("updated_at", orderDetails.getUpdatedAt());
+        history.put("updated_by", orderDetails.getUpdatedBy());
+        history.put("variant", orderDetails.getVariant());
+        history.put("vehicle_model_id", orderDetails.getVehicleModel() != null
+                ? orderDetails.getVehicleModel().getVehicleModelId() : null);
+        history.put("vehicle_variant_id", orderDetails.getVehicleVariant() != null
+                ? orderDetails.getVehicleVariant().getVehicleVariantId() : null);
 
         // Set history-specific fields
-        history.setChangedAt(LocalDateTime.now());
-        history.setOrderStatusHistory(String.format("Order status updated from %s to %s at %s",
-                orderDetails.getOrderStatus().name(), newStatus.name(), history.getChangedAt()));
+        history.put("changed_at", changedAt);
+        history.put("previous_status", orderDetails.getOrderStatus().name());
+        history.put("changed_by", updatedBy);
 
-        orderHistoryRepository.save(history);
-        log.info("VehicleOrderDetailsHistory saved for order ID: {}", orderDetails.getCustomerOrderId());
+        historyOutbox.enqueue(HistoryType.ORDER, history);
+        log.info("VehicleOrderDetailsHistory queued for order ID: {}", orderDetails.getCustomerOrderId());
     }
 
     @Transactional
     public void saveFinanceHistory(FinanceDetails financeDetails, String updatedBy) {
         log.info("Saving history for FinanceDetails with ID: {}", financeDetails.getFinanceId());
-        FinanceDetailsHistory history = new FinanceDetailsHistory();
-
-        // Map fields from FinanceDetails to FinanceDetailsHistory
-        history.setFinanceDetails(financeDetails);
-        history.setCustomerOrderId(financeDetails.getCustomerOrderId());
-        history.setCustomerName(financeDetails.getCustomerName());
-        history.setFinanceStatus(financeDetails.getFinanceStatus());
-        history.setCreatedAt(financeDetails.getCreatedAt());
-        history.setUpdatedAt(financeDetails.getUpdatedAt());
-        history.setApprovedBy(financeDetails.getApprovedBy());
-        history.setRejectedBy(financeDetails.getRejectedBy());
+        Map<String, Object> history = new LinkedHashMap<>();
+        LocalDateTime changedAt = LocalDateTime.now();
+
+        // Map fields from FinanceDetails to finance_details_history
+        history.put("finance_id", financeDetails.getFinanceId());
+        history.put("customer_order_id", financeDetails.getCustomerOrderId());
+        history.put("customer_name", financeDetails.getCustomerName());
+        history.put("finance_status", financeDetails.getFinanceStatus());
+        history.put("created_at", financeDetails.getCreatedAt());
+        history.put("updated_at", financeDetails.getUpdatedAt());
+        history.put("approved_by", financeDetails.getApprovedBy());
+        history.put("rejected_by", financeDetails.getRejectedBy());
 
         // Set history-specific fields
-        history.setChangedAt(LocalDateTime.now());
-        history.setFinanceStatusHistory("Finance status changed to: " + financeDetails.getFinanceStatus().name() + " at " + history.getChangedAt());
+        history.put("changed_at", changedAt);
+        history.put("finance_status_history", "Finance status changed to: " + financeDetails.getFinanceStatus().name() + " at " + changedAt);
 
-        financeHistoryRepository.save(history);
-        log.info("FinanceDetailsHistory saved for finance ID: {}", financeDetails.getFinanceId());
+        historyOutbox.enqueue(HistoryType.FINANCE, history);
+        log.info("FinanceDetailsHistory queued for finance ID: {}", financeDetails.getFinanceId());
     }
 
     @Transactional
     public void saveDispatchHistory(DispatchDetails dispatchDetails, String updatedBy) {
         log.info("Saving history for DispatchDetails with ID: {}", dispatchDetails.getDispatchId());
-        DispatchDetailsHistory history = new DispatchDetailsHistory();
-
-        // Map fields from DispatchDetails to DispatchDetailsHistory
-        history.setDispatchDetails(dispatchDetails);
-        history.setCustomerOrderId(dispatchDetails.getCustomerOrderId());
-        history.setCustomerName(dispatchDetails.getCustomerName());
-        history.setDispatchStatus(dispatchDetails.getDispatchStatus());
-        history.setDispatchDate(dispatchDetails.getDispatchDate());
-        history.setDispatchedBy(dispatchDetails.getDispatchedBy());
-        history.setCreatedAt(dispatchDetails.getCreatedAt());
-        history.setUpdatedAt(dispatchDetails.getUpdatedAt());
-        history.setCreatedBy(dispatchDetails.getCreatedBy());
-        history.setUpdatedBy(updatedBy != null ? updatedBy : "system");
+        Map<String, Object> history = new LinkedHashMap<>();
+        LocalDateTime changedAt = LocalDateTime.now();
+
+        // Map fields from DispatchDetails to dispatch_details_history
+        history.put("dispatch_id", dispatchDetails.getDispatchId());
+        history.put("customer_order_id", dispatchDetails.getCustomerOrderId());
+        history.put("customer_name", dispatchDetails.getCustomerName());
+        history.put("dispatch_status", dispatchDetails.getDispatchStatus());
+        history.put("dispatch_date", dispatchDetails.getDispatchDate());
+        history.put("dispatched_by", dispatchDetails.getDispatchedBy());
+        history.put("created_at", dispatchDetails.getCreatedAt());
+        history.put("updated_at", dispatchDetails.getUpdatedAt());
+        history.put("created_by", dispatchDetails.getCreatedBy());
+        history.put("updated_by", updatedBy != null ? updatedBy : "system");
 
         // Set history-specific fields
-        history.setChangedAt(LocalDateTime.now());
-        history.setDispatchStatusHistory("Dispatch status changed to: " + dispatchDetails.getDispatchStatus().name() + " at " + history.getChangedAt());
+        history.put("changed_at", changedAt);
+        history.put("dispatch_status_history", "Dispatch status changed to: " + dispatchDetails.getDispatchStatus().name() + " at " + changedAt);
 
-        dispatchHistoryRepository.save(history);
-        log.info("DispatchDetailsHistory saved for dispatch ID: {}", dispatchDetails.getDispatchId());
+        historyOutbox.enqueue(HistoryType.DISPATCH, history);
+        log.info("DispatchDetailsHistory queued for dispatch ID: {}", dispatchDetails.getDispatchId());
     }
 
     @Transactional
     public void saveDeliveryHistory(DeliveryDetails deliveryDetails, String updatedBy) {
         log.info("Saving history for DeliveryDetails with ID: {}", deliveryDetails.getDeliveryId());
-        DeliveryDetailsHistory history = new DeliveryDetailsHistory();
-
-        // Map fields from DeliveryDetails to DeliveryDetailsHistory
-        history.setDeliveryDetails(deliveryDetails);
-        history.setCustomerOrderId(deliveryDetails.getCustomerOrderId());
-        history.setCustomerName(deliveryDetails.getCustomerName());
-        history.setDeliveryStatus(deliveryDetails.getDeliveryStatus());
-        history.setDeliveryDate(deliveryDetails.getDeliveryDate());
-        history.setDeliveredBy(deliveryDetails.getDeliveredBy());
-        history.setRecipientName(deliveryDetails.getRecipientName());
-        history.setCreatedAt(deliveryDetails.getCreatedAt());
-        history.setUpdatedAt(deliveryDetails.getUpdatedAt());
-        history.setCreatedBy(deliveryDetails.getCreatedBy());
-        history.setUpdatedBy(updatedBy != null ? updatedBy : "system");
+        Map<String, Object> history = new LinkedHashMap<>();
+        LocalDateTime changedAt = LocalDateTime.now();
+
+        // Map fields from DeliveryDetails to delivery_details_history
+        history.put("delivery_id", deliveryDetails.getDeliveryId());
+        history.put("customer_order_id", deliveryDetails.getCustomerOrderId());
+        history.put("customer_name", deliveryDetails.getCustomerName());
+        history.put("delivery_status", deliveryDetails.getDeliveryStatus());
+        history.put("delivery_date", deliveryDetails.getDeliveryDate());
+        history.put("delivered_by", deliveryDetails.getDeliveredBy());
+        history.put("recipient_name", deliveryDetails.getRecipientName());
+        history.put("created_at", deliveryDetails.getCreatedAt());
+        history.put("updated_at", deliveryDetails.getUpdatedAt());
+        history.put("created_by", deliveryDetails.getCreatedBy());
+        history.put("updated_by", updatedBy != null ? updatedBy : "system");
 
         // Set history-specific fields
-        history.setChangedAt(LocalDateTime.now());
-        history.setDeliveryStatusHistory("Delivery status changed to: " + deliveryDetails.getDeliveryStatus().name() + " at " + history.getChangedAt());
+        history.put("changed_at", changedAt);
+        history.put("delivery_status_history", "Delivery status changed to: " + deliveryDetails.getDeliveryStatus().name() + " at " + changedAt);
 
-        deliveryHistoryRepository.save(history);
-        log.info("DeliveryDetailsHistory saved for delivery ID: {}", deliveryDetails.getDeliveryId());
+        historyOutbox.enqueue(HistoryType.DELIVERY, history);
+        log.info("DeliveryDetailsHistory queued for delivery ID: {}", deliveryDetails.getDeliveryId());
     }
-}
\ No newline at end of file
+}
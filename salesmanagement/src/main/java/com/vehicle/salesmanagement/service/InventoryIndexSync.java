@@ -0,0 +1,213 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.domain.dto.apiresponse.InventoryItem;
+import com.vehicle.salesmanagement.enums.StockStatus;
+import com.vehicle.salesmanagement.event.VehicleCatalogChangedEvent;
+import com.vehicle.salesmanagement.repository.StockDetailsRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Keeps InventorySearchIndex and the stock_details rows of StockAvailabilityIndex in step with the stock tables. A trigger on stock_details and mddp_stock sends a
+// NOTIFY with the table and id of every written row; PostgreSQL delivers it only when the writing transaction
+// commits, on every app node, whatever the write path (entity saves, bulk JPQL updates, imports). The listener
+// re-reads just the notified rows. A full reload runs after every (re)connect, on catalog changes (model names
+// and variant prices are denormalised into the index) and on a fixed interval as a safety net.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryIndexSync {
+
+    private static final String CHANNEL = "inventory_changed";
+    private static final String LOCK_KEY = "hashtext('sales_tracking.inventory_changed')";
+    private static final StockSource STOCK = new StockSource("STOCK", "stock_details", "stock_id");
+    private static final List<StockSource> SOURCES = List.of(
+            STOCK,
+            new StockSource("MDDP", "mddp_stock", "mddp_order_id"));
+
+    private final InventorySearchIndex inventorySearchIndex;
+    private final StockAvailabilityIndex stockAvailabilityIndex;
+    private final StockDetailsRepository stockRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    // the schema update has to create the stock tables before the triggers can be attached
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Value("${inventory.search.listen-timeout-ms:1000}")
+    private int listenTimeoutMs;
+
+    @Value("${inventory.search.reconnect-delay-ms:5000}")
+    private long reconnectDelayMs;
+
+    private final ExecutorService listenerExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean reloadRequested = new AtomicBoolean(true);
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+                jdbcTemplate.execute("CREATE OR REPLACE FUNCTION sales_tracking.notify_inventory_changed() " +
+                        "RETURNS trigger AS $$ " +
+                        "DECLARE changed JSONB; " +
+                        "BEGIN " +
+                        "  changed := to_jsonb(CASE WHEN TG_OP = 'DELETE' THEN OLD ELSE NEW END); " +
+                        "  PERFORM pg_notify('" + CHANNEL + "', TG_TABLE_NAME || ':' || (changed ->> TG_ARGV[0])); " +
+                        "  RETURN NULL; " +
+                        "END $$ LANGUAGE plpgsql");
+                SOURCES.forEach(this::installTrigger);
+            });
+            log.info("Inventory change notifications installed");
+        } catch (Exception e) {
+            log.error("Failed to install inventory change notifications, the index refreshes on its interval only: {}",
+                    e.getMessage());
+        }
+        running = true;
+        listenerExecutor.submit(this::listenLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        listenerExecutor.shutdown();
+        listenerExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.search.full-reload-interval-ms:900000}",
+            initialDelayString = "${inventory.search.full-reload-interval-ms:900000}")
+    public void requestReload() {
+        reloadRequested.set(true);
+    }
+
+    // after the commit, so the reload reads the new catalog rows; events published outside a transaction still count
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(VehicleCatalogChangedEvent event) {
+        requestReload();
+    }
+
+    private void installTrigger(StockSource source) {
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS " + source.table() + "_inventory_trigger ON sales_tracking." + source.table());
+        jdbcTemplate.execute("CREATE TRIGGER " + source.table() + "_inventory_trigger " +
+                "AFTER INSERT OR UPDATE OR DELETE ON sales_tracking." + source.table() + " " +
+                "FOR EACH ROW EXECUTE FUNCTION sales_tracking.notify_inventory_changed('" + source.idColumn() + "')");
+    }
+
+    // Holds one pooled connection for LISTEN for as long as the app runs.
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                // anything written while we were not listening is only picked up by a full reload
+                reloadRequested.set(true);
+                while (running) {
+                    if (reloadRequested.getAndSet(false)) {
+                        List<InventoryItem> items = new ArrayList<>();
+                        SOURCES.forEach(source -> items.addAll(load(source, null)));
+                        inventorySearchIndex.replaceAll(items);
+                        stockAvailabilityIndex.rebuild(stockRepository.findByStockStatus(StockStatus.AVAILABLE));
+                    }
+                    PGNotification[] notifications = pgConnection.getNotifications(listenTimeoutMs);
+                    if (notifications != null && notifications.length > 0) {
+                        applyNotifications(notifications);
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Inventory change listener failed, reconnecting in {} ms: {}", reconnectDelayMs, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void applyNotifications(PGNotification[] notifications) {
+        Map<StockSource, Set<Long>> changedIds = new HashMap<>();
+        for (PGNotification notification : notifications) {
+            String[] parts = notification.getParameter().split(":", 2);
+            SOURCES.stream()
+                    .filter(source -> parts.length == 2 && source.table().equals(parts[0]))
+                    .findFirst()
+                    .ifPresent(source -> changedIds.computeIfAbsent(source, s -> new HashSet<>()).add(Long.parseLong(parts[1])));
+        }
+        changedIds.forEach((source, ids) -> inventorySearchIndex.refresh(source.name(), ids, load(source, ids)));
+        // bookings made on other nodes reach this node's availability index the same way
+        Set<Long> stockIds = changedIds.get(STOCK);
+        if (stockIds != null) {
+            stockAvailabilityIndex.refresh(stockIds, stockRepository.findAllById(stockIds));
+        }
+        log.debug("Inventory index refreshed for {}", changedIds);
+    }
+
+    // ids null loads every available row of the table
+    private List<InventoryItem> load(StockSource source, Set<Long> ids) {
+        String sql = "SELECT s." + source.idColumn() + " AS id, m.model_name, s.variant, s.colour, s.fuel_type, " +
+                "s.transmission_type, s.interior_colour, s.vin_number, s.quantity, vv.price " +
+                "FROM sales_tracking." + source.table() + " s " +
+                "JOIN sales_tracking.vehicle_model m ON m.vehicle_model_id = s.vehicle_model_id " +
+                "LEFT JOIN sales_tracking.vehicle_variant vv ON vv.vehicle_variant_id = s.vehicle_variant_id " +
+                "WHERE s.stock_status = 'AVAILABLE' AND s.quantity > 0" +
+                (ids != null ? " AND s." + source.idColumn() + " = ANY(?)" : "");
+        RowMapper<InventoryItem> mapper = (rs, rowNum) -> new InventoryItem(source.name(),
+                rs.getLong("id"),
+                rs.getString("model_name"),
+                rs.getString("variant"),
+                rs.getString("colour"),
+                rs.getString("fuel_type"),
+                rs.getString("transmission_type"),
+                rs.getString("interior_colour"),
+                rs.getString("vin_number"),
+                rs.getInt("quantity"),
+                rs.getBigDecimal("price"));
+        if (ids == null) {
+            return jdbcTemplate.query(sql, mapper);
+        }
+        return jdbcTemplate.query(connection -> {
+            Array idArray = connection.createArrayOf("bigint", ids.toArray());
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setArray(1, idArray);
+            return statement;
+        }, mapper);
+    }
+
+    private record StockSource(String name, String table, String idColumn) {
+    }
+}
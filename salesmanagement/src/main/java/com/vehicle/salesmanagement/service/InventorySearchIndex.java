@@ -0,0 +1,219 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.domain.dto.apiresponse.InventoryItem;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.InventorySearchResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.VehicleFacetResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+// Inverted index over available stock_details and mddp_stock rows. Every row gets a document number and
+// every attribute value a BitSet of the documents carrying it, so a search is a few ANDs/ORs of bitsets and
+// each facet count is one intersection. Values match case-insensitively. InventoryIndexSync keeps it current.
+@Slf4j
+@Component
+public class InventorySearchIndex {
+
+    static final Map<String, Function<InventoryItem, String>> ATTRIBUTES = attributes();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<String, Posting>> postings = new HashMap<>();
+    private final List<InventoryItem> documents = new ArrayList<>();
+    private final Map<String, Integer> documentsByKey = new HashMap<>();
+    private final Deque<Integer> freeDocuments = new ArrayDeque<>();
+    private final BitSet live = new BitSet();
+
+    public void replaceAll(List<InventoryItem> items) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            documentsByKey.clear();
+            freeDocuments.clear();
+            live.clear();
+            items.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Inventory search index loaded with {} rows", items.size());
+    }
+
+    // Replaces the indexed rows of one source; ids without an item are no longer available and are dropped.
+    public void refresh(String source, Set<Long> ids, List<InventoryItem> items) {
+        lock.writeLock().lock();
+        try {
+            ids.forEach(id -> remove(key(source, id)));
+            items.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public InventorySearchResponse search(Map<String, Set<String>> filters, BigDecimal minPrice, BigDecimal maxPrice, int limit) {
+        filters.keySet().forEach(attribute -> {
+            if (!ATTRIBUTES.containsKey(attribute)) {
+                throw new IllegalArgumentException("Unknown inventory attribute: " + attribute);
+            }
+        });
+        lock.readLock().lock();
+        try {
+            BitSet inPriceRange = priceRange(minPrice, maxPrice);
+            Map<String, BitSet> attributeMatches = new HashMap<>();
+            filters.forEach((attribute, values) -> {
+                if (!values.isEmpty()) {
+                    attributeMatches.put(attribute, anyOf(attribute, values));
+                }
+            });
+
+            BitSet matches = (BitSet) inPriceRange.clone();
+            attributeMatches.values().forEach(matches::and);
+
+            // a facet ignores its own filter, so the alternatives to a selected value keep their counts
+            Map<String, List<VehicleFacetResponse.FacetValue>> facets = new LinkedHashMap<>();
+            for (String attribute : ATTRIBUTES.keySet()) {
+                BitSet base = (BitSet) inPriceRange.clone();
+                attributeMatches.forEach((other, match) -> {
+                    if (!other.equals(attribute)) {
+                        base.and(match);
+                    }
+                });
+                List<VehicleFacetResponse.FacetValue> values = new ArrayList<>();
+                postings.getOrDefault(attribute, Map.of()).values().forEach(posting -> {
+                    BitSet hits = (BitSet) posting.documents().clone();
+                    hits.and(base);
+                    if (!hits.isEmpty()) {
+                        values.add(new VehicleFacetResponse.FacetValue(posting.value(), (long) hits.cardinality()));
+                    }
+                });
+                values.sort(Comparator.comparing(VehicleFacetResponse.FacetValue::getCount).reversed()
+                        .thenComparing(VehicleFacetResponse.FacetValue::getValue));
+                facets.put(attribute, values);
+            }
+
+            List<InventoryItem> items = new ArrayList<>();
+            for (int doc = matches.nextSetBit(0); doc >= 0 && items.size() < limit; doc = matches.nextSetBit(doc + 1)) {
+                items.add(documents.get(doc));
+            }
+            return new InventorySearchResponse((long) matches.cardinality(), items, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(InventoryItem item) {
+        String key = key(item.getSource(), item.getId());
+        remove(key);
+        int doc = freeDocuments.isEmpty() ? documents.size() : freeDocuments.pop();
+        if (doc == documents.size()) {
+            documents.add(item);
+        } else {
+            documents.set(doc, item);
+        }
+        documentsByKey.put(key, doc);
+        live.set(doc);
+        ATTRIBUTES.forEach((attribute, getter) -> {
+            String value = getter.apply(item);
+            if (value != null && !value.isBlank()) {
+                postings.computeIfAbsent(attribute, a -> new HashMap<>())
+                        .computeIfAbsent(normalize(value), v -> new Posting(value.trim(), new BitSet()))
+                        .documents().set(doc);
+            }
+        });
+    }
+
+    private void remove(String key) {
+        Integer doc = documentsByKey.remove(key);
+        if (doc == null) {
+            return;
+        }
+        InventoryItem item = documents.set(doc, null);
+        live.clear(doc);
+        freeDocuments.push(doc);
+        ATTRIBUTES.forEach((attribute, getter) -> {
+            String value = getter.apply(item);
+            Map<String, Posting> values = postings.get(attribute);
+            if (value != null && values != null) {
+                values.computeIfPresent(normalize(value), (v, posting) -> {
+                    posting.documents().clear(doc);
+                    return posting.documents().isEmpty() ? null : posting;
+                });
+            }
+        });
+    }
+
+    private BitSet anyOf(String attribute, Set<String> values) {
+        BitSet union = new BitSet();
+        Map<String, Posting> attributeValues = postings.getOrDefault(attribute, Map.of());
+        for (String value : values) {
+            Posting posting = attributeValues.get(normalize(value));
+            if (posting != null) {
+                union.or(posting.documents());
+            }
+        }
+        return union;
+    }
+
+    private BitSet priceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        BitSet inRange = (BitSet) live.clone();
+        if (minPrice == null && maxPrice == null) {
+            return inRange;
+        }
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            BigDecimal price = documents.get(doc).getPrice();
+            if (price == null
+                    || (minPrice != null && price.compareTo(minPrice) < 0)
+                    || (maxPrice != null && price.compareTo(maxPrice) > 0)) {
+                inRange.clear(doc);
+            }
+        }
+        return inRange;
+    }
+
+    private static String key(String source, Long id) {
+        return source + ":" + id;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, Function<InventoryItem, String>> attributes() {
+        Map<String, Function<InventoryItem, String>> attributes = new LinkedHashMap<>();
+        attributes.put("source", InventoryItem::getSource);
+        attributes.put("modelName", InventoryItem::getModelName);
+        attributes.put("variant", InventoryItem::getVariant);
+        attributes.put("colour", InventoryItem::getColour);
+        attributes.put("fuelType", InventoryItem::getFuelType);
+        attributes.put("transmissionType", InventoryItem::getTransmissionType);
+        attributes.put("interiorColour", InventoryItem::getInteriorColour);
+        return Collections.unmodifiableMap(attributes);
+    }
+
+    private record Posting(String value, BitSet documents) {
+    }
+}
@@ -0,0 +1,216 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.domain.dto.apirequest.KendoDataSourceRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.KendoFilterDescriptor;
+import com.vehicle.salesmanagement.domain.dto.apirequest.KendoSortDescriptor;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.KendoResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+// Translates Kendo DataSource server operations (skip/take, multi-column sort and nested filter descriptors)
+// into one criteria query for the page, plus a count query with the same predicates. The page selects straight
+// into the grid's DTO through a constructor projection, so no entities are loaded or managed. Only the grid's
+// whitelisted fields can be selected, sorted or filtered on.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KendoGridQuery {
+
+    private final EntityManager entityManager;
+
+    // fields: grid field -> entity path ("vehicleModel.modelName" goes through the joined association);
+    // selection: grid fields in the order of the DTO constructor
+    public record Grid<E, D>(Class<E> entityType, Class<D> dtoType, Map<String, String> fields, List<String> selection,
+                             List<String> joins, String idField, BiFunction<CriteriaBuilder, Root<E>, Predicate> baseFilter) {
+    }
+
+    public <E, D> KendoResponse<D> fetch(Grid<E, D> grid, KendoDataSourceRequest request) {
+        KendoDataSourceRequest dataSource = request != null ? request : new KendoDataSourceRequest();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<D> pageQuery = cb.createQuery(grid.dtoType());
+        Root<E> root = pageQuery.from(grid.entityType());
+        Map<String, From<?, ?>> joins = joins(grid, root);
+        pageQuery.select(cb.construct(grid.dtoType(), grid.selection().stream()
+                        .map(field -> path(grid, field, root, joins))
+                        .toArray(Selection[]::new)))
+                .where(predicates(grid, dataSource, cb, root, joins))
+                .orderBy(orders(grid, dataSource, cb, root, joins));
+
+        TypedQuery<D> page = entityManager.createQuery(pageQuery);
+        int skip = dataSource.getSkip() != null ? dataSource.getSkip()
+                : dataSource.getPage() != null && dataSource.getPageSize() != null
+                ? (dataSource.getPage() - 1) * dataSource.getPageSize() : 0;
+        Integer take = dataSource.getTake() != null ? dataSource.getTake() : dataSource.getPageSize();
+        if (skip > 0) {
+            page.setFirstResult(skip);
+        }
+        if (take != null && take > 0) {
+            page.setMaxResults(take);
+        }
+        List<D> data = page.getResultList();
+
+        long total;
+        if (take == null || take <= 0) {
+            total = skip + data.size();
+        } else {
+            CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+            Root<E> countRoot = countQuery.from(grid.entityType());
+            countQuery.select(cb.count(countRoot)).where(predicates(grid, dataSource, cb, countRoot, joins(grid, countRoot)));
+            total = entityManager.createQuery(countQuery).getSingleResult();
+        }
+        log.debug("Grid query on {} returned {} of {} rows", grid.entityType().getSimpleName(), data.size(), total);
+        return new KendoResponse<>(data, total);
+    }
+
+    private <E> Map<String, From<?, ?>> joins(Grid<E, ?> grid, Root<E> root) {
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        for (String association : grid.joins()) {
+            joins.put(association, root.join(association, JoinType.INNER));
+        }
+        return joins;
+    }
+
+    private <E> Predicate[] predicates(Grid<E, ?> grid, KendoDataSourceRequest request, CriteriaBuilder cb, Root<E> root,
+                                       Map<String, From<?, ?>> joins) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (grid.baseFilter() != null) {
+            predicates.add(grid.baseFilter().apply(cb, root));
+        }
+        if (request.getFilter() != null) {
+            predicates.add(filter(request.getFilter(), cb, field -> path(grid, field, root, joins)));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private <E> List<Order> orders(Grid<E, ?> grid, KendoDataSourceRequest request, CriteriaBuilder cb, Root<E> root,
+                                   Map<String, From<?, ?>> joins) {
+        List<Order> orders = new ArrayList<>();
+        if (request.getSort() != null) {
+            for (KendoSortDescriptor sort : request.getSort()) {
+                Path<?> path = path(grid, sort.getField(), root, joins);
+                orders.add("desc".equalsIgnoreCase(sort.getDir()) ? cb.desc(path) : cb.asc(path));
+            }
+        }
+        // the id keeps pages stable when the requested sort has ties
+        orders.add(cb.asc(root.get(grid.idField())));
+        return orders;
+    }
+
+    private <E> Path<?> path(Grid<E, ?> grid, String field, Root<E> root, Map<String, From<?, ?>> joins) {
+        String entityPath = field != null ? grid.fields().get(field) : null;
+        if (entityPath == null) {
+            throw new IllegalArgumentException("Unknown grid field: " + field);
+        }
+        int dot = entityPath.indexOf('.');
+        if (dot < 0) {
+            return root.get(entityPath);
+        }
+        From<?, ?> join = joins.get(entityPath.substring(0, dot));
+        return join != null ? join.get(entityPath.substring(dot + 1))
+                : root.get(entityPath.substring(0, dot)).get(entityPath.substring(dot + 1));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate filter(KendoFilterDescriptor filter, CriteriaBuilder cb, Function<String, Path<?>> paths) {
+        if (filter.getFilters() != null) {
+            Predicate[] parts = filter.getFilters().stream()
+                    .map(part -> filter(part, cb, paths))
+                    .toArray(Predicate[]::new);
+            return "or".equalsIgnoreCase(filter.getLogic()) ? cb.or(parts) : cb.and(parts);
+        }
+
+        Path<?> path = paths.apply(filter.getField());
+        String operator = filter.getOperator() != null ? filter.getOperator().toLowerCase() : "eq";
+        Predicate presence = switch (operator) {
+            case "isnull" -> cb.isNull(path);
+            case "isnotnull" -> cb.isNotNull(path);
+            case "isempty" -> cb.equal(path, "");
+            case "isnotempty" -> cb.notEqual(path, "");
+            default -> null;
+        };
+        if (presence != null) {
+            return presence;
+        }
+
+        if (path.getJavaType() == String.class) {
+            boolean ignoreCase = filter.getIgnoreCase() == null || filter.getIgnoreCase();
+            Expression<String> text = ignoreCase ? cb.lower(path.as(String.class)) : path.as(String.class);
+            String value = filter.getValue() != null ? filter.getValue().toString() : "";
+            if (ignoreCase) {
+                value = value.toLowerCase();
+            }
+            String pattern = value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            return switch (operator) {
+                case "eq" -> cb.equal(text, value);
+                case "neq" -> cb.notEqual(text, value);
+                case "contains" -> cb.like(text, "%" + pattern + "%", '\\');
+                case "doesnotcontain" -> cb.notLike(text, "%" + pattern + "%", '\\');
+                case "startswith" -> cb.like(text, pattern + "%", '\\');
+                case "doesnotstartwith" -> cb.notLike(text, pattern + "%", '\\');
+                case "endswith" -> cb.like(text, "%" + pattern, '\\');
+                case "doesnotendwith" -> cb.notLike(text, "%" + pattern, '\\');
+                case "lt" -> cb.lessThan(text, value);
+                case "lte" -> cb.lessThanOrEqualTo(text, value);
+                case "gt" -> cb.greaterThan(text, value);
+                case "gte" -> cb.greaterThanOrEqualTo(text, value);
+                default -> throw new IllegalArgumentException("Unsupported operator " + operator + " for field " + filter.getField());
+            };
+        }
+
+        Comparable value = convert(filter.getValue(), path.getJavaType(), filter.getField());
+        Expression<Comparable> comparable = (Expression<Comparable>) path;
+        return switch (operator) {
+            case "eq" -> cb.equal(comparable, value);
+            case "neq" -> cb.notEqual(comparable, value);
+            case "lt" -> cb.lessThan(comparable, value);
+            case "lte" -> cb.lessThanOrEqualTo(comparable, value);
+            case "gt" -> cb.greaterThan(comparable, value);
+            case "gte" -> cb.greaterThanOrEqualTo(comparable, value);
+            default -> throw new IllegalArgumentException("Unsupported operator " + operator + " for field " + filter.getField());
+        };
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Comparable convert(Object value, Class<?> type, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing filter value for field " + field);
+        }
+        try {
+            BigDecimal number = new BigDecimal(value.toString());
+            if (type == Integer.class || type == int.class) {
+                return number.intValueExact();
+            }
+            if (type == Long.class || type == long.class) {
+                return number.longValueExact();
+            }
+            if (type == BigDecimal.class) {
+                return number;
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value " + value + " for field " + field);
+        }
+        throw new IllegalArgumentException("Field " + field + " cannot be filtered");
+    }
+}
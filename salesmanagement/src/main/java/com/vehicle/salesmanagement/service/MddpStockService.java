@@ -1,5 +1,6 @@
 package com.vehicle.salesmanagement.service;
 
+import com.vehicle.salesmanagement.domain.dto.apirequest.KendoDataSourceRequest;
 import com.vehicle.salesmanagement.domain.dto.apirequest.MddpDto;
 import com.vehicle.salesmanagement.domain.dto.apirequest.StockDTO;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.KendoResponse;
@@ -13,7 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 public class MddpStockService {
@@ -21,12 +22,37 @@ public class MddpStockService {
     @Autowired
     private MddpStockRepository mddpStockRepository;
 
+    @Autowired
+    private KendoGridQuery kendoGridQuery;
+
+    // grid field -> entity path; selection, sorting and filtering is limited to these
+    private static final KendoGridQuery.Grid<MddpStock, MddpDto> MDDP_STOCK_GRID = new KendoGridQuery.Grid<>(
+            MddpStock.class,
+            MddpDto.class,
+            Map.ofEntries(
+                    Map.entry("mddpOrderId", "mddpOrderId"),
+                    Map.entry("modelName", "vehicleModel.modelName"),
+                    Map.entry("fuelType", "fuelType"),
+                    Map.entry("transmissionType", "transmissionType"),
+                    Map.entry("variant", "variant"),
+                    Map.entry("quantity", "quantity"),
+                    Map.entry("vinNumber", "vinNumber"),
+                    Map.entry("suffix", "suffix"),
+                    Map.entry("engineColour", "engineColour"),
+                    Map.entry("colour", "colour"),
+                    Map.entry("interiorColour", "interiorColour")),
+            List.of("mddpOrderId", "modelName", "fuelType", "transmissionType", "variant", "quantity", "vinNumber", "suffix",
+                    "engineColour", "colour", "interiorColour"),
+            List.of("vehicleModel"),
+            "mddpOrderId",
+            (cb, root) -> cb.equal(root.get("stockStatus"), StockStatus.AVAILABLE));
+
     public KendoResponse<MddpDto> getMddpStockDetails() {
-        List<MddpStock> mddpStocks = mddpStockRepository.findByStockStatus(StockStatus.AVAILABLE);
-        List<MddpDto> mddpDTOs = mddpStocks.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
-        return new KendoResponse<>(mddpDTOs, mddpDTOs.size());
+        return getMddpStockDetails(null);
+    }
+
+    public KendoResponse<MddpDto> getMddpStockDetails(KendoDataSourceRequest request) {
+        return kendoGridQuery.fetch(MDDP_STOCK_GRID, request);
     }
 
 
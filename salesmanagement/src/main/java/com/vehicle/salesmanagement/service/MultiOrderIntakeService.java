@@ -0,0 +1,154 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.domain.dto.apirequest.OrderRequest;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderResponse;
+import com.vehicle.salesmanagement.domain.entity.model.VehicleOrderDetails;
+import com.vehicle.salesmanagement.enums.OrderStatus;
+import com.vehicle.salesmanagement.repository.VehicleOrderDetailsRepository;
+import com.vehicle.salesmanagement.workflow.VehicleOrderWorkflow;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Places every order of a MultiOrderRequest at once: one batched insert, concurrent workflow starts and a
+// single deadline for all results instead of a 30 second wait per vehicle.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MultiOrderIntakeService {
+
+    private final WorkflowClient workflowClient;
+    private final VehicleOrderDetailsRepository orderRepository;
+    private final VehicleOrderService vehicleOrderService;
+    private final OrderResultTracker orderResultTracker;
+
+    @Value("${order.intake.fan-out-threads:16}")
+    private int fanOutThreads;
+
+    @Value("${order.intake.multi-order-deadline-seconds:30}")
+    private long deadlineSeconds;
+
+    private ExecutorService fanOutExecutor;
+
+    @PostConstruct
+    public void init() {
+        fanOutExecutor = Executors.newFixedThreadPool(fanOutThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdown();
+    }
+
+    public List<VehicleOrderDetails> saveOrders(List<VehicleOrderDetails> orders) {
+        List<VehicleOrderDetails> saved = orderRepository.saveAllAndFlush(orders);
+        log.info("Saved {} orders in one batch", saved.size());
+        return saved;
+    }
+
+    public List<OrderResponse> placeOrders(List<VehicleOrderDetails> orders, List<OrderRequest> requests) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(deadlineSeconds);
+        List<CompletableFuture<OrderResponse>> results = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            VehicleOrderDetails order = orders.get(i);
+            OrderRequest request = requests.get(i);
+            results.add(startWorkflow(order, request)
+                    .thenCompose(started -> workflowClient.newUntypedWorkflowStub(workflowId(order))
+                            .getResultAsync(remainingNanos(deadline), TimeUnit.NANOSECONDS, OrderResponse.class)));
+        }
+        awaitAll(results, deadline);
+
+        List<OrderResponse> responses = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            VehicleOrderDetails order = orders.get(i);
+            OrderResponse response = resultOrFallback(results.get(i), order, requests.get(i));
+            order.setOrderStatus(response.getOrderStatus());
+            responses.add(response);
+        }
+        orderRepository.saveAll(orders);
+        return responses;
+    }
+
+    public void placeOrdersAsync(List<VehicleOrderDetails> orders, List<OrderRequest> requests) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(deadlineSeconds);
+        List<CompletableFuture<Void>> starts = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            starts.add(startWorkflow(orders.get(i), requests.get(i)));
+        }
+        awaitAll(starts, deadline);
+        for (int i = 0; i < orders.size(); i++) {
+            orderResultTracker.track(orders.get(i).getCustomerOrderId(), requests.get(i));
+        }
+    }
+
+    private CompletableFuture<Void> startWorkflow(VehicleOrderDetails order, OrderRequest request) {
+        return CompletableFuture.runAsync(() -> {
+            WorkflowOptions options = WorkflowOptions.newBuilder()
+                    .setTaskQueue("vehicle-order-task-queue")
+                    .setWorkflowId(workflowId(order))
+                    .build();
+            VehicleOrderWorkflow workflow = workflowClient.newWorkflowStub(VehicleOrderWorkflow.class, options);
+            WorkflowClient.start(workflow::placeOrder, request);
+        }, fanOutExecutor);
+    }
+
+    private OrderResponse resultOrFallback(CompletableFuture<OrderResponse> result, VehicleOrderDetails order, OrderRequest request) {
+        OrderResponse response = null;
+        if (result.isDone() && !result.isCompletedExceptionally()) {
+            response = result.join();
+        } else {
+            log.error("No workflow result within the deadline for order ID: {}", order.getCustomerOrderId());
+        }
+        if (response == null) {
+            response = vehicleOrderService.mapToOrderResponse(request);
+            response.setOrderStatus(OrderStatus.PENDING);
+            response.setCustomerName(request.getCustomerName());
+            response.setModelName(request.getModelName());
+            response.setCreatedAt(LocalDateTime.now());
+        }
+        if (response.getOrderStatus() == null) {
+            log.warn("Workflow returned null status for order ID: {}, defaulting to PENDING", order.getCustomerOrderId());
+            response.setOrderStatus(OrderStatus.PENDING);
+        }
+        response.setCustomerOrderId(order.getCustomerOrderId());
+        return response;
+    }
+
+    private void awaitAll(List<? extends CompletableFuture<?>> futures, long deadline) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Multi-order deadline of {}s reached with {} of {} orders unfinished", deadlineSeconds,
+                    futures.stream().filter(future -> !future.isDone()).count(), futures.size());
+        } catch (ExecutionException e) {
+            // individual failures are handled per order
+            log.debug("At least one order workflow failed: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long remainingNanos(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+
+    private String workflowId(VehicleOrderDetails order) {
+        return "order-" + order.getCustomerOrderId();
+    }
+}
@@ -0,0 +1,181 @@
+package com.vehicle.salesmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderHistoryStateResponse;
+import com.vehicle.salesmanagement.enums.HistoryType;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Order history as deltas: each transition stores the from/to status and only the fields that differ from the
+// previous snapshot, as a small jsonb object. The first row of an order is a full baseline, and the latest full
+// state per order is kept in vehicle_order_history_head so the next delta can be computed without a replay.
+// Orders recorded before the delta format existed are still answered from vehicle_order_details_history.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderHistoryStore {
+
+    private static final TypeReference<Map<String, Object>> STATE_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    // the schema update has to create the legacy history table before it can be read
+    private final EntityManagerFactory entityManagerFactory;
+
+    private ObjectReader jsonReader;
+
+    @PostConstruct
+    public void init() {
+        // keeps the scale of prices, so unchanged amounts compare equal and read back as stored
+        jsonReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        try {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS sales_tracking.vehicle_order_delta_history (" +
+                    "delta_id BIGSERIAL PRIMARY KEY, " +
+                    "customer_order_id BIGINT NOT NULL, " +
+                    "changed_at TIMESTAMP NOT NULL, " +
+                    "from_status VARCHAR(32), " +
+                    "to_status VARCHAR(32), " +
+                    "changed_by VARCHAR(100), " +
+                    "baseline BOOLEAN NOT NULL DEFAULT FALSE, " +
+                    "changes JSONB NOT NULL)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_order_delta_history_order " +
+                    "ON sales_tracking.vehicle_order_delta_history (customer_order_id, delta_id)");
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS sales_tracking.vehicle_order_history_head (" +
+                    "customer_order_id BIGINT PRIMARY KEY, " +
+                    "changed_at TIMESTAMP NOT NULL, " +
+                    "state JSONB NOT NULL)");
+        } catch (Exception e) {
+            log.error("Failed to create the order delta history tables: {}", e.getMessage());
+        }
+    }
+
+    // Called by HistoryOutboxRelay inside its transaction with full order snapshots in outbox order.
+    void appendSnapshots(List<String> payloads) {
+        List<ObjectNode> snapshots = new ArrayList<>(payloads.size());
+        List<Long> orderIds = new ArrayList<>();
+        for (String payload : payloads) {
+            ObjectNode snapshot = (ObjectNode) readTree(payload);
+            snapshots.add(snapshot);
+            orderIds.add(snapshot.get("customer_order_id").asLong());
+        }
+        Map<Long, ObjectNode> heads = loadHeads(orderIds);
+
+        List<Object[]> deltaRows = new ArrayList<>(snapshots.size());
+        Map<Long, Object[]> headRows = new LinkedHashMap<>();
+        for (ObjectNode snapshot : snapshots) {
+            Long orderId = snapshot.get("customer_order_id").asLong();
+            String changedAt = snapshot.path("changed_at").asText();
+            ObjectNode state = objectMapper.createObjectNode();
+            for (String field : HistoryType.ORDER.getColumns()) {
+                state.set(field, snapshot.has(field) ? snapshot.get(field) : NullNode.getInstance());
+            }
+
+            ObjectNode head = heads.get(orderId);
+            ObjectNode changes = head == null ? state : objectMapper.createObjectNode();
+            if (head != null) {
+                for (String field : HistoryType.ORDER.getColumns()) {
+                    if (!Objects.equals(head.get(field), state.get(field))) {
+                        changes.set(field, state.get(field));
+                    }
+                }
+            }
+            deltaRows.add(new Object[]{orderId, changedAt, textOrNull(snapshot, "previous_status"),
+                    textOrNull(state, "order_status"), textOrNull(snapshot, "changed_by"), head == null, changes.toString()});
+            heads.put(orderId, state);
+            headRows.put(orderId, new Object[]{orderId, changedAt, state.toString()});
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO sales_tracking.vehicle_order_delta_history " +
+                "(customer_order_id, changed_at, from_status, to_status, changed_by, baseline, changes) " +
+                "VALUES (?, ?::timestamp, ?, ?, ?, ?, ?::jsonb)", deltaRows);
+        jdbcTemplate.batchUpdate("INSERT INTO sales_tracking.vehicle_order_history_head (customer_order_id, changed_at, state) " +
+                "VALUES (?, ?::timestamp, ?::jsonb) ON CONFLICT (customer_order_id) " +
+                "DO UPDATE SET changed_at = EXCLUDED.changed_at, state = EXCLUDED.state", new ArrayList<>(headRows.values()));
+    }
+
+    public OrderHistoryStateResponse getOrderStateAt(Long customerOrderId, LocalDateTime at) {
+        // replay from the latest baseline at or before "at"
+        List<Object[]> deltas = jdbcTemplate.query("SELECT changes::text AS changes, changed_at, to_status " +
+                        "FROM sales_tracking.vehicle_order_delta_history " +
+                        "WHERE customer_order_id = ? AND changed_at <= ? AND delta_id >= COALESCE((" +
+                        "SELECT MAX(delta_id) FROM sales_tracking.vehicle_order_delta_history " +
+                        "WHERE customer_order_id = ? AND changed_at <= ? AND baseline), 0) " +
+                        "ORDER BY delta_id",
+                (rs, rowNum) -> new Object[]{rs.getString("changes"), rs.getTimestamp("changed_at"), rs.getString("to_status")},
+                customerOrderId, Timestamp.valueOf(at), customerOrderId, Timestamp.valueOf(at));
+        if (!deltas.isEmpty()) {
+            ObjectNode state = objectMapper.createObjectNode();
+            for (Object[] delta : deltas) {
+                state.setAll((ObjectNode) readTree((String) delta[0]));
+            }
+            Object[] last = deltas.get(deltas.size() - 1);
+            return new OrderHistoryStateResponse(customerOrderId, at, ((Timestamp) last[1]).toLocalDateTime(),
+                    (String) last[2], objectMapper.convertValue(state, STATE_TYPE));
+        }
+
+        List<Map<String, Object>> legacy = jdbcTemplate.queryForList("SELECT * FROM sales_tracking.vehicle_order_details_history " +
+                "WHERE customer_order_id = ? AND changed_at <= ? ORDER BY changed_at DESC, history_id DESC LIMIT 1",
+                customerOrderId, Timestamp.valueOf(at));
+        if (legacy.isEmpty()) {
+            throw new RuntimeException("No history found for order ID: " + customerOrderId + " at " + at);
+        }
+        Map<String, Object> state = new HashMap<>(legacy.get(0));
+        Object changedAt = state.remove("changed_at");
+        state.remove("history_id");
+        state.remove("order_status_history");
+        state.remove("customer_order_id");
+        return new OrderHistoryStateResponse(customerOrderId, at,
+                changedAt instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : null,
+                (String) state.get("order_status"), state);
+    }
+
+    private Map<Long, ObjectNode> loadHeads(List<Long> orderIds) {
+        Map<Long, ObjectNode> heads = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            Array ids = connection.createArrayOf("bigint", orderIds.stream().distinct().toArray());
+            PreparedStatement statement = connection.prepareStatement("SELECT customer_order_id, state::text AS state " +
+                    "FROM sales_tracking.vehicle_order_history_head WHERE customer_order_id = ANY(?) FOR UPDATE");
+            statement.setArray(1, ids);
+            return statement;
+        }, rs -> {
+            heads.put(rs.getLong("customer_order_id"), (ObjectNode) readTree(rs.getString("state")));
+        });
+        return heads;
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return jsonReader.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable order history json: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private String textOrNull(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
@@ -0,0 +1,76 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.config.TemporalWorkerConfig;
+import com.vehicle.salesmanagement.domain.dto.apirequest.DeliveryRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.DispatchRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.FinanceRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.OrderRequest;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.WorkflowStatusResponse;
+import com.vehicle.salesmanagement.workflow.OrderLifecycleState;
+import com.vehicle.salesmanagement.workflow.OrderLifecycleWorkflow;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+// Starts one order-lifecycle-{id} workflow per order and moves it on with signals, instead of starting separate
+// order, finance, dispatch-delivery and cancel workflows for the same order.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderLifecycleService {
+
+    private final WorkflowClient workflowClient;
+
+    @Value("${order.lifecycle.max-history-events:2000}")
+    private int maxHistoryEvents;
+
+    public static String workflowId(Long customerOrderId) {
+        return "order-lifecycle-" + customerOrderId;
+    }
+
+    public void start(Long customerOrderId, OrderRequest orderRequest) {
+        WorkflowOptions options = WorkflowOptions.newBuilder()
+                .setTaskQueue(TemporalWorkerConfig.VEHICLE_ORDER_TASK_QUEUE)
+                .setWorkflowId(workflowId(customerOrderId))
+                .build();
+        OrderLifecycleWorkflow workflow = workflowClient.newWorkflowStub(OrderLifecycleWorkflow.class, options);
+        WorkflowClient.start(workflow::run, new OrderLifecycleState(customerOrderId, orderRequest, maxHistoryEvents));
+        log.info("Order lifecycle workflow started for order ID: {}", customerOrderId);
+    }
+
+    public void requestFinance(FinanceRequest financeRequest) {
+        workflow(financeRequest.getCustomerOrderId()).requestFinance(financeRequest);
+    }
+
+    public void approveFinance(Long customerOrderId, String approvedBy) {
+        workflow(customerOrderId).approveFinance(approvedBy);
+    }
+
+    public void rejectFinance(Long customerOrderId, String rejectedBy) {
+        workflow(customerOrderId).rejectFinance(rejectedBy);
+    }
+
+    public void requestDispatch(DispatchRequest dispatchRequest) {
+        workflow(dispatchRequest.getCustomerOrderId()).requestDispatch(dispatchRequest);
+    }
+
+    public void confirmDelivery(DeliveryRequest deliveryRequest) {
+        workflow(deliveryRequest.getCustomerOrderId()).confirmDelivery(deliveryRequest);
+    }
+
+    public void cancel(Long customerOrderId) {
+        workflow(customerOrderId).cancelOrder(customerOrderId);
+    }
+
+    public WorkflowStatusResponse getStatus(Long customerOrderId) {
+        return workflow(customerOrderId).getStatus();
+    }
+
+    // no run ID, so signals and queries follow the workflow across continue-as-new
+    private OrderLifecycleWorkflow workflow(Long customerOrderId) {
+        return workflowClient.newWorkflowStub(OrderLifecycleWorkflow.class, workflowId(customerOrderId));
+    }
+}
@@ -0,0 +1,181 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.domain.dto.apirequest.OrderRequest;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.WorkflowStatusResponse;
+import com.vehicle.salesmanagement.enums.OrderStatus;
+import com.vehicle.salesmanagement.repository.VehicleOrderDetailsRepository;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowException;
+import io.temporal.client.WorkflowStub;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Follows order workflows without holding a request thread: the final OrderResponse is written back to the
+// order and kept for a while so clients can poll or subscribe for it. A workflow that outlives the result
+// timeout is asked for its status; once it has settled (waiting on the manufacturer, order PENDING) or has been
+// followed for max-follow-minutes, its status is published as an interim result and the tracker lets it go. The
+// workflow's activities write anything that happens after that, and the order-{id} workflow can still be queried.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderResultTracker {
+
+    private final WorkflowClient workflowClient;
+    private final VehicleOrderDetailsRepository orderRepository;
+    private final VehicleOrderService vehicleOrderService;
+
+    @Value("${order.intake.result-timeout-seconds:30}")
+    private long resultTimeoutSeconds;
+
+    @Value("${order.intake.result-retention-minutes:30}")
+    private long resultRetentionMinutes;
+
+    @Value("${order.intake.max-follow-minutes:10}")
+    private long maxFollowMinutes;
+
+    private final ExecutorService completionExecutor = Executors.newFixedThreadPool(4);
+    private final Map<Long, TrackedOrder> trackedOrders = new ConcurrentHashMap<>();
+
+    @PreDestroy
+    public void shutdown() {
+        completionExecutor.shutdown();
+    }
+
+    public CompletableFuture<OrderResponse> track(Long customerOrderId, OrderRequest orderRequest) {
+        purgeExpired();
+        CompletableFuture<OrderResponse> result = new CompletableFuture<>();
+        trackedOrders.put(customerOrderId, new TrackedOrder(result, Instant.now()));
+        // the order row only becomes visible to the completion handler once the intake transaction commits
+        Runnable follow = () -> follow(customerOrderId, orderRequest, result, Instant.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        follow.run();
+                    } else {
+                        trackedOrders.remove(customerOrderId);
+                        result.completeExceptionally(new IllegalStateException("Order " + customerOrderId + " was not saved"));
+                    }
+                }
+            });
+        } else {
+            follow.run();
+        }
+        return result;
+    }
+
+    public Optional<CompletableFuture<OrderResponse>> find(Long customerOrderId) {
+        return Optional.ofNullable(trackedOrders.get(customerOrderId)).map(TrackedOrder::result);
+    }
+
+    private void follow(Long customerOrderId, OrderRequest orderRequest, CompletableFuture<OrderResponse> result, Instant followingSince) {
+        WorkflowStub workflow = workflowClient.newUntypedWorkflowStub("order-" + customerOrderId);
+        workflow.getResultAsync(resultTimeoutSeconds, TimeUnit.SECONDS, OrderResponse.class)
+                .whenCompleteAsync((response, error) -> {
+                    if (isTimeout(error)) {
+                        // nothing final is known yet, so nothing is written to the order
+                        Optional<WorkflowStatusResponse> status = queryStatus(workflow, customerOrderId);
+                        if (status.filter(this::isSettled).isPresent()) {
+                            log.info("Order ID: {} workflow settled at stage {}, publishing its status",
+                                    customerOrderId, status.get().getStage());
+                            result.complete(interim(customerOrderId, orderRequest, status.get().getOrderStatus()));
+                        } else if (followingSince.plus(Duration.ofMinutes(maxFollowMinutes)).isBefore(Instant.now())) {
+                            log.warn("Order ID: {} workflow still running after {} minutes, no longer following it",
+                                    customerOrderId, maxFollowMinutes);
+                            result.complete(interim(customerOrderId, orderRequest,
+                                    status.map(WorkflowStatusResponse::getOrderStatus).orElse(null)));
+                        } else {
+                            log.info("Order ID: {} workflow still running after {} seconds, still following it",
+                                    customerOrderId, resultTimeoutSeconds);
+                            follow(customerOrderId, orderRequest, result, followingSince);
+                        }
+                        return;
+                    }
+                    try {
+                        result.complete(complete(customerOrderId, orderRequest, response, error));
+                    } catch (Exception e) {
+                        result.completeExceptionally(e);
+                    }
+                }, completionExecutor);
+    }
+
+    private Optional<WorkflowStatusResponse> queryStatus(WorkflowStub workflow, Long customerOrderId) {
+        try {
+            return Optional.ofNullable(workflow.query("getStatus", WorkflowStatusResponse.class));
+        } catch (WorkflowException e) {
+            log.warn("Status query failed for order ID: {} - {}", customerOrderId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    // the order workflow only moves on from here on a cancel signal or after the 24-hour manufacturer wait
+    private boolean isSettled(WorkflowStatusResponse status) {
+        return "AWAITING_MANUFACTURER".equals(status.getStage()) || status.getOrderStatus() == OrderStatus.PENDING;
+    }
+
+    private OrderResponse interim(Long customerOrderId, OrderRequest orderRequest, OrderStatus orderStatus) {
+        OrderResponse response = vehicleOrderService.mapToOrderResponse(orderRequest);
+        response.setCustomerOrderId(customerOrderId);
+        response.setOrderStatus(orderStatus != null ? orderStatus : OrderStatus.PENDING);
+        response.setCreatedAt(LocalDateTime.now());
+        return response;
+    }
+
+    private boolean isTimeout(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof TimeoutException;
+    }
+
+    private OrderResponse complete(Long customerOrderId, OrderRequest orderRequest, OrderResponse response, Throwable error) {
+        if (error != null || response == null) {
+            log.error("Failed to get workflow result for order ID: {} - {}", customerOrderId,
+                    error != null ? error.getMessage() : "empty result");
+            response = vehicleOrderService.mapToOrderResponse(orderRequest);
+            response.setOrderStatus(OrderStatus.PENDING);
+            response.setCreatedAt(LocalDateTime.now());
+        }
+        if (response.getOrderStatus() == null) {
+            log.warn("Workflow returned null status for order ID: {}, defaulting to PENDING", customerOrderId);
+            response.setOrderStatus(OrderStatus.PENDING);
+        }
+        response.setCustomerOrderId(customerOrderId);
+
+        OrderStatus finalStatus = response.getOrderStatus();
+        orderRepository.findById(customerOrderId).ifPresentOrElse(orderDetails -> {
+            orderDetails.setOrderStatus(finalStatus);
+            orderDetails.setUpdatedAt(LocalDateTime.now());
+            orderRepository.save(orderDetails);
+        }, () -> log.warn("Order ID: {} not found while recording workflow result", customerOrderId));
+        log.info("Order ID: {} finished intake with status: {}", customerOrderId, finalStatus);
+        return response;
+    }
+
+    private void purgeExpired() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(resultRetentionMinutes));
+        trackedOrders.entrySet().removeIf(entry -> entry.getValue().result().isDone()
+                && entry.getValue().trackedAt().isBefore(cutoff));
+    }
+
+    private record TrackedOrder(CompletableFuture<OrderResponse> result, Instant trackedAt) {
+    }
+}
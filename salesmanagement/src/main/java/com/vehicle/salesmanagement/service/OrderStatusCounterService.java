@@ -0,0 +1,132 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderStatusSummaryResponse;
+import com.vehicle.salesmanagement.enums.OrderStatus;
+import com.vehicle.salesmanagement.repository.OrderStatusCount;
+import com.vehicle.salesmanagement.repository.VehicleOrderDetailsRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-status order counts for the dashboard. A trigger on vehicle_order_details keeps
+// sales_tracking.order_status_counter up to date on every insert, status change and delete, so the summary
+// reads a few dozen counter rows instead of scanning the orders. Each status is spread over SHARDS rows
+// (by order id) so concurrent status changes don't all queue on the same counter row.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderStatusCounterService {
+
+    private static final int SHARDS = 16;
+    private static final String LOCK_KEY = "hashtext('sales_tracking.order_status_counter')";
+
+    private final VehicleOrderDetailsRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    // the schema update has to create vehicle_order_details before the trigger can be attached
+    private final EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void installCounters() {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                // several nodes may start at once; the DDL below is not safe to run concurrently
+                jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS sales_tracking.order_status_counter (" +
+                        "status VARCHAR(32) NOT NULL, " +
+                        "shard INT NOT NULL, " +
+                        "order_count BIGINT NOT NULL DEFAULT 0, " +
+                        "PRIMARY KEY (status, shard))");
+                jdbcTemplate.execute("CREATE OR REPLACE FUNCTION sales_tracking.track_order_status_count() " +
+                        "RETURNS trigger AS $$ " +
+                        "BEGIN " +
+                        "  IF TG_OP = 'UPDATE' AND OLD.order_status IS NOT DISTINCT FROM NEW.order_status THEN " +
+                        "    RETURN NULL; " +
+                        "  END IF; " +
+                        "  IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.order_status IS NOT NULL THEN " +
+                        "    UPDATE sales_tracking.order_status_counter SET order_count = order_count - 1 " +
+                        "    WHERE status = OLD.order_status AND shard = OLD.customer_order_id % " + SHARDS + "; " +
+                        "  END IF; " +
+                        "  IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.order_status IS NOT NULL THEN " +
+                        "    INSERT INTO sales_tracking.order_status_counter (status, shard, order_count) " +
+                        "    VALUES (NEW.order_status, NEW.customer_order_id % " + SHARDS + ", 1) " +
+                        "    ON CONFLICT (status, shard) " +
+                        "    DO UPDATE SET order_count = sales_tracking.order_status_counter.order_count + 1; " +
+                        "  END IF; " +
+                        "  RETURN NULL; " +
+                        "END $$ LANGUAGE plpgsql");
+                jdbcTemplate.execute("DROP TRIGGER IF EXISTS order_status_count_trigger ON sales_tracking.vehicle_order_details");
+                jdbcTemplate.execute("CREATE TRIGGER order_status_count_trigger " +
+                        "AFTER INSERT OR UPDATE OF order_status OR DELETE ON sales_tracking.vehicle_order_details " +
+                        "FOR EACH ROW EXECUTE FUNCTION sales_tracking.track_order_status_count()");
+                Long counterRows = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM sales_tracking.order_status_counter", Long.class);
+                if (counterRows == null || counterRows == 0) {
+                    seedCounters();
+                }
+            });
+            log.info("Order status counters installed");
+        } catch (Exception e) {
+            log.error("Failed to install order status counters, summaries will count the orders: {}", e.getMessage());
+        }
+    }
+
+    public OrderStatusSummaryResponse getSummary(boolean exact) {
+        if (!exact) {
+            try {
+                return toSummary(orderRepository.sumStatusCounters(), "counters");
+            } catch (Exception e) {
+                log.warn("Order status counters unavailable, counting orders instead: {}", e.getMessage());
+            }
+        }
+        return toSummary(orderRepository.countGroupedByStatus(), "query");
+    }
+
+    // Rebuilds the counters from the orders, e.g. after rows were changed with the trigger disabled.
+    public OrderStatusSummaryResponse reconcile() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+            jdbcTemplate.execute("DELETE FROM sales_tracking.order_status_counter");
+            seedCounters();
+        });
+        log.info("Order status counters reconciled with vehicle_order_details");
+        return getSummary(false);
+    }
+
+    private void seedCounters() {
+        // SHARE mode waits for in-flight order writes and holds new ones until the counters are rebuilt
+        jdbcTemplate.execute("LOCK TABLE sales_tracking.vehicle_order_details IN SHARE MODE");
+        int rows = jdbcTemplate.update("INSERT INTO sales_tracking.order_status_counter (status, shard, order_count) " +
+                "SELECT order_status, customer_order_id % " + SHARDS + ", COUNT(*) " +
+                "FROM sales_tracking.vehicle_order_details WHERE order_status IS NOT NULL " +
+                "GROUP BY order_status, customer_order_id % " + SHARDS);
+        log.info("Seeded {} order status counter rows", rows);
+    }
+
+    private OrderStatusSummaryResponse toSummary(List<OrderStatusCount> counts, String source) {
+        Map<OrderStatus, Long> statusCounts = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus orderStatus : OrderStatus.values()) {
+            statusCounts.put(orderStatus, 0L);
+        }
+        long total = 0;
+        for (OrderStatusCount count : counts) {
+            long orderCount = count.getOrderCount() != null ? count.getOrderCount() : 0L;
+            total += orderCount;
+            try {
+                statusCounts.put(OrderStatus.valueOf(count.getStatus()), orderCount);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                log.warn("Ignoring {} orders with unknown status {}", orderCount, count.getStatus());
+            }
+        }
+        return new OrderStatusSummaryResponse(total, statusCounts, source);
+    }
+}
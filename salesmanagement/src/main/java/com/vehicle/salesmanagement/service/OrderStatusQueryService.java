@@ -0,0 +1,83 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderDetailsResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderLiveStatusResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.WorkflowStatusResponse;
+import io.temporal.api.enums.v1.QueryRejectCondition;
+import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowClientOptions;
+import io.temporal.client.WorkflowException;
+import io.temporal.client.WorkflowNotFoundException;
+import io.temporal.client.WorkflowQueryRejectedException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Answers order status polls from the getStatus query of the order, finance and dispatch workflows while any of
+// them is running, so in-flight orders are not read from PostgreSQL. Once all of them are closed the order row
+// is read instead.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderStatusQueryService {
+
+    // later stages first, the first running workflow with an order status decides it and the rest are not queried
+    private static final List<String> WORKFLOW_ID_PREFIXES = List.of(
+            "order-lifecycle-", "dispatch-delivery-", "finance-", "order-");
+
+    private final WorkflowClient workflowClient;
+    private final VehicleOrderService vehicleOrderService;
+
+    private WorkflowClient queryClient;
+
+    @PostConstruct
+    public void init() {
+        // same connection as the shared client, but the server refuses queries to closed workflows instead of
+        // having a worker replay their history
+        queryClient = WorkflowClient.newInstance(workflowClient.getWorkflowServiceStubs(),
+                WorkflowClientOptions.newBuilder(workflowClient.getOptions())
+                        .setQueryRejectCondition(QueryRejectCondition.QUERY_REJECT_CONDITION_NOT_OPEN)
+                        .build());
+    }
+
+    public OrderLiveStatusResponse getStatus(Long customerOrderId) {
+        Map<String, WorkflowStatusResponse> workflows = new LinkedHashMap<>();
+        for (String prefix : WORKFLOW_ID_PREFIXES) {
+            String workflowId = prefix + customerOrderId;
+            Optional<WorkflowStatusResponse> status = query(workflowId);
+            if (status.isEmpty()) {
+                continue;
+            }
+            workflows.put(workflowId, status.get());
+            if (status.get().getOrderStatus() != null) {
+                return new OrderLiveStatusResponse(customerOrderId, "WORKFLOW", status.get().getOrderStatus(), workflows, null);
+            }
+        }
+        if (!workflows.isEmpty()) {
+            // running, but none of them has reached an order status yet
+            return new OrderLiveStatusResponse(customerOrderId, "WORKFLOW", null, workflows, null);
+        }
+
+        log.debug("No running workflow for order ID: {}, reading its status from the database", customerOrderId);
+        OrderDetailsResponse details = vehicleOrderService.getOrderDetailsByCustomerOrderId(customerOrderId);
+        return new OrderLiveStatusResponse(customerOrderId, "DATABASE", details.getOrderStatus(), Map.of(), details);
+    }
+
+    private Optional<WorkflowStatusResponse> query(String workflowId) {
+        try {
+            return Optional.ofNullable(queryClient.newUntypedWorkflowStub(workflowId)
+                    .query("getStatus", WorkflowStatusResponse.class));
+        } catch (WorkflowNotFoundException | WorkflowQueryRejectedException e) {
+            return Optional.empty();
+        } catch (WorkflowException e) {
+            log.warn("Status query failed for workflow {}: {}", workflowId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderTimelineEntry;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderTimelineResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+// One chronological stream over every history table of an order, paged with a keyset cursor on
+// (changed_at, source, id). Each table contributes at most one page of rows through its
+// (customer_order_id, changed_at, id) index, so a page costs the same however long the order's history is.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderTimelineService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // sorted by source name, the tie-breaker after changed_at
+    private static final List<TimelineSource> SOURCES = List.of(
+            new TimelineSource("DELIVERY", "delivery_details_history", "history_id",
+                    "NULL", "delivery_status", "updated_by", "delivery_status_history"),
+            new TimelineSource("DISPATCH", "dispatch_details_history", "history_id",
+                    "NULL", "dispatch_status", "updated_by", "dispatch_status_history"),
+            new TimelineSource("FINANCE", "finance_details_history", "history_id",
+                    "NULL", "finance_status", "COALESCE(approved_by, rejected_by)", "finance_status_history"),
+            new TimelineSource("ORDER", "vehicle_order_delta_history", "delta_id",
+                    "from_status", "to_status", "changed_by", "changes"),
+            new TimelineSource("ORDER_SNAPSHOT", "vehicle_order_details_history", "history_id",
+                    "NULL", "order_status", "updated_by", "order_status_history")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderTimelineResponse getTimeline(Long customerOrderId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Cursor after = cursor == null || cursor.isBlank() ? null : Cursor.decode(cursor);
+
+        StringBuilder sql = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        for (TimelineSource source : SOURCES) {
+            if (!sql.isEmpty()) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("(SELECT '").append(source.name()).append("' AS source, ")
+                    .append(source.idColumn()).append(" AS entry_id, changed_at, ")
+                    .append(source.fromStatus()).append("::text AS from_status, ")
+                    .append(source.status()).append("::text AS status, ")
+                    .append(source.changedBy()).append("::text AS changed_by, ")
+                    .append(source.details()).append("::text AS details ")
+                    .append("FROM sales_tracking.").append(source.table()).append(" WHERE customer_order_id = ?");
+            args.add(customerOrderId);
+            if (after != null) {
+                // the cursor's source decides where this table resumes within the cursor's changed_at
+                long idBound = source.name().compareTo(after.source()) < 0 ? Long.MAX_VALUE
+                        : source.name().equals(after.source()) ? after.entryId() : Long.MIN_VALUE;
+                sql.append(" AND (changed_at, ").append(source.idColumn()).append(") > (?, ?)");
+                args.add(Timestamp.valueOf(after.changedAt()));
+                args.add(idBound);
+            }
+            sql.append(" ORDER BY changed_at, ").append(source.idColumn()).append(" LIMIT ?)");
+            args.add(pageSize + 1);
+        }
+        sql.append(" ORDER BY changed_at, source COLLATE \"C\", entry_id LIMIT ?");
+        args.add(pageSize + 1);
+
+        List<OrderTimelineEntry> entries = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new OrderTimelineEntry(
+                rs.getString("source"),
+                rs.getLong("entry_id"),
+                rs.getTimestamp("changed_at").toLocalDateTime(),
+                rs.getString("from_status"),
+                rs.getString("status"),
+                rs.getString("changed_by"),
+                rs.getString("details")), args.toArray());
+
+        String nextCursor = null;
+        if (entries.size() > pageSize) {
+            entries = new ArrayList<>(entries.subList(0, pageSize));
+            OrderTimelineEntry last = entries.get(pageSize - 1);
+            nextCursor = new Cursor(last.getChangedAt(), last.getSource(), last.getEntryId()).encode();
+        }
+        log.info("Timeline page for order ID: {} has {} entries, more: {}", customerOrderId, entries.size(), nextCursor != null);
+        return new OrderTimelineResponse(customerOrderId, entries, nextCursor);
+    }
+
+    private record TimelineSource(String name, String table, String idColumn, String fromStatus, String status,
+                                  String changedBy, String details) {
+    }
+
+    private record Cursor(LocalDateTime changedAt, String source, long entryId) {
+
+        String encode() {
+            String raw = changedAt + "|" + source + "|" + entryId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                return new Cursor(LocalDateTime.parse(parts[0]), parts[1], Long.parseLong(parts[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid timeline cursor: " + cursor);
+            }
+        }
+    }
+}
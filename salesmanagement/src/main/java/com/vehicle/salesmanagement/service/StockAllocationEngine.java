@@ -0,0 +1,282 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.domain.dto.apirequest.OrderRequest;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.AllocationLaneMetrics;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderResponse;
+import com.vehicle.salesmanagement.enums.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+// Routes allocations to a fixed set of single-writer lanes keyed by vehicle variant. Orders for the same
+// variant are drained and allocated by one thread in a single transaction, so a burst costs one commit instead
+// of one per order; orders for different variants run in parallel. If the batch fails it is rolled back and
+// its orders are replayed one transaction each, so one bad order does not fail the others.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockAllocationEngine {
+
+    private final VehicleOrderService vehicleOrderService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${stock.allocation.lanes:16}")
+    private int laneCount;
+
+    @Value("${stock.allocation.batch-size:32}")
+    private int batchSize;
+
+    @Value("${stock.allocation.timeout-seconds:20}")
+    private long timeoutSeconds;
+
+    // how long a caller whose order is already being allocated waits past timeout-seconds before abandoning it
+    @Value("${stock.allocation.claimed-wait-seconds:10}")
+    private long claimedWaitSeconds;
+
+    private final List<AllocationLane> lanes = new ArrayList<>();
+
+    @PostConstruct
+    public void startLanes() {
+        for (int i = 0; i < laneCount; i++) {
+            AllocationLane lane = new AllocationLane(i);
+            lanes.add(lane);
+            lane.worker.start();
+        }
+        log.info("Started {} stock allocation lanes with batch size {}", laneCount, batchSize);
+    }
+
+    @PreDestroy
+    public void stopLanes() {
+        lanes.forEach(lane -> lane.worker.interrupt());
+    }
+
+    public OrderResponse allocate(OrderRequest orderRequest) {
+        AllocationTask task = new AllocationTask(orderRequest, System.nanoTime(),
+                new AtomicReference<>(TaskState.QUEUED), new CompletableFuture<>());
+        laneFor(orderRequest.getVehicleVariantId()).queue.add(task);
+        try {
+            return await(task, timeoutSeconds);
+        } catch (TimeoutException e) {
+            if (task.state.compareAndSet(TaskState.QUEUED, TaskState.ABANDONED)) {
+                throw new IllegalStateException("Stock allocation timed out for variant: " + orderRequest.getVehicleVariantId());
+            }
+        }
+        // a lane is running the order, the stock may be blocked once its transaction commits
+        try {
+            return await(task, claimedWaitSeconds);
+        } catch (TimeoutException e) {
+            // the lane checks the state before committing and rolls the allocation back
+            if (task.state.compareAndSet(TaskState.RUNNING, TaskState.ABANDONED)) {
+                throw new IllegalStateException("Stock allocation abandoned after " + (timeoutSeconds + claimedWaitSeconds)
+                        + " seconds for variant: " + orderRequest.getVehicleVariantId());
+            }
+        }
+        // the lane is committing, the outcome is only the commit away
+        try {
+            return await(task, claimedWaitSeconds);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Stock allocation commit did not finish in time for variant: "
+                    + orderRequest.getVehicleVariantId() + ", check the stock before retrying");
+        }
+    }
+
+    private OrderResponse await(AllocationTask task, long seconds) throws TimeoutException {
+        try {
+            return task.result.get(seconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException runtimeException ? runtimeException : new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for stock allocation", e);
+        }
+    }
+
+    public List<AllocationLaneMetrics> getLaneMetrics() {
+        return lanes.stream().map(AllocationLane::snapshot).toList();
+    }
+
+    private AllocationLane laneFor(Long variantId) {
+        return lanes.get(Math.floorMod(Long.hashCode(variantId), lanes.size()));
+    }
+
+    private OrderResponse allocateInLane(OrderRequest orderRequest) {
+        OrderResponse response = vehicleOrderService.checkAndBlockStock(orderRequest);
+        if (response.getOrderStatus() == OrderStatus.BLOCKED) {
+            log.info("Stock available in stock_details and successfully blocked for customer: {}", orderRequest.getCustomerName());
+            return response;
+        }
+        log.warn("Vehicle not available in stock_details for model: {} and variant: {}",
+                orderRequest.getModelName(), orderRequest.getVariant());
+
+        response = vehicleOrderService.checkAndReserveMddpStock(orderRequest);
+        if (response.getOrderStatus() == OrderStatus.BLOCKED) {
+            log.info("Stock transferred from mddp_stock to stock_details and blocked for customer: {}", orderRequest.getCustomerName());
+            return response;
+        }
+        log.warn("Vehicle not available in mddp_stock for model: {} and variant: {}",
+                orderRequest.getModelName(), orderRequest.getVariant());
+
+        log.info("Placing manufacturer order as stock not available in either table for customer: {}", orderRequest.getCustomerName());
+        return vehicleOrderService.placeManufacturerOrder(orderRequest);
+    }
+
+    // QUEUED -> RUNNING -> COMMITTING is driven by the lane, QUEUED or RUNNING -> ABANDONED by a caller that gave up
+    private enum TaskState {
+        QUEUED, RUNNING, COMMITTING, ABANDONED
+    }
+
+    private record AllocationTask(OrderRequest orderRequest, long enqueuedAt, AtomicReference<TaskState> state,
+                                  CompletableFuture<OrderResponse> result) {
+    }
+
+    private class AllocationLane implements Runnable {
+
+        private final int laneId;
+        private final BlockingQueue<AllocationTask> queue = new LinkedBlockingQueue<>();
+        private final Thread worker;
+        private final LongAdder allocations = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder replayedBatches = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        AllocationLane(int laneId) {
+            this.laneId = laneId;
+            this.worker = new Thread(this, "stock-allocation-lane-" + laneId);
+            this.worker.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<AllocationTask> batch = new ArrayList<>(batchSize);
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                queue.drainTo(batch, batchSize - 1);
+                List<AllocationTask> running = batch.stream().filter(this::claim).toList();
+                batch.clear();
+                if (running.isEmpty()) {
+                    continue;
+                }
+                batches.increment();
+                if (running.size() == 1 || !allocateBatch(running)) {
+                    running.forEach(this::allocateOne);
+                }
+            }
+        }
+
+        private boolean claim(AllocationTask task) {
+            if (!task.state.compareAndSet(TaskState.QUEUED, TaskState.RUNNING)) {
+                return false;
+            }
+            long waitNanos = System.nanoTime() - task.enqueuedAt;
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+            allocations.increment();
+            return true;
+        }
+
+        // returns false when the batch was rolled back and its orders have to be replayed one by one
+        private boolean allocateBatch(List<AllocationTask> tasks) {
+            List<OrderResponse> responses;
+            try {
+                responses = new TransactionTemplate(transactionManager).execute(status -> {
+                    List<OrderResponse> allocated = tasks.stream().map(task -> allocateInLane(task.orderRequest)).toList();
+                    if (!startCommit(tasks)) {
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    return allocated;
+                });
+            } catch (Exception e) {
+                log.warn("Stock allocation batch of {} rolled back in lane {}, replaying its orders one by one - {}",
+                        tasks.size(), laneId, e.getMessage());
+                tasks.forEach(task -> task.state.compareAndSet(TaskState.COMMITTING, TaskState.RUNNING));
+                replayedBatches.increment();
+                return false;
+            }
+            if (responses == null) {
+                log.warn("Stock allocation batch of {} rolled back in lane {} as a caller gave up, replaying the others",
+                        tasks.size(), laneId);
+                replayedBatches.increment();
+                return false;
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                tasks.get(i).result.complete(responses.get(i));
+            }
+            return true;
+        }
+
+        // moves every task to COMMITTING, or none of them if a caller abandoned one in the meantime
+        private boolean startCommit(List<AllocationTask> tasks) {
+            for (int i = 0; i < tasks.size(); i++) {
+                if (!tasks.get(i).state.compareAndSet(TaskState.RUNNING, TaskState.COMMITTING)) {
+                    tasks.subList(0, i).forEach(task -> task.state.set(TaskState.RUNNING));
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void allocateOne(AllocationTask task) {
+            if (task.state.get() != TaskState.RUNNING) {
+                return;
+            }
+            try {
+                OrderResponse response = new TransactionTemplate(transactionManager).execute(status -> {
+                    OrderResponse allocated = allocateInLane(task.orderRequest);
+                    if (!task.state.compareAndSet(TaskState.RUNNING, TaskState.COMMITTING)) {
+                        status.setRollbackOnly();
+                        return null;
+                    }
+                    return allocated;
+                });
+                if (response == null) {
+                    log.warn("Stock allocation rolled back in lane {} as the caller gave up for customer: {}", laneId,
+                            task.orderRequest.getCustomerName());
+                    return;
+                }
+                task.result.complete(response);
+            } catch (Exception e) {
+                log.error("Stock allocation failed in lane {} for customer: {} - {}", laneId,
+                        task.orderRequest.getCustomerName(), e.getMessage());
+                task.result.completeExceptionally(e);
+            }
+        }
+
+        AllocationLaneMetrics snapshot() {
+            long processed = allocations.sum();
+            return new AllocationLaneMetrics(
+                    laneId,
+                    queue.size(),
+                    processed,
+                    batches.sum(),
+                    replayedBatches.sum(),
+                    processed == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.sum() / processed),
+                    TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get())
+            );
+        }
+    }
+}
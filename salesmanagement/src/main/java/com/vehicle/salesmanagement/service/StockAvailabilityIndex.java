@@ -0,0 +1,176 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.domain.entity.model.StockDetails;
+import com.vehicle.salesmanagement.enums.StockStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory view of AVAILABLE stock rows bucketed by (variant, colour, fuel type, transmission). Each bucket keeps
+// its rows ordered by quantity, so a lookup is a hash probe plus one ceiling search instead of a bucket scan.
+// The database stays the source of truth: callers must re-read the row before blocking it, and fall back to a
+// database query when the index has no candidate.
+@Slf4j
+@Component
+public class StockAvailabilityIndex {
+
+    private final Map<StockKey, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<Long, StockKey> keysByStockId = new ConcurrentHashMap<>();
+
+    public void rebuild(List<StockDetails> availableStocks) {
+        buckets.clear();
+        keysByStockId.clear();
+        availableStocks.forEach(this::put);
+        log.info("Stock availability index loaded with {} rows in {} buckets", keysByStockId.size(), buckets.size());
+    }
+
+    public Optional<Long> findCandidate(Long variantId, String colour, String fuelType, String transmissionType, int quantity) {
+        Bucket bucket = buckets.get(new StockKey(variantId, colour, fuelType, transmissionType));
+        return bucket == null ? Optional.empty() : bucket.find(quantity);
+    }
+
+    // Every change to a row runs inside compute on its keysByStockId entry, which locks that id, and only then
+    // touches a bucket: a row moves between buckets in one step and concurrent changes to it apply one at a time.
+    public void put(StockDetails stock) {
+        if (stock.getStockId() == null) {
+            return;
+        }
+        StockKey key = stock.getVehicleVariant() == null
+                || stock.getStockStatus() != StockStatus.AVAILABLE
+                || stock.getQuantity() == null
+                || stock.getQuantity() <= 0
+                ? null
+                : new StockKey(stock.getVehicleVariant().getVehicleVariantId(),
+                        stock.getColour(), stock.getFuelType(), stock.getTransmissionType());
+        keysByStockId.compute(stock.getStockId(), (stockId, previous) -> {
+            if (previous != null && !previous.equals(key)) {
+                removeFromBucket(previous, stockId);
+            }
+            if (key == null) {
+                return null;
+            }
+            // compute runs under the bin lock, so a bucket is never dropped while a row is being added to it
+            buckets.compute(key, (k, bucket) -> {
+                Bucket target = bucket == null ? new Bucket() : bucket;
+                target.put(stockId, stock.getQuantity());
+                return target;
+            });
+            return key;
+        });
+    }
+
+    public void remove(Long stockId) {
+        keysByStockId.computeIfPresent(stockId, (id, key) -> {
+            removeFromBucket(key, id);
+            return null;
+        });
+    }
+
+    private void removeFromBucket(StockKey key, Long stockId) {
+        buckets.computeIfPresent(key, (k, bucket) -> bucket.remove(stockId) ? null : bucket);
+    }
+
+    // Replaces the given rows with their current state; ids missing from stocks were deleted.
+    public void refresh(Collection<Long> stockIds, List<StockDetails> stocks) {
+        stockIds.forEach(this::remove);
+        stocks.forEach(this::put);
+    }
+
+    public void decrementAfterCommit(Long stockId, int quantity) {
+        afterCommit(() -> keysByStockId.computeIfPresent(stockId, (id, key) -> {
+            Bucket bucket = buckets.get(key);
+            if (bucket != null && !bucket.decrement(id, quantity)) {
+                return key;
+            }
+            // ran out: drop the row, and the bucket with it when it was the last one
+            removeFromBucket(key, id);
+            return null;
+        }));
+    }
+
+    public void putAfterCommit(StockDetails stock) {
+        afterCommit(() -> put(stock));
+    }
+
+    // Applies the change once the surrounding transaction commits, so a rollback never leaks into the index.
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private record StockKey(Long variantId, String colour, String fuelType, String transmissionType) {
+    }
+
+    // Rows of one bucket by id and by quantity; the smallest row that still covers the order is handed out first.
+    private static final class Bucket {
+
+        private final Map<Long, Integer> quantities = new HashMap<>();
+        private final TreeMap<Integer, Set<Long>> stockIdsByQuantity = new TreeMap<>();
+
+        synchronized Optional<Long> find(int quantity) {
+            Map.Entry<Integer, Set<Long>> entry = stockIdsByQuantity.ceilingEntry(quantity);
+            return entry == null ? Optional.empty() : Optional.of(entry.getValue().iterator().next());
+        }
+
+        synchronized void put(Long stockId, int quantity) {
+            unlink(stockId);
+            quantities.put(stockId, quantity);
+            stockIdsByQuantity.computeIfAbsent(quantity, q -> new LinkedHashSet<>()).add(stockId);
+        }
+
+        // returns true when the bucket is empty afterwards
+        synchronized boolean remove(Long stockId) {
+            unlink(stockId);
+            return quantities.isEmpty();
+        }
+
+        // returns true when the row ran out and left the bucket
+        synchronized boolean decrement(Long stockId, int quantity) {
+            Integer available = quantities.get(stockId);
+            if (available == null) {
+                return false;
+            }
+            if (available > quantity) {
+                put(stockId, available - quantity);
+                return false;
+            }
+            unlink(stockId);
+            return true;
+        }
+
+        synchronized boolean isEmpty() {
+            return quantities.isEmpty();
+        }
+
+        private void unlink(Long stockId) {
+            Integer previous = quantities.remove(stockId);
+            if (previous == null) {
+                return;
+            }
+            Set<Long> ids = stockIdsByQuantity.get(previous);
+            ids.remove(stockId);
+            if (ids.isEmpty()) {
+                stockIdsByQuantity.remove(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.vehicle.salesmanagement.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicle.salesmanagement.domain.dto.apirequest.MddpStockAddRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.StockAddRequest;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.StockIngestionEvent;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Reads stock feeds record by record from CSV (header row with StockAddRequest/MddpStockAddRequest property names,
+// quoted fields may span lines) or newline-delimited JSON, and hands validated rows to BulkImportService one batch at a time. Only the
+// current batch is held in memory; per-row errors and progress are written back as NDJSON while reading.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockIngestionService {
+
+    // a quote that is never closed would otherwise pull the rest of the file into one field
+    private static final int MAX_RECORD_CHARS = 1 << 20;
+
+    private final BulkImportService bulkImportService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${bulk.import.batch-size:500}")
+    private int batchSize;
+
+    public void ingestVehicleStock(InputStream body, boolean csv, OutputStream out) throws IOException {
+        ingest(body, csv, out, StockAddRequest.class, StockAddRequest::getVinNumber, bulkImportService::saveVehicleStock);
+    }
+
+    public void ingestMddpStock(InputStream body, boolean csv, OutputStream out) throws IOException {
+        ingest(body, csv, out, MddpStockAddRequest.class, MddpStockAddRequest::getVin, bulkImportService::saveMddpStock);
+    }
+
+    private <T> void ingest(InputStream body, boolean csv, OutputStream out, Class<T> rowType,
+                            Function<T, String> vin, Function<List<T>, List<String>> writer) throws IOException {
+        Progress progress = new Progress();
+        List<T> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        CsvRecordReader csvReader = new CsvRecordReader(reader);
+        String[] header = null;
+        long lineNumber = 0;
+        while (true) {
+            String line = null;
+            String[] fields = null;
+            if (csv) {
+                try {
+                    fields = csvReader.next();
+                } catch (IllegalArgumentException e) {
+                    // nothing after a broken quote can be split into rows reliably
+                    progress.reject(out, csvReader.recordLine, null, "Unreadable row: " + e.getMessage());
+                    break;
+                }
+                if (fields == null) {
+                    break;
+                }
+                lineNumber = csvReader.recordLine;
+                if (fields.length == 1 && fields[0].isBlank()) {
+                    continue;
+                }
+                if (header == null) {
+                    header = fields;
+                    continue;
+                }
+            } else {
+                line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+            }
+
+            T row;
+            try {
+                row = csv ? objectMapper.convertValue(toRecord(header, fields), rowType)
+                        : objectMapper.readValue(line, rowType);
+            } catch (Exception e) {
+                progress.reject(out, lineNumber, null, "Unreadable row: " + readError(e));
+                continue;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                progress.reject(out, lineNumber, vin.apply(row), violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+
+            batch.add(row);
+            batchLines.add(lineNumber);
+            if (batch.size() >= batchSize) {
+                writeBatch(batch, batchLines, vin, writer, progress, out);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, batchLines, vin, writer, progress, out);
+        }
+        progress.send(out, new StockIngestionEvent("completed", null, null, null,
+                progress.processed, progress.saved, progress.failed));
+        log.info("Stock ingestion of {} finished: {} rows processed, {} saved, {} failed",
+                rowType.getSimpleName(), progress.processed, progress.saved, progress.failed);
+    }
+
+    private <T> void writeBatch(List<T> batch, List<Long> batchLines, Function<T, String> vin,
+                                Function<List<T>, List<String>> writer, Progress progress, OutputStream out) throws IOException {
+        // the batch list is reused for the next rows, the writer gets its own copy
+        List<String> errors = writer.apply(List.copyOf(batch));
+        for (int i = 0; i < batch.size(); i++) {
+            if (errors.get(i) == null) {
+                progress.processed++;
+                progress.saved++;
+            } else {
+                progress.reject(out, batchLines.get(i), vin.apply(batch.get(i)), errors.get(i));
+            }
+        }
+        progress.send(out, new StockIngestionEvent("progress", batchLines.get(batchLines.size() - 1), null, null,
+                progress.processed, progress.saved, progress.failed));
+        batch.clear();
+        batchLines.clear();
+    }
+
+    private Map<String, String> toRecord(String[] header, String[] values) {
+        if (values.length > header.length) {
+            throw new IllegalArgumentException("expected " + header.length + " columns but found " + values.length);
+        }
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            // empty cells are left unset so they validate the same way as a missing JSON property
+            if (!values[i].isBlank()) {
+                record.put(header[i].trim(), values[i].trim());
+            }
+        }
+        return record;
+    }
+
+    private String readError(Exception e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause instanceof JsonProcessingException jsonError ? jsonError.getOriginalMessage() : cause.getMessage();
+    }
+
+    // RFC 4180 records: commas and line breaks inside double quotes, "" as an escaped quote. recordLine is the
+    // line the last returned record started on.
+    private static final class CsvRecordReader {
+        private final BufferedReader reader;
+        private long lineNumber;
+        private long recordLine;
+
+        CsvRecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        String[] next() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            recordLine = ++lineNumber;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            int recordChars = 0;
+            boolean quoted = false;
+            while (true) {
+                recordChars += line.length();
+                for (int i = 0; i < line.length(); i++) {
+                    char c = line.charAt(i);
+                    if (quoted) {
+                        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append('"');
+                            i++;
+                        } else if (c == '"') {
+                            quoted = false;
+                        } else {
+                            field.append(c);
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == ',') {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    } else {
+                        field.append(c);
+                    }
+                }
+                if (!quoted) {
+                    break;
+                }
+                // the quoted field goes on with the next line
+                line = reader.readLine();
+                if (line == null || recordChars > MAX_RECORD_CHARS) {
+                    throw new IllegalArgumentException("quoted field starting on line " + recordLine + " is never closed");
+                }
+                lineNumber++;
+                field.append('\n');
+            }
+            fields.add(field.toString());
+            return fields.toArray(new String[0]);
+        }
+    }
+
+    private class Progress {
+        private long processed;
+        private long saved;
+        private long failed;
+
+        void reject(OutputStream out, Long line, String vin, String message) throws IOException {
+            processed++;
+            failed++;
+            send(out, new StockIngestionEvent("error", line, vin, message, null, null, null));
+        }
+
+        void send(OutputStream out, StockIngestionEvent event) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(event));
+            out.write('\n');
+            out.flush();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.vehicle.salesmanagement.service;
 
 
+import com.vehicle.salesmanagement.domain.dto.apirequest.KendoDataSourceRequest;
 import com.vehicle.salesmanagement.domain.dto.apirequest.StockDTO;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.KendoResponse;
 import com.vehicle.salesmanagement.domain.entity.model.StockDetails;
@@ -13,7 +14,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 public class StockService {
@@ -21,12 +22,40 @@ public class StockService {
     @Autowired
     private StockDetailsRepository stockDetailsRepository;
 
+    @Autowired
+    private StockAvailabilityIndex stockAvailabilityIndex;
+
+    @Autowired
+    private KendoGridQuery kendoGridQuery;
+
+    // grid field -> entity path; selection, sorting and filtering is limited to these
+    private static final KendoGridQuery.Grid<StockDetails, StockDTO> STOCK_GRID = new KendoGridQuery.Grid<>(
+            StockDetails.class,
+            StockDTO.class,
+            Map.ofEntries(
+                    Map.entry("stockId", "stockId"),
+                    Map.entry("modelName", "vehicleModel.modelName"),
+                    Map.entry("fuelType", "fuelType"),
+                    Map.entry("transmissionType", "transmissionType"),
+                    Map.entry("variant", "variant"),
+                    Map.entry("quantity", "quantity"),
+                    Map.entry("vinNumber", "vinNumber"),
+                    Map.entry("suffix", "suffix"),
+                    Map.entry("engineColour", "engineColour"),
+                    Map.entry("colour", "colour"),
+                    Map.entry("interiorColour", "interiorColour")),
+            List.of("stockId", "modelName", "fuelType", "transmissionType", "variant", "quantity", "vinNumber", "suffix",
+                    "engineColour", "colour", "interiorColour"),
+            List.of("vehicleModel"),
+            "stockId",
+            (cb, root) -> cb.equal(root.get("stockStatus"), StockStatus.AVAILABLE));
+
     public KendoResponse<StockDTO> getStockDetails() {
-        List<StockDetails> stockDetails = stockDetailsRepository.findByStockStatus(StockStatus.AVAILABLE);
-        List<StockDTO> stockDTOs = stockDetails.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
-        return new KendoResponse<>(stockDTOs, stockDTOs.size());
+        return getStockDetails(null);
+    }
+
+    public KendoResponse<StockDTO> getStockDetails(KendoDataSourceRequest request) {
+        return kendoGridQuery.fetch(STOCK_GRID, request);
     }
 
 //    private StockDTO mapToDTO(StockDetails stock) {
@@ -91,6 +120,7 @@ public class StockService {
 //        }
 
         StockDetails updatedStock = stockDetailsRepository.save(stock);
+        stockAvailabilityIndex.putAfterCommit(updatedStock);
         return mapToDTO(updatedStock);
     }
 
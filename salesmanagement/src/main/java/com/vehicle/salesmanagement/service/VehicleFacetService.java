@@ -0,0 +1,95 @@
+package com.vehicle.salesmanagement.service;
+
+import com.vehicle.salesmanagement.domain.dto.apiresponse.VehicleFacetResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Every attribute facet of vehicle_variant with its counts from a single scan: each variant row is unpivoted
+// into (facet, value) pairs through a LATERAL VALUES list and the pairs are grouped once, instead of one
+// SELECT DISTINCT per attribute. Filters are disjunctive like a filter sidebar expects: a facet's own filter is
+// ignored when counting that facet, so the other values of a selected facet stay visible.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VehicleFacetService {
+
+    private static final String COLOURS = "SELECT trim(c) FROM unnest(string_to_array(v.colour, ',')) AS c";
+
+    private static final List<Facet> FACETS = List.of(
+            Facet.column("modelName", "m.model_name"),
+            Facet.column("variant", "v.variant"),
+            new Facet("colour", null, "? IN (" + COLOURS + ")"),
+            Facet.column("engineColour", "v.engine_colour"),
+            Facet.column("interiorColour", "v.interior_colour"),
+            Facet.column("fuelType", "v.fuel_type"),
+            Facet.column("transmissionType", "v.transmission_type"),
+            Facet.column("bodyType", "v.body_type"),
+            Facet.column("engineCapacity", "v.engine_capacity"),
+            Facet.column("yearOfManufacture", "v.year_of_manufacture"),
+            Facet.column("seatingCapacity", "v.seating_capacity"),
+            Facet.column("numberOfAirbags", "v.number_of_airbags"),
+            Facet.column("price", "v.price")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VehicleFacetResponse getFacets(Map<String, String> filters) {
+        Map<String, String> applied = new TreeMap<>();
+        filters.forEach((name, value) -> {
+            if (FACETS.stream().noneMatch(facet -> facet.name().equals(name))) {
+                throw new IllegalArgumentException("Unknown facet: " + name);
+            }
+            if (value != null && !value.isBlank()) {
+                applied.put(name, value.trim());
+            }
+        });
+
+        StringBuilder sql = new StringBuilder("SELECT f.facet, f.value, COUNT(*) AS variant_count " +
+                "FROM sales_tracking.vehicle_variant v " +
+                "JOIN sales_tracking.vehicle_model m ON m.vehicle_model_id = v.vehicle_model_id " +
+                "CROSS JOIN LATERAL (VALUES ");
+        List<String> values = new ArrayList<>();
+        for (Facet facet : FACETS) {
+            if (facet.valueSql() != null) {
+                values.add("('" + facet.name() + "', " + facet.valueSql() + "::text)");
+            }
+        }
+        sql.append(String.join(", ", values))
+                .append(" UNION ALL SELECT 'colour', c.colour FROM (").append(COLOURS).append(") AS c(colour)")
+                .append(") AS f(facet, value) WHERE f.value IS NOT NULL AND f.value <> ''");
+        List<Object> args = new ArrayList<>();
+        for (Facet facet : FACETS) {
+            String value = applied.get(facet.name());
+            if (value != null) {
+                sql.append(" AND (f.facet = '").append(facet.name()).append("' OR ").append(facet.filterSql()).append(")");
+                args.add(value);
+            }
+        }
+        sql.append(" GROUP BY f.facet, f.value ORDER BY f.facet, variant_count DESC, f.value");
+
+        Map<String, List<VehicleFacetResponse.FacetValue>> facets = new LinkedHashMap<>();
+        FACETS.forEach(facet -> facets.put(facet.name(), new ArrayList<>()));
+        jdbcTemplate.query(sql.toString(), rs -> {
+            facets.get(rs.getString("facet")).add(
+                    new VehicleFacetResponse.FacetValue(rs.getString("value"), rs.getLong("variant_count")));
+        }, args.toArray());
+        log.info("Computed {} facets with filters {}", facets.size(), applied);
+        return new VehicleFacetResponse(applied, facets);
+    }
+
+    // valueSql is unpivoted into the facet values, filterSql keeps the variants matching one bound value
+    private record Facet(String name, String valueSql, String filterSql) {
+
+        static Facet column(String name, String column) {
+            return new Facet(name, column, column + "::text = ?");
+        }
+    }
+}
@@ -7,17 +7,26 @@ import com.vehicle.salesmanagement.domain.dto.apiresponse.VehicleModelResponse;
 import com.vehicle.salesmanagement.domain.entity.model.*;
 import com.vehicle.salesmanagement.enums.OrderStatus;
 import com.vehicle.salesmanagement.enums.StockStatus;
+import com.vehicle.salesmanagement.errorhandling.OrderNotFoundException;
+import com.vehicle.salesmanagement.event.VehicleCatalogChangedEvent;
 import com.vehicle.salesmanagement.repository.*;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class VehicleOrderService {
@@ -29,40 +38,60 @@ public class VehicleOrderService {
     private final VehicleVariantRepository variantRepository;
     private final VehicleModelRepository vehicleModelRepository;
     private final HistoryService historyService;
+    private final StockAvailabilityIndex stockAvailabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
 
+    // runs before TemporalWorkerConfig.startWorkers, so no order activity sees an empty index
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadStockAvailabilityIndex() {
+        stockAvailabilityIndex.rebuild(stockRepository.findByStockStatus(StockStatus.AVAILABLE));
+    }
+
     @Transactional
     public OrderResponse checkAndBlockStock(OrderRequest orderRequest) {
         VehicleVariant variant = variantRepository.findById(orderRequest.getVehicleVariantId())
                 .orElseThrow(() -> new RuntimeException("Variant not found: " + orderRequest.getVehicleVariantId()));
-        List<StockDetails> stocks = stockRepository.findByVehicleVariantAndStockStatus(variant, StockStatus.AVAILABLE);
-
-        if (stocks.isEmpty()) {
-            return placeManufacturerOrder(orderRequest);
-        }
 
-        StockDetails stock = stocks.stream()
-                .filter(s -> s.getQuantity() >= orderRequest.getQuantity()
-                        && s.getColour().equals(orderRequest.getColour())
-                        && s.getFuelType().equals(orderRequest.getFuelType())
-                        && s.getTransmissionType().equals(orderRequest.getTransmissionType()))
-                .findFirst()
-                .orElse(null);
+        Optional<Long> candidate = findStockCandidate(variant, orderRequest);
+        while (candidate.isPresent()) {
+            Long stockId = candidate.get();
+            int updated = stockRepository.decrementIfAvailable(stockId, orderRequest.getQuantity(),
+                    orderRequest.getColour(), orderRequest.getFuelType(), orderRequest.getTransmissionType());
+            if (updated == 1) {
+                stockAvailabilityIndex.decrementAfterCommit(stockId, orderRequest.getQuantity());
 
-        if (stock == null) {
-            return placeManufacturerOrder(orderRequest);
+                OrderResponse response = mapToOrderResponse(orderRequest);
+                response.setOrderStatus(OrderStatus.BLOCKED);
+                response.setCreatedAt(LocalDateTime.now());
+                return response;
+            }
+            // lost the row to a concurrent booking or the index was stale, resync it and look again
+            stockRepository.findById(stockId)
+                    .ifPresentOrElse(stockAvailabilityIndex::put, () -> stockAvailabilityIndex.remove(stockId));
+            candidate = findStockCandidate(variant, orderRequest);
         }
+        return placeManufacturerOrder(orderRequest);
+    }
 
-        stock.setQuantity(stock.getQuantity() - orderRequest.getQuantity());
-        if (stock.getQuantity() == 0) {
-            stock.setStockStatus(StockStatus.DEPLETED);
+    // a miss in the index is confirmed against the database before the order goes to the manufacturer
+    private Optional<Long> findStockCandidate(VehicleVariant variant, OrderRequest orderRequest) {
+        Optional<Long> candidate = stockAvailabilityIndex.findCandidate(variant.getVehicleVariantId(), orderRequest.getColour(),
+                orderRequest.getFuelType(), orderRequest.getTransmissionType(), orderRequest.getQuantity());
+        if (candidate.isPresent()) {
+            return candidate;
         }
-        stockRepository.save(stock);
-
-        OrderResponse response = mapToOrderResponse(orderRequest);
-        response.setOrderStatus(OrderStatus.BLOCKED);
-        response.setCreatedAt(LocalDateTime.now());
-        return response;
+        Optional<StockDetails> stock = stockRepository
+                .findFirstByVehicleVariantAndColourAndFuelTypeAndTransmissionTypeAndStockStatusAndQuantityGreaterThanEqualOrderByQuantityAsc(
+                        variant, orderRequest.getColour(), orderRequest.getFuelType(), orderRequest.getTransmissionType(),
+                        StockStatus.AVAILABLE, orderRequest.getQuantity());
+        stock.ifPresent(found -> {
+            log.warn("Stock availability index missed stock ID: {} for variant ID: {}, resyncing it",
+                    found.getStockId(), variant.getVehicleVariantId());
+            stockAvailabilityIndex.put(found);
+        });
+        return stock.map(StockDetails::getStockId);
     }
 
     @Transactional
@@ -71,35 +100,28 @@ public class VehicleOrderService {
                 .orElseThrow(() -> new RuntimeException("Vehicle Variant not found: " + orderRequest.getVehicleVariantId()));
         Optional<MddpStock> mddpStockOptional = mddpStockRepository.findByVehicleVariantAndStockStatus(
                 vehicleVariant, StockStatus.AVAILABLE);
-        if (mddpStockOptional.isPresent()) {
-            MddpStock mddpStock = mddpStockOptional.get();
-            if (mddpStock.getQuantity() >= orderRequest.getQuantity()) {
-                VehicleModel vehicleModel = vehicleModelRepository.findById(orderRequest.getVehicleModelId())
-                        .orElseThrow(() -> new RuntimeException("Vehicle Model not found: " + orderRequest.getVehicleModelId()));
-
-                StockDetails newStock = new StockDetails();
-                newStock.setVehicleVariant(vehicleVariant);
-                newStock.setVehicleModel(vehicleModel);
-                newStock.setColour(orderRequest.getColour());
-                newStock.setFuelType(orderRequest.getFuelType());
-                newStock.setTransmissionType(orderRequest.getTransmissionType());
-                newStock.setVariant(orderRequest.getVariant());
-                newStock.setQuantity(orderRequest.getQuantity());
-                newStock.setStockStatus(StockStatus.AVAILABLE);
-                newStock.setCreatedAt(LocalDateTime.now());
-                stockRepository.save(newStock);
-
-                mddpStock.setQuantity(mddpStock.getQuantity() - orderRequest.getQuantity());
-                if (mddpStock.getQuantity() == 0) {
-                    mddpStock.setStockStatus(StockStatus.DEPLETED);
-                }
-                mddpStockRepository.save(mddpStock);
+        if (mddpStockOptional.isPresent()
+                && mddpStockRepository.decrementIfAvailable(mddpStockOptional.get().getMddpOrderId(), orderRequest.getQuantity()) == 1) {
+            VehicleModel vehicleModel = vehicleModelRepository.findById(orderRequest.getVehicleModelId())
+                    .orElseThrow(() -> new RuntimeException("Vehicle Model not found: " + orderRequest.getVehicleModelId()));
 
-                OrderResponse response = mapToOrderResponse(orderRequest);
-                response.setOrderStatus(OrderStatus.BLOCKED);
-                response.setCreatedAt(LocalDateTime.now());
-                return response;
-            }
+            StockDetails newStock = new StockDetails();
+            newStock.setVehicleVariant(vehicleVariant);
+            newStock.setVehicleModel(vehicleModel);
+            newStock.setColour(orderRequest.getColour());
+            newStock.setFuelType(orderRequest.getFuelType());
+            newStock.setTransmissionType(orderRequest.getTransmissionType());
+            newStock.setVariant(orderRequest.getVariant());
+            newStock.setQuantity(orderRequest.getQuantity());
+            newStock.setStockStatus(StockStatus.AVAILABLE);
+            newStock.setCreatedAt(LocalDateTime.now());
+            stockRepository.save(newStock);
+            stockAvailabilityIndex.putAfterCommit(newStock);
+
+            OrderResponse response = mapToOrderResponse(orderRequest);
+            response.setOrderStatus(OrderStatus.BLOCKED);
+            response.setCreatedAt(LocalDateTime.now());
+            return response;
         }
         return placeManufacturerOrder(orderRequest);
     }
@@ -133,7 +155,7 @@ public class VehicleOrderService {
     @Transactional
     public OrderResponse cancelOrder(Long customerOrderId) {
         VehicleOrderDetails orderDetails = orderRepository.findById(customerOrderId)
-                .orElseThrow(() -> new RuntimeException("Order not found with ID: " + customerOrderId));
+                .orElseThrow(() -> new OrderNotFoundException(customerOrderId));
 
         if (orderDetails.getOrderStatus() == OrderStatus.COMPLETED || orderDetails.getOrderStatus() == OrderStatus.CANCELED) {
             throw new IllegalStateException("Order with ID " + customerOrderId + " cannot be canceled. Current status: " + orderDetails.getOrderStatus());
@@ -154,6 +176,7 @@ public class VehicleOrderService {
             stock.setQuantity(stock.getQuantity() + orderDetails.getQuantity());
             stock.setStockStatus(StockStatus.AVAILABLE);
             stockRepository.save(stock);
+            stockAvailabilityIndex.putAfterCommit(stock);
         } else {
             StockDetails newStock = new StockDetails();
             newStock.setVehicleVariant(variant);
@@ -166,6 +189,7 @@ public class VehicleOrderService {
             newStock.setStockStatus(StockStatus.AVAILABLE);
             newStock.setCreatedAt(LocalDateTime.now());
             stockRepository.save(newStock);
+            stockAvailabilityIndex.putAfterCommit(newStock);
         }
 
         historyService.saveOrderHistory(orderDetails, "system", OrderStatus.CANCELED);
@@ -293,13 +317,8 @@ public class VehicleOrderService {
             );
         }
 
-        VehicleModel vehicleModel = new VehicleModel();
-        vehicleModel.setModelName(request.getModelName());
-        vehicleModel.setCreatedBy(request.getCreatedBy() != null ? request.getCreatedBy() : "admin");
-        vehicleModel.setUpdatedBy(request.getCreatedBy() != null ? request.getCreatedBy() : "admin");
-        vehicleModel.setCreatedAt(LocalDateTime.now());
-        vehicleModel.setUpdatedAt(LocalDateTime.now());
-        vehicleModel = vehicleModelRepository.save(vehicleModel);
+        VehicleModel vehicleModel = vehicleModelRepository.save(newVehicleModel(request));
+        eventPublisher.publishEvent(new VehicleCatalogChangedEvent(Set.of(vehicleModel.getModelName())));
 
         return new VehicleModelResponse(
                 vehicleModel.getModelName(),
@@ -308,22 +327,14 @@ public class VehicleOrderService {
         );
     }
 
-    @Transactional
-    public List<VehicleModelResponse> addBulkVehicleModel(List<VehicleModelRequest> requests) {
-        List<VehicleModelResponse> responses = new ArrayList<>();
-        for (VehicleModelRequest request : requests) {
-            try {
-                VehicleModelResponse response = addVehicleModel(request);
-                responses.add(response);
-            } catch (Exception e) {
-                responses.add(new VehicleModelResponse(
-                        request.getModelName(),
-                        null,
-                        "Failed to add vehicle model: " + e.getMessage()
-                ));
-            }
-        }
-        return responses;
+    public VehicleModel newVehicleModel(VehicleModelRequest request) {
+        VehicleModel vehicleModel = new VehicleModel();
+        vehicleModel.setModelName(request.getModelName());
+        vehicleModel.setCreatedBy(request.getCreatedBy() != null ? request.getCreatedBy() : "admin");
+        vehicleModel.setUpdatedBy(request.getCreatedBy() != null ? request.getCreatedBy() : "admin");
+        vehicleModel.setCreatedAt(LocalDateTime.now());
+        vehicleModel.setUpdatedAt(LocalDateTime.now());
+        return vehicleModel;
     }
 
     @Transactional
@@ -346,6 +357,32 @@ public class VehicleOrderService {
         VehicleVariant variant = variantRepository.findById(variantId)
                 .orElseThrow(() -> new RuntimeException("Vehicle variant not found: " + variantId));
 
+        StockDetails stock = newVehicleStock(model, variant, suffix, fuelType, colour, engineColour, transmissionType,
+                variantName, quantity, interiorColour, vinNumber, createdBy);
+        stockRepository.save(stock);
+        stockAvailabilityIndex.putAfterCommit(stock);
+    }
+
+    public StockDetails newVehicleStock(VehicleModel model, VehicleVariant variant, StockAddRequest request) {
+        return newVehicleStock(model, variant, request.getSuffix(), request.getFuelType(), request.getColour(),
+                request.getEngineColour(), request.getTransmissionType(), request.getVariantName(),
+                request.getQuantity(), request.getInteriorColour(), request.getVinNumber(), request.getCreatedBy());
+    }
+
+    private StockDetails newVehicleStock(
+            VehicleModel model,
+            VehicleVariant variant,
+            String suffix,
+            String fuelType,
+            String colour,
+            String engineColour,
+            String transmissionType,
+            String variantName,
+            Integer quantity,
+            String interiorColour,
+            String vinNumber,
+            String createdBy
+    ) {
         StockDetails stock = new StockDetails();
         stock.setVehicleModel(model);
         stock.setVehicleVariant(variant);
@@ -363,35 +400,7 @@ public class VehicleOrderService {
         stock.setCreatedBy(createdBy);
         stock.setUpdatedAt(LocalDateTime.now());
         stock.setUpdatedBy(createdBy);
-
-        stockRepository.save(stock);
-    }
-
-    @Transactional
-    public List<String> addBulkVehicleStock(List<StockAddRequest> requests) {
-        List<String> messages = new ArrayList<>();
-        for (StockAddRequest request : requests) {
-            try {
-                addVehicleStock(
-                        request.getModelId(),
-                        request.getVariantId(),
-                        request.getSuffix(),
-                        request.getFuelType(),
-                        request.getColour(),
-                        request.getEngineColour(),
-                        request.getTransmissionType(),
-                        request.getVariantName(),
-                        request.getQuantity(),
-                        request.getInteriorColour(),
-                        request.getVinNumber(),
-                        request.getCreatedBy()
-                );
-                messages.add("Stock added successfully for VIN: " + request.getVinNumber());
-            } catch (Exception e) {
-                messages.add("Failed to add stock for VIN " + request.getVinNumber() + ": " + e.getMessage());
-            }
-        }
-        return messages;
+        return stock;
     }
 
     @Transactional
@@ -399,6 +408,12 @@ public class VehicleOrderService {
         VehicleModel model = vehicleModelRepository.findById(request.getModelId())
                 .orElseThrow(() -> new RuntimeException("Vehicle model not found with ID: " + request.getModelId()));
 
+        VehicleVariant variant = variantRepository.save(newVariant(request, model));
+        eventPublisher.publishEvent(new VehicleCatalogChangedEvent(Set.of(model.getModelName())));
+        return variant;
+    }
+
+    public VehicleVariant newVariant(VehicleVariantRequest request, VehicleModel model) {
         VehicleVariant variant = new VehicleVariant();
         variant.setVehicleModel(model);
         variant.setVariant(request.getVariant());
@@ -431,23 +446,7 @@ public class VehicleOrderService {
         variant.setUpdatedBy(request.getCreatedBy());
         variant.setCreatedAt(LocalDateTime.now());
         variant.setUpdatedAt(LocalDateTime.now());
-
-        return variantRepository.save(variant);
-    }
-
-    @Transactional
-    public List<VehicleVariant> addBulkVariantToModel(List<VehicleVariantRequest> requests) {
-        List<VehicleVariant> savedVariants = new ArrayList<>();
-        for (VehicleVariantRequest request : requests) {
-            try {
-                VehicleVariant variant = addVariantToModel(request);
-                savedVariants.add(variant);
-            } catch (Exception e) {
-                // Log the error or handle it as needed
-                System.err.println("Failed to add variant for model ID " + request.getModelId() + ": " + e.getMessage());
-            }
-        }
-        return savedVariants;
+        return variant;
     }
 
     @Transactional
@@ -457,6 +456,10 @@ public class VehicleOrderService {
         VehicleVariant variant = variantRepository.findById(request.getVariantId())
                 .orElseThrow(() -> new RuntimeException("Vehicle variant not found: " + request.getVariantId()));
 
+        mddpStockRepository.save(newMddpStock(request, model, variant));
+    }
+
+    public MddpStock newMddpStock(MddpStockAddRequest request, VehicleModel model, VehicleVariant variant) {
         MddpStock stock = new MddpStock();
         stock.setVehicleModel(model);
         stock.setVehicleVariant(variant);
@@ -476,29 +479,9 @@ public class VehicleOrderService {
         stock.setUpdatedAt(LocalDateTime.now());
         stock.setCreatedBy(request.getCreatedBy());
         stock.setUpdatedBy(request.getCreatedBy());
-
-        mddpStockRepository.save(stock);
+        return stock;
     }
 
-    @Transactional
-    public List<String> addBulkMddpStock(List<MddpStockAddRequest> requests) {
-        List<String> messages = new ArrayList<>();
-        for (MddpStockAddRequest request : requests) {
-            try {
-                addMddpStock(request);
-                messages.add("MDDP stock added successfully for VIN: " + request.getVin());
-            } catch (Exception e) {
-                messages.add("Failed to add MDDP stock for VIN " + request.getVin() + ": " + e.getMessage());
-            }
-        }
-        return messages;
-    }
-
-
-
-
-
-
 //    @Transactional
 //    public VehicleModelResponse addVehicleModel(VehicleModelRequest request) {
 //        if (vehicleModelRepository.findByModelName(request.getModelName()).isPresent()) {
@@ -638,22 +621,8 @@ public class VehicleOrderService {
 
 
     public OrderDetailsResponse getOrderDetailsByCustomerOrderId(Long customerOrderId) {
-        VehicleOrderDetails orderDetails = orderRepository.findById(customerOrderId)
+        // projected straight from the order row, no managed entity or associations are loaded
+        return orderRepository.findOrderDetailsById(customerOrderId)
                 .orElseThrow(() -> new RuntimeException("Order not found with ID: " + customerOrderId));
-
-        OrderDetailsResponse response = new OrderDetailsResponse();
-        response.setCustomerName(orderDetails.getCustomerName());
-        response.setPhoneNumber(orderDetails.getPhoneNumber());
-        response.setEmail(orderDetails.getEmail());
-        response.setAadharNo(orderDetails.getAadharNo());
-        response.setPanNo(orderDetails.getPanNo());
-        response.setModelName(orderDetails.getModelName());
-        response.setFuelType(orderDetails.getFuelType());
-        response.setColour(orderDetails.getColour());
-        response.setVariant(orderDetails.getVariant());
-        response.setQuantity(orderDetails.getQuantity());
-        response.setOrderStatus(orderDetails.getOrderStatus());
-
-        return response;
     }
     }
@@ -2,6 +2,8 @@ package com.vehicle.salesmanagement.workflow;
 import com.vehicle.salesmanagement.domain.dto.apirequest.DeliveryRequest;
 import com.vehicle.salesmanagement.domain.dto.apirequest.DispatchRequest;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.DeliveryResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.WorkflowStatusResponse;
+import io.temporal.workflow.QueryMethod;
 import io.temporal.workflow.SignalMethod;
 import io.temporal.workflow.WorkflowInterface;
 import io.temporal.workflow.WorkflowMethod;
@@ -14,4 +16,7 @@ public interface DispatchDeliveryWorkflow {
 
     @SignalMethod
     void confirmDelivery(DeliveryRequest deliveryRequest);
+
+    @QueryMethod
+    WorkflowStatusResponse getStatus();
 }
\ No newline at end of file
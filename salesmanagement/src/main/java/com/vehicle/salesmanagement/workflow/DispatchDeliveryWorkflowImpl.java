@@ -5,6 +5,7 @@ import com.vehicle.salesmanagement.domain.dto.apirequest.DeliveryRequest;
 import com.vehicle.salesmanagement.domain.dto.apirequest.DispatchRequest;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.DeliveryResponse;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.DispatchResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.WorkflowStatusResponse;
 import com.vehicle.salesmanagement.domain.entity.model.VehicleOrderDetails;
 import com.vehicle.salesmanagement.enums.OrderStatus;
 import io.temporal.activity.ActivityOptions;
@@ -13,6 +14,7 @@ import io.temporal.workflow.Workflow;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -21,6 +23,7 @@ public class DispatchDeliveryWorkflowImpl implements DispatchDeliveryWorkflow {
     private final DispatchDeliveryActivities activities;
     private DeliveryRequest deliveryRequest;
     private boolean isDeliveryConfirmed = false;
+    private final WorkflowStatusResponse status = new WorkflowStatusResponse();
 
     public DispatchDeliveryWorkflowImpl() {
         ActivityOptions options = ActivityOptions.newBuilder()
@@ -39,12 +42,16 @@ public class DispatchDeliveryWorkflowImpl implements DispatchDeliveryWorkflow {
         log.info("Starting dispatch and delivery workflow for order ID: {}", customerOrderId);
 
         // Step 1: Check order status and initiate dispatch if ALLOTTED
+        status.setStage("CHECKING_ORDER");
         Optional<VehicleOrderDetails> orderDetailsOpt = activities.getVehicleOrderDetails(customerOrderId);
         if (orderDetailsOpt.isPresent()) {
             VehicleOrderDetails orderDetails = orderDetailsOpt.get();
             OrderStatus currentStatus = orderDetails.getOrderStatus();
+            record("getVehicleOrderDetails", currentStatus, currentStatus);
             if (currentStatus.equals(OrderStatus.ALLOTTED)) {
+                status.setStage("DISPATCHING");
                 DispatchResponse dispatchResponse = activities.initiateDispatch(dispatchRequest);
+                record("initiateDispatch", dispatchResponse, dispatchResponse.getOrderStatus());
                 if (!dispatchResponse.getOrderStatus().equals(OrderStatus.DISPATCHED)) {
                     log.error("Dispatch failed to set order status to DISPATCHED for order ID: {}",customerOrderId);
                     throw new RuntimeException("Dispatch failed for order ID: " + customerOrderId);
@@ -64,7 +71,10 @@ public class DispatchDeliveryWorkflowImpl implements DispatchDeliveryWorkflow {
         }
 
         // Step 2: Wait for delivery confirmation signal
+        status.setStage("AWAITING_DELIVERY");
+        status.setPendingSignals(List.of("confirmDelivery"));
         Workflow.await(Duration.ofMinutes(60), () -> isDeliveryConfirmed);
+        status.setPendingSignals(List.of());
 
         if (!isDeliveryConfirmed || deliveryRequest == null) {
             log.warn("Delivery not confirmed within 60 minutes for order ID: {}", customerOrderId);
@@ -73,11 +83,14 @@ public class DispatchDeliveryWorkflowImpl implements DispatchDeliveryWorkflow {
 
         // Step 3: Check order status and confirm delivery if DISPATCHED
         DeliveryResponse deliveryResponse = null;
+        status.setStage("CONFIRMING_DELIVERY");
         orderDetailsOpt = activities.getVehicleOrderDetails(customerOrderId);
         if (orderDetailsOpt.isPresent()) {
             OrderStatus currentStatus = orderDetailsOpt.get().getOrderStatus();
+            record("getVehicleOrderDetails", currentStatus, currentStatus);
             if (currentStatus.equals(OrderStatus.DISPATCHED)) {
                 deliveryResponse = activities.confirmDelivery(deliveryRequest);
+                record("confirmDelivery", deliveryResponse, deliveryResponse.getOrderStatus());
                 if (!deliveryResponse.getOrderStatus().equals(OrderStatus.DELIVERED)) {
                     log.error("Delivery confirmation failed to set order status to DELIVERED for order ID: {}", customerOrderId);
                     throw new RuntimeException("Delivery confirmation failed for order ID: " + customerOrderId);
@@ -88,6 +101,7 @@ public class DispatchDeliveryWorkflowImpl implements DispatchDeliveryWorkflow {
                 log.warn("Order ID {} is already in status {}. Skipping delivery confirmation.",
                         customerOrderId, currentStatus);
                 deliveryResponse = activities.confirmDelivery(deliveryRequest); // Idempotent call
+                record("confirmDelivery", deliveryResponse, deliveryResponse.getOrderStatus());
             } else {
                 log.error("Order ID {} is in invalid status {} for delivery.", customerOrderId, currentStatus);
                 throw new RuntimeException("Invalid order status for delivery: " + currentStatus);
@@ -98,6 +112,7 @@ public class DispatchDeliveryWorkflowImpl implements DispatchDeliveryWorkflow {
         }
 
         log.info("Dispatch and delivery workflow completed for order ID: {}", customerOrderId);
+        status.setStage("DELIVERED");
         return deliveryResponse;
     }
 
@@ -107,4 +122,16 @@ public class DispatchDeliveryWorkflowImpl implements DispatchDeliveryWorkflow {
         this.deliveryRequest = deliveryRequest;
         this.isDeliveryConfirmed = true;
     }
+
+    @Override
+    public WorkflowStatusResponse getStatus() {
+        return status;
+    }
+
+    // order lookups record the status they found, dispatch and delivery record their responses
+    private void record(String activity, Object result, OrderStatus orderStatus) {
+        status.setLastActivity(activity);
+        status.setLastActivityResult(result);
+        status.setOrderStatus(orderStatus);
+    }
 }
\ No newline at end of file
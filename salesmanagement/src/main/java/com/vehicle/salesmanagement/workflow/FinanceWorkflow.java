@@ -3,7 +3,11 @@ package com.vehicle.salesmanagement.workflow;
 
 import com.vehicle.salesmanagement.domain.dto.apirequest.FinanceRequest;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.FinanceResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.WorkflowStatusResponse;
+import io.temporal.workflow.QueryMethod;
 import io.temporal.workflow.SignalMethod;
+import io.temporal.workflow.UpdateMethod;
+import io.temporal.workflow.UpdateValidatorMethod;
 import io.temporal.workflow.WorkflowInterface;
 import io.temporal.workflow.WorkflowMethod;
 
@@ -13,9 +17,26 @@ public interface FinanceWorkflow {
     @WorkflowMethod
     FinanceResponse processFinance(FinanceRequest financeRequest);
 
+    // fire-and-forget decisions, also used with signal-with-start when no workflow is running
     @SignalMethod
     void approveFinance(String approvedBy);
 
     @SignalMethod
     void rejectFinance(String rejectedBy);
-}
\ No newline at end of file
+
+    // decisions that return the updated finance details in the same call
+    @UpdateMethod
+    FinanceResponse approve(String approvedBy);
+
+    @UpdateValidatorMethod(updateName = "approve")
+    void validateApprove(String approvedBy);
+
+    @UpdateMethod
+    FinanceResponse reject(String rejectedBy);
+
+    @UpdateValidatorMethod(updateName = "reject")
+    void validateReject(String rejectedBy);
+
+    @QueryMethod
+    WorkflowStatusResponse getStatus();
+}
@@ -3,23 +3,31 @@ package com.vehicle.salesmanagement.workflow;
 import com.vehicle.salesmanagement.activity.FinanceActivities;
 import com.vehicle.salesmanagement.domain.dto.apirequest.FinanceRequest;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.FinanceResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.WorkflowStatusResponse;
 import com.vehicle.salesmanagement.enums.FinanceStatus;
 import com.vehicle.salesmanagement.enums.OrderStatus;
 import io.temporal.activity.ActivityOptions;
 import io.temporal.common.RetryOptions;
+import io.temporal.failure.ActivityFailure;
 import io.temporal.workflow.Workflow;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
+import java.util.List;
 
 @Slf4j
 public class FinanceWorkflowImpl implements FinanceWorkflow {
 
     private final FinanceActivities activities;
+    private Long customerOrderId;
     private boolean isApproved = false;
     private boolean isRejected = false;
     private String approvedBy;
     private String rejectedBy;
+    // set once an update handler is deciding, so a second decision is rejected up front
+    private boolean deciding = false;
+    private FinanceResponse decided;
+    private final WorkflowStatusResponse status = new WorkflowStatusResponse();
 
     public FinanceWorkflowImpl() {
         ActivityOptions options = ActivityOptions.newBuilder()
@@ -36,41 +44,52 @@ public class FinanceWorkflowImpl implements FinanceWorkflow {
     public FinanceResponse processFinance(FinanceRequest financeRequest) {
         log.info("Starting finance workflow for order ID: {}", financeRequest.getCustomerOrderId());
 
-        // Retrieve existing finance details
-        FinanceResponse response;
-        try {
-            response = activities.getFinanceDetails(financeRequest.getCustomerOrderId());
+        // histories recorded before the update handlers still replay the status check
+        if (Workflow.getVersion("finance-without-precheck", Workflow.DEFAULT_VERSION, 1) == Workflow.DEFAULT_VERSION) {
+            FinanceResponse response;
+            status.setStage("CHECKING_FINANCE");
+            try {
+                response = record("getFinanceDetails", activities.getFinanceDetails(financeRequest.getCustomerOrderId()));
+            } catch (Exception e) {
+                log.error("Failed to retrieve finance details for order ID: {}: {}",
+                        financeRequest.getCustomerOrderId(), e.getMessage());
+                throw new RuntimeException("Failed to retrieve finance details: " + e.getMessage(), e);
+            }
             if (response.getFinanceStatus() != FinanceStatus.PENDING) {
                 log.warn("Finance details for order ID: {} are not in PENDING status: {}",
                         financeRequest.getCustomerOrderId(), response.getFinanceStatus());
                 return response;
             }
-        } catch (Exception e) {
-            log.error("Failed to retrieve finance details for order ID: {}: {}",
-                    financeRequest.getCustomerOrderId(), e.getMessage());
-            throw new RuntimeException("Failed to retrieve finance details: " + e.getMessage(), e);
+        }
+        // the approve/reject activities check that the finance details are still PENDING
+        customerOrderId = financeRequest.getCustomerOrderId();
+        if (!deciding) {
+            awaitingDecision();
         }
 
-        // Wait for approval or rejection signal
-        Workflow.await(Duration.ofDays(7), () -> isApproved || isRejected);
+        // Wait for an update to decide, or for an approval or rejection signal
+        Workflow.await(Duration.ofDays(7), () -> decided != null || (!deciding && (isApproved || isRejected)));
+        status.setPendingSignals(List.of());
 
-        if (isApproved) {
-            log.info("Finance approved for order ID: {}", financeRequest.getCustomerOrderId());
-            response = activities.approveFinance(financeRequest.getCustomerOrderId(), approvedBy);
-            response.setOrderStatus(OrderStatus.ALLOTTED);
+        FinanceResponse response;
+        if (decided != null) {
+            response = decided;
+        } else if (deciding) {
+            // the timer ran out while an update handler was still deciding
+            Workflow.await(() -> decided != null || !deciding);
+            response = decided != null ? decided : timeout();
+        } else if (isApproved) {
+            log.info("Finance approved for order ID: {}", customerOrderId);
+            response = approveFinanceDetails(approvedBy);
         } else if (isRejected) {
-            log.info("Finance rejected for order ID: {}", financeRequest.getCustomerOrderId());
-            response = activities.rejectFinance(financeRequest.getCustomerOrderId(), rejectedBy);
-            response.setOrderStatus(OrderStatus.PENDING);
+            log.info("Finance rejected for order ID: {}", customerOrderId);
+            response = rejectFinanceDetails(rejectedBy);
         } else {
-            log.warn("Finance workflow timed out for order ID: {}", financeRequest.getCustomerOrderId());
-            response = activities.rejectFinance(financeRequest.getCustomerOrderId(), "SYSTEM_TIMEOUT");
-            response.setFinanceStatus(FinanceStatus.REJECTED);
-            response.setOrderStatus(OrderStatus.PENDING);
+            response = timeout();
         }
 
         log.info("Finance workflow completed for order ID: {} with finance status: {}, order status: {}",
-                financeRequest.getCustomerOrderId(), response.getFinanceStatus(), response.getOrderStatus());
+                customerOrderId, response.getFinanceStatus(), response.getOrderStatus());
         return response;
     }
 
@@ -81,10 +100,100 @@ public class FinanceWorkflowImpl implements FinanceWorkflow {
         this.isApproved = true;
     }
 
+    @Override
+    public WorkflowStatusResponse getStatus() {
+        return status;
+    }
+
     @Override
     public void rejectFinance(String rejectedBy) {
         log.info("Received rejection signal for finance with rejectedBy: {}", rejectedBy);
         this.rejectedBy = rejectedBy;
         this.isRejected = true;
     }
-}
\ No newline at end of file
+
+    @Override
+    public FinanceResponse approve(String approvedBy) {
+        log.info("Received approval update for finance with approvedBy: {}", approvedBy);
+        return decide(true, approvedBy);
+    }
+
+    @Override
+    public void validateApprove(String approvedBy) {
+        validateDecision(approvedBy);
+    }
+
+    @Override
+    public FinanceResponse reject(String rejectedBy) {
+        log.info("Received rejection update for finance with rejectedBy: {}", rejectedBy);
+        return decide(false, rejectedBy);
+    }
+
+    @Override
+    public void validateReject(String rejectedBy) {
+        validateDecision(rejectedBy);
+    }
+
+    private void validateDecision(String decidedBy) {
+        if (decidedBy == null || decidedBy.isBlank()) {
+            throw new IllegalArgumentException("Decided by cannot be blank");
+        }
+        if (deciding || decided != null || isApproved || isRejected) {
+            throw new IllegalStateException("Finance has already been decided");
+        }
+    }
+
+    private FinanceResponse decide(boolean approve, String decidedBy) {
+        deciding = true;
+        status.setStage("DECIDING");
+        status.setPendingSignals(List.of());
+        // an update accepted together with the start may run before processFinance has begun
+        Workflow.await(() -> customerOrderId != null);
+        try {
+            decided = approve ? approveFinanceDetails(decidedBy) : rejectFinanceDetails(decidedBy);
+            return decided;
+        } catch (ActivityFailure e) {
+            // the decision can be retried by the caller
+            deciding = false;
+            awaitingDecision();
+            throw e;
+        }
+    }
+
+    private FinanceResponse approveFinanceDetails(String approvedBy) {
+        status.setStage("APPROVING");
+        FinanceResponse response = activities.approveFinance(customerOrderId, approvedBy);
+        response.setOrderStatus(OrderStatus.ALLOTTED);
+        status.setStage("APPROVED");
+        return record("approveFinance", response);
+    }
+
+    private FinanceResponse rejectFinanceDetails(String rejectedBy) {
+        status.setStage("REJECTING");
+        FinanceResponse response = activities.rejectFinance(customerOrderId, rejectedBy);
+        response.setOrderStatus(OrderStatus.PENDING);
+        status.setStage("REJECTED");
+        return record("rejectFinance", response);
+    }
+
+    private FinanceResponse timeout() {
+        log.warn("Finance workflow timed out for order ID: {}", customerOrderId);
+        status.setStage("TIMED_OUT");
+        FinanceResponse response = activities.rejectFinance(customerOrderId, "SYSTEM_TIMEOUT");
+        response.setFinanceStatus(FinanceStatus.REJECTED);
+        response.setOrderStatus(OrderStatus.PENDING);
+        return record("rejectFinance", response);
+    }
+
+    private void awaitingDecision() {
+        status.setStage("AWAITING_DECISION");
+        status.setPendingSignals(List.of("approveFinance", "rejectFinance", "approve", "reject"));
+    }
+
+    private FinanceResponse record(String activity, FinanceResponse result) {
+        status.setLastActivity(activity);
+        status.setLastActivityResult(result);
+        status.setOrderStatus(result.getOrderStatus());
+        return result;
+    }
+}
@@ -0,0 +1,37 @@
+package com.vehicle.salesmanagement.workflow;
+
+import com.vehicle.salesmanagement.domain.dto.apirequest.DeliveryRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.DispatchRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.FinanceRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.OrderRequest;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.WorkflowStatusResponse;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Everything an order lifecycle run needs to carry over into the next run on continue-as-new
+@Data
+@NoArgsConstructor
+public class OrderLifecycleState {
+    private Long customerOrderId;
+    // only needed until the order is booked
+    private OrderRequest orderRequest;
+    private int maxHistoryEvents;
+    private int runs;
+    private long financeDeadlineMillis;
+
+    // signals received but not acted on yet
+    private FinanceRequest financeRequest;
+    private String approvedBy;
+    private String rejectedBy;
+    private DispatchRequest dispatchRequest;
+    private DeliveryRequest deliveryRequest;
+    private boolean cancelRequested;
+
+    private WorkflowStatusResponse status = new WorkflowStatusResponse();
+
+    public OrderLifecycleState(Long customerOrderId, OrderRequest orderRequest, int maxHistoryEvents) {
+        this.customerOrderId = customerOrderId;
+        this.orderRequest = orderRequest;
+        this.maxHistoryEvents = maxHistoryEvents;
+    }
+}
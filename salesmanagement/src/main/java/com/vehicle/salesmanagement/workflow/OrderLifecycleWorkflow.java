@@ -0,0 +1,39 @@
+package com.vehicle.salesmanagement.workflow;
+
+import com.vehicle.salesmanagement.domain.dto.apirequest.DeliveryRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.DispatchRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.FinanceRequest;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.WorkflowStatusResponse;
+import io.temporal.workflow.QueryMethod;
+import io.temporal.workflow.SignalMethod;
+import io.temporal.workflow.WorkflowInterface;
+import io.temporal.workflow.WorkflowMethod;
+
+@WorkflowInterface
+public interface OrderLifecycleWorkflow {
+
+    // books the order, then moves through finance, dispatch and delivery as the signals arrive
+    @WorkflowMethod
+    WorkflowStatusResponse run(OrderLifecycleState state);
+
+    @SignalMethod
+    void requestFinance(FinanceRequest financeRequest);
+
+    @SignalMethod
+    void approveFinance(String approvedBy);
+
+    @SignalMethod
+    void rejectFinance(String rejectedBy);
+
+    @SignalMethod
+    void requestDispatch(DispatchRequest dispatchRequest);
+
+    @SignalMethod
+    void confirmDelivery(DeliveryRequest deliveryRequest);
+
+    @SignalMethod
+    void cancelOrder(Long customerOrderId);
+
+    @QueryMethod
+    WorkflowStatusResponse getStatus();
+}
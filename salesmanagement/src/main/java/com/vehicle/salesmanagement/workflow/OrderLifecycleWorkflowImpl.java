@@ -0,0 +1,352 @@
+package com.vehicle.salesmanagement.workflow;
+
+import com.vehicle.salesmanagement.activity.DispatchDeliveryActivities;
+import com.vehicle.salesmanagement.activity.FinanceActivities;
+import com.vehicle.salesmanagement.activity.VehicleOrderActivities;
+import com.vehicle.salesmanagement.config.TemporalWorkerConfig;
+import com.vehicle.salesmanagement.domain.dto.apirequest.DeliveryRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.DispatchRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.FinanceRequest;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.DeliveryResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.DispatchResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.FinanceResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.WorkflowStatusResponse;
+import com.vehicle.salesmanagement.enums.OrderStatus;
+import io.temporal.activity.ActivityOptions;
+import io.temporal.common.RetryOptions;
+import io.temporal.failure.ActivityFailure;
+import io.temporal.workflow.Workflow;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+// One workflow per order from booking to delivery. Each stage runs its activities on the task queue of the
+// workflow that used to own it and waits for the signal that starts the next stage, so the order status is
+// known from the activity results instead of being read back between stages. A stage signal that arrives while
+// the order is at another stage is ignored, not kept for later. The run continues as new with its state once the
+// history grows past maxHistoryEvents.
+@Slf4j
+public class OrderLifecycleWorkflowImpl implements OrderLifecycleWorkflow {
+
+    private static final Duration FINANCE_DECISION_TIMEOUT = Duration.ofDays(7);
+    private static final Set<String> FINAL_STAGES = Set.of("FINANCE_REJECTED", "DELIVERED", "CANCELED");
+
+    private final VehicleOrderActivities orderActivities;
+    private final FinanceActivities financeActivities;
+    private final DispatchDeliveryActivities dispatchDeliveryActivities;
+    // signals delivered before run() has started are kept here until the input state is known
+    private OrderLifecycleState state = new OrderLifecycleState();
+    private boolean started = false;
+
+    public OrderLifecycleWorkflowImpl() {
+        ActivityOptions options = ActivityOptions.newBuilder()
+                .setStartToCloseTimeout(Duration.ofSeconds(60))
+                .setRetryOptions(RetryOptions.newBuilder()
+                        .setInitialInterval(Duration.ofSeconds(1))
+                        .setMaximumAttempts(3)
+                        .build())
+                .build();
+        this.orderActivities = Workflow.newActivityStub(VehicleOrderActivities.class, options);
+        this.financeActivities = Workflow.newActivityStub(FinanceActivities.class, ActivityOptions.newBuilder(options)
+                .setTaskQueue(TemporalWorkerConfig.FINANCE_TASK_QUEUE)
+                .build());
+        this.dispatchDeliveryActivities = Workflow.newActivityStub(DispatchDeliveryActivities.class, ActivityOptions.newBuilder(options)
+                .setTaskQueue(TemporalWorkerConfig.DISPATCH_DELIVERY_TASK_QUEUE)
+                .build());
+    }
+
+    @Override
+    public WorkflowStatusResponse run(OrderLifecycleState input) {
+        state = merge(input, state);
+        started = true;
+        dropOutOfStageSignals();
+        log.info("Order lifecycle run {} started for order ID: {} at stage: {}",
+                state.getRuns(), state.getCustomerOrderId(), stage());
+
+        if (stage() == null) {
+            book();
+        }
+        while (!FINAL_STAGES.contains(stage())) {
+            if (historyTooLong()) {
+                log.info("Continuing order lifecycle for order ID: {} as new after {} history events",
+                        state.getCustomerOrderId(), Workflow.getInfo().getHistoryLength());
+                state.setRuns(state.getRuns() + 1);
+                Workflow.continueAsNew(state);
+            }
+            if (state.isCancelRequested()) {
+                cancel();
+                continue;
+            }
+            switch (stage()) {
+                case "AWAITING_FINANCE" -> {
+                    if (await(null, () -> state.getFinanceRequest() != null, "requestFinance")) {
+                        createFinance();
+                    }
+                }
+                case "AWAITING_FINANCE_DECISION" -> {
+                    Duration remaining = Duration.ofMillis(Math.max(0, state.getFinanceDeadlineMillis() - Workflow.currentTimeMillis()));
+                    if (await(remaining, () -> state.getApprovedBy() != null || state.getRejectedBy() != null,
+                            "approveFinance", "rejectFinance")) {
+                        decideFinance();
+                    } else if (!state.isCancelRequested() && !historyTooLong()) {
+                        log.warn("Finance decision timed out for order ID: {}", state.getCustomerOrderId());
+                        state.setRejectedBy("SYSTEM_TIMEOUT");
+                        decideFinance();
+                    }
+                }
+                case "AWAITING_DISPATCH" -> {
+                    if (await(null, () -> state.getDispatchRequest() != null, "requestDispatch")) {
+                        dispatch();
+                    }
+                }
+                case "AWAITING_DELIVERY" -> {
+                    if (await(null, () -> state.getDeliveryRequest() != null, "confirmDelivery")) {
+                        deliver();
+                    }
+                }
+                default -> throw new IllegalStateException("Unknown order lifecycle stage: " + stage());
+            }
+        }
+
+        log.info("Order lifecycle completed for order ID: {} at stage: {} with order status: {}",
+                state.getCustomerOrderId(), stage(), state.getStatus().getOrderStatus());
+        return state.getStatus();
+    }
+
+    @Override
+    public void requestFinance(FinanceRequest financeRequest) {
+        log.info("Received finance request signal for order ID: {}", financeRequest.getCustomerOrderId());
+        if (atStage("requestFinance", "AWAITING_FINANCE")) {
+            state.setFinanceRequest(financeRequest);
+        }
+    }
+
+    @Override
+    public void approveFinance(String approvedBy) {
+        log.info("Received approval signal for finance with approvedBy: {}", approvedBy);
+        if (atStage("approveFinance", "AWAITING_FINANCE_DECISION")) {
+            state.setApprovedBy(approvedBy);
+        }
+    }
+
+    @Override
+    public void rejectFinance(String rejectedBy) {
+        log.info("Received rejection signal for finance with rejectedBy: {}", rejectedBy);
+        if (atStage("rejectFinance", "AWAITING_FINANCE_DECISION")) {
+            state.setRejectedBy(rejectedBy);
+        }
+    }
+
+    @Override
+    public void requestDispatch(DispatchRequest dispatchRequest) {
+        log.info("Received dispatch request signal for order ID: {}", dispatchRequest.getCustomerOrderId());
+        if (atStage("requestDispatch", "AWAITING_DISPATCH")) {
+            state.setDispatchRequest(dispatchRequest);
+        }
+    }
+
+    @Override
+    public void confirmDelivery(DeliveryRequest deliveryRequest) {
+        log.info("Received delivery confirmation signal for order ID: {}", deliveryRequest.getCustomerOrderId());
+        if (atStage("confirmDelivery", "AWAITING_DELIVERY")) {
+            state.setDeliveryRequest(deliveryRequest);
+        }
+    }
+
+    @Override
+    public void cancelOrder(Long customerOrderId) {
+        log.info("Received cancel signal for order ID: {}", customerOrderId);
+        state.setCancelRequested(true);
+    }
+
+    @Override
+    public WorkflowStatusResponse getStatus() {
+        return state.getStatus();
+    }
+
+    private void book() {
+        setStage("BOOKING");
+        OrderResponse response = null;
+        try {
+            // BLOCKED when stock was blocked for the order, PENDING when it has to come from the manufacturer
+            response = orderActivities.checkStockAvailability(state.getOrderRequest());
+            record("checkStockAvailability", response, response.getOrderStatus());
+        } catch (ActivityFailure e) {
+            failed("checkStockAvailability", e);
+        }
+        OrderStatus orderStatus = response != null && response.getOrderStatus() != null ? response.getOrderStatus() : OrderStatus.PENDING;
+        state.getStatus().setOrderStatus(orderStatus);
+        try {
+            orderActivities.updateOrderStatus(state.getCustomerOrderId(), orderStatus);
+        } catch (ActivityFailure e) {
+            failed("updateOrderStatus", e);
+        }
+        // the request is not needed once booked, so it is not carried into later runs
+        state.setOrderRequest(null);
+        setStage("AWAITING_FINANCE");
+    }
+
+    private void createFinance() {
+        try {
+            record("createFinanceDetails", financeActivities.createFinanceDetails(state.getFinanceRequest()), null);
+            state.setFinanceDeadlineMillis(Workflow.currentTimeMillis() + FINANCE_DECISION_TIMEOUT.toMillis());
+            setStage("AWAITING_FINANCE_DECISION");
+        } catch (ActivityFailure e) {
+            failed("createFinanceDetails", e);
+        }
+        state.setFinanceRequest(null);
+    }
+
+    private void decideFinance() {
+        try {
+            if (state.getApprovedBy() != null) {
+                FinanceResponse response = financeActivities.approveFinance(state.getCustomerOrderId(), state.getApprovedBy());
+                response.setOrderStatus(OrderStatus.ALLOTTED);
+                record("approveFinance", response, OrderStatus.ALLOTTED);
+                setStage("AWAITING_DISPATCH");
+            } else {
+                FinanceResponse response = financeActivities.rejectFinance(state.getCustomerOrderId(), state.getRejectedBy());
+                response.setOrderStatus(OrderStatus.PENDING);
+                record("rejectFinance", response, OrderStatus.PENDING);
+                setStage("FINANCE_REJECTED");
+            }
+        } catch (ActivityFailure e) {
+            failed(state.getApprovedBy() != null ? "approveFinance" : "rejectFinance", e);
+        }
+        state.setApprovedBy(null);
+        state.setRejectedBy(null);
+    }
+
+    private void dispatch() {
+        try {
+            DispatchResponse response = dispatchDeliveryActivities.initiateDispatch(state.getDispatchRequest());
+            record("initiateDispatch", response, response.getOrderStatus());
+            setStage("AWAITING_DELIVERY");
+        } catch (ActivityFailure e) {
+            failed("initiateDispatch", e);
+        }
+        state.setDispatchRequest(null);
+    }
+
+    private void deliver() {
+        try {
+            DeliveryResponse response = dispatchDeliveryActivities.confirmDelivery(state.getDeliveryRequest());
+            record("confirmDelivery", response, response.getOrderStatus());
+            setStage("DELIVERED");
+        } catch (ActivityFailure e) {
+            failed("confirmDelivery", e);
+        }
+        state.setDeliveryRequest(null);
+    }
+
+    private void cancel() {
+        String resumeStage = stage();
+        setStage("CANCELING");
+        try {
+            OrderResponse response = orderActivities.cancelOrder(state.getCustomerOrderId());
+            record("cancelOrder", response, response.getOrderStatus());
+            setStage("CANCELED");
+        } catch (ActivityFailure e) {
+            failed("cancelOrder", e);
+            // the order stays where it was, e.g. when it is already completed
+            setStage(resumeStage);
+        }
+        state.setCancelRequested(false);
+    }
+
+    // true when the stage's own signal arrived; false when woken for a cancel, a continue-as-new or the timeout
+    private boolean await(Duration timeout, Supplier<Boolean> received, String... signals) {
+        state.getStatus().setPendingSignals(withCancel(signals));
+        Supplier<Boolean> unblock = () -> received.get() || state.isCancelRequested() || historyTooLong();
+        if (timeout == null) {
+            Workflow.await(unblock);
+        } else {
+            Workflow.await(timeout, unblock);
+        }
+        state.getStatus().setPendingSignals(List.of());
+        return received.get();
+    }
+
+    // before run() has started the stage is not known yet, the signal is kept and checked once it is
+    private boolean atStage(String signal, String expectedStage) {
+        if (!started || expectedStage.equals(stage())) {
+            return true;
+        }
+        log.warn("Ignoring {} signal for order ID: {} at stage: {}", signal, state.getCustomerOrderId(), stage());
+        return false;
+    }
+
+    private void dropOutOfStageSignals() {
+        if (state.getFinanceRequest() != null && !atStage("requestFinance", "AWAITING_FINANCE")) {
+            state.setFinanceRequest(null);
+        }
+        if ((state.getApprovedBy() != null || state.getRejectedBy() != null)
+                && !atStage("approveFinance/rejectFinance", "AWAITING_FINANCE_DECISION")) {
+            state.setApprovedBy(null);
+            state.setRejectedBy(null);
+        }
+        if (state.getDispatchRequest() != null && !atStage("requestDispatch", "AWAITING_DISPATCH")) {
+            state.setDispatchRequest(null);
+        }
+        if (state.getDeliveryRequest() != null && !atStage("confirmDelivery", "AWAITING_DELIVERY")) {
+            state.setDeliveryRequest(null);
+        }
+    }
+
+    private List<String> withCancel(String... signals) {
+        List<String> pending = new ArrayList<>(List.of(signals));
+        pending.add("cancelOrder");
+        return pending;
+    }
+
+    private boolean historyTooLong() {
+        return Workflow.getInfo().getHistoryLength() >= state.getMaxHistoryEvents();
+    }
+
+    private String stage() {
+        return state.getStatus().getStage();
+    }
+
+    private void setStage(String stage) {
+        state.getStatus().setStage(stage);
+    }
+
+    private void record(String activity, Object result, OrderStatus orderStatus) {
+        state.getStatus().setLastActivity(activity);
+        state.getStatus().setLastActivityResult(result);
+        if (orderStatus != null) {
+            state.getStatus().setOrderStatus(orderStatus);
+        }
+    }
+
+    private void failed(String activity, ActivityFailure e) {
+        String message = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+        log.error("Activity {} failed for order ID: {}: {}", activity, state.getCustomerOrderId(), message);
+        record(activity, message, null);
+    }
+
+    private static OrderLifecycleState merge(OrderLifecycleState input, OrderLifecycleState received) {
+        if (received.getFinanceRequest() != null) {
+            input.setFinanceRequest(received.getFinanceRequest());
+        }
+        if (received.getApprovedBy() != null) {
+            input.setApprovedBy(received.getApprovedBy());
+        }
+        if (received.getRejectedBy() != null) {
+            input.setRejectedBy(received.getRejectedBy());
+        }
+        if (received.getDispatchRequest() != null) {
+            input.setDispatchRequest(received.getDispatchRequest());
+        }
+        if (received.getDeliveryRequest() != null) {
+            input.setDeliveryRequest(received.getDeliveryRequest());
+        }
+        input.setCancelRequested(input.isCancelRequested() || received.isCancelRequested());
+        return input;
+    }
+}
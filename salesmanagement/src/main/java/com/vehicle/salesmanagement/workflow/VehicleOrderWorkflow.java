@@ -2,6 +2,8 @@ package com.vehicle.salesmanagement.workflow;
 
 import com.vehicle.salesmanagement.domain.dto.apirequest.OrderRequest;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.WorkflowStatusResponse;
+import io.temporal.workflow.QueryMethod;
 import io.temporal.workflow.SignalMethod;
 import io.temporal.workflow.WorkflowInterface;
 import io.temporal.workflow.WorkflowMethod;
@@ -12,4 +14,6 @@ public interface VehicleOrderWorkflow {
     OrderResponse placeOrder(OrderRequest orderRequest);
     @SignalMethod
     void cancelOrder(Long customerOrderId); // Signal to cancel within the placeOrder workflow
+    @QueryMethod
+    WorkflowStatusResponse getStatus();
 }
\ No newline at end of file
@@ -3,20 +3,24 @@ package com.vehicle.salesmanagement.workflow;
 import com.vehicle.salesmanagement.activity.VehicleOrderActivities;
 import com.vehicle.salesmanagement.domain.dto.apirequest.OrderRequest;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.WorkflowStatusResponse;
 import com.vehicle.salesmanagement.enums.OrderStatus;
 import io.temporal.activity.ActivityOptions;
 import io.temporal.common.RetryOptions;
+import io.temporal.failure.ActivityFailure;
 import io.temporal.workflow.Workflow;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 public class VehicleOrderWorkflowImpl implements VehicleOrderWorkflow {
 
     private final VehicleOrderActivities activities;
-    private boolean isCanceled = false;
+    private Long canceledOrderId;
+    private final WorkflowStatusResponse status = new WorkflowStatusResponse();
 
     public VehicleOrderWorkflowImpl() {
         ActivityOptions options = ActivityOptions.newBuilder()
@@ -32,47 +36,113 @@ public class VehicleOrderWorkflowImpl implements VehicleOrderWorkflow {
     @Override
     public OrderResponse placeOrder(OrderRequest orderRequest) {
         log.info("Workflow started for customer: {}", orderRequest.getCustomerName());
-        OrderResponse response = null;
+        status.setStage("CHECKING_STOCK");
+        status.setPendingSignals(List.of("cancelOrder"));
+        OrderResponse response;
+        boolean stockChecked = false;
         try {
-            response = activities.checkStockAvailability(orderRequest);
+            response = record("checkStockAvailability", activities.checkStockAvailability(orderRequest));
+            stockChecked = true;
+        } catch (Exception e) {
+            log.error("Workflow failed for customer {}: {}", orderRequest.getCustomerName(), e.getMessage(), e);
+            response = pendingResponse(orderRequest);
+        }
 
-            if (isCanceled) {
-                log.info("Order canceled during workflow for customer: {}", orderRequest.getCustomerName());
-                return activities.cancelOrder(Long.valueOf(Workflow.getInfo().getWorkflowId().split("-")[1]));
+        if (canceledOrderId != null) {
+            log.info("Order canceled during workflow for customer: {}", orderRequest.getCustomerName());
+            if (Workflow.getVersion("single-cancel-during-stock-check", Workflow.DEFAULT_VERSION, 1) == Workflow.DEFAULT_VERSION) {
+                return cancelBeforeSingleCancel(orderRequest, response, stockChecked);
             }
+            return cancel(response);
+        }
 
-            if (response.getOrderStatus() == OrderStatus.BLOCKED) {
-                log.info("Stock blocked for customer: {}", orderRequest.getCustomerName());
-                return response;
-            } else if (response.getOrderStatus() == OrderStatus.PENDING) {
-                log.info("Stock not available, manufacturer order placed for: {}", orderRequest.getCustomerName());
-                return response;
-            } else if (response.getOrderStatus() == OrderStatus.COMPLETED) {
-                log.info("Order confirmed for customer: {}", orderRequest.getCustomerName());
-                return activities.confirmOrder(response);
+        if (response.getOrderStatus() == OrderStatus.BLOCKED) {
+            log.info("Stock blocked for customer: {}", orderRequest.getCustomerName());
+            status.setStage("STOCK_BLOCKED");
+            return response;
+        } else if (response.getOrderStatus() == OrderStatus.COMPLETED) {
+            log.info("Order confirmed for customer: {}", orderRequest.getCustomerName());
+            status.setStage("CONFIRMING_ORDER");
+            try {
+                return record("confirmOrder", activities.confirmOrder(response));
+            } catch (Exception e) {
+                log.error("Workflow failed for customer {}: {}", orderRequest.getCustomerName(), e.getMessage(), e);
+                response = pendingResponse(orderRequest);
             }
-
+        } else if (response.getOrderStatus() == OrderStatus.PENDING) {
+            log.info("Stock not available, manufacturer order placed for: {}", orderRequest.getCustomerName());
+        } else {
             log.warn("Unexpected status for customer: {}", orderRequest.getCustomerName());
-            response = mapToOrderResponse(orderRequest);
-            response.setOrderStatus(OrderStatus.PENDING);
-            return response;
-        } catch (Exception e) {
-            log.error("Workflow failed for customer {}: {}", orderRequest.getCustomerName(), e.getMessage(), e);
-            response = mapToOrderResponse(orderRequest);
-            response.setOrderStatus(OrderStatus.PENDING);
+            response = pendingResponse(orderRequest);
+        }
+
+        log.info("Starting 24-hour wait for manufacturer order for customer: {}", orderRequest.getCustomerName());
+        status.setStage("AWAITING_MANUFACTURER");
+        status.setOrderStatus(OrderStatus.PENDING);
+        Workflow.await(Duration.ofHours(24), () -> canceledOrderId != null);
+        if (canceledOrderId != null) {
+            log.info("Order canceled during manufacturer wait for customer: {}", orderRequest.getCustomerName());
+            return cancel(response);
+        }
+        status.setPendingSignals(List.of());
+        log.info("Manufacturer order wait completed, could update status to PROCESSING or COMPLETED if needed");
+        return response;
+    }
+
+    // the order ID comes with the cancel signal, so it does not depend on the workflow ID format
+    private OrderResponse cancel(OrderResponse response) {
+        status.setStage("CANCELING");
+        status.setPendingSignals(List.of());
+        try {
+            OrderResponse canceled = record("cancelOrder", activities.cancelOrder(canceledOrderId));
+            status.setStage("CANCELED");
+            return canceled;
+        } catch (ActivityFailure e) {
+            String message = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+            log.error("Failed to cancel order ID: {}: {}", canceledOrderId, message);
+            status.setStage("CANCEL_FAILED");
+            status.setLastActivity("cancelOrder");
+            status.setLastActivityResult(message);
             return response;
-        } finally {
-            if (response != null && response.getOrderStatus() == OrderStatus.PENDING) {
-                log.info("Starting 24-hour wait for manufacturer order for customer: {}", orderRequest.getCustomerName());
-                Workflow.await(Duration.ofHours(24), () -> isCanceled);
-                if (isCanceled) {
-                    log.info("Order canceled during manufacturer wait for customer: {}", orderRequest.getCustomerName());
-                    activities.cancelOrder(Long.valueOf(Workflow.getInfo().getWorkflowId().split("-")[1]));
-                } else {
-                    log.info("Manufacturer order wait completed, could update status to PROCESSING or COMPLETED if needed");
-                }
+        }
+    }
+
+    // A cancel during the stock check as it ran before single-cancel-during-stock-check, kept so those histories
+    // still replay: a PENDING order went on into the manufacturer wait, which canceled it a second time.
+    private OrderResponse cancelBeforeSingleCancel(OrderRequest orderRequest, OrderResponse response, boolean stockChecked) {
+        status.setStage("CANCELING");
+        status.setPendingSignals(List.of());
+        OrderResponse result = response;
+        if (stockChecked) {
+            try {
+                result = record("cancelOrder", activities.cancelOrder(canceledOrderId));
+            } catch (Exception e) {
+                log.error("Workflow failed for customer {}: {}", orderRequest.getCustomerName(), e.getMessage(), e);
+                response = pendingResponse(orderRequest);
+                result = response;
             }
         }
+        if (response.getOrderStatus() == OrderStatus.PENDING) {
+            Workflow.await(Duration.ofHours(24), () -> canceledOrderId != null);
+            record("cancelOrder", activities.cancelOrder(canceledOrderId));
+        }
+        status.setStage("CANCELED");
+        return result;
+    }
+
+    private OrderResponse pendingResponse(OrderRequest orderRequest) {
+        OrderResponse response = mapToOrderResponse(orderRequest);
+        response.setOrderStatus(OrderStatus.PENDING);
+        return response;
+    }
+
+    private OrderResponse record(String activity, OrderResponse result) {
+        status.setLastActivity(activity);
+        status.setLastActivityResult(result);
+        if (result != null) {
+            status.setOrderStatus(result.getOrderStatus());
+        }
+        return result;
     }
 
     private OrderResponse mapToOrderResponse(OrderRequest request) {
@@ -100,8 +170,13 @@ public class VehicleOrderWorkflowImpl implements VehicleOrderWorkflow {
     }
 
     @Override
-    public void cancelOrder(Long orderId) {
-        log.info("Received cancel signal for order ID: {}", orderId);
-        isCanceled = true;
+    public void cancelOrder(Long customerOrderId) {
+        log.info("Received cancel signal for order ID: {}", customerOrderId);
+        canceledOrderId = customerOrderId;
+    }
+
+    @Override
+    public WorkflowStatusResponse getStatus() {
+        return status;
     }
 }
\ No newline at end of file
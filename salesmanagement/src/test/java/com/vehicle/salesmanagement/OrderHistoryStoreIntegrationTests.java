@@ -0,0 +1,127 @@
+package com.vehicle.salesmanagement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderHistoryStateResponse;
+import com.vehicle.salesmanagement.service.OrderHistoryStore;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Replays the order delta history against a real PostgreSQL, since the baseline lookup and the "at" cut-off are
+// done in SQL. Skipped where no Docker daemon is available.
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class OrderHistoryStoreIntegrationTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderHistoryStoreIntegrationTests.class);
+
+    private static final LocalDateTime PLACED = LocalDateTime.of(2025, 3, 1, 10, 0);
+    private static final LocalDateTime BLOCKED = PLACED.plusHours(1);
+    private static final LocalDateTime ALLOCATED = PLACED.plusHours(2);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.6");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OrderHistoryStore orderHistoryStore;
+
+    @BeforeEach
+    void setUp() {
+        orderHistoryStore = new OrderHistoryStore(jdbcTemplate, objectMapper, entityManagerFactory);
+        orderHistoryStore.init();
+        // order 2 is interleaved with order 1 in the same relay batch and must not leak into its replay
+        append(snapshot(1L, PLACED, null, "PENDING", "Red", "Asha"),
+                snapshot(2L, PLACED, null, "PENDING", "Black", "Ravi"),
+                snapshot(1L, BLOCKED, "PENDING", "BLOCKED", "Red", "Asha"));
+        append(snapshot(1L, ALLOCATED, "BLOCKED", "ALLOCATED", "Blue", "Asha"));
+    }
+
+    @Test
+    void getOrderStateAt_ShouldReplayDeltasOntoBaselineUpToTheRequestedTime() {
+        logger.info("Starting test: getOrderStateAt_ShouldReplayDeltasOntoBaselineUpToTheRequestedTime");
+
+        OrderHistoryStateResponse blocked = orderHistoryStore.getOrderStateAt(1L, BLOCKED.plusMinutes(30));
+        assertEquals("BLOCKED", blocked.getOrderStatus());
+        assertEquals(BLOCKED, blocked.getChangedAt());
+        // carried over from the baseline, the BLOCKED delta only holds the status
+        assertEquals("Red", blocked.getState().get("colour"));
+        assertEquals("Asha", blocked.getState().get("customer_name"));
+
+        OrderHistoryStateResponse allocated = orderHistoryStore.getOrderStateAt(1L, ALLOCATED);
+        assertEquals("ALLOCATED", allocated.getOrderStatus());
+        assertEquals(ALLOCATED, allocated.getChangedAt());
+        assertEquals("Blue", allocated.getState().get("colour"));
+        assertEquals("Asha", allocated.getState().get("customer_name"));
+
+        OrderHistoryStateResponse other = orderHistoryStore.getOrderStateAt(2L, ALLOCATED);
+        assertEquals("PENDING", other.getOrderStatus());
+        assertEquals("Black", other.getState().get("colour"));
+    }
+
+    @Test
+    void appendSnapshots_ShouldStoreOnlyTheChangedFieldsAfterTheBaseline() {
+        logger.info("Starting test: appendSnapshots_ShouldStoreOnlyTheChangedFieldsAfterTheBaseline");
+
+        List<String> changes = jdbcTemplate.queryForList("SELECT changes::text FROM sales_tracking.vehicle_order_delta_history " +
+                "WHERE customer_order_id = 1 AND NOT baseline ORDER BY delta_id", String.class);
+
+        assertEquals(2, changes.size());
+        assertEquals("{\"order_status\": \"BLOCKED\"}", changes.get(0));
+        assertEquals("{\"colour\": \"Blue\", \"order_status\": \"ALLOCATED\"}", changes.get(1));
+    }
+
+    @Test
+    void getOrderStateAt_ShouldFailBeforeTheFirstRecordedChange() {
+        logger.info("Starting test: getOrderStateAt_ShouldFailBeforeTheFirstRecordedChange");
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> orderHistoryStore.getOrderStateAt(1L, PLACED.minusMinutes(1)));
+        assertTrue(exception.getMessage().startsWith("No history found for order ID: 1"));
+    }
+
+    private void append(String... payloads) {
+        ReflectionTestUtils.invokeMethod(orderHistoryStore, "appendSnapshots", List.of(payloads));
+    }
+
+    private String snapshot(Long orderId, LocalDateTime changedAt, String previousStatus, String status,
+                            String colour, String customerName) {
+        ObjectNode snapshot = objectMapper.createObjectNode();
+        snapshot.put("customer_order_id", orderId);
+        snapshot.put("changed_at", changedAt.toString());
+        snapshot.put("previous_status", previousStatus);
+        snapshot.put("changed_by", "tester");
+        snapshot.put("order_status", status);
+        snapshot.put("colour", colour);
+        snapshot.put("customer_name", customerName);
+        snapshot.put("model_name", "Model X");
+        snapshot.put("quantity", 1);
+        return snapshot.toString();
+    }
+}
@@ -0,0 +1,183 @@
+package com.vehicle.salesmanagement;
+
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderStatusSummaryResponse;
+import com.vehicle.salesmanagement.domain.entity.model.VehicleModel;
+import com.vehicle.salesmanagement.domain.entity.model.VehicleOrderDetails;
+import com.vehicle.salesmanagement.domain.entity.model.VehicleVariant;
+import com.vehicle.salesmanagement.enums.OrderStatus;
+import com.vehicle.salesmanagement.repository.OrderStatusCount;
+import com.vehicle.salesmanagement.repository.VehicleModelRepository;
+import com.vehicle.salesmanagement.repository.VehicleOrderDetailsRepository;
+import com.vehicle.salesmanagement.repository.VehicleVariantRepository;
+import com.vehicle.salesmanagement.service.OrderStatusCounterService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the order status counter trigger and its reconcile against a real PostgreSQL: after every kind of order
+// write the summed counters must match a GROUP BY over the orders. Skipped where no Docker daemon is available.
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(OrderStatusCounterService.class)
+// each order write commits on its own, so the trigger runs as it does in the app
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderStatusCounterServiceIntegrationTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatusCounterServiceIntegrationTests.class);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.6");
+
+    @Autowired
+    private OrderStatusCounterService orderStatusCounterService;
+    @Autowired
+    private VehicleOrderDetailsRepository orderRepository;
+    @Autowired
+    private VehicleModelRepository vehicleModelRepository;
+    @Autowired
+    private VehicleVariantRepository variantRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private VehicleModel model;
+    private VehicleVariant variant;
+
+    @BeforeEach
+    void setUp() {
+        model = new VehicleModel();
+        model.setModelName("Model X");
+        model.setCreatedAt(LocalDateTime.now());
+        model = vehicleModelRepository.save(model);
+
+        variant = new VehicleVariant();
+        variant.setVehicleModel(model);
+        variant.setVariant("Premium");
+        variant.setCreatedAt(LocalDateTime.now());
+        variant = variantRepository.save(variant);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        variantRepository.deleteAll();
+        vehicleModelRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM sales_tracking.order_status_counter");
+    }
+
+    @Test
+    void trigger_ShouldKeepCountersEqualToOrdersOnInsertStatusUpdateAndDelete() {
+        logger.info("Starting test: trigger_ShouldKeepCountersEqualToOrdersOnInsertStatusUpdateAndDelete");
+        VehicleOrderDetails first = saveOrder(OrderStatus.PENDING);
+        VehicleOrderDetails second = saveOrder(OrderStatus.PENDING);
+        saveOrder(OrderStatus.BLOCKED);
+        assertCountersMatchOrders();
+        assertEquals(2L, summary().get(OrderStatus.PENDING));
+
+        first.setOrderStatus(OrderStatus.ALLOTTED);
+        orderRepository.save(first);
+        // a write that leaves the status alone must not move any counter
+        second.setUpdatedBy("someone else");
+        orderRepository.save(second);
+        assertCountersMatchOrders();
+        assertEquals(1L, summary().get(OrderStatus.PENDING));
+        assertEquals(1L, summary().get(OrderStatus.ALLOTTED));
+
+        orderRepository.delete(second);
+        assertCountersMatchOrders();
+        assertEquals(0L, summary().get(OrderStatus.PENDING));
+        assertEquals(2L, orderStatusCounterService.getSummary(false).getTotalOrders());
+    }
+
+    @Test
+    void reconcile_ShouldRebuildCountersThatDriftedFromTheOrders() {
+        logger.info("Starting test: reconcile_ShouldRebuildCountersThatDriftedFromTheOrders");
+        VehicleOrderDetails order = saveOrder(OrderStatus.PENDING);
+        saveOrder(OrderStatus.BLOCKED);
+        // changed behind the trigger's back
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE sales_tracking.vehicle_order_details DISABLE TRIGGER order_status_count_trigger");
+            jdbcTemplate.update("UPDATE sales_tracking.vehicle_order_details SET order_status = 'DELIVERED' " +
+                    "WHERE customer_order_id = ?", order.getCustomerOrderId());
+            jdbcTemplate.execute("ALTER TABLE sales_tracking.vehicle_order_details ENABLE TRIGGER order_status_count_trigger");
+        });
+        assertNotEquals(asMap(orderRepository.countGroupedByStatus()), asMap(orderRepository.sumStatusCounters()));
+
+        OrderStatusSummaryResponse reconciled = orderStatusCounterService.reconcile();
+
+        assertCountersMatchOrders();
+        assertEquals("counters", reconciled.getSource());
+        assertEquals(1L, reconciled.getStatusCounts().get(OrderStatus.DELIVERED));
+        assertEquals(0L, reconciled.getStatusCounts().get(OrderStatus.PENDING));
+        assertEquals(2L, reconciled.getTotalOrders());
+    }
+
+    private VehicleOrderDetails saveOrder(OrderStatus orderStatus) {
+        VehicleOrderDetails order = new VehicleOrderDetails();
+        order.setVehicleModel(model);
+        order.setVehicleVariant(variant);
+        order.setCustomerName("Asha");
+        order.setPhoneNumber("9999999999");
+        order.setEmail("asha@example.com");
+        order.setAadharNo("123412341234");
+        order.setPanNo("ABCDE1234F");
+        order.setModelName("Model X");
+        order.setFuelType("Petrol");
+        order.setColour("Red");
+        order.setVariant("Premium");
+        order.setQuantity(1);
+        order.setTotalPrice(new BigDecimal("1500000.00"));
+        order.setBookingAmount(new BigDecimal("50000.00"));
+        order.setPaymentMode("Cash");
+        order.setOrderStatus(orderStatus);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setUpdatedAt(LocalDateTime.now());
+        order.setCreatedBy("tester");
+        order.setUpdatedBy("tester");
+        return orderRepository.save(order);
+    }
+
+    private Map<OrderStatus, Long> summary() {
+        return orderStatusCounterService.getSummary(false).getStatusCounts();
+    }
+
+    private void assertCountersMatchOrders() {
+        assertEquals(asMap(orderRepository.countGroupedByStatus()), asMap(orderRepository.sumStatusCounters()));
+    }
+
+    // counter rows stay behind at zero once their last order moves on, the GROUP BY has no row for them
+    private Map<String, Long> asMap(List<OrderStatusCount> counts) {
+        return counts.stream()
+                .filter(count -> count.getOrderCount() != null && count.getOrderCount() != 0)
+                .collect(Collectors.toMap(OrderStatusCount::getStatus, OrderStatusCount::getOrderCount));
+    }
+}
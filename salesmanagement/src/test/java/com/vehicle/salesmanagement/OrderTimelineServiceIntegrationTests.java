@@ -0,0 +1,109 @@
+package com.vehicle.salesmanagement;
+
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderTimelineResponse;
+import com.vehicle.salesmanagement.service.OrderTimelineService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Pages the order timeline against a real PostgreSQL, where the keyset cursor and the cross-table ordering are
+// evaluated. The history tables are created with just the columns the timeline reads. Skipped where no Docker
+// daemon is available.
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class OrderTimelineServiceIntegrationTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderTimelineServiceIntegrationTests.class);
+
+    private static final LocalDateTime PLACED = LocalDateTime.of(2025, 3, 1, 10, 0);
+    private static final LocalDateTime APPROVED = PLACED.plusHours(1);
+    private static final LocalDateTime DELIVERED = PLACED.plusDays(2);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.6");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private OrderTimelineService orderTimelineService;
+
+    @BeforeEach
+    void setUp() {
+        orderTimelineService = new OrderTimelineService(jdbcTemplate);
+        jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS sales_tracking");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS sales_tracking.delivery_details_history (history_id BIGINT, " +
+                "customer_order_id BIGINT, changed_at TIMESTAMP, delivery_status TEXT, updated_by TEXT, delivery_status_history TEXT)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS sales_tracking.dispatch_details_history (history_id BIGINT, " +
+                "customer_order_id BIGINT, changed_at TIMESTAMP, dispatch_status TEXT, updated_by TEXT, dispatch_status_history TEXT)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS sales_tracking.finance_details_history (history_id BIGINT, " +
+                "customer_order_id BIGINT, changed_at TIMESTAMP, finance_status TEXT, approved_by TEXT, rejected_by TEXT, " +
+                "finance_status_history TEXT)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS sales_tracking.vehicle_order_delta_history (delta_id BIGINT, " +
+                "customer_order_id BIGINT, changed_at TIMESTAMP, from_status TEXT, to_status TEXT, changed_by TEXT, changes JSONB)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS sales_tracking.vehicle_order_details_history (history_id BIGINT, " +
+                "customer_order_id BIGINT, changed_at TIMESTAMP, order_status TEXT, updated_by TEXT, order_status_history TEXT)");
+
+        insert("vehicle_order_delta_history", "delta_id", 1, 7L, PLACED);
+        // everything below shares one changed_at, so only the source name and then the id order them
+        insert("vehicle_order_delta_history", "delta_id", 3, 7L, APPROVED);
+        insert("vehicle_order_details_history", "history_id", 1, 7L, APPROVED);
+        insert("finance_details_history", "history_id", 1, 7L, APPROVED);
+        insert("vehicle_order_delta_history", "delta_id", 2, 7L, APPROVED);
+        insert("dispatch_details_history", "history_id", 5, 7L, APPROVED);
+        insert("delivery_details_history", "history_id", 9, 7L, APPROVED);
+        insert("dispatch_details_history", "history_id", 4, 7L, APPROVED);
+        insert("delivery_details_history", "history_id", 1, 7L, DELIVERED);
+        // another order's history never shows up
+        insert("finance_details_history", "history_id", 2, 8L, APPROVED);
+    }
+
+    @Test
+    void getTimeline_ShouldPageAcrossSourcesBreakingTiesBySourceThenId() {
+        logger.info("Starting test: getTimeline_ShouldPageAcrossSourcesBreakingTiesBySourceThenId");
+
+        List<List<String>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderTimelineResponse page = orderTimelineService.getTimeline(7L, cursor, 3);
+            pages.add(page.getEntries().stream().map(entry -> entry.getSource() + ":" + entry.getEntryId()).toList());
+            cursor = page.getNextCursor();
+        } while (cursor != null && pages.size() < 10);
+
+        assertEquals(List.of(
+                List.of("ORDER:1", "DELIVERY:9", "DISPATCH:4"),
+                List.of("DISPATCH:5", "FINANCE:1", "ORDER:2"),
+                List.of("ORDER:3", "ORDER_SNAPSHOT:1", "DELIVERY:1")), pages);
+    }
+
+    @Test
+    void getTimeline_ShouldRejectUnreadableCursor() {
+        logger.info("Starting test: getTimeline_ShouldRejectUnreadableCursor");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> orderTimelineService.getTimeline(7L, "not-a-cursor", 3));
+        assertEquals("Invalid timeline cursor: not-a-cursor", exception.getMessage());
+    }
+
+    private void insert(String table, String idColumn, long id, Long customerOrderId, LocalDateTime changedAt) {
+        jdbcTemplate.update("INSERT INTO sales_tracking." + table + " (" + idColumn + ", customer_order_id, changed_at) " +
+                "VALUES (?, ?, ?)", id, customerOrderId, Timestamp.valueOf(changedAt));
+    }
+}
@@ -0,0 +1,232 @@
+package com.vehicle.salesmanagement;
+
+import com.vehicle.salesmanagement.domain.dto.apirequest.KendoDataSourceRequest;
+import com.vehicle.salesmanagement.domain.dto.apirequest.KendoFilterDescriptor;
+import com.vehicle.salesmanagement.domain.dto.apirequest.KendoSortDescriptor;
+import com.vehicle.salesmanagement.domain.dto.apirequest.MddpDto;
+import com.vehicle.salesmanagement.domain.dto.apirequest.StockDTO;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.KendoResponse;
+import com.vehicle.salesmanagement.domain.dto.apiresponse.OrderDetailsResponse;
+import com.vehicle.salesmanagement.domain.entity.model.MddpStock;
+import com.vehicle.salesmanagement.domain.entity.model.StockDetails;
+import com.vehicle.salesmanagement.domain.entity.model.VehicleModel;
+import com.vehicle.salesmanagement.domain.entity.model.VehicleOrderDetails;
+import com.vehicle.salesmanagement.domain.entity.model.VehicleVariant;
+import com.vehicle.salesmanagement.enums.OrderStatus;
+import com.vehicle.salesmanagement.enums.StockStatus;
+import com.vehicle.salesmanagement.repository.VehicleOrderDetailsRepository;
+import com.vehicle.salesmanagement.service.KendoGridQuery;
+import com.vehicle.salesmanagement.service.MddpStockService;
+import com.vehicle.salesmanagement.service.StockAvailabilityIndex;
+import com.vehicle.salesmanagement.service.StockService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the constructor projections of the stock grids and the order details read through Hibernate and
+// PostgreSQL, where a DTO constructor that no longer matches the selection would fail. Each read must also leave
+// nothing in the persistence context. Skipped where no Docker daemon is available.
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({KendoGridQuery.class, StockService.class, MddpStockService.class, StockAvailabilityIndex.class})
+class ProjectionQueryIntegrationTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectionQueryIntegrationTests.class);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.6");
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private StockService stockService;
+    @Autowired
+    private MddpStockService mddpStockService;
+    @Autowired
+    private VehicleOrderDetailsRepository orderRepository;
+
+    private VehicleModel model;
+    private VehicleVariant variant;
+
+    @BeforeEach
+    void setUp() {
+        model = new VehicleModel();
+        model.setModelName("Model X");
+        model.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(model);
+
+        variant = new VehicleVariant();
+        variant.setVehicleModel(model);
+        variant.setVariant("Premium");
+        variant.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(variant);
+    }
+
+    @Test
+    void getStockDetails_ShouldProjectFilteredSortedPageIntoStockDto() {
+        logger.info("Starting test: getStockDetails_ShouldProjectFilteredSortedPageIntoStockDto");
+        persistStock("Red", 2, "VIN-1", StockStatus.AVAILABLE);
+        persistStock("Red", 5, "VIN-2", StockStatus.AVAILABLE);
+        persistStock("Blue", 1, "VIN-3", StockStatus.AVAILABLE);
+        persistStock("Red", 9, "VIN-4", StockStatus.DEPLETED);
+        flushAndClear();
+
+        KendoResponse<StockDTO> page = stockService.getStockDetails(gridRequest("colour", "red", "quantity"));
+
+        assertEquals(2, page.getTotal());
+        assertEquals(1, page.getData().size());
+        StockDTO stock = page.getData().get(0);
+        assertEquals("Model X", stock.getModelName());
+        assertEquals("Red", stock.getColour());
+        assertEquals(5, stock.getQuantity());
+        assertEquals("VIN-2", stock.getVinNumber());
+        assertEquals("Premium", stock.getVariant());
+        assertEquals("Petrol", stock.getFuelType());
+        assertEquals("Automatic", stock.getTransmissionType());
+        assertEquals(0, managedEntityCount());
+    }
+
+    @Test
+    void getMddpStockDetails_ShouldProjectFilteredSortedPageIntoMddpDto() {
+        logger.info("Starting test: getMddpStockDetails_ShouldProjectFilteredSortedPageIntoMddpDto");
+        persistMddpStock("Red", 3, "MDDP-1");
+        persistMddpStock("Red", 7, "MDDP-2");
+        persistMddpStock("Blue", 4, "MDDP-3");
+        flushAndClear();
+
+        KendoResponse<MddpDto> page = mddpStockService.getMddpStockDetails(gridRequest("colour", "red", "quantity"));
+
+        assertEquals(2, page.getTotal());
+        assertEquals(1, page.getData().size());
+        MddpDto stock = page.getData().get(0);
+        assertEquals("Model X", stock.getModelName());
+        assertEquals(7, stock.getQuantity());
+        assertEquals("MDDP-2", stock.getVinNumber());
+        assertEquals("Premium", stock.getVariant());
+        assertEquals(0, managedEntityCount());
+    }
+
+    @Test
+    void findOrderDetailsById_ShouldProjectOrderRowIntoResponse() {
+        logger.info("Starting test: findOrderDetailsById_ShouldProjectOrderRowIntoResponse");
+        VehicleOrderDetails order = new VehicleOrderDetails();
+        order.setVehicleModel(model);
+        order.setVehicleVariant(variant);
+        order.setCustomerName("Asha");
+        order.setPhoneNumber("9999999999");
+        order.setEmail("asha@example.com");
+        order.setAadharNo("123412341234");
+        order.setPanNo("ABCDE1234F");
+        order.setModelName("Model X");
+        order.setFuelType("Petrol");
+        order.setColour("Red");
+        order.setVariant("Premium");
+        order.setQuantity(1);
+        order.setTotalPrice(new BigDecimal("1500000.00"));
+        order.setBookingAmount(new BigDecimal("50000.00"));
+        order.setPaymentMode("Cash");
+        order.setOrderStatus(OrderStatus.BLOCKED);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setUpdatedAt(LocalDateTime.now());
+        order.setCreatedBy("tester");
+        order.setUpdatedBy("tester");
+        entityManager.persist(order);
+        flushAndClear();
+
+        OrderDetailsResponse details = orderRepository.findOrderDetailsById(order.getCustomerOrderId()).orElseThrow();
+
+        assertEquals("Asha", details.getCustomerName());
+        assertEquals("9999999999", details.getPhoneNumber());
+        assertEquals("asha@example.com", details.getEmail());
+        assertEquals("123412341234", details.getAadharNo());
+        assertEquals("ABCDE1234F", details.getPanNo());
+        assertEquals("Model X", details.getModelName());
+        assertEquals("Petrol", details.getFuelType());
+        assertEquals("Red", details.getColour());
+        assertEquals("Premium", details.getVariant());
+        assertEquals(1, details.getQuantity());
+        assertEquals(OrderStatus.BLOCKED, details.getOrderStatus());
+        assertEquals(0, managedEntityCount());
+        assertTrue(orderRepository.findOrderDetailsById(order.getCustomerOrderId() + 1000).isEmpty());
+    }
+
+    // filter field eq value (case-insensitive), sorted by sortField descending, first row only
+    private KendoDataSourceRequest gridRequest(String filterField, String value, String sortField) {
+        KendoFilterDescriptor filter = new KendoFilterDescriptor();
+        filter.setField(filterField);
+        filter.setOperator("eq");
+        filter.setValue(value);
+        KendoSortDescriptor sort = new KendoSortDescriptor();
+        sort.setField(sortField);
+        sort.setDir("desc");
+        KendoDataSourceRequest request = new KendoDataSourceRequest();
+        request.setFilter(filter);
+        request.setSort(List.of(sort));
+        request.setSkip(0);
+        request.setTake(1);
+        return request;
+    }
+
+    private void persistStock(String colour, int quantity, String vinNumber, StockStatus status) {
+        StockDetails stock = new StockDetails();
+        stock.setVehicleModel(model);
+        stock.setVehicleVariant(variant);
+        stock.setVariant("Premium");
+        stock.setColour(colour);
+        stock.setFuelType("Petrol");
+        stock.setTransmissionType("Automatic");
+        stock.setQuantity(quantity);
+        stock.setVinNumber(vinNumber);
+        stock.setStockStatus(status);
+        stock.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(stock);
+    }
+
+    private void persistMddpStock(String colour, int quantity, String vinNumber) {
+        MddpStock stock = new MddpStock();
+        stock.setVehicleModel(model);
+        stock.setVehicleVariant(variant);
+        stock.setVariant("Premium");
+        stock.setColour(colour);
+        stock.setFuelType("Petrol");
+        stock.setTransmissionType("Automatic");
+        stock.setQuantity(quantity);
+        stock.setVinNumber(vinNumber);
+        stock.setStockStatus(StockStatus.AVAILABLE);
+        stock.setExpectedDispatchDate(LocalDateTime.now().plusDays(7));
+        stock.setExpectedDeliveryDate(LocalDateTime.now().plusDays(14));
+        stock.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(stock);
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private int managedEntityCount() {
+        return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+}
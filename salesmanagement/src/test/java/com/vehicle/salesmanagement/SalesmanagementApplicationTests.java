@@ -1,36 +1,123 @@
 package com.vehicle.salesmanagement;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vehicle.salesmanagement.activity.DispatchDeliveryActivities;
+import com.vehicle.salesmanagement.activity.FinanceActivities;
+import com.vehicle.salesmanagement.activity.VehicleOrderActivities;
+import com.vehicle.salesmanagement.cache.CacheNames;
+import com.vehicle.salesmanagement.cache.InstrumentedCache;
+import com.vehicle.salesmanagement.cache.InstrumentedCacheManager;
+import com.vehicle.salesmanagement.cache.LocalTtlCache;
+import com.vehicle.salesmanagement.cache.OrderCountsEvictionListener;
+import com.vehicle.salesmanagement.config.ActivityConcurrencyLimiter;
+import com.vehicle.salesmanagement.config.TemporalWorkerConfig;
 import com.vehicle.salesmanagement.controller.*;
 import com.vehicle.salesmanagement.domain.dto.apirequest.*;
 import com.vehicle.salesmanagement.domain.dto.apiresponse.*;
 import com.vehicle.salesmanagement.domain.entity.model.*;
 import com.vehicle.salesmanagement.enums.*;
+import com.vehicle.salesmanagement.errorhandling.OrderNotFoundException;
+import com.vehicle.salesmanagement.event.VehicleCatalogChangedEvent;
 import com.vehicle.salesmanagement.repository.*;
 import com.vehicle.salesmanagement.service.*;
 import com.vehicle.salesmanagement.workflow.FinanceWorkflow;
+import com.vehicle.salesmanagement.workflow.FinanceWorkflowImpl;
+import com.vehicle.salesmanagement.workflow.OrderLifecycleState;
+import com.vehicle.salesmanagement.workflow.OrderLifecycleWorkflow;
+import com.vehicle.salesmanagement.workflow.OrderLifecycleWorkflowImpl;
+import com.vehicle.salesmanagement.workflow.VehicleOrderWorkflow;
+import com.vehicle.salesmanagement.workflow.VehicleOrderWorkflowImpl;
+import io.temporal.activity.ActivityInterface;
+import io.temporal.activity.ActivityOptions;
+import io.temporal.client.UpdateHandle;
 import io.temporal.client.WorkflowClient;
+import io.temporal.client.WorkflowExecutionAlreadyStarted;
+import io.temporal.client.WorkflowFailedException;
+import io.temporal.client.WorkflowNotFoundException;
 import io.temporal.client.WorkflowOptions;
 import io.temporal.client.WorkflowStub;
+import io.temporal.client.WorkflowUpdateException;
+import io.temporal.client.WorkflowUpdateStage;
+import io.temporal.common.RetryOptions;
+import io.temporal.common.interceptors.WorkerInterceptor;
+import io.temporal.failure.ActivityFailure;
+import io.temporal.failure.ApplicationFailure;
+import io.temporal.testing.TestEnvironmentOptions;
+import io.temporal.testing.TestWorkflowEnvironment;
+import io.temporal.testing.WorkflowReplayer;
+import io.temporal.worker.Worker;
+import io.temporal.worker.WorkerFactoryOptions;
+import io.temporal.worker.WorkerOptions;
+import io.temporal.workflow.Async;
+import io.temporal.workflow.Promise;
+import io.temporal.workflow.Workflow;
+import io.temporal.workflow.WorkflowInterface;
+import io.temporal.workflow.WorkflowMethod;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +140,10 @@ class VehicleSalesManagementApplicationTests {
     private VehicleModelRepository vehicleModelRepository;
     @Mock
     private HistoryService historyService;
+    @Spy
+    private StockAvailabilityIndex stockAvailabilityIndex = new StockAvailabilityIndex();
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private VehicleOrderService vehicleOrderService;
 
@@ -74,23 +165,33 @@ class VehicleSalesManagementApplicationTests {
 
     // Mocks for HistoryServiceTests
     @Mock
-    private VehicleOrderDetailsHistoryRepository orderHistoryRepository;
-    @Mock
-    private FinanceDetailsHistoryRepository financeHistoryRepository;
-    @Mock
-    private DispatchDetailsHistoryRepository dispatchHistoryRepository;
-    @Mock
-    private DeliveryDetailsHistoryRepository deliveryHistoryRepository;
+    private HistoryOutbox historyOutbox;
     @InjectMocks
     private HistoryService historyServiceInjected;
 
+    // DropdownServiceTests reuse the model and variant repository mocks
+    @InjectMocks
+    private DropdownService dropdownService;
+
+    // OrderStatusCounterService reuses the order repository mock
+    @InjectMocks
+    private OrderStatusCounterService orderStatusCounterService;
+
     // Mocks for VehicleOrderControllerTests
     @Mock
     private WorkflowClient workflowClient;
+    @Mock
+    private StockIngestionService stockIngestionService;
+    @Mock
+    private OrderResultTracker orderResultTracker;
+    @Mock
+    private OrderStatusQueryService orderStatusQueryService;
     @InjectMocks
     private VehicleOrderController vehicleOrderController;
 
     // Mocks for FinanceControllerTests
+    @Mock
+    private FinanceDecisionService financeDecisionService;
     @InjectMocks
     private FinanceController financeController;
 
@@ -98,6 +199,12 @@ class VehicleSalesManagementApplicationTests {
     @InjectMocks
     private DispatchDeliveryController dispatchDeliveryController;
 
+    // Mocks for StockControllerTests
+    @Mock
+    private StockService stockService;
+    @InjectMocks
+    private StockController stockController;
+
     // Shared test data
     private OrderRequest orderRequest;
     private VehicleVariant variant;
@@ -126,6 +233,8 @@ class VehicleSalesManagementApplicationTests {
         variant.setPrice(new BigDecimal("50000"));
 
         stock = new StockDetails();
+        stock.setStockId(1L);
+        stock.setVehicleVariant(variant);
         stock.setQuantity(5);
         stock.setColour("Red");
         stock.setFuelType("Petrol");
@@ -159,28 +268,93 @@ class VehicleSalesManagementApplicationTests {
     @Test
     void checkAndBlockStock_ShouldBlockAvailableStock() {
         logger.info("Starting test: checkAndBlockStock_ShouldBlockAvailableStock");
+        stockAvailabilityIndex.put(stock);
         when(variantRepository.findById(1L)).thenReturn(Optional.of(variant));
-        when(stockRepository.findByVehicleVariantAndStockStatus(variant, StockStatus.AVAILABLE))
-                .thenReturn(Collections.singletonList(stock));
+        when(stockRepository.decrementIfAvailable(1L, 1, "Red", "Petrol", "Automatic")).thenReturn(1);
 
         OrderResponse response = vehicleOrderService.checkAndBlockStock(orderRequest);
 
         logger.info("Order status after blocking stock: {}", response.getOrderStatus());
         assertEquals(OrderStatus.BLOCKED, response.getOrderStatus());
-        verify(stockRepository).save(stock);
+        verify(stockRepository).decrementIfAvailable(1L, 1, "Red", "Petrol", "Automatic");
+        verify(stockRepository, never()).save(any());
     }
 
     @Test
     void checkAndBlockStock_ShouldPlaceManufacturerOrderWhenNoStock() {
         logger.info("Starting test: checkAndBlockStock_ShouldPlaceManufacturerOrderWhenNoStock");
         when(variantRepository.findById(1L)).thenReturn(Optional.of(variant));
-        when(stockRepository.findByVehicleVariantAndStockStatus(variant, StockStatus.AVAILABLE))
-                .thenReturn(Collections.emptyList());
 
         OrderResponse response = vehicleOrderService.checkAndBlockStock(orderRequest);
 
         logger.info("Order status when no stock: {}", response.getOrderStatus());
         assertEquals(OrderStatus.PENDING, response.getOrderStatus());
+        verify(stockRepository, never()).findByVehicleVariantAndStockStatus(any(), any());
+    }
+
+    @Test
+    void checkAndBlockStock_ShouldSkipStaleIndexEntry() {
+        logger.info("Starting test: checkAndBlockStock_ShouldSkipStaleIndexEntry");
+        stockAvailabilityIndex.put(stock);
+        StockDetails depleted = new StockDetails();
+        depleted.setStockId(1L);
+        depleted.setVehicleVariant(variant);
+        depleted.setQuantity(0);
+        depleted.setColour("Red");
+        depleted.setFuelType("Petrol");
+        depleted.setTransmissionType("Automatic");
+        depleted.setStockStatus(StockStatus.DEPLETED);
+        when(variantRepository.findById(1L)).thenReturn(Optional.of(variant));
+        when(stockRepository.decrementIfAvailable(1L, 1, "Red", "Petrol", "Automatic")).thenReturn(0);
+        when(stockRepository.findById(1L)).thenReturn(Optional.of(depleted));
+
+        OrderResponse response = vehicleOrderService.checkAndBlockStock(orderRequest);
+
+        logger.info("Order status with stale index entry: {}", response.getOrderStatus());
+        assertEquals(OrderStatus.PENDING, response.getOrderStatus());
+        assertTrue(stockAvailabilityIndex.findCandidate(1L, "Red", "Petrol", "Automatic", 1).isEmpty());
+        verify(stockRepository, never()).save(any());
+    }
+
+    @Test
+    void checkAndBlockStock_ShouldFallBackToDatabaseOnIndexMiss() {
+        logger.info("Starting test: checkAndBlockStock_ShouldFallBackToDatabaseOnIndexMiss");
+        when(variantRepository.findById(1L)).thenReturn(Optional.of(variant));
+        when(stockRepository.findFirstByVehicleVariantAndColourAndFuelTypeAndTransmissionTypeAndStockStatusAndQuantityGreaterThanEqualOrderByQuantityAsc(
+                variant, "Red", "Petrol", "Automatic", StockStatus.AVAILABLE, 1)).thenReturn(Optional.of(stock));
+        when(stockRepository.decrementIfAvailable(1L, 1, "Red", "Petrol", "Automatic")).thenReturn(1);
+
+        OrderResponse response = vehicleOrderService.checkAndBlockStock(orderRequest);
+
+        logger.info("Order status after an index miss: {}", response.getOrderStatus());
+        assertEquals(OrderStatus.BLOCKED, response.getOrderStatus());
+        // the row found in the database is back in the index with the booked quantity taken off
+        assertEquals(Optional.of(1L), stockAvailabilityIndex.findCandidate(1L, "Red", "Petrol", "Automatic", 4));
+        assertTrue(stockAvailabilityIndex.findCandidate(1L, "Red", "Petrol", "Automatic", 5).isEmpty());
+    }
+
+    @Test
+    void stockAvailabilityIndex_ShouldPickSmallestRowCoveringQuantity() {
+        logger.info("Starting test: stockAvailabilityIndex_ShouldPickSmallestRowCoveringQuantity");
+        StockAvailabilityIndex index = new StockAvailabilityIndex();
+        for (long stockId = 1; stockId <= 3; stockId++) {
+            StockDetails row = new StockDetails();
+            row.setStockId(stockId);
+            row.setVehicleVariant(variant);
+            row.setQuantity((int) stockId * 2);
+            row.setColour("Red");
+            row.setFuelType("Petrol");
+            row.setTransmissionType("Automatic");
+            row.setStockStatus(StockStatus.AVAILABLE);
+            index.put(row);
+        }
+
+        assertEquals(Optional.of(2L), index.findCandidate(1L, "Red", "Petrol", "Automatic", 3));
+        index.decrementAfterCommit(2L, 4);
+        assertEquals(Optional.of(3L), index.findCandidate(1L, "Red", "Petrol", "Automatic", 3));
+        index.refresh(Set.of(3L), List.of());
+        assertTrue(index.findCandidate(1L, "Red", "Petrol", "Automatic", 3).isEmpty());
+        assertEquals(Optional.of(1L), index.findCandidate(1L, "Red", "Petrol", "Automatic", 2));
     }
 
     @Test
@@ -188,6 +362,7 @@ class VehicleSalesManagementApplicationTests {
         logger.info("Starting test: checkAndReserveMddpStock_ShouldReserveWhenAvailable");
 
         MddpStock mddpStock = new MddpStock();
+        mddpStock.setMddpOrderId(1L);
         mddpStock.setQuantity(2);
         mddpStock.setStockStatus(StockStatus.AVAILABLE);
 
@@ -198,14 +373,13 @@ class VehicleSalesManagementApplicationTests {
         when(variantRepository.findById(1L)).thenReturn(Optional.of(variant));
         when(mddpStockRepository.findByVehicleVariantAndStockStatus(variant, StockStatus.AVAILABLE))
                 .thenReturn(Optional.of(mddpStock));
+        when(mddpStockRepository.decrementIfAvailable(1L, 1)).thenReturn(1);
         when(vehicleModelRepository.findById(1L)).thenReturn(Optional.of(vehicleModel));
 
         OrderResponse response = vehicleOrderService.checkAndReserveMddpStock(orderRequest);
 
         logger.info("Order status after reserving MDDP stock: {}", response.getOrderStatus());
         assertEquals(OrderStatus.BLOCKED, response.getOrderStatus());
-        assertEquals(1, mddpStock.getQuantity());
-        assertEquals(StockStatus.AVAILABLE, mddpStock.getStockStatus());
 
         ArgumentCaptor<StockDetails> stockCaptor = ArgumentCaptor.forClass(StockDetails.class);
         verify(stockRepository).save(stockCaptor.capture());
@@ -219,24 +393,296 @@ class VehicleSalesManagementApplicationTests {
         assertEquals(orderRequest.getQuantity(), savedStock.getQuantity());
         assertEquals(StockStatus.AVAILABLE, savedStock.getStockStatus());
 
-        verify(mddpStockRepository).save(mddpStock);
+        verify(mddpStockRepository).decrementIfAvailable(1L, 1);
+        verify(mddpStockRepository, never()).save(any());
     }
 
     @Test
-    void checkAndBlockStock_ShouldMarkStockDepletedWhenQuantityReachesZero() {
-        logger.info("Starting test: checkAndBlockStock_ShouldMarkStockDepletedWhenQuantityReachesZero");
+    void checkAndBlockStock_ShouldDropStockFromIndexWhenQuantityReachesZero() {
+        logger.info("Starting test: checkAndBlockStock_ShouldDropStockFromIndexWhenQuantityReachesZero");
         stock.setQuantity(1);
+        stockAvailabilityIndex.put(stock);
         when(variantRepository.findById(1L)).thenReturn(Optional.of(variant));
-        when(stockRepository.findByVehicleVariantAndStockStatus(variant, StockStatus.AVAILABLE))
-                .thenReturn(List.of(stock));
+        when(stockRepository.decrementIfAvailable(1L, 1, "Red", "Petrol", "Automatic")).thenReturn(1);
 
         OrderResponse response = vehicleOrderService.checkAndBlockStock(orderRequest);
 
         logger.info("Order status after stock depletion: {}", response.getOrderStatus());
         assertEquals(OrderStatus.BLOCKED, response.getOrderStatus());
-        assertEquals(0, stock.getQuantity());
-        assertEquals(StockStatus.DEPLETED, stock.getStockStatus());
-        verify(stockRepository).save(stock);
+        assertTrue(stockAvailabilityIndex.findCandidate(1L, "Red", "Petrol", "Automatic", 1).isEmpty());
+    }
+
+    @Test
+    void stockAvailabilityIndex_ShouldKeepEachRowInOneBucketUnderConcurrentPutsAndDecrements() throws Exception {
+        logger.info("Starting test: stockAvailabilityIndex_ShouldKeepEachRowInOneBucketUnderConcurrentPutsAndDecrements");
+        StockAvailabilityIndex index = new StockAvailabilityIndex();
+        int rows = 20_000;
+        // each round, one thread moves the row to Red, one to Blue and one sells from it, all released together;
+        // every round uses a new row, so a row left behind in the wrong bucket is never put back over
+        CyclicBarrier round = new CyclicBarrier(3);
+        List<Callable<Void>> workers = List.of(
+                () -> forEachRow(rows, round, stockId -> index.put(indexedStock(stockId, "Red", 2))),
+                () -> forEachRow(rows, round, stockId -> index.put(indexedStock(stockId, "Blue", 2))),
+                () -> forEachRow(rows, round, stockId -> index.decrementAfterCommit(stockId, 1)));
+        ExecutorService executor = Executors.newFixedThreadPool(workers.size());
+        try {
+            for (Future<Void> future : executor.invokeAll(workers, 60, TimeUnit.SECONDS)) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (long stockId = 0; stockId < rows; stockId++) {
+            index.remove(stockId);
+        }
+        // a row left behind in a bucket it had moved out of would still be found here
+        assertTrue(index.findCandidate(1L, "Red", "Petrol", "Automatic", 1).isEmpty());
+        assertTrue(index.findCandidate(1L, "Blue", "Petrol", "Automatic", 1).isEmpty());
+    }
+
+    private Void forEachRow(int rows, CyclicBarrier round, Consumer<Long> change) throws Exception {
+        for (long stockId = 0; stockId < rows; stockId++) {
+            round.await(10, TimeUnit.SECONDS);
+            change.accept(stockId);
+        }
+        return null;
+    }
+
+    private StockDetails indexedStock(Long stockId, String colour, int quantity) {
+        StockDetails indexed = new StockDetails();
+        indexed.setStockId(stockId);
+        indexed.setVehicleVariant(variant);
+        indexed.setQuantity(quantity);
+        indexed.setColour(colour);
+        indexed.setFuelType("Petrol");
+        indexed.setTransmissionType("Automatic");
+        indexed.setStockStatus(StockStatus.AVAILABLE);
+        return indexed;
+    }
+
+    @Test
+    void activityLoad_VirtualThreadsWithTheLimiterShouldCompleteEveryActivityWithinTheJdbcPool() {
+        logger.info("Starting test: activityLoad_VirtualThreadsWithTheLimiterShouldCompleteEveryActivityWithinTheJdbcPool");
+        int activities = 200;
+        // 20 pooled connections with 4 reserved
+        ActivityConcurrencyLimiter limiter = new ActivityConcurrencyLimiter(20, 4, 30_000);
+        TemporalWorkerConfig platformConfig = new TemporalWorkerConfig(null, null, null, null, limiter,
+                new MockEnvironment().withProperty("temporal.worker.default.virtual-threads", "false"));
+        TemporalWorkerConfig virtualConfig = new TemporalWorkerConfig(null, null, null, null, limiter,
+                new MockEnvironment().withProperty("temporal.worker.default.virtual-threads", "true"));
+        assertTrue(platformConfig.virtualThreadTaskQueues().isEmpty());
+        assertTrue(virtualConfig.virtualThreadTaskQueues().contains(TemporalWorkerConfig.VEHICLE_ORDER_TASK_QUEUE));
+
+        // without the dispatcher and the limiter, only the SDK's 200 activity slots bound the activities at the pool
+        PooledDatabaseActivities platform = new PooledDatabaseActivities(16);
+        long platformStarted = System.nanoTime();
+        int platformCompleted = runActivityFanOut(platformConfig, new WorkerInterceptor[0], platform, activities);
+        long platformMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - platformStarted);
+
+        PooledDatabaseActivities virtual = new PooledDatabaseActivities(16);
+        long virtualStarted = System.nanoTime();
+        int virtualCompleted;
+        try {
+            virtualCompleted = runActivityFanOut(virtualConfig, virtualConfig.workerInterceptors(), virtual, activities);
+        } finally {
+            virtualConfig.shutdownVirtualThreads();
+        }
+        long virtualMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - virtualStarted);
+
+        logger.info("{} activities: platform threads completed {} (peak {} at the pool) in {} ms, virtual threads with " +
+                        "the limiter completed {} (peak {}) in {} ms", activities, platformCompleted, platform.peakAtPool.get(),
+                platformMillis, virtualCompleted, virtual.peakAtPool.get(), virtualMillis);
+        assertTrue(platformCompleted < activities);
+        assertTrue(platform.peakAtPool.get() > 16);
+        assertEquals(activities, virtualCompleted);
+        assertTrue(virtual.peakAtPool.get() <= 16);
+        assertEquals(activities, virtual.onVirtualThreads.get());
+        assertEquals(16, limiter.availablePermits());
+    }
+
+    private int runActivityFanOut(TemporalWorkerConfig config, WorkerInterceptor[] interceptors,
+                                  PooledDatabaseActivities activities, int count) {
+        String taskQueue = TemporalWorkerConfig.VEHICLE_ORDER_TASK_QUEUE;
+        try (TestWorkflowEnvironment testEnv = TestWorkflowEnvironment.newInstance(TestEnvironmentOptions.newBuilder()
+                .setUseTimeskipping(false)
+                .setWorkerFactoryOptions(WorkerFactoryOptions.newBuilder().setWorkerInterceptors(interceptors).build())
+                .build())) {
+            Worker worker = testEnv.newWorker(taskQueue, config.workerOptions(taskQueue));
+            worker.registerWorkflowImplementationTypes(ActivityFanOutWorkflowImpl.class);
+            worker.registerActivitiesImplementations(activities);
+            testEnv.start();
+            ActivityFanOutWorkflow workflow = testEnv.getWorkflowClient().newWorkflowStub(ActivityFanOutWorkflow.class,
+                    WorkflowOptions.newBuilder().setTaskQueue(taskQueue).setWorkflowId("fan-out-" + UUID.randomUUID()).build());
+            return workflow.run(count);
+        }
+    }
+
+    @Test
+    void allocate_ShouldAllocateDrainedOrdersInOneTransaction() throws Exception {
+        logger.info("Starting test: allocate_ShouldAllocateDrainedOrdersInOneTransaction");
+        VehicleOrderService orderService = mock(VehicleOrderService.class);
+        List<TransactionStatus> transactions = new CopyOnWriteArrayList<>();
+        StockAllocationEngine engine = allocationEngine(orderService, transactions, 20, 10);
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        when(orderService.checkAndBlockStock(any())).thenAnswer(invocation -> {
+            if ("First".equals(invocation.<OrderRequest>getArgument(0).getCustomerName())) {
+                firstStarted.countDown();
+                releaseFirst.await(10, TimeUnit.SECONDS);
+            }
+            return blockedResponse();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<OrderResponse>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> engine.allocate(allocationRequest("First"))));
+            assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+            for (String customer : List.of("A", "B", "C")) {
+                futures.add(executor.submit(() -> engine.allocate(allocationRequest(customer))));
+            }
+            awaitQueueDepth(engine, 3);
+            releaseFirst.countDown();
+
+            for (Future<OrderResponse> future : futures) {
+                assertEquals(OrderStatus.BLOCKED, future.get(10, TimeUnit.SECONDS).getOrderStatus());
+            }
+            AllocationLaneMetrics metrics = engine.getLaneMetrics().get(0);
+            logger.info("Lane metrics after the burst: {}", metrics);
+            // the first order alone, then the three queued behind it together
+            assertEquals(2, transactions.size());
+            assertEquals(4, metrics.getAllocations());
+            assertEquals(2, metrics.getBatches());
+            assertEquals(0, metrics.getReplayedBatches());
+        } finally {
+            executor.shutdownNow();
+            engine.stopLanes();
+        }
+    }
+
+    @Test
+    void allocate_ShouldReplayOrdersOneByOneWhenBatchFails() throws Exception {
+        logger.info("Starting test: allocate_ShouldReplayOrdersOneByOneWhenBatchFails");
+        VehicleOrderService orderService = mock(VehicleOrderService.class);
+        List<TransactionStatus> transactions = new CopyOnWriteArrayList<>();
+        StockAllocationEngine engine = allocationEngine(orderService, transactions, 20, 10);
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        when(orderService.checkAndBlockStock(any())).thenAnswer(invocation -> {
+            String customer = invocation.<OrderRequest>getArgument(0).getCustomerName();
+            if ("First".equals(customer)) {
+                firstStarted.countDown();
+                releaseFirst.await(10, TimeUnit.SECONDS);
+            }
+            if ("Broken".equals(customer)) {
+                throw new RuntimeException("Variant not found: 1");
+            }
+            return blockedResponse();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<OrderResponse> first = executor.submit(() -> engine.allocate(allocationRequest("First")));
+            assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+            Future<OrderResponse> a = executor.submit(() -> engine.allocate(allocationRequest("A")));
+            awaitQueueDepth(engine, 1);
+            Future<OrderResponse> broken = executor.submit(() -> engine.allocate(allocationRequest("Broken")));
+            awaitQueueDepth(engine, 2);
+            Future<OrderResponse> b = executor.submit(() -> engine.allocate(allocationRequest("B")));
+            awaitQueueDepth(engine, 3);
+            releaseFirst.countDown();
+
+            assertEquals(OrderStatus.BLOCKED, first.get(10, TimeUnit.SECONDS).getOrderStatus());
+            assertEquals(OrderStatus.BLOCKED, a.get(10, TimeUnit.SECONDS).getOrderStatus());
+            assertEquals(OrderStatus.BLOCKED, b.get(10, TimeUnit.SECONDS).getOrderStatus());
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> broken.get(10, TimeUnit.SECONDS));
+            logger.info("Broken order failed with: {}", failure.getCause().getMessage());
+            assertEquals("Variant not found: 1", failure.getCause().getMessage());
+            // first alone, the failed batch, then one transaction per replayed order
+            assertEquals(5, transactions.size());
+            assertEquals(1, engine.getLaneMetrics().get(0).getReplayedBatches());
+        } finally {
+            executor.shutdownNow();
+            engine.stopLanes();
+        }
+    }
+
+    @Test
+    void allocate_ShouldAbandonAndRollBackRunningOrderAfterBoundedWait() throws Exception {
+        logger.info("Starting test: allocate_ShouldAbandonAndRollBackRunningOrderAfterBoundedWait");
+        VehicleOrderService orderService = mock(VehicleOrderService.class);
+        List<TransactionStatus> transactions = new CopyOnWriteArrayList<>();
+        StockAllocationEngine engine = allocationEngine(orderService, transactions, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.checkAndBlockStock(any())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return blockedResponse();
+        });
+        try {
+            long start = System.nanoTime();
+            IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> engine.allocate(allocationRequest("Slow")));
+            long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            logger.info("Caller gave up after {} ms: {}", waitedMillis, exception.getMessage());
+            assertTrue(exception.getMessage().startsWith("Stock allocation abandoned"));
+            assertTrue(waitedMillis < 5_000);
+
+            release.countDown();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!transactions.get(0).isCompleted() && System.nanoTime() < deadline) {
+                Thread.sleep(20);
+            }
+            // the lane saw the abandoned order before committing and rolled its transaction back
+            assertTrue(transactions.get(0).isRollbackOnly());
+        } finally {
+            engine.stopLanes();
+        }
+    }
+
+    private StockAllocationEngine allocationEngine(VehicleOrderService orderService, List<TransactionStatus> transactions,
+                                                   long timeoutSeconds, long claimedWaitSeconds) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            SimpleTransactionStatus status = new SimpleTransactionStatus();
+            transactions.add(status);
+            return status;
+        });
+        lenient().doAnswer(invocation -> {
+            invocation.<SimpleTransactionStatus>getArgument(0).setCompleted();
+            return null;
+        }).when(transactionManager).commit(any());
+        lenient().doAnswer(invocation -> {
+            invocation.<SimpleTransactionStatus>getArgument(0).setCompleted();
+            return null;
+        }).when(transactionManager).rollback(any());
+        StockAllocationEngine engine = new StockAllocationEngine(orderService, transactionManager);
+        ReflectionTestUtils.setField(engine, "laneCount", 1);
+        ReflectionTestUtils.setField(engine, "batchSize", 32);
+        ReflectionTestUtils.setField(engine, "timeoutSeconds", timeoutSeconds);
+        ReflectionTestUtils.setField(engine, "claimedWaitSeconds", claimedWaitSeconds);
+        engine.startLanes();
+        return engine;
+    }
+
+    private OrderRequest allocationRequest(String customerName) {
+        OrderRequest request = new OrderRequest();
+        request.setVehicleVariantId(1L);
+        request.setCustomerName(customerName);
+        request.setQuantity(1);
+        return request;
+    }
+
+    private OrderResponse blockedResponse() {
+        OrderResponse response = new OrderResponse();
+        response.setOrderStatus(OrderStatus.BLOCKED);
+        return response;
+    }
+
+    private void awaitQueueDepth(StockAllocationEngine engine, int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (engine.getLaneMetrics().get(0).getQueueDepth() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(depth, engine.getLaneMetrics().get(0).getQueueDepth());
     }
 
     @Test
@@ -271,6 +717,142 @@ class VehicleSalesManagementApplicationTests {
         logger.info("Vehicle model created with ID: {}", response.getVehicleModelId());
         assertNotNull(response.getVehicleModelId());
         verify(vehicleModelRepository).save(any(VehicleModel.class));
+        verify(eventPublisher).publishEvent(new VehicleCatalogChangedEvent(Set.of("Model X")));
+    }
+
+    @Test
+    void getVehicleAttributes_ShouldServeSnapshotAndRefreshChangedModel() {
+        logger.info("Starting test: getVehicleAttributes_ShouldServeSnapshotAndRefreshChangedModel");
+        VehicleModel model = new VehicleModel();
+        model.setModelName("Model X");
+        VehicleVariant red = new VehicleVariant();
+        red.setVehicleModel(model);
+        red.setVariant("LX");
+        red.setColour("Red");
+        VehicleVariant blue = new VehicleVariant();
+        blue.setVehicleModel(model);
+        blue.setVariant("ZX");
+        blue.setColour("Blue");
+
+        when(vehicleModelRepository.findAll()).thenReturn(List.of(model));
+        when(variantRepository.findAll()).thenReturn(List.of(red));
+        when(variantRepository.findByVehicleModel_ModelName("Model X")).thenReturn(List.of(red, blue));
+
+        VehicleAttributesResponse all = dropdownService.getVehicleAttributes(null, null);
+        VehicleAttributesResponse byModel = dropdownService.getVehicleAttributes("Model X", null);
+        assertEquals(List.of("Model X"), all.getModelNames());
+        assertEquals(List.of("Red"), byModel.getModelDetails().get("Model X").getColours());
+
+        dropdownService.onCatalogChanged(new VehicleCatalogChangedEvent(Set.of("Model X")));
+
+        assertEquals(List.of("Blue", "Red"), dropdownService.getVehicleAttributes("Model X", null)
+                .getModelDetails().get("Model X").getColours());
+        assertEquals(List.of("Blue"), dropdownService.getVehicleAttributes("Model X", "ZX")
+                .getModelDetails().get("Model X").getColours());
+        assertEquals(List.of("QX"), dropdownService.getVehicleAttributes("Model X", "QX")
+                .getModelDetails().get("Model X").getVariants());
+        verify(variantRepository, times(1)).findAll();
+    }
+
+    @Test
+    void instrumentedCache_ShouldCountHitsAndMissesAndExpireEntries() throws InterruptedException {
+        logger.info("Starting test: instrumentedCache_ShouldCountHitsAndMissesAndExpireEntries");
+        InstrumentedCache cache = new InstrumentedCache(new LocalTtlCache("orderCounts", Duration.ofMillis(50)));
+
+        assertNull(cache.get("total"));
+        cache.put("total", 5L);
+        assertEquals(5L, cache.get("total", Long.class));
+        Thread.sleep(100);
+        assertNull(cache.get("total"));
+
+        CacheMetrics metrics = cache.snapshot();
+        assertEquals(1, metrics.getHits());
+        assertEquals(2, metrics.getMisses());
+        assertEquals(1, metrics.getPuts());
+    }
+
+    @Test
+    void orderCountsEviction_ShouldClearCountsOnceAfterCommit() {
+        logger.info("Starting test: orderCountsEviction_ShouldClearCountsOnceAfterCommit");
+        SimpleCacheManager caches = new SimpleCacheManager();
+        caches.setCaches(List.of(new LocalTtlCache(CacheNames.ORDER_COUNTS, Duration.ofMinutes(1))));
+        caches.initializeCaches();
+        InstrumentedCacheManager cacheManager = new InstrumentedCacheManager(caches);
+        OrderCountsEvictionListener listener = new OrderCountsEvictionListener(
+                new StaticListableBeanFactory(Map.of("cacheManager", cacheManager)).getBeanProvider(CacheManager.class));
+        Cache orderCounts = cacheManager.getCache(CacheNames.ORDER_COUNTS);
+        orderCounts.put("total", 5L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // a save and a dirty-checked status change in the same transaction
+            listener.orderChanged(orderDetails);
+            listener.orderChanged(orderDetails);
+            assertEquals(5L, orderCounts.get("total", Long.class));
+            assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertNull(orderCounts.get("total"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        orderCounts.put("total", 6L);
+        listener.orderChanged(orderDetails);
+        assertNull(orderCounts.get("total"));
+    }
+
+    @Test
+    void getOrderStatusSummary_ShouldReportEveryStatusFromCounters() {
+        logger.info("Starting test: getOrderStatusSummary_ShouldReportEveryStatusFromCounters");
+        when(orderRepository.sumStatusCounters()).thenReturn(List.of(
+                statusCount("PENDING", 3L), statusCount("DELIVERED", 2L)));
+
+        OrderStatusSummaryResponse summary = orderStatusCounterService.getSummary(false);
+
+        assertEquals("counters", summary.getSource());
+        assertEquals(5L, summary.getTotalOrders());
+        assertEquals(OrderStatus.values().length, summary.getStatusCounts().size());
+        assertEquals(3L, summary.getStatusCounts().get(OrderStatus.PENDING));
+        assertEquals(2L, summary.getStatusCounts().get(OrderStatus.DELIVERED));
+        assertEquals(0L, summary.getStatusCounts().get(OrderStatus.BLOCKED));
+        verify(orderRepository, never()).countGroupedByStatus();
+    }
+
+    private OrderStatusCount statusCount(String status, Long orderCount) {
+        return new OrderStatusCount() {
+            @Override
+            public String getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getOrderCount() {
+                return orderCount;
+            }
+        };
+    }
+
+    @Test
+    void searchInventory_ShouldMatchAllFiltersAndKeepSiblingFacetCounts() {
+        logger.info("Starting test: searchInventory_ShouldMatchAllFiltersAndKeepSiblingFacetCounts");
+        InventorySearchIndex index = new InventorySearchIndex();
+        index.replaceAll(List.of(
+                new InventoryItem("STOCK", 1L, "Creta", "SX", "Red", "Petrol", "Manual", "Black", "VIN1", 2, new BigDecimal("1500000")),
+                new InventoryItem("STOCK", 2L, "Creta", "SX", "White", "Diesel", "Manual", "Black", "VIN2", 1, new BigDecimal("1700000")),
+                new InventoryItem("MDDP", 1L, "Creta", "EX", "Red", "Petrol", "Automatic", "Beige", "VIN3", 4, new BigDecimal("1200000"))));
+        // stock row 2 is sold out and leaves the index
+        index.refresh("STOCK", Set.of(2L), List.of());
+
+        InventorySearchResponse response = index.search(Map.of("colour", Set.of("red")),
+                new BigDecimal("1300000"), null, 10);
+
+        assertEquals(1L, response.getTotalMatches());
+        assertEquals("VIN1", response.getItems().get(0).getVinNumber());
+        // the colour facet ignores the colour filter itself, the price range still applies
+        assertEquals(List.of("Red"), response.getFacets().get("colour").stream().map(VehicleFacetResponse.FacetValue::getValue).toList());
+        assertEquals(1L, response.getFacets().get("fuelType").get(0).getCount());
+        assertEquals(2, index.size());
     }
 
     @Test
@@ -407,13 +989,13 @@ class VehicleSalesManagementApplicationTests {
         order.setCreatedAt(LocalDateTime.now());
         order.setUpdatedAt(LocalDateTime.now());
 
-        when(orderHistoryRepository.save(any(VehicleOrderDetailsHistory.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
         historyServiceInjected.saveOrderHistory(order, "admin", OrderStatus.ALLOTTED);
 
         logger.info("Order history saved for order ID: {}", order.getCustomerOrderId());
-        verify(orderHistoryRepository).save(any(VehicleOrderDetailsHistory.class));
+        verify(historyOutbox).enqueue(eq(HistoryType.ORDER), argThat(history ->
+                Long.valueOf(1L).equals(history.get("customer_order_id"))
+                        && "ALLOTTED".equals(history.get("order_status"))
+                        && history.get("changed_at") != null));
     }
 
     @Test
@@ -427,13 +1009,12 @@ class VehicleSalesManagementApplicationTests {
         finance.setCreatedAt(LocalDateTime.now());
         finance.setUpdatedAt(LocalDateTime.now());
 
-        when(financeHistoryRepository.save(any(FinanceDetailsHistory.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
-
         historyServiceInjected.saveFinanceHistory(finance, "admin");
 
         logger.info("Finance history saved for finance ID: {}", finance.getFinanceId());
-        verify(financeHistoryRepository).save(any(FinanceDetailsHistory.class));
+        verify(historyOutbox).enqueue(eq(HistoryType.FINANCE), argThat(history ->
+                Long.valueOf(1L).equals(history.get("finance_id"))
+                        && FinanceStatus.PENDING.equals(history.get("finance_status"))));
     }
 
 //    @Test
@@ -577,17 +1158,138 @@ class VehicleSalesManagementApplicationTests {
     }
 
     @Test
-    void approveFinance_ShouldSignalWorkflow() {
-        logger.info("Starting test: approveFinance_ShouldSignalWorkflow");
+    void approveFinance_ShouldReturnUpdatedFinanceFromWorkflow() {
+        logger.info("Starting test: approveFinance_ShouldReturnUpdatedFinanceFromWorkflow");
         ApproveFinanceRequest request = new ApproveFinanceRequest();
         request.setCustomerOrderId(1L);
+        request.setApprovedBy("officer");
 
-        when(workflowClient.newUntypedWorkflowStub(anyString())).thenReturn(mock(WorkflowStub.class));
+        FinanceResponse approved = new FinanceResponse();
+        approved.setFinanceStatus(FinanceStatus.APPROVED);
+        approved.setOrderStatus(OrderStatus.ALLOTTED);
+        when(financeDecisionService.approve(1L, "officer")).thenReturn(approved);
 
         ResponseEntity<ApiResponse<FinanceResponse>> response = financeController.approveFinance(request);
 
         logger.info("Finance approval response status: {}", response.getStatusCode());
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(FinanceStatus.APPROVED, response.getBody().getData().getFinanceStatus());
+        verifyNoInteractions(workflowClient);
+    }
+
+    @Test
+    void trackOrder_ShouldKeepFollowingWorkflowPastResultTimeoutWithoutWritingStatus() throws Exception {
+        logger.info("Starting test: trackOrder_ShouldKeepFollowingWorkflowPastResultTimeoutWithoutWritingStatus");
+        WorkflowClient client = mock(WorkflowClient.class);
+        WorkflowStub workflowStub = mock(WorkflowStub.class);
+        VehicleOrderDetailsRepository repository = mock(VehicleOrderDetailsRepository.class);
+        OrderResultTracker tracker = new OrderResultTracker(client, repository, mock(VehicleOrderService.class));
+        ReflectionTestUtils.setField(tracker, "maxFollowMinutes", 10L);
+        CompletableFuture<OrderResponse> firstPoll = new CompletableFuture<>();
+        CompletableFuture<OrderResponse> secondPoll = new CompletableFuture<>();
+        when(client.newUntypedWorkflowStub("order-1")).thenReturn(workflowStub);
+        when(workflowStub.getResultAsync(anyLong(), any(TimeUnit.class), eq(OrderResponse.class)))
+                .thenReturn(firstPoll, secondPoll);
+        when(workflowStub.query("getStatus", WorkflowStatusResponse.class))
+                .thenReturn(new WorkflowStatusResponse("CHECKING_STOCK", null, List.of("cancelOrder"), null, null));
+        when(repository.findById(1L)).thenReturn(Optional.of(orderDetails));
+
+        CompletableFuture<OrderResponse> result = tracker.track(1L, orderRequest);
+        firstPoll.completeExceptionally(new TimeoutException("result timeout"));
+
+        verify(workflowStub, timeout(5000).times(2)).getResultAsync(anyLong(), any(TimeUnit.class), eq(OrderResponse.class));
+        assertFalse(result.isDone());
+        assertSame(result, tracker.find(1L).orElseThrow());
+        verify(repository, never()).save(any());
+
+        OrderResponse finished = new OrderResponse();
+        finished.setOrderStatus(OrderStatus.CONFIRMED);
+        secondPoll.complete(finished);
+
+        logger.info("Tracked result after the workflow finished: {}", result.get(5, TimeUnit.SECONDS).getOrderStatus());
+        assertEquals(OrderStatus.CONFIRMED, result.get(5, TimeUnit.SECONDS).getOrderStatus());
+        verify(repository).save(orderDetails);
+        assertEquals(OrderStatus.CONFIRMED, orderDetails.getOrderStatus());
+        tracker.shutdown();
+    }
+
+    @Test
+    void trackOrder_ShouldPublishInterimResultOnceWorkflowAwaitsManufacturer() throws Exception {
+        logger.info("Starting test: trackOrder_ShouldPublishInterimResultOnceWorkflowAwaitsManufacturer");
+        WorkflowClient client = mock(WorkflowClient.class);
+        WorkflowStub workflowStub = mock(WorkflowStub.class);
+        VehicleOrderDetailsRepository repository = mock(VehicleOrderDetailsRepository.class);
+        VehicleOrderService orderService = mock(VehicleOrderService.class);
+        OrderResultTracker tracker = new OrderResultTracker(client, repository, orderService);
+        when(client.newUntypedWorkflowStub("order-1")).thenReturn(workflowStub);
+        when(workflowStub.getResultAsync(anyLong(), any(TimeUnit.class), eq(OrderResponse.class)))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("result timeout")));
+        when(workflowStub.query("getStatus", WorkflowStatusResponse.class))
+                .thenReturn(new WorkflowStatusResponse("AWAITING_MANUFACTURER", OrderStatus.PENDING, List.of("cancelOrder"), null, null));
+        when(orderService.mapToOrderResponse(orderRequest)).thenReturn(new OrderResponse());
+
+        OrderResponse interim = tracker.track(1L, orderRequest).get(5, TimeUnit.SECONDS);
+
+        logger.info("Interim result while the manufacturer wait runs: {}", interim.getOrderStatus());
+        assertEquals(OrderStatus.PENDING, interim.getOrderStatus());
+        assertEquals(1L, interim.getCustomerOrderId());
+        verify(workflowStub, times(1)).getResultAsync(anyLong(), any(TimeUnit.class), eq(OrderResponse.class));
+        verify(repository, never()).save(any());
+        tracker.shutdown();
+    }
+
+    @Test
+    void trackOrder_ShouldStopFollowingAfterMaxFollowDuration() throws Exception {
+        logger.info("Starting test: trackOrder_ShouldStopFollowingAfterMaxFollowDuration");
+        WorkflowClient client = mock(WorkflowClient.class);
+        WorkflowStub workflowStub = mock(WorkflowStub.class);
+        VehicleOrderDetailsRepository repository = mock(VehicleOrderDetailsRepository.class);
+        VehicleOrderService orderService = mock(VehicleOrderService.class);
+        OrderResultTracker tracker = new OrderResultTracker(client, repository, orderService);
+        ReflectionTestUtils.setField(tracker, "maxFollowMinutes", 0L);
+        when(client.newUntypedWorkflowStub("order-1")).thenReturn(workflowStub);
+        when(workflowStub.getResultAsync(anyLong(), any(TimeUnit.class), eq(OrderResponse.class)))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("result timeout")));
+        when(workflowStub.query("getStatus", WorkflowStatusResponse.class))
+                .thenReturn(new WorkflowStatusResponse("CONFIRMING_ORDER", OrderStatus.COMPLETED, List.of("cancelOrder"), null, null));
+        when(orderService.mapToOrderResponse(orderRequest)).thenReturn(new OrderResponse());
+
+        OrderResponse interim = tracker.track(1L, orderRequest).get(5, TimeUnit.SECONDS);
+
+        assertEquals(OrderStatus.COMPLETED, interim.getOrderStatus());
+        verify(workflowStub, times(1)).getResultAsync(anyLong(), any(TimeUnit.class), eq(OrderResponse.class));
+        verify(repository, never()).save(any());
+        tracker.shutdown();
+    }
+
+    @Test
+    void getOrderResult_ShouldQueryOrderWorkflowWhenResultIsNotTracked() {
+        logger.info("Starting test: getOrderResult_ShouldQueryOrderWorkflowWhenResultIsNotTracked");
+        OrderLiveStatusResponse live = new OrderLiveStatusResponse(1L, "WORKFLOW", OrderStatus.PENDING,
+                Map.of("order-1", new WorkflowStatusResponse("AWAITING_MANUFACTURER", OrderStatus.PENDING, List.of("cancelOrder"), null, null)), null);
+        when(orderResultTracker.find(1L)).thenReturn(Optional.empty());
+        when(orderStatusQueryService.getStatus(1L)).thenReturn(live);
+
+        ResponseEntity<ApiResponse> response = vehicleOrderController.getOrderResult(1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(live, response.getBody().getData());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void cancelOrder_ShouldSignalRunningOrderWorkflow() {
+        logger.info("Starting test: cancelOrder_ShouldSignalRunningOrderWorkflow");
+        VehicleOrderWorkflow workflow = mock(VehicleOrderWorkflow.class);
+        when(workflowClient.newWorkflowStub(VehicleOrderWorkflow.class, "order-1")).thenReturn(workflow);
+
+        ResponseEntity<ApiResponse> response = vehicleOrderController.cancelOrder(1L);
+
+        logger.info("Cancel order response status: {}", response.getStatusCode());
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(URI.create("/api/orders/1/status"), response.getHeaders().getLocation());
+        verify(workflow).cancelOrder(1L);
+        verify(workflowClient, never()).newWorkflowStub(eq(VehicleOrderWorkflow.class), any(WorkflowOptions.class));
     }
 
 
@@ -661,7 +1363,1015 @@ class VehicleSalesManagementApplicationTests {
 //        verify(orderRepository).findById(1L);
 //    }
 
+    @Test
+    void placeOrders_ShouldShareOneDeadlineAndFallBackToPendingForUnfinishedOrders() {
+        logger.info("Starting test: placeOrders_ShouldShareOneDeadlineAndFallBackToPendingForUnfinishedOrders");
+        TestWorkflowEnvironment testEnv = TestWorkflowEnvironment.newInstance(
+                TestEnvironmentOptions.newBuilder().setUseTimeskipping(false).build());
+        Worker worker = testEnv.newWorker("vehicle-order-task-queue");
+        worker.registerWorkflowImplementationFactory(VehicleOrderWorkflow.class, DeadlineTestOrderWorkflow::new);
+        testEnv.start();
+        VehicleOrderDetailsRepository repository = mock(VehicleOrderDetailsRepository.class);
+        VehicleOrderService orderService = mock(VehicleOrderService.class);
+        when(orderService.mapToOrderResponse(any())).thenAnswer(invocation -> new OrderResponse());
+        MultiOrderIntakeService intakeService = new MultiOrderIntakeService(testEnv.getWorkflowClient(), repository,
+                orderService, mock(OrderResultTracker.class));
+        ReflectionTestUtils.setField(intakeService, "fanOutThreads", 4);
+        ReflectionTestUtils.setField(intakeService, "deadlineSeconds", 2L);
+        intakeService.init();
+        try {
+            List<VehicleOrderDetails> orders = new ArrayList<>();
+            List<OrderRequest> requests = new ArrayList<>();
+            for (String customer : List.of("Fast", "Slow", "Slow", "Slow")) {
+                VehicleOrderDetails order = new VehicleOrderDetails();
+                order.setCustomerOrderId(100L + orders.size());
+                orders.add(order);
+                OrderRequest request = new OrderRequest();
+                request.setCustomerName(customer);
+                request.setModelName("Model X");
+                requests.add(request);
+            }
+
+            long start = System.nanoTime();
+            List<OrderResponse> responses = intakeService.placeOrders(orders, requests);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            logger.info("Placed {} orders in {} ms: {}", responses.size(), elapsedMillis,
+                    responses.stream().map(OrderResponse::getOrderStatus).toList());
+            // three unfinished orders still cost one 2 second deadline, not one each
+            assertTrue(elapsedMillis >= 1_500 && elapsedMillis < 5_000);
+            assertEquals(OrderStatus.BLOCKED, responses.get(0).getOrderStatus());
+            for (int i = 1; i < responses.size(); i++) {
+                assertEquals(OrderStatus.PENDING, responses.get(i).getOrderStatus());
+                assertEquals("Slow", responses.get(i).getCustomerName());
+                assertEquals(100L + i, responses.get(i).getCustomerOrderId());
+            }
+            assertEquals(OrderStatus.BLOCKED, orders.get(0).getOrderStatus());
+            assertEquals(OrderStatus.PENDING, orders.get(3).getOrderStatus());
+            verify(repository).saveAll(orders);
+        } finally {
+            intakeService.shutdown();
+            testEnv.close();
+        }
+    }
+
+    // Blocks the stock for "Fast" orders right away and leaves every other order waiting past any deadline.
+    static class DeadlineTestOrderWorkflow implements VehicleOrderWorkflow {
+
+        @Override
+        public OrderResponse placeOrder(OrderRequest orderRequest) {
+            if (!"Fast".equals(orderRequest.getCustomerName())) {
+                Workflow.sleep(Duration.ofMinutes(10));
+            }
+            OrderResponse response = new OrderResponse();
+            response.setCustomerName(orderRequest.getCustomerName());
+            response.setOrderStatus(OrderStatus.BLOCKED);
+            return response;
+        }
+
+        @Override
+        public void cancelOrder(Long customerOrderId) {
+        }
+
+        @Override
+        public WorkflowStatusResponse getStatus() {
+            return new WorkflowStatusResponse();
+        }
+    }
+
+    @Test
+    void importVehicleModels_ShouldReplayFailedBatchRowByRow() {
+        logger.info("Starting test: importVehicleModels_ShouldReplayFailedBatchRowByRow");
+        VehicleOrderService orderService = mock(VehicleOrderService.class);
+        VehicleModelRepository modelRepository = mock(VehicleModelRepository.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        BulkImportService importService = new BulkImportService(orderService, modelRepository,
+                mock(VehicleVariantRepository.class), mock(StockDetailsRepository.class), mock(MddpStockRepository.class),
+                new StockAvailabilityIndex(), new TransactionTemplate(transactionManager), entityManager, publisher);
+        ReflectionTestUtils.setField(importService, "batchSize", 500);
+
+        List<VehicleModelRequest> requests = new ArrayList<>();
+        for (String name : List.of("Alpha", "Broken", "Gamma", "Existing", "Alpha")) {
+            VehicleModelRequest request = new VehicleModelRequest();
+            request.setModelName(name);
+            requests.add(request);
+        }
+        when(modelRepository.findExistingModelNames(any())).thenReturn(List.of("Existing"));
+        when(orderService.newVehicleModel(any())).thenAnswer(invocation -> {
+            VehicleModel model = new VehicleModel();
+            model.setModelName(invocation.<VehicleModelRequest>getArgument(0).getModelName());
+            return model;
+        });
+        when(modelRepository.saveAllAndFlush(any())).thenThrow(
+                new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+        AtomicInteger ids = new AtomicInteger(10);
+        when(modelRepository.saveAndFlush(any(VehicleModel.class))).thenAnswer(invocation -> {
+            VehicleModel model = invocation.getArgument(0);
+            if ("Broken".equals(model.getModelName())) {
+                throw new DataIntegrityViolationException("model_name too long");
+            }
+            model.setVehicleModelId((long) ids.getAndIncrement());
+            return model;
+        });
+
+        List<VehicleModelResponse> responses = importService.importVehicleModels(requests);
+
+        responses.forEach(response -> logger.info("Imported {}: id {} - {}", response.getModelName(),
+                response.getVehicleModelId(), response.getMessage()));
+        assertEquals(5, responses.size());
+        assertEquals(10L, responses.get(0).getVehicleModelId());
+        assertNull(responses.get(0).getMessage());
+        assertNull(responses.get(1).getVehicleModelId());
+        assertEquals("Failed to add vehicle model: model_name too long", responses.get(1).getMessage());
+        assertEquals(11L, responses.get(2).getVehicleModelId());
+        assertEquals("Vehicle model 'Existing' already exists.", responses.get(3).getMessage());
+        assertEquals("Vehicle model 'Alpha' already exists.", responses.get(4).getMessage());
+        // every replayed row is rebuilt, so none carries state from the failed batch
+        verify(orderService, times(6)).newVehicleModel(any());
+        verify(modelRepository, times(3)).saveAndFlush(any(VehicleModel.class));
+        verify(publisher).publishEvent(new VehicleCatalogChangedEvent(Set.of("Alpha", "Gamma")));
+        verify(entityManager).clear();
+    }
 
+    @Test
+    void ingestVehicleStock_ShouldReadQuotedFieldsSpanningLines() throws Exception {
+        logger.info("Starting test: ingestVehicleStock_ShouldReadQuotedFieldsSpanningLines");
+        BulkImportService importService = mock(BulkImportService.class);
+        ObjectMapper mapper = new ObjectMapper();
+        StockIngestionService ingestionService = new StockIngestionService(importService, mapper,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(ingestionService, "batchSize", 500);
+        when(importService.saveVehicleStock(any())).thenAnswer(invocation ->
+                Collections.nCopies(invocation.<List<StockAddRequest>>getArgument(0).size(), null));
+        String csv = """
+                modelId,variantId,suffix,fuelType,colour,engineColour,transmissionType,variantName,quantity,interiorColour,vinNumber
+                1,1,SX,Petrol,Red,Black,Automatic,Premium,1,"Black leather,
+                with ""red"" stitching",1HGCM82633A004352
+                1,1,SX,Petrol,Red,Black,Automatic,Premium,1,Beige,BADVIN
+                """;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ingestionService.ingestVehicleStock(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), true, out);
+
+        List<StockIngestionEvent> events = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            events.add(mapper.readValue(line, StockIngestionEvent.class));
+        }
+        events.forEach(event -> logger.info("Ingestion event: {}", event));
+        ArgumentCaptor<List<StockAddRequest>> saved = ArgumentCaptor.forClass(List.class);
+        verify(importService).saveVehicleStock(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals("Black leather,\nwith \"red\" stitching", saved.getValue().get(0).getInteriorColour());
+        assertEquals("1HGCM82633A004352", saved.getValue().get(0).getVinNumber());
+        // the bad row is reported on its physical line, after the two lines of the quoted row
+        assertEquals("error", events.get(0).getType());
+        assertEquals(4L, events.get(0).getLine());
+        assertEquals("BADVIN", events.get(0).getVin());
+        StockIngestionEvent completed = events.get(events.size() - 1);
+        assertEquals("completed", completed.getType());
+        assertEquals(2L, completed.getProcessed());
+        assertEquals(1L, completed.getSaved());
+        assertEquals(1L, completed.getFailed());
+    }
 
+    @Test
+    void ingestVehicleStock_ShouldRejectUnclosedQuoteAndStillComplete() throws Exception {
+        logger.info("Starting test: ingestVehicleStock_ShouldRejectUnclosedQuoteAndStillComplete");
+        BulkImportService importService = mock(BulkImportService.class);
+        ObjectMapper mapper = new ObjectMapper();
+        StockIngestionService ingestionService = new StockIngestionService(importService, mapper,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(ingestionService, "batchSize", 500);
+        String csv = """
+                modelId,variantId,interiorColour,vinNumber
+                1,1,"Black,1HGCM82633A004352
+                1,1,Beige,1HGCM82633A004353
+                """;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ingestionService.ingestVehicleStock(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), true, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        StockIngestionEvent error = mapper.readValue(lines[0], StockIngestionEvent.class);
+        StockIngestionEvent completed = mapper.readValue(lines[lines.length - 1], StockIngestionEvent.class);
+        logger.info("Unclosed quote reported as: {}", error.getMessage());
+        assertEquals(2L, error.getLine());
+        assertEquals("Unreadable row: quoted field starting on line 2 is never closed", error.getMessage());
+        assertEquals("completed", completed.getType());
+        assertEquals(1L, completed.getFailed());
+        verify(importService, never()).saveVehicleStock(any());
+    }
 
-}
\ No newline at end of file
+    @Test
+    void importStock_ShouldStreamWithItsOwnAsyncTimeout() throws Exception {
+        logger.info("Starting test: importStock_ShouldStreamWithItsOwnAsyncTimeout");
+        ReflectionTestUtils.setField(vehicleOrderController, "importStreamTimeoutMinutes", 30L);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders/importStock");
+        request.setContentType("text/csv");
+        request.setContent("modelId,variantId\n".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        WebAsyncTask<Void> task = vehicleOrderController.importStock(request, response);
+        task.getCallable().call();
+
+        logger.info("Import stream timeout: {} ms", task.getTimeout());
+        assertEquals(TimeUnit.MINUTES.toMillis(30), task.getTimeout());
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, response.getContentType());
+        verify(stockIngestionService).ingestVehicleStock(any(), eq(true), any());
+    }
+
+    @Test
+    void getVehicleAttributes_ShouldNotLetCallersChangeTheSharedSnapshot() {
+        logger.info("Starting test: getVehicleAttributes_ShouldNotLetCallersChangeTheSharedSnapshot");
+        VehicleModel model = new VehicleModel();
+        model.setModelName("Model X");
+        VehicleVariant red = new VehicleVariant();
+        red.setVehicleModel(model);
+        red.setVariant("LX");
+        red.setColour("Red");
+        when(vehicleModelRepository.findAll()).thenReturn(List.of(model));
+        when(variantRepository.findAll()).thenReturn(List.of(red));
+
+        dropdownService.getVehicleAttributes(null, null).getModelDetails().get("Model X").setColours(List.of("Green"));
+        dropdownService.getVehicleAttributes("Model X", null).getModelDetails().get("Model X").setVariants(List.of());
+        dropdownService.getVehicleAttributes("Model X", "LX").getModelDetails().get("Model X").setColours(null);
+
+        assertEquals(List.of("Red"), dropdownService.getVehicleAttributes(null, null)
+                .getModelDetails().get("Model X").getColours());
+        assertEquals(List.of("LX"), dropdownService.getVehicleAttributes("Model X", null)
+                .getModelDetails().get("Model X").getVariants());
+        assertEquals(List.of("Red"), dropdownService.getVehicleAttributes("Model X", "LX")
+                .getModelDetails().get("Model X").getColours());
+    }
+
+    @Test
+    void getStockDetailsPage_ShouldReturnTheRejectionMessageOnBadRequest() {
+        logger.info("Starting test: getStockDetailsPage_ShouldReturnTheRejectionMessageOnBadRequest");
+        KendoDataSourceRequest request = new KendoDataSourceRequest();
+        when(stockService.getStockDetails(request)).thenThrow(new IllegalArgumentException("Unknown grid field: vin"));
+
+        ResponseEntity<KendoResponse<StockDTO>> response = stockController.getStockDetailsPage(request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Unknown grid field: vin", response.getBody().getErrors());
+        assertEquals(0, response.getBody().getTotal());
+    }
+
+    @Test
+    void getStockDetailsPage_ShouldReturnAnErrorBodyOnFailure() {
+        logger.info("Starting test: getStockDetailsPage_ShouldReturnAnErrorBodyOnFailure");
+        KendoDataSourceRequest request = new KendoDataSourceRequest();
+        when(stockService.getStockDetails(request)).thenThrow(new IllegalStateException("connection refused"));
+
+        ResponseEntity<KendoResponse<StockDTO>> response = stockController.getStockDetailsPage(request);
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("Internal server error", response.getBody().getErrors());
+    }
+
+    @Test
+    void workerOptions_ShouldFallBackFromTaskQueueToDefaultToSdkDefault() {
+        logger.info("Starting test: workerOptions_ShouldFallBackFromTaskQueueToDefaultToSdkDefault");
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("temporal.worker.default.max-concurrent-activities", "100")
+                .withProperty("temporal.worker.default.activity-pollers", "4")
+                .withProperty("temporal.worker.finance-task-queue.max-concurrent-activities", "30")
+                .withProperty("temporal.worker.finance-task-queue.workflow-pollers", "1")
+                .withProperty("temporal.worker.default.virtual-threads", "true")
+                .withProperty("temporal.worker.finance-task-queue.virtual-threads", "false");
+        TemporalWorkerConfig config = new TemporalWorkerConfig(null, null, null, null, null, environment);
+
+        WorkerOptions finance = config.workerOptions(TemporalWorkerConfig.FINANCE_TASK_QUEUE);
+        WorkerOptions order = config.workerOptions(TemporalWorkerConfig.VEHICLE_ORDER_TASK_QUEUE);
+
+        // per task queue
+        assertEquals(30, finance.getMaxConcurrentActivityExecutionSize());
+        assertEquals(1, finance.getMaxConcurrentWorkflowTaskPollers());
+        assertFalse(config.virtualThreadTaskQueues().contains(TemporalWorkerConfig.FINANCE_TASK_QUEUE));
+        // temporal.worker.default.*
+        assertEquals(4, finance.getMaxConcurrentActivityTaskPollers());
+        assertEquals(100, order.getMaxConcurrentActivityExecutionSize());
+        assertEquals(4, order.getMaxConcurrentActivityTaskPollers());
+        assertTrue(config.virtualThreadTaskQueues().contains(TemporalWorkerConfig.VEHICLE_ORDER_TASK_QUEUE));
+        // neither set, the SDK default
+        assertEquals(200, finance.getMaxConcurrentWorkflowTaskExecutionSize());
+        assertEquals(5, order.getMaxConcurrentWorkflowTaskPollers());
+    }
+
+    @Test
+    void approveAll_ShouldClassifyEachOrderAsCompletedPendingOrFailed() {
+        logger.info("Starting test: approveAll_ShouldClassifyEachOrderAsCompletedPendingOrFailed");
+        WorkflowClient client = mock(WorkflowClient.class);
+        FinanceDecisionService decisionService = new FinanceDecisionService(client);
+        ReflectionTestUtils.setField(decisionService, "deadlineSeconds", 1L);
+        ReflectionTestUtils.setField(decisionService, "maxOrders", 10);
+        FinanceResponse approved = new FinanceResponse();
+        approved.setCustomerOrderId(1L);
+        // 1 completes, 2 has no running workflow, 3 times out, 4 fails, 5 is still running at the deadline,
+        // 6 is already decided
+        financeStub(client, 1L, CompletableFuture.completedFuture(approved));
+        WorkflowStub notFound = financeStub(client, 2L, null);
+        when(notFound.startUpdate("approve", WorkflowUpdateStage.ACCEPTED, FinanceResponse.class, "manager"))
+                .thenThrow(mock(WorkflowNotFoundException.class));
+        financeStub(client, 3L, CompletableFuture.failedFuture(new TimeoutException()));
+        financeStub(client, 4L, CompletableFuture.failedFuture(mock(WorkflowUpdateException.class)));
+        financeStub(client, 5L, new CompletableFuture<>());
+        WorkflowStub decided = financeStub(client, 6L, null);
+        WorkflowUpdateException refused = mock(WorkflowUpdateException.class);
+        when(refused.getCause()).thenReturn(ApplicationFailure.newFailure("Finance has already been decided",
+                IllegalStateException.class.getName()));
+        when(decided.startUpdate("approve", WorkflowUpdateStage.ACCEPTED, FinanceResponse.class, "manager")).thenThrow(refused);
+
+        List<FinanceDecisionResult> results = decisionService.approveAll(List.of(1L, 2L, 3L, 4L, 5L, 6L, 1L), "manager")
+                .join();
+        decisionService.shutdown();
+
+        // duplicates are decided once, results keep the request order
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), results.stream().map(FinanceDecisionResult::getCustomerOrderId).toList());
+        assertEquals(List.of("COMPLETED", "FAILED", "PENDING", "FAILED", "PENDING", "FAILED"),
+                results.stream().map(FinanceDecisionResult::getStatus).toList());
+        assertSame(approved, results.get(0).getFinance());
+        assertEquals("No running finance workflow for order ID: 2", results.get(1).getMessage());
+        assertEquals("Decision accepted, workflow still deciding", results.get(2).getMessage());
+        assertTrue(results.get(3).getMessage().startsWith("Finance decision failed"));
+        assertEquals("Decision accepted, workflow still deciding", results.get(4).getMessage());
+        assertNull(results.get(4).getFinance());
+        assertEquals("Decision refused: Finance has already been decided", results.get(5).getMessage());
+    }
+
+    @Test
+    void approveAll_ShouldReportAFinanceDecidedMeanwhileAsFailed() {
+        logger.info("Starting test: approveAll_ShouldReportAFinanceDecidedMeanwhileAsFailed");
+        TestWorkflowEnvironment testEnv = TestWorkflowEnvironment.newInstance(
+                TestEnvironmentOptions.newBuilder().setUseTimeskipping(false).build());
+        Worker worker = testEnv.newWorker(TemporalWorkerConfig.FINANCE_TASK_QUEUE);
+        worker.registerWorkflowImplementationTypes(FinanceWorkflowImpl.class);
+        worker.registerActivitiesImplementations(new TestFinanceActivities());
+        testEnv.start();
+        TestFinanceActivities.approving = new CountDownLatch(1);
+        FinanceDecisionService decisionService = new FinanceDecisionService(testEnv.getWorkflowClient());
+        ReflectionTestUtils.setField(decisionService, "deadlineSeconds", 5L);
+        ReflectionTestUtils.setField(decisionService, "maxOrders", 10);
+        try {
+            // order 7 is still being approved by a single decision when the bulk rejection arrives
+            FinanceWorkflow approving = startFinanceWorkflow(testEnv, 7L);
+            startFinanceWorkflow(testEnv, 8L);
+            approving.approveFinance("officer");
+
+            List<FinanceDecisionResult> results = decisionService.rejectAll(List.of(7L, 8L), "manager").join();
+            TestFinanceActivities.approving.countDown();
+
+            assertEquals(List.of("FAILED", "COMPLETED"), results.stream().map(FinanceDecisionResult::getStatus).toList());
+            assertEquals("Decision refused: Finance has already been decided", results.get(0).getMessage());
+            assertEquals(FinanceStatus.REJECTED, results.get(1).getFinance().getFinanceStatus());
+            assertEquals(FinanceStatus.APPROVED,
+                    WorkflowStub.fromTyped(approving).getResult(FinanceResponse.class).getFinanceStatus());
+        } finally {
+            TestFinanceActivities.approving.countDown();
+            decisionService.shutdown();
+            testEnv.close();
+        }
+    }
+
+    @Test
+    void approveAll_ShouldRejectMoreOrdersThanTheLimit() {
+        logger.info("Starting test: approveAll_ShouldRejectMoreOrdersThanTheLimit");
+        FinanceDecisionService decisionService = new FinanceDecisionService(mock(WorkflowClient.class));
+        ReflectionTestUtils.setField(decisionService, "maxOrders", 2);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> decisionService.approveAll(List.of(1L, 2L, 3L), "manager"));
+        decisionService.shutdown();
+
+        assertEquals("At most 2 orders can be decided at once, got 3", exception.getMessage());
+    }
+
+    private WorkflowStub financeStub(WorkflowClient client, Long customerOrderId, CompletableFuture<FinanceResponse> result) {
+        WorkflowStub stub = mock(WorkflowStub.class);
+        when(client.newUntypedWorkflowStub("finance-" + customerOrderId)).thenReturn(stub);
+        if (result != null) {
+            @SuppressWarnings("unchecked")
+            UpdateHandle<FinanceResponse> handle = mock(UpdateHandle.class);
+            when(stub.startUpdate("approve", WorkflowUpdateStage.ACCEPTED, FinanceResponse.class, "manager")).thenReturn(handle);
+            when(handle.getResultAsync(anyLong(), eq(TimeUnit.NANOSECONDS))).thenReturn(result);
+        }
+        return stub;
+    }
+
+    @Test
+    void approveFinance_ShouldAnswerConflictOnlyWhenTheValidatorRefusesADecidedFinance() {
+        logger.info("Starting test: approveFinance_ShouldAnswerConflictOnlyWhenTheValidatorRefusesADecidedFinance");
+        ApproveFinanceRequest request = new ApproveFinanceRequest();
+        request.setCustomerOrderId(1L);
+        request.setApprovedBy("officer");
+        WorkflowUpdateException refused = mock(WorkflowUpdateException.class);
+        when(refused.getCause()).thenReturn(ApplicationFailure.newFailure("Finance has already been decided",
+                IllegalStateException.class.getName()));
+        WorkflowUpdateException failed = mock(WorkflowUpdateException.class);
+        when(failed.getCause()).thenReturn(mock(ActivityFailure.class));
+        when(financeDecisionService.approve(1L, "officer"))
+                .thenThrow(refused)
+                .thenThrow(failed)
+                .thenThrow(mock(WorkflowExecutionAlreadyStarted.class));
+
+        assertEquals(HttpStatus.CONFLICT, financeController.approveFinance(request).getStatusCode());
+        // an activity failure while deciding is not a conflict
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, financeController.approveFinance(request).getStatusCode());
+        // the finished workflow already decided it
+        ResponseEntity<ApiResponse<FinanceResponse>> closed = financeController.approveFinance(request);
+        assertEquals(HttpStatus.CONFLICT, closed.getStatusCode());
+        assertEquals("Failed to approve finance: Finance has already been decided for order ID: 1", closed.getBody().getStatusMessage());
+    }
+
+    @Test
+    void financeWorkflow_ShouldDecideThroughUpdatesAndRefuseASecondDecision() throws Exception {
+        logger.info("Starting test: financeWorkflow_ShouldDecideThroughUpdatesAndRefuseASecondDecision");
+        TestWorkflowEnvironment testEnv = TestWorkflowEnvironment.newInstance(
+                TestEnvironmentOptions.newBuilder().setUseTimeskipping(false).build());
+        Worker worker = testEnv.newWorker(TemporalWorkerConfig.FINANCE_TASK_QUEUE);
+        worker.registerWorkflowImplementationTypes(FinanceWorkflowImpl.class);
+        worker.registerActivitiesImplementations(new TestFinanceActivities());
+        testEnv.start();
+        TestFinanceActivities.approving = new CountDownLatch(0);
+        try {
+            FinanceWorkflow updated = startFinanceWorkflow(testEnv, 1L);
+            WorkflowUpdateException blank = assertThrows(WorkflowUpdateException.class, () -> updated.approve(" "));
+            assertEquals(IllegalArgumentException.class.getName(), ((ApplicationFailure) blank.getCause()).getType());
+            FinanceResponse approved = updated.approve("manager");
+            assertEquals(FinanceStatus.APPROVED, approved.getFinanceStatus());
+            assertEquals(OrderStatus.ALLOTTED, approved.getOrderStatus());
+            assertEquals(FinanceStatus.APPROVED, WorkflowStub.fromTyped(updated).getResult(FinanceResponse.class).getFinanceStatus());
+
+            // a signal decision is still approving when the update arrives
+            TestFinanceActivities.approving = new CountDownLatch(1);
+            FinanceWorkflow signalled = startFinanceWorkflow(testEnv, 2L);
+            signalled.approveFinance("manager");
+            WorkflowUpdateException decided = assertThrows(WorkflowUpdateException.class, () -> signalled.reject("officer"));
+            assertEquals(IllegalStateException.class.getName(), ((ApplicationFailure) decided.getCause()).getType());
+            TestFinanceActivities.approving.countDown();
+            assertEquals(FinanceStatus.APPROVED, WorkflowStub.fromTyped(signalled).getResult(FinanceResponse.class).getFinanceStatus());
+
+            // deciding order 1 again must not start a new finance run over the finished one
+            FinanceDecisionService decisionService = new FinanceDecisionService(testEnv.getWorkflowClient());
+            ReflectionTestUtils.setField(decisionService, "decisionTimeoutSeconds", 5L);
+            assertThrows(WorkflowExecutionAlreadyStarted.class, () -> decisionService.reject(1L, "officer"));
+            decisionService.shutdown();
+        } finally {
+            TestFinanceActivities.approving.countDown();
+            testEnv.close();
+        }
+    }
+
+    @Test
+    void financeWorkflow_ShouldReplayHistoryRecordedBeforeTheUpdateHandlers() throws Exception {
+        logger.info("Starting test: financeWorkflow_ShouldReplayHistoryRecordedBeforeTheUpdateHandlers");
+        TestWorkflowEnvironment testEnv = TestWorkflowEnvironment.newInstance(
+                TestEnvironmentOptions.newBuilder().setUseTimeskipping(false).build());
+        Worker worker = testEnv.newWorker(TemporalWorkerConfig.FINANCE_TASK_QUEUE);
+        worker.registerWorkflowImplementationFactory(FinanceWorkflow.class, PreUpdateFinanceWorkflow::new);
+        worker.registerActivitiesImplementations(new TestFinanceActivities());
+        testEnv.start();
+        TestFinanceActivities.approving = new CountDownLatch(0);
+        try {
+            FinanceWorkflow workflow = startFinanceWorkflow(testEnv, 3L);
+            workflow.approveFinance("manager");
+            WorkflowStub.fromTyped(workflow).getResult(FinanceResponse.class);
+
+            // no finance-without-precheck marker in this history, so the current code must take the status check path
+            WorkflowReplayer.replayWorkflowExecution(testEnv.getWorkflowClient().fetchHistory("finance-3"),
+                    FinanceWorkflowImpl.class);
+        } finally {
+            testEnv.close();
+        }
+    }
+
+    private FinanceWorkflow startFinanceWorkflow(TestWorkflowEnvironment testEnv, Long customerOrderId) {
+        FinanceWorkflow workflow = testEnv.getWorkflowClient().newWorkflowStub(FinanceWorkflow.class, WorkflowOptions.newBuilder()
+                .setTaskQueue(TemporalWorkerConfig.FINANCE_TASK_QUEUE)
+                .setWorkflowId("finance-" + customerOrderId)
+                .build());
+        FinanceRequest request = new FinanceRequest();
+        request.setCustomerOrderId(customerOrderId);
+        WorkflowClient.start(workflow::processFinance, request);
+        return workflow;
+    }
+
+    // Finance details that start PENDING; approving waits for the latch so a test can act while it runs, and
+    // records who approved.
+    public static class TestFinanceActivities implements FinanceActivities {
+
+        static volatile CountDownLatch approving = new CountDownLatch(0);
+        static final List<String> approvals = new CopyOnWriteArrayList<>();
+
+        @Override
+        public FinanceResponse createFinanceDetails(FinanceRequest request) {
+            return finance(request.getCustomerOrderId(), FinanceStatus.PENDING);
+        }
+
+        @Override
+        public FinanceResponse getFinanceDetails(Long customerOrderId) {
+            return finance(customerOrderId, FinanceStatus.PENDING);
+        }
+
+        @Override
+        public FinanceResponse approveFinance(Long customerOrderId, String approvedBy) {
+            try {
+                approving.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            approvals.add(approvedBy);
+            return finance(customerOrderId, FinanceStatus.APPROVED);
+        }
+
+        @Override
+        public FinanceResponse rejectFinance(Long customerOrderId, String rejectedBy) {
+            return finance(customerOrderId, FinanceStatus.REJECTED);
+        }
+
+        private FinanceResponse finance(Long customerOrderId, FinanceStatus financeStatus) {
+            FinanceResponse response = new FinanceResponse();
+            response.setCustomerOrderId(customerOrderId);
+            response.setFinanceStatus(financeStatus);
+            return response;
+        }
+    }
+
+    // The finance workflow as it ran before the update handlers: check the status, then wait for a signal.
+    public static class PreUpdateFinanceWorkflow implements FinanceWorkflow {
+
+        private final FinanceActivities activities = Workflow.newActivityStub(FinanceActivities.class,
+                ActivityOptions.newBuilder()
+                        .setStartToCloseTimeout(Duration.ofSeconds(30))
+                        .setRetryOptions(RetryOptions.newBuilder()
+                                .setInitialInterval(Duration.ofSeconds(1))
+                                .setMaximumAttempts(3)
+                                .build())
+                        .build());
+        private String approvedBy;
+        private String rejectedBy;
+
+        @Override
+        public FinanceResponse processFinance(FinanceRequest financeRequest) {
+            FinanceResponse response = activities.getFinanceDetails(financeRequest.getCustomerOrderId());
+            if (response.getFinanceStatus() != FinanceStatus.PENDING) {
+                return response;
+            }
+            Workflow.await(Duration.ofDays(7), () -> approvedBy != null || rejectedBy != null);
+            if (approvedBy != null) {
+                response = activities.approveFinance(financeRequest.getCustomerOrderId(), approvedBy);
+                response.setOrderStatus(OrderStatus.ALLOTTED);
+            } else if (rejectedBy != null) {
+                response = activities.rejectFinance(financeRequest.getCustomerOrderId(), rejectedBy);
+                response.setOrderStatus(OrderStatus.PENDING);
+            } else {
+                response = activities.rejectFinance(financeRequest.getCustomerOrderId(), "SYSTEM_TIMEOUT");
+                response.setFinanceStatus(FinanceStatus.REJECTED);
+                response.setOrderStatus(OrderStatus.PENDING);
+            }
+            return response;
+        }
+
+        @Override
+        public void approveFinance(String approvedBy) {
+            this.approvedBy = approvedBy;
+        }
+
+        @Override
+        public void rejectFinance(String rejectedBy) {
+            this.rejectedBy = rejectedBy;
+        }
+
+        @Override
+        public FinanceResponse approve(String approvedBy) {
+            throw new UnsupportedOperationException("No update handlers before the change");
+        }
+
+        @Override
+        public void validateApprove(String approvedBy) {
+        }
+
+        @Override
+        public FinanceResponse reject(String rejectedBy) {
+            throw new UnsupportedOperationException("No update handlers before the change");
+        }
+
+        @Override
+        public void validateReject(String rejectedBy) {
+        }
+
+        @Override
+        public WorkflowStatusResponse getStatus() {
+            return new WorkflowStatusResponse();
+        }
+    }
+
+    @Test
+    void getStatus_ShouldStopAtTheFirstRunningWorkflowWithAnOrderStatus() {
+        logger.info("Starting test: getStatus_ShouldStopAtTheFirstRunningWorkflowWithAnOrderStatus");
+        WorkflowClient queryClient = mock(WorkflowClient.class);
+        VehicleOrderService orderService = mock(VehicleOrderService.class);
+        OrderStatusQueryService statusQueryService = new OrderStatusQueryService(workflowClient, orderService);
+        ReflectionTestUtils.setField(statusQueryService, "queryClient", queryClient);
+        WorkflowStub lifecycle = mock(WorkflowStub.class);
+        when(queryClient.newUntypedWorkflowStub("order-lifecycle-1")).thenReturn(lifecycle);
+        when(lifecycle.query("getStatus", WorkflowStatusResponse.class)).thenThrow(mock(WorkflowNotFoundException.class));
+        WorkflowStub dispatch = mock(WorkflowStub.class);
+        when(queryClient.newUntypedWorkflowStub("dispatch-delivery-1")).thenReturn(dispatch);
+        // running, but not yet at an order status
+        when(dispatch.query("getStatus", WorkflowStatusResponse.class)).thenReturn(new WorkflowStatusResponse());
+        WorkflowStub finance = mock(WorkflowStub.class);
+        when(queryClient.newUntypedWorkflowStub("finance-1")).thenReturn(finance);
+        WorkflowStatusResponse financeStatus = new WorkflowStatusResponse();
+        financeStatus.setOrderStatus(OrderStatus.ALLOTTED);
+        when(finance.query("getStatus", WorkflowStatusResponse.class)).thenReturn(financeStatus);
+
+        OrderLiveStatusResponse response = statusQueryService.getStatus(1L);
+
+        assertEquals("WORKFLOW", response.getSource());
+        assertEquals(OrderStatus.ALLOTTED, response.getOrderStatus());
+        assertEquals(List.of("dispatch-delivery-1", "finance-1"), List.copyOf(response.getWorkflows().keySet()));
+        verify(queryClient, never()).newUntypedWorkflowStub("order-1");
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void orderLifecycle_ShouldMoveThroughTheStagesAcrossContinueAsNewIgnoringOutOfStageSignals() throws Exception {
+        logger.info("Starting test: orderLifecycle_ShouldMoveThroughTheStagesAcrossContinueAsNewIgnoringOutOfStageSignals");
+        TestWorkflowEnvironment testEnv = lifecycleTestEnvironment();
+        TestFinanceActivities.approving = new CountDownLatch(0);
+        TestFinanceActivities.approvals.clear();
+        try {
+            // small enough that the run continues as new while the order waits on finance
+            OrderLifecycleWorkflow workflow = startLifecycle(testEnv, 1L, 25);
+            awaitStage(workflow, "AWAITING_FINANCE");
+            // not at the finance decision yet, so this approval must not decide it later
+            workflow.approveFinance("too-early");
+            workflow.requestFinance(lifecycleFinanceRequest(1L));
+            awaitStage(workflow, "AWAITING_FINANCE_DECISION");
+            workflow.requestDispatch(lifecycleDispatchRequest(1L, "too-early"));
+            workflow.approveFinance("manager");
+            awaitStage(workflow, "AWAITING_DISPATCH");
+            workflow.requestDispatch(lifecycleDispatchRequest(1L, "dispatcher"));
+            awaitStage(workflow, "AWAITING_DELIVERY");
+            DeliveryRequest deliveryRequest = new DeliveryRequest();
+            deliveryRequest.setCustomerOrderId(1L);
+            deliveryRequest.setDeliveredBy("driver");
+            workflow.confirmDelivery(deliveryRequest);
+
+            WorkflowStatusResponse result = WorkflowStub.fromTyped(workflow).getResult(WorkflowStatusResponse.class);
+
+            assertEquals("DELIVERED", result.getStage());
+            assertEquals(OrderStatus.DELIVERED, result.getOrderStatus());
+            assertEquals(List.of("manager"), TestFinanceActivities.approvals);
+            assertEquals(List.of("dispatcher"), TestDispatchDeliveryActivities.dispatchedBy);
+            // the result came from a later run than the one that was started
+            assertFalse(testEnv.getWorkflowClient().fetchHistory(OrderLifecycleService.workflowId(1L)).getEvents().get(0)
+                    .getWorkflowExecutionStartedEventAttributes().getContinuedExecutionRunId().isEmpty());
+        } finally {
+            testEnv.close();
+        }
+    }
+
+    @Test
+    void orderLifecycle_ShouldCancelAnOrderWaitingOnFinance() throws Exception {
+        logger.info("Starting test: orderLifecycle_ShouldCancelAnOrderWaitingOnFinance");
+        TestWorkflowEnvironment testEnv = lifecycleTestEnvironment();
+        try {
+            OrderLifecycleWorkflow workflow = startLifecycle(testEnv, 2L, 2000);
+            awaitStage(workflow, "AWAITING_FINANCE");
+            assertEquals(OrderStatus.BLOCKED, workflow.getStatus().getOrderStatus());
+
+            workflow.cancelOrder(2L);
+            WorkflowStatusResponse result = WorkflowStub.fromTyped(workflow).getResult(WorkflowStatusResponse.class);
+
+            assertEquals("CANCELED", result.getStage());
+            assertEquals(OrderStatus.CANCELED, result.getOrderStatus());
+            assertEquals("cancelOrder", result.getLastActivity());
+        } finally {
+            testEnv.close();
+        }
+    }
+
+    private TestWorkflowEnvironment lifecycleTestEnvironment() {
+        TestWorkflowEnvironment testEnv = TestWorkflowEnvironment.newInstance(
+                TestEnvironmentOptions.newBuilder().setUseTimeskipping(false).build());
+        Worker orderWorker = testEnv.newWorker(TemporalWorkerConfig.VEHICLE_ORDER_TASK_QUEUE);
+        orderWorker.registerWorkflowImplementationTypes(OrderLifecycleWorkflowImpl.class);
+        orderWorker.registerActivitiesImplementations(new TestOrderActivities());
+        testEnv.newWorker(TemporalWorkerConfig.FINANCE_TASK_QUEUE).registerActivitiesImplementations(new TestFinanceActivities());
+        TestDispatchDeliveryActivities.dispatchedBy.clear();
+        testEnv.newWorker(TemporalWorkerConfig.DISPATCH_DELIVERY_TASK_QUEUE)
+                .registerActivitiesImplementations(new TestDispatchDeliveryActivities());
+        testEnv.start();
+        return testEnv;
+    }
+
+    private OrderLifecycleWorkflow startLifecycle(TestWorkflowEnvironment testEnv, Long customerOrderId, int maxHistoryEvents) {
+        OrderLifecycleWorkflow workflow = testEnv.getWorkflowClient().newWorkflowStub(OrderLifecycleWorkflow.class,
+                WorkflowOptions.newBuilder()
+                        .setTaskQueue(TemporalWorkerConfig.VEHICLE_ORDER_TASK_QUEUE)
+                        .setWorkflowId(OrderLifecycleService.workflowId(customerOrderId))
+                        .build());
+        OrderRequest request = new OrderRequest();
+        request.setCustomerName("Asha");
+        request.setModelName("Model X");
+        WorkflowClient.start(workflow::run, new OrderLifecycleState(customerOrderId, request, maxHistoryEvents));
+        return testEnv.getWorkflowClient().newWorkflowStub(OrderLifecycleWorkflow.class,
+                OrderLifecycleService.workflowId(customerOrderId));
+    }
+
+    private void awaitStage(OrderLifecycleWorkflow workflow, String stage) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!stage.equals(workflow.getStatus().getStage())) {
+            assertTrue(System.nanoTime() < deadline, "Order lifecycle never reached stage " + stage);
+            Thread.sleep(50);
+        }
+    }
+
+    private FinanceRequest lifecycleFinanceRequest(Long customerOrderId) {
+        FinanceRequest request = new FinanceRequest();
+        request.setCustomerOrderId(customerOrderId);
+        return request;
+    }
+
+    private DispatchRequest lifecycleDispatchRequest(Long customerOrderId, String dispatchedBy) {
+        DispatchRequest request = new DispatchRequest();
+        request.setCustomerOrderId(customerOrderId);
+        request.setDispatchedBy(dispatchedBy);
+        return request;
+    }
+
+    // Blocks stock for every order and cancels any order.
+    public static class TestOrderActivities implements VehicleOrderActivities {
+
+        @Override
+        public void saveOrderDetails(VehicleOrderDetails vehicleOrderDetails) {
+        }
+
+        @Override
+        public OrderResponse checkStockAvailability(OrderRequest orderRequest) {
+            return orderResponse(OrderStatus.BLOCKED);
+        }
+
+        @Override
+        public OrderResponse confirmOrder(OrderResponse orderResponse) {
+            return orderResponse;
+        }
+
+        @Override
+        public OrderResponse cancelOrder(Long customerOrderId) {
+            return orderResponse(OrderStatus.CANCELED);
+        }
+
+        @Override
+        public void updateOrderStatus(Long customerOrderId, OrderStatus orderStatus) {
+        }
+
+        private OrderResponse orderResponse(OrderStatus orderStatus) {
+            OrderResponse response = new OrderResponse();
+            response.setOrderStatus(orderStatus);
+            return response;
+        }
+    }
+
+    // Dispatches and delivers every order, recording who dispatched.
+    public static class TestDispatchDeliveryActivities implements DispatchDeliveryActivities {
+
+        static final List<String> dispatchedBy = new CopyOnWriteArrayList<>();
+
+        @Override
+        public DispatchResponse initiateDispatch(DispatchRequest request) {
+            dispatchedBy.add(request.getDispatchedBy());
+            DispatchResponse response = new DispatchResponse();
+            response.setCustomerOrderId(request.getCustomerOrderId());
+            response.setOrderStatus(OrderStatus.DISPATCHED);
+            return response;
+        }
+
+        @Override
+        public DeliveryResponse confirmDelivery(DeliveryRequest request) {
+            DeliveryResponse response = new DeliveryResponse();
+            response.setCustomerOrderId(request.getCustomerOrderId());
+            response.setOrderStatus(OrderStatus.DELIVERED);
+            return response;
+        }
+
+        @Override
+        public Optional<VehicleOrderDetails> getVehicleOrderDetails(Long orderId) {
+            return Optional.empty();
+        }
+    }
+
+    @Test
+    void cancelOrder_ShouldAnswerNotFoundOnlyForAMissingOrder() {
+        logger.info("Starting test: cancelOrder_ShouldAnswerNotFoundOnlyForAMissingOrder");
+        VehicleOrderWorkflow workflow = mock(VehicleOrderWorkflow.class);
+        when(workflowClient.newWorkflowStub(VehicleOrderWorkflow.class, "order-5")).thenReturn(workflow);
+        doThrow(mock(WorkflowNotFoundException.class)).when(workflow).cancelOrder(5L);
+        OrderLifecycleService lifecycleService = mock(OrderLifecycleService.class);
+        doThrow(mock(WorkflowNotFoundException.class)).when(lifecycleService).cancel(5L);
+        VehicleOrderService orderService = mock(VehicleOrderService.class);
+        when(orderService.cancelOrder(5L))
+                .thenThrow(new OrderNotFoundException(5L))
+                .thenThrow(new RuntimeException("Connection refused"));
+        ReflectionTestUtils.setField(vehicleOrderController, "orderLifecycleService", lifecycleService);
+        ReflectionTestUtils.setField(vehicleOrderController, "vehicleOrderService", orderService);
+
+        ResponseEntity<ApiResponse> missing = vehicleOrderController.cancelOrder(5L);
+        ResponseEntity<ApiResponse> failed = vehicleOrderController.cancelOrder(5L);
+
+        assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+        assertEquals("Order not found with ID: 5", missing.getBody().getStatusMessage());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, failed.getStatusCode());
+        assertEquals("Failed to cancel order: Connection refused", failed.getBody().getStatusMessage());
+    }
+
+    @Test
+    void placeOrder_ShouldCancelOnceDuringTheStockCheckAndReplayTheEarlierDoubleCancel() throws Exception {
+        logger.info("Starting test: placeOrder_ShouldCancelOnceDuringTheStockCheckAndReplayTheEarlierDoubleCancel");
+        TestWorkflowEnvironment testEnv = TestWorkflowEnvironment.newInstance(
+                TestEnvironmentOptions.newBuilder().setUseTimeskipping(false).build());
+        Worker legacyWorker = testEnv.newWorker("pre-single-cancel-task-queue");
+        legacyWorker.registerWorkflowImplementationFactory(VehicleOrderWorkflow.class, PreSingleCancelOrderWorkflow::new);
+        legacyWorker.registerActivitiesImplementations(new CancelDuringStockCheckActivities());
+        Worker worker = testEnv.newWorker(TemporalWorkerConfig.VEHICLE_ORDER_TASK_QUEUE);
+        worker.registerWorkflowImplementationTypes(VehicleOrderWorkflowImpl.class);
+        worker.registerActivitiesImplementations(new CancelDuringStockCheckActivities());
+        testEnv.start();
+        try {
+            assertEquals(2, cancelDuringStockCheck(testEnv, "pre-single-cancel-task-queue", "order-7"));
+            // the earlier history has no single-cancel-during-stock-check marker and must replay with both cancels
+            WorkflowReplayer.replayWorkflowExecution(testEnv.getWorkflowClient().fetchHistory("order-7"),
+                    VehicleOrderWorkflowImpl.class);
+
+            assertEquals(1, cancelDuringStockCheck(testEnv, TemporalWorkerConfig.VEHICLE_ORDER_TASK_QUEUE, "order-8"));
+        } finally {
+            CancelDuringStockCheckActivities.checking.countDown();
+            testEnv.close();
+        }
+    }
+
+    // signals the cancel while the stock check is still running and returns how many times the order was canceled
+    private int cancelDuringStockCheck(TestWorkflowEnvironment testEnv, String taskQueue, String workflowId) {
+        CancelDuringStockCheckActivities.checking = new CountDownLatch(1);
+        CancelDuringStockCheckActivities.cancels.set(0);
+        VehicleOrderWorkflow workflow = testEnv.getWorkflowClient().newWorkflowStub(VehicleOrderWorkflow.class,
+                WorkflowOptions.newBuilder().setTaskQueue(taskQueue).setWorkflowId(workflowId).build());
+        OrderRequest request = new OrderRequest();
+        request.setCustomerName("Asha");
+        WorkflowClient.start(workflow::placeOrder, request);
+        workflow.cancelOrder(Long.valueOf(workflowId.split("-")[1]));
+        CancelDuringStockCheckActivities.checking.countDown();
+        assertEquals(OrderStatus.CANCELED, WorkflowStub.fromTyped(workflow).getResult(OrderResponse.class).getOrderStatus());
+        return CancelDuringStockCheckActivities.cancels.get();
+    }
+
+    // Leaves the order PENDING once the test lets the stock check finish, and counts the cancels.
+    public static class CancelDuringStockCheckActivities extends TestOrderActivities {
+
+        static volatile CountDownLatch checking = new CountDownLatch(0);
+        static final AtomicInteger cancels = new AtomicInteger();
+
+        @Override
+        public OrderResponse checkStockAvailability(OrderRequest orderRequest) {
+            try {
+                checking.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            OrderResponse response = new OrderResponse();
+            response.setOrderStatus(OrderStatus.PENDING);
+            return response;
+        }
+
+        @Override
+        public OrderResponse cancelOrder(Long customerOrderId) {
+            cancels.incrementAndGet();
+            return super.cancelOrder(customerOrderId);
+        }
+    }
+
+    // placeOrder as it ran before a cancel during the stock check was made to cancel only once.
+    static class PreSingleCancelOrderWorkflow implements VehicleOrderWorkflow {
+
+        private final VehicleOrderActivities activities = Workflow.newActivityStub(VehicleOrderActivities.class,
+                ActivityOptions.newBuilder()
+                        .setStartToCloseTimeout(Duration.ofSeconds(30))
+                        .setRetryOptions(RetryOptions.newBuilder()
+                                .setInitialInterval(Duration.ofSeconds(1))
+                                .setMaximumAttempts(3)
+                                .build())
+                        .build());
+        private boolean isCanceled = false;
+
+        @Override
+        public OrderResponse placeOrder(OrderRequest orderRequest) {
+            OrderResponse response = null;
+            try {
+                response = activities.checkStockAvailability(orderRequest);
+                if (isCanceled) {
+                    return activities.cancelOrder(Long.valueOf(Workflow.getInfo().getWorkflowId().split("-")[1]));
+                }
+                return response;
+            } catch (Exception e) {
+                response = new OrderResponse();
+                response.setOrderStatus(OrderStatus.PENDING);
+                return response;
+            } finally {
+                if (response != null && response.getOrderStatus() == OrderStatus.PENDING) {
+                    Workflow.await(Duration.ofHours(24), () -> isCanceled);
+                    if (isCanceled) {
+                        activities.cancelOrder(Long.valueOf(Workflow.getInfo().getWorkflowId().split("-")[1]));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void cancelOrder(Long customerOrderId) {
+            isCanceled = true;
+        }
+
+        @Override
+        public WorkflowStatusResponse getStatus() {
+            return new WorkflowStatusResponse();
+        }
+    }
+
+    @ActivityInterface
+    public interface DatabaseBoundActivities {
+        void query();
+    }
+
+    // a JDBC pool in miniature: a caller waits up to 250 ms for one of the connections, like Hikari's connection timeout
+    public static class PooledDatabaseActivities implements DatabaseBoundActivities {
+        private final Semaphore connections;
+        final AtomicInteger atPool = new AtomicInteger();
+        final AtomicInteger peakAtPool = new AtomicInteger();
+        final AtomicInteger onVirtualThreads = new AtomicInteger();
+
+        PooledDatabaseActivities(int connections) {
+            this.connections = new Semaphore(connections, true);
+        }
+
+        @Override
+        public void query() {
+            peakAtPool.accumulateAndGet(atPool.incrementAndGet(), Math::max);
+            try {
+                if (!connections.tryAcquire(250, TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("Connection is not available, request timed out after 250ms");
+                }
+                try {
+                    Thread.sleep(100);
+                } finally {
+                    connections.release();
+                }
+                if (Thread.currentThread().isVirtual()) {
+                    onVirtualThreads.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } finally {
+                atPool.decrementAndGet();
+            }
+        }
+    }
+
+    @WorkflowInterface
+    public interface ActivityFanOutWorkflow {
+        @WorkflowMethod
+        int run(int activities);
+    }
+
+    // starts every activity at once and counts the ones that completed
+    public static class ActivityFanOutWorkflowImpl implements ActivityFanOutWorkflow {
+        private final DatabaseBoundActivities activities = Workflow.newActivityStub(DatabaseBoundActivities.class,
+                ActivityOptions.newBuilder()
+                        .setStartToCloseTimeout(Duration.ofSeconds(30))
+                        .setRetryOptions(RetryOptions.newBuilder().setMaximumAttempts(1).build())
+                        .build());
+
+        @Override
+        public int run(int count) {
+            List<Promise<Void>> queries = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                queries.add(Async.procedure(activities::query));
+            }
+            int completed = 0;
+            for (Promise<Void> query : queries) {
+                try {
+                    query.get();
+                    completed++;
+                } catch (ActivityFailure e) {
+                    // connection timeout
+                }
+            }
+            return completed;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.vehicle.salesmanagement;
+
+import com.vehicle.salesmanagement.domain.entity.model.StockDetails;
+import com.vehicle.salesmanagement.domain.entity.model.VehicleModel;
+import com.vehicle.salesmanagement.domain.entity.model.VehicleVariant;
+import com.vehicle.salesmanagement.enums.StockStatus;
+import com.vehicle.salesmanagement.repository.StockDetailsRepository;
+import com.vehicle.salesmanagement.repository.VehicleModelRepository;
+import com.vehicle.salesmanagement.repository.VehicleVariantRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the stock repository queries against a real PostgreSQL, for the behaviour a mock cannot show (row locks,
+// conditional updates). Skipped where no Docker daemon is available.
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+// every booking commits on its own, as it does in the app, instead of inside one test transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockDetailsRepositoryIntegrationTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockDetailsRepositoryIntegrationTests.class);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.6");
+
+    @Autowired
+    private StockDetailsRepository stockRepository;
+    @Autowired
+    private VehicleModelRepository vehicleModelRepository;
+    @Autowired
+    private VehicleVariantRepository variantRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void decrementIfAvailable_ShouldNotOversellUnderConcurrentBookings() throws Exception {
+        logger.info("Starting test: decrementIfAvailable_ShouldNotOversellUnderConcurrentBookings");
+        StockDetails stock = saveStock(5);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return transaction.execute(status -> stockRepository.decrementIfAvailable(
+                        stock.getStockId(), 1, "Red", "Petrol", "Automatic"));
+            }));
+        }
+        start.countDown();
+
+        int blocked = 0;
+        for (Future<Integer> future : futures) {
+            blocked += future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        StockDetails depleted = stockRepository.findById(stock.getStockId()).orElseThrow();
+        logger.info("Blocked {} of 20 concurrent bookings against 5 units", blocked);
+        assertEquals(5, blocked);
+        assertEquals(0, depleted.getQuantity());
+        assertEquals(StockStatus.DEPLETED, depleted.getStockStatus());
+    }
+
+    @Test
+    void decrementIfAvailable_ShouldLeaveRowUntouchedWhenQuantityOrAttributesDoNotMatch() {
+        logger.info("Starting test: decrementIfAvailable_ShouldLeaveRowUntouchedWhenQuantityOrAttributesDoNotMatch");
+        StockDetails stock = saveStock(2);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        Integer tooMany = transaction.execute(status -> stockRepository.decrementIfAvailable(
+                stock.getStockId(), 3, "Red", "Petrol", "Automatic"));
+        Integer wrongColour = transaction.execute(status -> stockRepository.decrementIfAvailable(
+                stock.getStockId(), 1, "Blue", "Petrol", "Automatic"));
+
+        StockDetails unchanged = stockRepository.findById(stock.getStockId()).orElseThrow();
+        assertEquals(0, tooMany);
+        assertEquals(0, wrongColour);
+        assertEquals(2, unchanged.getQuantity());
+        assertEquals(StockStatus.AVAILABLE, unchanged.getStockStatus());
+    }
+
+    private StockDetails saveStock(int quantity) {
+        VehicleModel model = new VehicleModel();
+        model.setModelName("Model X");
+        model.setCreatedAt(LocalDateTime.now());
+        model = vehicleModelRepository.save(model);
+
+        VehicleVariant variant = new VehicleVariant();
+        variant.setVehicleModel(model);
+        variant.setVariant("Premium");
+        variant.setCreatedAt(LocalDateTime.now());
+        variant = variantRepository.save(variant);
+
+        StockDetails stock = new StockDetails();
+        stock.setVehicleModel(model);
+        stock.setVehicleVariant(variant);
+        stock.setVariant("Premium");
+        stock.setColour("Red");
+        stock.setFuelType("Petrol");
+        stock.setTransmissionType("Automatic");
+        stock.setQuantity(quantity);
+        stock.setStockStatus(StockStatus.AVAILABLE);
+        stock.setCreatedAt(LocalDateTime.now());
+        return stockRepository.save(stock);
+    }
+}
@@ -0,0 +1,128 @@
+package com.vehicle.salesmanagement;
+
+import com.vehicle.salesmanagement.domain.dto.apiresponse.VehicleFacetResponse;
+import com.vehicle.salesmanagement.domain.entity.model.VehicleModel;
+import com.vehicle.salesmanagement.domain.entity.model.VehicleVariant;
+import com.vehicle.salesmanagement.service.VehicleFacetService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the single-scan facet query (LATERAL unpivot, comma-separated colours, disjunctive filters) against a
+// real PostgreSQL. Skipped where no Docker daemon is available.
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class VehicleFacetServiceIntegrationTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleFacetServiceIntegrationTests.class);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.6");
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private VehicleFacetService vehicleFacetService;
+
+    @BeforeEach
+    void setUp() {
+        vehicleFacetService = new VehicleFacetService(jdbcTemplate);
+        VehicleModel modelX = persistModel("Model X");
+        VehicleModel modelY = persistModel("Model Y");
+        persistVariant(modelX, "LX", "Red, Blue", "Petrol", new BigDecimal("100.00"));
+        persistVariant(modelX, "ZX", "Red", "Diesel", new BigDecimal("120.00"));
+        persistVariant(modelY, "LX", "White", "Petrol", new BigDecimal("100.00"));
+        entityManager.flush();
+    }
+
+    @Test
+    void getFacets_ShouldCountEveryFacetValueInOneScan() {
+        logger.info("Starting test: getFacets_ShouldCountEveryFacetValueInOneScan");
+
+        VehicleFacetResponse response = vehicleFacetService.getFacets(Map.of());
+
+        assertEquals(Map.of(), response.getAppliedFilters());
+        assertEquals(List.of(value("Model X", 2), value("Model Y", 1)), response.getFacets().get("modelName"));
+        assertEquals(List.of(value("LX", 2), value("ZX", 1)), response.getFacets().get("variant"));
+        // comma-separated colours are split and trimmed, each counted once per variant
+        assertEquals(List.of(value("Red", 2), value("Blue", 1), value("White", 1)), response.getFacets().get("colour"));
+        assertEquals(List.of(value("Petrol", 2), value("Diesel", 1)), response.getFacets().get("fuelType"));
+        assertEquals(List.of(value("100.00", 2), value("120.00", 1)), response.getFacets().get("price"));
+        // facets without any value are still listed
+        assertEquals(List.of(), response.getFacets().get("bodyType"));
+    }
+
+    @Test
+    void getFacets_ShouldKeepSiblingValuesOfFilteredFacet() {
+        logger.info("Starting test: getFacets_ShouldKeepSiblingValuesOfFilteredFacet");
+
+        VehicleFacetResponse petrol = vehicleFacetService.getFacets(Map.of("fuelType", "Petrol"));
+
+        assertEquals(Map.of("fuelType", "Petrol"), petrol.getAppliedFilters());
+        assertEquals(List.of(value("Petrol", 2), value("Diesel", 1)), petrol.getFacets().get("fuelType"));
+        assertEquals(List.of(value("Model X", 1), value("Model Y", 1)), petrol.getFacets().get("modelName"));
+        assertEquals(List.of(value("Blue", 1), value("Red", 1), value("White", 1)), petrol.getFacets().get("colour"));
+
+        VehicleFacetResponse red = vehicleFacetService.getFacets(Map.of("colour", " Red ", "modelName", "Model X"));
+
+        assertEquals(List.of(value("Red", 2), value("Blue", 1)), red.getFacets().get("colour"));
+        assertEquals(List.of(value("Model X", 2)), red.getFacets().get("modelName"));
+        assertEquals(List.of(value("Diesel", 1), value("Petrol", 1)), red.getFacets().get("fuelType"));
+    }
+
+    @Test
+    void getFacets_ShouldRejectUnknownFacet() {
+        logger.info("Starting test: getFacets_ShouldRejectUnknownFacet");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> vehicleFacetService.getFacets(Map.of("vinNumber", "X1")));
+        assertEquals("Unknown facet: vinNumber", exception.getMessage());
+    }
+
+    private VehicleFacetResponse.FacetValue value(String value, long count) {
+        return new VehicleFacetResponse.FacetValue(value, count);
+    }
+
+    private VehicleModel persistModel(String modelName) {
+        VehicleModel model = new VehicleModel();
+        model.setModelName(modelName);
+        model.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(model);
+        return model;
+    }
+
+    private void persistVariant(VehicleModel model, String variantName, String colour, String fuelType, BigDecimal price) {
+        VehicleVariant variant = new VehicleVariant();
+        variant.setVehicleModel(model);
+        variant.setVariant(variantName);
+        variant.setColour(colour);
+        variant.setFuelType(fuelType);
+        variant.setPrice(price);
+        variant.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(variant);
+    }
+}